@@ -5,6 +5,7 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ScheduledFuture;
@@ -16,8 +17,10 @@ import my.dub.dlp_pilot.model.ExchangeName;
 import my.dub.dlp_pilot.service.ExchangeService;
 import my.dub.dlp_pilot.service.TestRunService;
 import my.dub.dlp_pilot.service.TradeService;
+import my.dub.dlp_pilot.service.client.ApiRateLimiter;
 import my.dub.dlp_pilot.service.impl.FileResultServiceImpl;
 import my.dub.dlp_pilot.util.DateUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
@@ -25,38 +28,55 @@ import org.springframework.scheduling.support.TaskUtils;
 import org.springframework.stereotype.Service;
 
 /**
- * Service for initiating core scheduled tasks.
+ * Service for initiating core scheduled tasks. Requests of all stages to an exchange are paced by permits of the shared
+ * {@link ApiRateLimiter}. Ticker polls reserve their permits ahead of refresh load steps, which take permits only when
+ * they are available for the priority of the symbol pair.
+ * <p>
+ * Checkpoints of the test run are saved periodically on test stage. In resume mode, the test run of the last checkpoint
+ * is resumed if it has not ended: the preload stage is skipped, and refresh load starts right away to load the bars
+ * missed while the application was down.
  */
 @Slf4j
 @Service
 public class ScheduledService implements InitializingBean {
 
+    private static final Duration BARS_PURGE_INTERVAL = Duration.ofHours(1);
+    // load steps dispatch requests only when a permit is available
+    private static final Duration LOAD_POLL_INTERVAL = Duration.ofMillis(50);
+
     private final ExchangeService exchangeService;
     private final TradeService tradeService;
     private final TestRunService testRunService;
     private final FileResultServiceImpl fileResultService;
     private final ParametersHolder parameters;
+    private final ApiRateLimiter rateLimiter;
 
     private final Map<ExchangeName, ScheduledFuture<?>> taskSchedulerLoadFutures = new ConcurrentHashMap<>();
     private final Map<ExchangeName, LocalDateTime> loadStartDateTimes = new ConcurrentHashMap<>();
     private final ThreadPoolTaskScheduler loadTaskScheduler = new ThreadPoolTaskScheduler();
 
     private CountDownLatch preloadCountDownLatch;
+    private boolean resumed;
 
     @Autowired
     public ScheduledService(ExchangeService exchangeService, TradeService tradeService, TestRunService testRunService,
-            FileResultServiceImpl fileResultService, ParametersHolder parameters) {
+            FileResultServiceImpl fileResultService, ParametersHolder parameters, ApiRateLimiter rateLimiter) {
         this.exchangeService = exchangeService;
         this.tradeService = tradeService;
         this.testRunService = testRunService;
         this.fileResultService = fileResultService;
         this.parameters = parameters;
+        this.rateLimiter = rateLimiter;
     }
 
     @Override
     public void afterPropertiesSet() {
         init();
-        startPreload();
+        if (resumed) {
+            startRefreshLoad();
+        } else {
+            startPreload();
+        }
         startTest();
     }
 
@@ -65,29 +85,23 @@ public class ScheduledService implements InitializingBean {
         if (exchanges == null || exchanges.size() < 2) {
             throw new IllegalArgumentException("There are no exchanges to work with!");
         }
-        testRunService.init();
+        resumed = parameters.isResumeTestRun() && testRunService.resume();
+        if (!resumed) {
+            testRunService.init();
+        }
     }
 
     private void startPreload() {
         log.info("#### STARTING PRELOAD! ####");
         Set<Exchange> exchanges = exchangeService.findAll();
         int exchangesCount = exchanges.size();
-        loadTaskScheduler.setPoolSize(exchangesCount);
-        loadTaskScheduler.setThreadNamePrefix("load-");
-        loadTaskScheduler.setErrorHandler(t -> {
-            log.error("Unexpected error occurred in scheduled task.", t);
-            log.warn("De La Porte is exiting prematurely!");
-            shutdownNow(loadTaskScheduler);
-            System.exit(-1);
-        });
-        loadTaskScheduler.initialize();
+        initLoadTaskScheduler(exchangesCount);
         preloadCountDownLatch = new CountDownLatch(exchangesCount);
         exchanges.forEach(exchange -> {
-            int opIntervalMillis = calculatePreloadFixedDelayInMillis(exchange);
-            log.info("Preload Operation interval set to {} ms for {} exchange", opIntervalMillis,
-                     exchange.getFullName());
+            log.info("Preload request rate limited to {} requests/min for {} exchange",
+                     Math.round(rateLimiter.getRequestsPerMin(exchange.getName())), exchange.getFullName());
             taskSchedulerLoadFutures.put(exchange.getName(), loadTaskScheduler
-                    .scheduleWithFixedDelay(runPreloadTask(exchange), Duration.ofMillis(opIntervalMillis)));
+                    .scheduleWithFixedDelay(runPreloadTask(exchange), LOAD_POLL_INTERVAL));
             loadStartDateTimes.put(exchange.getName(), LocalDateTime.now());
         });
         try {
@@ -103,6 +117,26 @@ public class ScheduledService implements InitializingBean {
         loadTaskScheduler.setErrorHandler(TaskUtils.LOG_AND_SUPPRESS_ERROR_HANDLER);
     }
 
+    private void startRefreshLoad() {
+        log.info("#### TEST RUN RESUMED, SKIPPING PRELOAD! ####");
+        Set<Exchange> exchanges = exchangeService.findAll();
+        initLoadTaskScheduler(exchanges.size());
+        loadTaskScheduler.setErrorHandler(TaskUtils.LOG_AND_SUPPRESS_ERROR_HANDLER);
+        exchanges.forEach(exchange -> loadTaskScheduler.schedule(runRefreshLoadTask(exchange), Instant.now()));
+    }
+
+    private void initLoadTaskScheduler(int exchangesCount) {
+        loadTaskScheduler.setPoolSize(exchangesCount);
+        loadTaskScheduler.setThreadNamePrefix("load-");
+        loadTaskScheduler.setErrorHandler(t -> {
+            log.error("Unexpected error occurred in scheduled task.", t);
+            log.warn("De La Porte is exiting prematurely!");
+            shutdownNow(loadTaskScheduler);
+            System.exit(-1);
+        });
+        loadTaskScheduler.initialize();
+    }
+
     private Runnable runPreloadTask(Exchange exchange) {
         return () -> {
             boolean finished = testRunService.runPreload(exchange);
@@ -121,25 +155,23 @@ public class ScheduledService implements InitializingBean {
             ExchangeName exchangeName = exchange.getName();
             loadStartDateTimes.putIfAbsent(exchangeName, LocalDateTime.now());
             boolean finished = testRunService.runRefreshLoad(exchangeName);
-            if (finished) {
-                taskSchedulerLoadFutures.remove(exchangeName).cancel(true);
-                testRunService.onRefreshLoadComplete(exchangeName, preloadCountDownLatch.getCount() == 0);
-                if (testRunService.checkTradeStopped() || testRunService.checkTestRunEnd()) {
-                    return;
-                }
-                setNextLoadTask(exchange);
+            if (!finished) {
+                loadTaskScheduler.schedule(runRefreshLoadTask(exchange), Instant.now().plus(LOAD_POLL_INTERVAL));
+                return;
             }
+            testRunService.onRefreshLoadComplete(exchangeName);
+            if (testRunService.checkTradeStopped() || testRunService.checkTestRunEnd()) {
+                return;
+            }
+            setNextLoadTask(exchange);
         };
     }
 
     private void setNextLoadTask(Exchange exchange) {
-        int opIntervalMillis = calculateRefreshLoadFixedDelayInMillis(exchange);
         ExchangeName exchangeName = exchange.getName();
         Instant taskStartTime = DateUtils.toInstant(
-                loadStartDateTimes.get(exchangeName).plus(parameters.getDataCaptureTimeFrame().getDuration()));
-        taskSchedulerLoadFutures.put(exchangeName, loadTaskScheduler
-                .scheduleWithFixedDelay(runRefreshLoadTask(exchange), taskStartTime,
-                                        Duration.ofMillis(opIntervalMillis)));
+                loadStartDateTimes.get(exchangeName).plus(parameters.getDataBaseTimeFrame().getDuration()));
+        loadTaskScheduler.schedule(runRefreshLoadTask(exchange), taskStartTime);
         loadStartDateTimes.remove(exchangeName);
     }
 
@@ -148,9 +180,12 @@ public class ScheduledService implements InitializingBean {
         fileResultService.init();
         log.info("#### STARTING TRADES TEST! ####");
         Set<Exchange> exchanges = exchangeService.findAll();
-        int exchangesCount = exchanges.size();
+        boolean purgeBars = !parameters.getBarsRetentionDuration().isZero();
+        boolean saveCheckpoints = StringUtils.isNotEmpty(parameters.getCheckpointFilePath());
+        // a thread per exchange and per periodic task, so that a slow periodic task never delays test iterations
+        int periodicTasksCount = 2 + (purgeBars ? 1 : 0) + (saveCheckpoints ? 1 : 0);
         ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
-        taskScheduler.setPoolSize(exchangesCount + 2);
+        taskScheduler.setPoolSize(exchanges.size() + periodicTasksCount);
         taskScheduler.setThreadNamePrefix("test_run-");
         taskScheduler.setErrorHandler(t -> {
             if (t instanceof TestRunEndException) {
@@ -167,12 +202,44 @@ public class ScheduledService implements InitializingBean {
         taskScheduler.initialize();
         exchanges.forEach(exchange -> {
             int opIntervalMillis = calculateTestRunFixedDelayInMillis(exchange);
-            log.info("Fixed Operation interval set to {} ms for {} exchange", opIntervalMillis, exchange.getFullName());
-            taskScheduler.scheduleWithFixedDelay(() -> testRunService.runTest(exchange.getName()),
-                                                 Duration.ofMillis(opIntervalMillis));
+            log.info("Minimal Operation interval set to {} ms for {} exchange", opIntervalMillis,
+                     exchange.getFullName());
+            scheduleTestRunTask(taskScheduler, exchange.getName(), Duration.ofMillis(opIntervalMillis));
         });
         taskScheduler.scheduleWithFixedDelay(fileResultService::write, Duration.ofSeconds(30));
         taskScheduler.scheduleWithFixedDelay(testRunService::checkExitFile, Duration.ofSeconds(60));
+        if (purgeBars) {
+            taskScheduler.scheduleWithFixedDelay(testRunService::purgeExpiredBars, BARS_PURGE_INTERVAL);
+        }
+        if (saveCheckpoints) {
+            taskScheduler.scheduleWithFixedDelay(testRunService::saveCheckpoint,
+                                                 parameters.getCheckpointIntervalDuration());
+        }
+    }
+
+    /**
+     * Schedule a single test stage iteration, rescheduling the next one as soon as the tickers of the current iteration
+     * are fetched, while they are still being processed. The next iteration waits for the minimal delay, or longer if
+     * no permit is available from the rate limiter. Iterations finish asynchronously, so no scheduler thread is held
+     * while waiting for the exchange response.
+     */
+    private void scheduleTestRunTask(ThreadPoolTaskScheduler taskScheduler, ExchangeName exchangeName,
+            Duration delay) {
+        taskScheduler.schedule(() -> {
+            CompletableFuture<Void> iteration = CompletableFuture.completedFuture(null);
+            try {
+                iteration = testRunService.runTest(exchangeName);
+            } finally {
+                iteration.whenComplete((result, t) -> {
+                    if (t != null) {
+                        log.error("Unexpected error occurred in scheduled task", t);
+                    }
+                    if (!taskScheduler.getScheduledExecutor().isShutdown()) {
+                        scheduleTestRunTask(taskScheduler, exchangeName, delay);
+                    }
+                });
+            }
+        }, Instant.now().plus(max(delay, rateLimiter.reserve(exchangeName))));
     }
 
     private void shutdownNow(ThreadPoolTaskScheduler taskScheduler) {
@@ -184,11 +251,7 @@ public class ScheduledService implements InitializingBean {
         return 60000 / exchange.getApiRequestsPerMin();
     }
 
-    private int calculatePreloadFixedDelayInMillis(Exchange exchange) {
-        return 60000 / exchange.getApiRequestsPerMinPreload();
-    }
-
-    private int calculateRefreshLoadFixedDelayInMillis(Exchange exchange) {
-        return 60000 / (exchange.getApiRequestsPerMinPreload() - exchange.getApiRequestsPerMin());
+    private Duration max(Duration first, Duration second) {
+        return first.compareTo(second) >= 0 ? first : second;
     }
 }
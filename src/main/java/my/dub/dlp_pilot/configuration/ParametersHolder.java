@@ -37,6 +37,18 @@ public class ParametersHolder implements InitializingBean {
     private String dataCapturePeriod;
     @Value("${price_data_capture_timeFrame}")
     private String dataCaptureTimeFrameParam;
+    @Value("${price_data_base_timeFrame:}")
+    private String dataBaseTimeFrameParam;
+    @Value("${price_data_full_scan_interval_duration:30S}")
+    private String fullScanInterval;
+    @Value("${price_data_preload_requests_in_flight:4}")
+    private int preloadRequestsInFlight;
+    @Value("${price_data_cache_dir_path:}")
+    private String barCacheDirPath;
+    @Value("${price_data_symbol_pairs_cache_file_path:}")
+    private String symbolPairsCacheFilePath;
+    @Value("${price_data_symbol_pairs_cache_ttl_duration:1D}")
+    private String symbolPairsCacheTtl;
 
     @Value("${trade_entry_profit_percentage}")
     private double entryProfitPercentageDouble;
@@ -62,6 +74,10 @@ public class ParametersHolder implements InitializingBean {
     private int parallelTradesNumber;
     @Value("${trade_suspense_after_detrimental_duration}")
     private String suspenseAfterDetrimentalTradeDurationParam;
+    @Value("${trade_persistence_batch_size:30}")
+    private int tradePersistenceBatchSize;
+    @Value("${trade_persistence_interval_duration:5S}")
+    private String tradePersistenceInterval;
 
     @Value("${test_run_duration}")
     private String testRunDurationParam;
@@ -75,16 +91,30 @@ public class ParametersHolder implements InitializingBean {
     private String exitDelay;
     @Value("${test_run_delete_bars_on_exit}")
     private boolean deleteBarsOnExit;
+    @Value("${test_run_bars_retention_duration:0}")
+    private String barsRetention;
+    @Value("${test_run_checkpoint_file_path:}")
+    private String checkpointFilePath;
+    @Value("${test_run_checkpoint_interval_duration:1M}")
+    private String checkpointInterval;
+    @Value("${test_run_resume:false}")
+    private boolean resumeTestRun;
 
     private Duration staleIntervalDuration;
     private Duration dataCapturePeriodDuration;
+    private Duration fullScanIntervalDuration;
+    private Duration symbolPairsCacheTtlDuration;
     private Duration profitPercentageDecreaseAfterDuration;
     private Duration tradeTimeoutDuration;
     private Duration suspenseAfterDetrimentalTradeDuration;
+    private Duration tradePersistenceIntervalDuration;
     private Duration testRunDuration;
     private Duration exitDelayDuration;
+    private Duration barsRetentionDuration;
+    private Duration checkpointIntervalDuration;
 
     private TimeFrame dataCaptureTimeFrame;
+    private TimeFrame dataBaseTimeFrame;
     private long profitPercentageDecreaseAfterDurationMillis;
     private BigDecimal entryProfitPercentage;
     private BigDecimal entryMinPercentageDiff;
@@ -133,11 +163,13 @@ public class ParametersHolder implements InitializingBean {
     }
 
     private void setDefaultValues() {
+        fullScanIntervalDuration = getDefaultDuration(fullScanIntervalDuration);
         profitPercentageDecreaseAfterDuration = getDefaultDuration(profitPercentageDecreaseAfterDuration);
         profitPercentageDecreaseAfterDurationMillis = profitPercentageDecreaseAfterDuration.toMillis();
         tradeTimeoutDuration = getDefaultDuration(tradeTimeoutDuration);
         suspenseAfterDetrimentalTradeDuration = getDefaultDuration(suspenseAfterDetrimentalTradeDuration);
         exitDelayDuration = getDefaultDuration(exitDelayDuration);
+        barsRetentionDuration = getDefaultDuration(barsRetentionDuration);
 
         entryProfitPercentage = BigDecimal.valueOf(entryProfitPercentageDouble);
         entryMinPercentageDiffDouble = entryMinPercentageDiffDouble > 0 ? entryMinPercentageDiffDouble : 0;
@@ -152,6 +184,8 @@ public class ParametersHolder implements InitializingBean {
         detrimentalCloseOnMaxPnlDiffPercentage = detrimentalCloseOnMaxPnlDiffPercentageDouble > 0 ? BigDecimal
                 .valueOf(detrimentalCloseOnMaxPnlDiffPercentageDouble) : BigDecimal.ZERO;
         parallelTradesNumber = parallelTradesNumber > 0 ? parallelTradesNumber : 0;
+        tradePersistenceBatchSize = tradePersistenceBatchSize > 0 ? tradePersistenceBatchSize : 1;
+        preloadRequestsInFlight = preloadRequestsInFlight > 0 ? preloadRequestsInFlight : 1;
         testRunDuration = parseDuration(testRunDurationParam.toUpperCase());
     }
 
@@ -159,11 +193,19 @@ public class ParametersHolder implements InitializingBean {
         staleIntervalDuration = parseDuration(staleInterval);
         dataCapturePeriodDuration = parseDuration(dataCapturePeriod);
         dataCaptureTimeFrame = TimeFrame.parse(dataCaptureTimeFrameParam);
+        dataBaseTimeFrame = StringUtils.isEmpty(dataBaseTimeFrameParam)
+                ? dataCaptureTimeFrame
+                : TimeFrame.parse(dataBaseTimeFrameParam);
+        fullScanIntervalDuration = parseDuration(fullScanInterval);
+        symbolPairsCacheTtlDuration = parseDuration(symbolPairsCacheTtl);
         profitPercentageDecreaseAfterDuration = parseDuration(profitPercentageDecreaseAfter);
         tradeTimeoutDuration = parseDuration(tradeTimeout);
         suspenseAfterDetrimentalTradeDuration = parseDuration(suspenseAfterDetrimentalTradeDurationParam);
+        tradePersistenceIntervalDuration = parseDuration(tradePersistenceInterval);
         testRunDuration = parseDuration(testRunDurationParam);
         exitDelayDuration = parseDuration(exitDelay);
+        barsRetentionDuration = parseDuration(barsRetention);
+        checkpointIntervalDuration = parseDuration(checkpointInterval);
     }
 
     private void validateInputParams() {
@@ -181,6 +223,17 @@ public class ParametersHolder implements InitializingBean {
         if (dataCapturePeriodDuration.compareTo(dataCaptureTimeFrame.getDuration()) < 0) {
             throw new IllegalArgumentException("Price data capture period should be > Price data capture TimeFrame!");
         }
+        if (dataBaseTimeFrame == null) {
+            throw new IllegalArgumentException(
+                    String.format("Price data base TimeFrame cannot be parsed! Valid values are: %s",
+                                  Arrays.stream(TimeFrame.values()).map(Enum::name).collect(Collectors.joining(", "))));
+        }
+        long captureTimeFrameMillis = dataCaptureTimeFrame.getDuration().toMillis();
+        long baseTimeFrameMillis = dataBaseTimeFrame.getDuration().toMillis();
+        if (captureTimeFrameMillis < baseTimeFrameMillis || captureTimeFrameMillis % baseTimeFrameMillis != 0) {
+            throw new IllegalArgumentException(
+                    "Price data capture TimeFrame should be a multiple of Price data base TimeFrame!");
+        }
         if (entryProfitPercentageDouble < 0.0d) {
             throw new IllegalArgumentException("Trade entry profit percentage cannot be < 0!");
         }
@@ -201,6 +254,9 @@ public class ParametersHolder implements InitializingBean {
         if (detrimentAmountPercentageDouble >= 100) {
             throw new IllegalArgumentException("Detrimental exit amount percentage cannot be >= 100!");
         }
+        if (isInvalidRequiredDurationParam(tradePersistenceIntervalDuration)) {
+            throw new IllegalArgumentException("Trade persistence interval should be > 0!");
+        }
         if (isInvalidRequiredDurationParam(testRunDuration)) {
             throw new IllegalArgumentException("Test Run Duration parameter should be > 0!");
         }
@@ -212,6 +268,32 @@ public class ParametersHolder implements InitializingBean {
                     String.format("Path to result dir parameter cannot be longer than %d chars!",
                                   Constants.FILE_PATH_PARAM_LENGTH));
         }
+        if (barCacheDirPath.length() > Constants.FILE_PATH_PARAM_LENGTH) {
+            throw new IllegalArgumentException(
+                    String.format("Path to price data cache dir parameter cannot be longer than %d chars!",
+                                  Constants.FILE_PATH_PARAM_LENGTH));
+        }
+        if (symbolPairsCacheFilePath.length() > Constants.FILE_PATH_PARAM_LENGTH) {
+            throw new IllegalArgumentException(
+                    String.format("Path to symbol pairs cache file parameter cannot be longer than %d chars!",
+                                  Constants.FILE_PATH_PARAM_LENGTH));
+        }
+        if (StringUtils.isNotEmpty(symbolPairsCacheFilePath)
+                && isInvalidRequiredDurationParam(symbolPairsCacheTtlDuration)) {
+            throw new IllegalArgumentException("Symbol pairs cache TTL should be > 0!");
+        }
+        if (checkpointFilePath.length() > Constants.FILE_PATH_PARAM_LENGTH) {
+            throw new IllegalArgumentException(
+                    String.format("Path to checkpoint file parameter cannot be longer than %d chars!",
+                                  Constants.FILE_PATH_PARAM_LENGTH));
+        }
+        if (StringUtils.isNotEmpty(checkpointFilePath) && isInvalidRequiredDurationParam(checkpointIntervalDuration)) {
+            throw new IllegalArgumentException("Test Run checkpoint interval should be > 0!");
+        }
+        if (resumeTestRun && StringUtils.isEmpty(checkpointFilePath)) {
+            throw new IllegalArgumentException(
+                    "Path to checkpoint file cannot be empty if Test Run resume is enabled!");
+        }
         if (StringUtils.isNotEmpty(forcedExitFilePath) && StringUtils.isBlank(exitCode)) {
             throw new IllegalArgumentException("Exit code cannot be empty if forced exit is enabled!");
         }
@@ -223,6 +305,15 @@ public class ParametersHolder implements InitializingBean {
         log.info("Price data stale interval:  {}", formatDuration(staleIntervalDuration));
         log.info("Price data capture period:  {}", formatDuration(dataCapturePeriodDuration));
         log.info("Price data capture timeFrame:  {}", dataCaptureTimeFrame);
+        log.info("Price data base timeFrame:  {}", dataBaseTimeFrame);
+        log.info("Price data full scan interval:  {}",
+                 fullScanIntervalDuration.isZero() ? "EVERY TICK" : formatDuration(fullScanIntervalDuration));
+        log.info("Price data preload requests in flight:  {}", preloadRequestsInFlight);
+        log.info("Price data cache dir path:  {}",
+                 StringUtils.isEmpty(barCacheDirPath) ? DISABLED_MESSAGE : barCacheDirPath);
+        log.info("Price data symbol pairs cache file path:  {}",
+                 StringUtils.isEmpty(symbolPairsCacheFilePath) ? DISABLED_MESSAGE : symbolPairsCacheFilePath);
+        log.info("Price data symbol pairs cache TTL:  {}", formatDuration(symbolPairsCacheTtlDuration));
         log.info("----------------------------------------");
         log.info("Trade entry amount (USD):  {}", entryAmount);
         log.info("Trade entry profit percentage:  {}", entryProfitPercentageDouble);
@@ -247,12 +338,20 @@ public class ParametersHolder implements InitializingBean {
         log.info("Trade suspense period after detrimental close:  {}", suspenseAfterDetrimentalTradeDuration.isZero()
                 ? DISABLED_MESSAGE
                 : formatDuration(suspenseAfterDetrimentalTradeDuration));
+        log.info("Trade persistence batch size:  {}", tradePersistenceBatchSize);
+        log.info("Trade persistence interval:  {}", formatDuration(tradePersistenceIntervalDuration));
         log.info("----------------------------------------");
         log.info("Test Run result file (.csv) path:  {}", pathToResultDir);
         log.info("Test Run force exit code:  {}", exitCode);
         log.info("Test Run force exit file path:  {}", forcedExitFilePath);
         log.info("Test Run delay on exit period:  {}", formatDuration(exitDelayDuration));
         log.info("Test Run delete bars on exit: {}", deleteBarsOnExit);
+        log.info("Test Run bars retention period:  {}",
+                 barsRetentionDuration.isZero() ? DISABLED_MESSAGE : formatDuration(barsRetentionDuration));
+        log.info("Test Run checkpoint file path:  {}",
+                 StringUtils.isEmpty(checkpointFilePath) ? DISABLED_MESSAGE : checkpointFilePath);
+        log.info("Test Run checkpoint interval:  {}", formatDuration(checkpointIntervalDuration));
+        log.info("Test Run resume from checkpoint:  {}", resumeTestRun);
         log.info("Test Run Duration:  {}\n", formatDuration(testRunDuration));
     }
 
@@ -15,6 +15,7 @@ import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
 import javax.validation.constraints.Digits;
 import javax.validation.constraints.NotNull;
 import lombok.Data;
@@ -25,7 +26,9 @@ import my.dub.dlp_pilot.model.dto.PriceData;
 
 @Data
 @Entity
-@Table(name = "bar")
+@Table(name = "bar", uniqueConstraints = @UniqueConstraint(name = "bar_test_run_pair_time_uindex",
+                                                           columnNames = {"test_run_id", "exchange_name", "base",
+                                                                          "target", "time_open"}))
 @NoArgsConstructor
 @EqualsAndHashCode(callSuper = true)
 public class Bar extends PriceData implements Serializable {
@@ -7,6 +7,7 @@ import static my.dub.dlp_pilot.Constants.PRICE_SCALE;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -20,20 +21,26 @@ import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToOne;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
 import javax.validation.constraints.Digits;
 import javax.validation.constraints.NotNull;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.ToString;
 import my.dub.dlp_pilot.util.DateUtils;
 
 @Data
 @NoArgsConstructor
 @Entity
-@Table(name = "trade")
+@Table(name = "trade", uniqueConstraints = @UniqueConstraint(name = "trade_test_run_local_id_uindex",
+                                                               columnNames = {"test_run_id", "local_id"}))
 public class Trade implements Serializable {
     private static final long serialVersionUID = 40L;
+    private static final AtomicReferenceFieldUpdater<Trade, TradeState> STATE_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(Trade.class, TradeState.class, "state");
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -115,16 +122,46 @@ public class Trade implements Serializable {
     @Column(name = "written_to_file", nullable = false, columnDefinition = "tinyint default 0")
     private Boolean writtenToFile;
 
-    // for local storage
-    private transient Long localId;
+    // id in local storage, unique within a test run to reject duplicate saves of the same trade
+    @Column(name = "local_id", updatable = false)
+    @EqualsAndHashCode.Exclude
+    private Long localId;
 
     private transient boolean detrimentalSync;
 
+    @Setter(AccessLevel.NONE)
+    private transient volatile TradeState state = TradeState.IN_PROGRESS;
+
     public void setPositions(Position shortPosition, Position longPosition) {
         positionShort = shortPosition;
         positionLong = longPosition;
     }
 
+    /**
+     * Atomically move the trade from {@link TradeState#IN_PROGRESS} to {@link TradeState#CLOSING} state.
+     *
+     * @return <code>true</code> if the calling thread should close the trade, <code>false</code> if it is already
+     * being closed or closed by another thread
+     */
+    public boolean startClosing() {
+        return STATE_UPDATER.compareAndSet(this, TradeState.IN_PROGRESS, TradeState.CLOSING);
+    }
+
+    /**
+     * Return the trade from {@link TradeState#CLOSING} back to {@link TradeState#IN_PROGRESS} state, after a failed
+     * close.
+     */
+    public void cancelClosing() {
+        STATE_UPDATER.compareAndSet(this, TradeState.CLOSING, TradeState.IN_PROGRESS);
+    }
+
+    /**
+     * Move the trade from {@link TradeState#CLOSING} to {@link TradeState#CLOSED} state.
+     */
+    public void markClosed() {
+        STATE_UPDATER.compareAndSet(this, TradeState.CLOSING, TradeState.CLOSED);
+    }
+
     public String getPair() {
         return base + DEFAULT_PAIR_DELIMITER + target;
     }
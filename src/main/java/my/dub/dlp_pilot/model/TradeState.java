@@ -0,0 +1,10 @@
+package my.dub.dlp_pilot.model;
+
+/**
+ * Lifecycle state of an open {@link Trade}, kept in memory only.
+ */
+public enum TradeState {
+    IN_PROGRESS,
+    CLOSING,
+    CLOSED
+}
@@ -20,4 +20,11 @@ public class BarAverage extends PriceData {
         this.lastCloseTime = lastCloseTime;
         this.averagePrice = BigDecimal.valueOf(averagePrice);
     }
+
+    public BarAverage(ExchangeName exchangeName, String base, String target, Instant lastCloseTime,
+            BigDecimal averagePrice) {
+        super(exchangeName, base, target);
+        this.lastCloseTime = lastCloseTime;
+        this.averagePrice = averagePrice;
+    }
 }
@@ -1,5 +1,6 @@
 package my.dub.dlp_pilot.model.dto;
 
+import java.io.Serializable;
 import java.time.Instant;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -7,7 +8,8 @@ import my.dub.dlp_pilot.model.ExchangeName;
 
 @Data
 @AllArgsConstructor
-public class DetrimentalRecord {
+public class DetrimentalRecord implements Serializable {
+    private static final long serialVersionUID = 60L;
 
     private ExchangeName exchangeShort;
 
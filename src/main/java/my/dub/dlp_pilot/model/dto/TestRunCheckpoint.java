@@ -0,0 +1,29 @@
+package my.dub.dlp_pilot.model.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import my.dub.dlp_pilot.model.TestRun;
+
+/**
+ * A snapshot of the in-memory state of a {@link TestRun} not persisted to DB: snapshots of trades not closed yet,
+ * detrimental records, and the next local ID of trades.
+ */
+@Data
+@AllArgsConstructor
+public class TestRunCheckpoint implements Serializable {
+    private static final long serialVersionUID = 62L;
+
+    private Long testRunId;
+
+    private Instant createdTime;
+
+    private List<TradeSnapshot> trades;
+
+    private Set<DetrimentalRecord> detrimentalRecords;
+
+    private long nextTradeLocalId;
+}
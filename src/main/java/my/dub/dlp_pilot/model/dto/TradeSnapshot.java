@@ -0,0 +1,95 @@
+package my.dub.dlp_pilot.model.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import lombok.Value;
+import my.dub.dlp_pilot.model.ExchangeName;
+import my.dub.dlp_pilot.model.Position;
+import my.dub.dlp_pilot.model.PositionSide;
+import my.dub.dlp_pilot.model.Trade;
+import my.dub.dlp_pilot.model.TradeState;
+
+/**
+ * An immutable copy of a {@link Trade} not closed yet, holding the fields set when the trade was opened and the PnL
+ * extremums of its positions. The fields set when the trade is closed are not copied, as a trade is reopened on
+ * restore.
+ */
+@Value
+public class TradeSnapshot implements Serializable {
+    private static final long serialVersionUID = 64L;
+
+    Long localId;
+
+    String base;
+
+    String target;
+
+    BigDecimal fixedExpensesUsd;
+
+    Instant startTime;
+
+    BigDecimal entryPercentageDiff;
+
+    BigDecimal averagePriceDiff;
+
+    BigDecimal openPriceDiff;
+
+    boolean detrimentalSync;
+
+    PositionSnapshot positionShort;
+
+    PositionSnapshot positionLong;
+
+    /**
+     * Copy a trade within a single {@link TradeState} of it: the copy is taken again if the trade changed its state
+     * meanwhile, e.g. it was claimed for closing. Closing does not wait for the copy.
+     *
+     * @param trade
+     *         a non-null trade with non-null positions
+     *
+     * @return a new snapshot of the trade
+     */
+    public static TradeSnapshot of(Trade trade) {
+        TradeState state;
+        TradeSnapshot snapshot;
+        do {
+            state = trade.getState();
+            snapshot = new TradeSnapshot(trade.getLocalId(), trade.getBase(), trade.getTarget(),
+                                         trade.getFixedExpensesUsd(), trade.getStartTime(),
+                                         trade.getEntryPercentageDiff(), trade.getAveragePriceDiff(),
+                                         trade.getOpenPriceDiff(), trade.isDetrimentalSync(),
+                                         PositionSnapshot.of(trade.getPositionShort()),
+                                         PositionSnapshot.of(trade.getPositionLong()));
+        } while (trade.getState() != state);
+        return snapshot;
+    }
+
+    /**
+     * An immutable copy of a {@link Position} of a trade not closed yet.
+     */
+    @Value
+    public static class PositionSnapshot implements Serializable {
+        private static final long serialVersionUID = 66L;
+
+        PositionSide side;
+
+        ExchangeName exchangeName;
+
+        BigDecimal openPrice;
+
+        BigDecimal minPnlUsd;
+
+        Instant minPnlTime;
+
+        BigDecimal maxPnlUsd;
+
+        Instant maxPnlTime;
+
+        private static PositionSnapshot of(Position position) {
+            return new PositionSnapshot(position.getSide(), position.getExchange().getName(), position.getOpenPrice(),
+                                        position.getMinPnlUsd(), position.getMinPnlTime(), position.getMaxPnlUsd(),
+                                        position.getMaxPnlTime());
+        }
+    }
+}
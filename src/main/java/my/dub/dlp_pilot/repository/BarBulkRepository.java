@@ -0,0 +1,37 @@
+package my.dub.dlp_pilot.repository;
+
+import java.util.Collection;
+import my.dub.dlp_pilot.model.Bar;
+import my.dub.dlp_pilot.model.TestRun;
+import org.springframework.lang.NonNull;
+
+/**
+ * A repository fragment for bulk operations with {@link Bar} records, which bypass the persistence context.
+ */
+public interface BarBulkRepository {
+
+    /**
+     * Insert all passed {@link Bar}s with multi-row INSERT statements. Bars are not attached to the persistence context
+     * and do not get their generated IDs. Bars that duplicate an existing record (same test run, exchange, base, target
+     * and open time) are skipped.
+     *
+     * @param bars
+     *         a non-null collection of bars with non-null test run
+     *
+     * @return the number of inserted records
+     */
+    int insertAll(@NonNull Collection<Bar> bars);
+
+    /**
+     * Delete at most the specified number of {@link Bar} records that are related to a {@link TestRun} with a specific
+     * ID, without loading them.
+     *
+     * @param testRunId
+     *         a non-null ID of TestRun to filter on
+     * @param chunkSize
+     *         a positive maximum number of records to delete
+     *
+     * @return the number of deleted records, less than the chunk size if no matching records are left
+     */
+    int deleteChunkByTestRunId(@NonNull Long testRunId, int chunkSize);
+}
@@ -0,0 +1,85 @@
+package my.dub.dlp_pilot.repository;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.Iterables;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TimeZone;
+import javax.sql.DataSource;
+import my.dub.dlp_pilot.Constants;
+import my.dub.dlp_pilot.model.Bar;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.NonNull;
+
+/**
+ * JDBC implementation of {@link BarBulkRepository} fragment. {@link Bar} IDs are generated by the DB (IDENTITY), which
+ * disables Hibernate insert batching, so bars are written with plain multi-row INSERT statements instead.
+ */
+public class BarBulkRepositoryImpl implements BarBulkRepository {
+
+    private static final int ROWS_PER_STATEMENT = 500;
+    private static final String INSERT_PREFIX = "insert ignore into bar (exchange_name, base, target, open_price, "
+            + "high_price, low_price, close_price, volume, time_open, time_close, test_run_id) values ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_CHUNK = "delete from bar where test_run_id = ? limit ?";
+    // same as hibernate.jdbc.time_zone
+    private static final TimeZone TIME_ZONE = TimeZone.getTimeZone("UTC");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public BarBulkRepositoryImpl(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public int insertAll(@NonNull Collection<Bar> bars) {
+        checkNotNull(bars, Constants.NULL_ARGUMENT_MESSAGE, "bars");
+
+        int insertedCount = 0;
+        for (List<Bar> chunk : Iterables.partition(bars, ROWS_PER_STATEMENT)) {
+            String sql = INSERT_PREFIX + String.join(", ", Collections.nCopies(chunk.size(), ROW_PLACEHOLDERS));
+            insertedCount += jdbcTemplate.update(sql, ps -> setValues(ps, chunk));
+        }
+        return insertedCount;
+    }
+
+    @Override
+    public int deleteChunkByTestRunId(@NonNull Long testRunId, int chunkSize) {
+        checkNotNull(testRunId, Constants.NULL_ARGUMENT_MESSAGE, "testRunId");
+        checkArgument(chunkSize > 0, "Chunk size should be > 0!");
+
+        return jdbcTemplate.update(DELETE_CHUNK, testRunId, chunkSize);
+    }
+
+    private static void setValues(PreparedStatement ps, List<Bar> chunk) throws SQLException {
+        Calendar calendar = Calendar.getInstance(TIME_ZONE);
+        int index = 1;
+        for (Bar bar : chunk) {
+            ps.setString(index++, bar.getExchangeName().name());
+            ps.setString(index++, bar.getBase());
+            ps.setString(index++, bar.getTarget());
+            ps.setBigDecimal(index++, bar.getOpen());
+            ps.setBigDecimal(index++, bar.getHigh());
+            ps.setBigDecimal(index++, bar.getLow());
+            ps.setBigDecimal(index++, bar.getClose());
+            ps.setBigDecimal(index++, bar.getVolume());
+            ps.setTimestamp(index++, toTimestamp(bar.getOpenTime()), calendar);
+            ps.setTimestamp(index++, toTimestamp(bar.getCloseTime()), calendar);
+            ps.setLong(index++, bar.getTestRun().getId());
+        }
+    }
+
+    private static Timestamp toTimestamp(Instant instant) {
+        return instant != null ? Timestamp.from(instant) : null;
+    }
+}
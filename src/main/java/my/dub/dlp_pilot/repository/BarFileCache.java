@@ -0,0 +1,367 @@
+package my.dub.dlp_pilot.repository;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import my.dub.dlp_pilot.Constants;
+import my.dub.dlp_pilot.configuration.ParametersHolder;
+import my.dub.dlp_pilot.model.Bar;
+import my.dub.dlp_pilot.model.ExchangeName;
+import my.dub.dlp_pilot.model.TimeFrame;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * An on-disk cache of {@link Bar}s loaded from exchanges, shared by test runs. Bars are stored in a file per exchange,
+ * symbol pair and TimeFrame, as a sequence of appended blocks. A block holds the bars in columns: open time deltas,
+ * close time offsets, and open, high, low, close prices and volume as longs scaled by a per-block, per-column scale.
+ * Blocks of a file never overlap in time: appended bars within the time range of a cached block are skipped, and
+ * appended bars within a gap between cached blocks are written as a new block filling the gap.
+ * <p>
+ * Files are memory-mapped for reads. A block truncated by an interrupted write is dropped on the next access to the
+ * file. The cache is disabled if the price data cache dir path parameter is empty.
+ */
+@Slf4j
+@Component
+public class BarFileCache {
+
+    private static final String EXTENSION = ".bars";
+    // count, first and last open time, scales of the 5 value columns
+    private static final int HEADER_SIZE = Integer.BYTES + 2 * Long.BYTES + 5;
+    // open time delta, close time offset and 5 value columns
+    private static final int ROW_SIZE = 2 * Integer.BYTES + 5 * Long.BYTES;
+    private static final int MAX_LONG_DIGITS = 18;
+
+    private final Path cacheDir;
+    private final Map<Path, CacheFile> files = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BarFileCache(ParametersHolder parameters) {
+        String cacheDirPath = parameters.getBarCacheDirPath();
+        cacheDir = StringUtils.isEmpty(cacheDirPath) ? null : Path.of(cacheDirPath);
+    }
+
+    public boolean isEnabled() {
+        return cacheDir != null;
+    }
+
+    /**
+     * Read cached {@link Bar}s of a symbol pair on a specific exchange, opened within the time range.
+     *
+     * @param exchangeName
+     *         a non-null exchange name
+     * @param base
+     *         a non-null base of the symbol pair
+     * @param target
+     *         a non-null target of the symbol pair
+     * @param timeFrame
+     *         a non-null TimeFrame of the bars
+     * @param from
+     *         a non-null inclusive start of the range of open times
+     * @param to
+     *         a non-null exclusive end of the range of open times
+     *
+     * @return a non-null list of bars without a test run, ordered by open time, possibly empty
+     */
+    public List<Bar> read(@NonNull ExchangeName exchangeName, @NonNull String base, @NonNull String target,
+            @NonNull TimeFrame timeFrame, @NonNull Instant from, @NonNull Instant to) {
+        checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, "exchangeName");
+        checkNotNull(base, Constants.NULL_ARGUMENT_MESSAGE, "base");
+        checkNotNull(target, Constants.NULL_ARGUMENT_MESSAGE, "target");
+        checkNotNull(timeFrame, Constants.NULL_ARGUMENT_MESSAGE, "timeFrame");
+        checkNotNull(from, Constants.NULL_ARGUMENT_MESSAGE, "from");
+        checkNotNull(to, Constants.NULL_ARGUMENT_MESSAGE, "to");
+
+        if (!isEnabled()) {
+            return List.of();
+        }
+        Path path = getPath(exchangeName, base, target, timeFrame);
+        if (!Files.exists(path)) {
+            return List.of();
+        }
+        try {
+            return getFile(path).read(exchangeName, base, target, from.toEpochMilli(), to.toEpochMilli());
+        } catch (IOException e) {
+            log.warn("Unable to read bar cache file {}! Details: {}", path, e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Append {@link Bar}s to the files of their exchanges and symbol pairs. Bars not closed yet, and bars opened within
+     * the time range of a block already cached for the pair, are skipped.
+     *
+     * @param timeFrame
+     *         a non-null TimeFrame of the bars
+     * @param bars
+     *         a non-null collection of bars with non-null exchange name, base, target, prices and times
+     */
+    public void append(@NonNull TimeFrame timeFrame, @NonNull Collection<Bar> bars) {
+        checkNotNull(timeFrame, Constants.NULL_ARGUMENT_MESSAGE, "timeFrame");
+        checkNotNull(bars, Constants.NULL_ARGUMENT_MESSAGE, "bars");
+
+        if (!isEnabled() || bars.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        Map<Path, List<Bar>> barsByPath = bars.stream().filter(bar -> !bar.getCloseTime().isAfter(now))
+                .collect(Collectors.groupingBy(
+                        bar -> getPath(bar.getExchangeName(), bar.getBase(), bar.getTarget(), timeFrame)));
+        barsByPath.forEach((path, pathBars) -> {
+            try {
+                getFile(path).append(pathBars);
+            } catch (IOException e) {
+                log.warn("Unable to append {} bars to bar cache file {}! Details: {}", pathBars.size(), path,
+                         e.getMessage());
+            }
+        });
+    }
+
+    private Path getPath(ExchangeName exchangeName, String base, String target, TimeFrame timeFrame) {
+        String fileName = String.join("_", base, target, timeFrame.name()).replaceAll("[^A-Za-z0-9_.-]", "-");
+        return cacheDir.resolve(exchangeName.name()).resolve(fileName + EXTENSION);
+    }
+
+    private CacheFile getFile(Path path) {
+        return files.computeIfAbsent(path, CacheFile::new);
+    }
+
+    private static int getScale(List<Bar> bars, Function<Bar, BigDecimal> column, int maxScale) {
+        int integerDigits = bars.stream().map(column).mapToInt(value -> value.precision() - value.scale()).max()
+                .orElse(0);
+        return Math.max(0, Math.min(maxScale, MAX_LONG_DIGITS - integerDigits));
+    }
+
+    private static long toScaledLong(BigDecimal value, int scale) {
+        return value.setScale(scale, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static final class CacheFile {
+
+        private final Path path;
+
+        private boolean loaded;
+        // blocks of the file by their first open time, in millis
+        private final TreeMap<Long, Block> blocks = new TreeMap<>();
+        private long size;
+
+        private CacheFile(Path path) {
+            this.path = path;
+        }
+
+        private synchronized List<Bar> read(ExchangeName exchangeName, String base, String target, long from,
+                long to) throws IOException {
+            load();
+            List<Bar> bars = new ArrayList<>();
+            List<Block> overlappingBlocks = blocks.headMap(to, false).values().stream()
+                    .filter(block -> block.lastOpenTime >= from).collect(Collectors.toList());
+            if (overlappingBlocks.isEmpty()) {
+                return bars;
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                // only the blocks within the time range are mapped
+                for (Block block : overlappingBlocks) {
+                    MappedByteBuffer buffer =
+                            channel.map(FileChannel.MapMode.READ_ONLY, block.position, block.getSize());
+                    buffer.position(Integer.BYTES + 2 * Long.BYTES);
+                    readBlock(buffer, block.count, block.firstOpenTime, exchangeName, base, target, from, to, bars);
+                }
+            }
+            return bars;
+        }
+
+        private synchronized void append(List<Bar> bars) throws IOException {
+            load();
+            // bars outside of cached blocks, ordered by open time, without duplicates, grouped by the next cached
+            // block, so that a new block fills a gap between cached blocks and never overlaps them
+            Map<Long, TreeMap<Long, Bar>> barsByNextBlock = new TreeMap<>();
+            for (Bar bar : bars) {
+                long openTime = bar.getOpenTime().toEpochMilli();
+                Map.Entry<Long, Block> previous = blocks.floorEntry(openTime);
+                if (previous != null && previous.getValue().lastOpenTime >= openTime) {
+                    continue;
+                }
+                Long nextBlockKey = blocks.higherKey(openTime);
+                barsByNextBlock.computeIfAbsent(nextBlockKey == null ? Long.MAX_VALUE : nextBlockKey,
+                                                key -> new TreeMap<>()).putIfAbsent(openTime, bar);
+            }
+            if (barsByNextBlock.isEmpty()) {
+                return;
+            }
+            Files.createDirectories(path.getParent());
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                        StandardOpenOption.APPEND)) {
+                for (TreeMap<Long, Bar> gapBars : barsByNextBlock.values()) {
+                    writeBlocks(channel, new ArrayList<>(gapBars.values()));
+                }
+            }
+        }
+
+        private void readBlock(ByteBuffer buffer, int count, long blockFirstOpenTime, ExchangeName exchangeName,
+                String base, String target, long from, long to, List<Bar> bars) {
+            int[] scales = new int[5];
+            for (int i = 0; i < scales.length; i++) {
+                scales[i] = buffer.get();
+            }
+            int deltasStart = buffer.position();
+            int offsetsStart = deltasStart + count * Integer.BYTES;
+            int valuesStart = offsetsStart + count * Integer.BYTES;
+            long openTime = blockFirstOpenTime;
+            for (int row = 0; row < count; row++) {
+                openTime += buffer.getInt(deltasStart + row * Integer.BYTES);
+                if (openTime < from || openTime >= to) {
+                    continue;
+                }
+                Bar bar = new Bar(exchangeName, base, target);
+                bar.setOpenTime(Instant.ofEpochMilli(openTime));
+                bar.setCloseTime(Instant.ofEpochMilli(openTime + buffer.getInt(offsetsStart + row * Integer.BYTES)));
+                bar.setOpen(getValue(buffer, valuesStart, count, 0, row, scales));
+                bar.setHigh(getValue(buffer, valuesStart, count, 1, row, scales));
+                bar.setLow(getValue(buffer, valuesStart, count, 2, row, scales));
+                bar.setClose(getValue(buffer, valuesStart, count, 3, row, scales));
+                bar.setVolume(getValue(buffer, valuesStart, count, 4, row, scales));
+                bars.add(bar);
+            }
+        }
+
+        private BigDecimal getValue(ByteBuffer buffer, int valuesStart, int count, int column, int row,
+                int[] scales) {
+            long value = buffer.getLong(valuesStart + (column * count + row) * Long.BYTES);
+            return BigDecimal.valueOf(value, scales[column]);
+        }
+
+        private void writeBlocks(FileChannel channel, List<Bar> bars) throws IOException {
+            // a new block is started where the open time delta does not fit
+            int blockStart = 0;
+            for (int i = 1; i <= bars.size(); i++) {
+                if (i == bars.size() || getOpenTimeDelta(bars, i) > Integer.MAX_VALUE) {
+                    writeBlock(channel, bars.subList(blockStart, i));
+                    blockStart = i;
+                }
+            }
+        }
+
+        private void writeBlock(FileChannel channel, List<Bar> bars) throws IOException {
+            int count = bars.size();
+            long blockFirstOpenTime = bars.get(0).getOpenTime().toEpochMilli();
+            long blockLastOpenTime = bars.get(count - 1).getOpenTime().toEpochMilli();
+            ByteBuffer buffer;
+            try {
+                buffer = encodeBlock(bars, blockFirstOpenTime, blockLastOpenTime);
+            } catch (ArithmeticException e) {
+                log.warn("Block of {} bars skipped in bar cache file {}, values do not fit! Details: {}", count, path,
+                         e.getMessage());
+                return;
+            }
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            Block block = new Block(size, count, blockFirstOpenTime, blockLastOpenTime);
+            blocks.put(blockFirstOpenTime, block);
+            size += block.getSize();
+        }
+
+        private ByteBuffer encodeBlock(List<Bar> bars, long blockFirstOpenTime, long blockLastOpenTime) {
+            int count = bars.size();
+            int[] scales = {getScale(bars, Bar::getOpen, Constants.PRICE_SCALE),
+                            getScale(bars, Bar::getHigh, Constants.PRICE_SCALE),
+                            getScale(bars, Bar::getLow, Constants.PRICE_SCALE),
+                            getScale(bars, Bar::getClose, Constants.PRICE_SCALE),
+                            getScale(bars, Bar::getVolume, Constants.VOLUME_SCALE)};
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + count * ROW_SIZE);
+            buffer.putInt(count).putLong(blockFirstOpenTime).putLong(blockLastOpenTime);
+            for (int scale : scales) {
+                buffer.put((byte) scale);
+            }
+            for (int i = 0; i < count; i++) {
+                buffer.putInt(i == 0 ? 0 : (int) getOpenTimeDelta(bars, i));
+            }
+            for (Bar bar : bars) {
+                buffer.putInt((int) (bar.getCloseTime().toEpochMilli() - bar.getOpenTime().toEpochMilli()));
+            }
+            putColumn(buffer, bars, Bar::getOpen, scales[0]);
+            putColumn(buffer, bars, Bar::getHigh, scales[1]);
+            putColumn(buffer, bars, Bar::getLow, scales[2]);
+            putColumn(buffer, bars, Bar::getClose, scales[3]);
+            putColumn(buffer, bars, Bar::getVolume, scales[4]);
+            return buffer.flip();
+        }
+
+        private void putColumn(ByteBuffer buffer, List<Bar> bars, Function<Bar, BigDecimal> column, int scale) {
+            bars.forEach(bar -> buffer.putLong(toScaledLong(column.apply(bar), scale)));
+        }
+
+        private long getOpenTimeDelta(List<Bar> bars, int index) {
+            return bars.get(index).getOpenTime().toEpochMilli() - bars.get(index - 1).getOpenTime().toEpochMilli();
+        }
+
+        // reads the block index of the file once, dropping a truncated last block
+        private void load() throws IOException {
+            if (loaded) {
+                return;
+            }
+            loaded = true;
+            if (!Files.exists(path)) {
+                return;
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long fileSize = channel.size();
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                while (size + HEADER_SIZE <= fileSize) {
+                    header.clear();
+                    channel.read(header, size);
+                    header.flip();
+                    Block block = new Block(size, header.getInt(), header.getLong(), header.getLong());
+                    if (block.count <= 0 || size + block.getSize() > fileSize) {
+                        break;
+                    }
+                    blocks.put(block.firstOpenTime, block);
+                    size += block.getSize();
+                }
+                if (size < fileSize) {
+                    log.warn("Truncated block dropped from bar cache file {}", path);
+                    channel.truncate(size);
+                }
+            }
+        }
+    }
+
+    private static final class Block {
+
+        private final long position;
+        private final int count;
+        private final long firstOpenTime;
+        private final long lastOpenTime;
+
+        private Block(long position, int count, long firstOpenTime, long lastOpenTime) {
+            this.position = position;
+            this.count = count;
+            this.firstOpenTime = firstOpenTime;
+            this.lastOpenTime = lastOpenTime;
+        }
+
+        private long getSize() {
+            return HEADER_SIZE + (long) count * ROW_SIZE;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package my.dub.dlp_pilot.repository;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import my.dub.dlp_pilot.Constants;
+import my.dub.dlp_pilot.configuration.ParametersHolder;
+import my.dub.dlp_pilot.model.ExchangeName;
+import my.dub.dlp_pilot.model.dto.SymbolPair;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * An on-disk cache of all {@link SymbolPair}s fetched from exchanges, shared by test runs. The file holds a section per
+ * exchange: a header line with the exchange name, the fetch time and the number of symbol pairs, followed by a
+ * tab-separated line with base, target and name of each symbol pair. Sections fetched longer than the TTL ago are
+ * ignored on read.
+ * <p>
+ * The file is replaced atomically on write, so a read never sees a partially written file. The cache is disabled if
+ * the symbol pairs cache file path parameter is empty.
+ */
+@Slf4j
+@Component
+public class SymbolPairFileCache {
+
+    private static final String TEMP_EXTENSION = ".tmp";
+    private static final String SEPARATOR = "\t";
+
+    private final Path cachePath;
+    private final Duration ttl;
+
+    @Autowired
+    public SymbolPairFileCache(ParametersHolder parameters) {
+        String cacheFilePath = parameters.getSymbolPairsCacheFilePath();
+        cachePath = StringUtils.isEmpty(cacheFilePath) ? null : Path.of(cacheFilePath);
+        ttl = parameters.getSymbolPairsCacheTtlDuration();
+    }
+
+    public boolean isEnabled() {
+        return cachePath != null;
+    }
+
+    /**
+     * Read cached {@link SymbolPair}s of specific exchanges, fetched within the TTL.
+     *
+     * @param exchangeNames
+     *         a non-null collection of exchange names
+     *
+     * @return a non-null map of symbol pairs by exchange name, without the exchanges not cached or cached longer than
+     * the TTL ago
+     */
+    public Map<ExchangeName, List<SymbolPair>> read(@NonNull Collection<ExchangeName> exchangeNames) {
+        checkNotNull(exchangeNames, Constants.NULL_ARGUMENT_MESSAGE, "exchangeNames");
+
+        Map<ExchangeName, List<SymbolPair>> result = new EnumMap<>(ExchangeName.class);
+        if (!isEnabled()) {
+            return result;
+        }
+        Instant minFetchTime = Instant.now().minus(ttl);
+        readSections().forEach((exchangeName, section) -> {
+            if (exchangeNames.contains(exchangeName) && section.fetchTime.isAfter(minFetchTime)) {
+                result.put(exchangeName, section.symbolPairs);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Replace cached {@link SymbolPair}s of the exchanges present in the passed map, with the current time as their
+     * fetch time. Cached symbol pairs of other exchanges are kept.
+     *
+     * @param symbolPairs
+     *         a non-null map of fetched symbol pairs by exchange name
+     */
+    public synchronized void write(@NonNull Map<ExchangeName, List<SymbolPair>> symbolPairs) {
+        checkNotNull(symbolPairs, Constants.NULL_ARGUMENT_MESSAGE, "symbolPairs");
+
+        if (!isEnabled() || symbolPairs.isEmpty()) {
+            return;
+        }
+        Map<ExchangeName, Section> sections = readSections();
+        Instant now = Instant.now();
+        symbolPairs.forEach((exchangeName, pairs) -> sections.put(exchangeName, new Section(now, pairs)));
+        Path tempPath = cachePath.resolveSibling(cachePath.getFileName() + TEMP_EXTENSION);
+        try {
+            Path parentDir = cachePath.toAbsolutePath().getParent();
+            if (parentDir != null) {
+                Files.createDirectories(parentDir);
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8)) {
+                for (Map.Entry<ExchangeName, Section> entry : sections.entrySet()) {
+                    writeSection(writer, entry.getKey(), entry.getValue());
+                }
+            }
+            Files.move(tempPath, cachePath, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Unable to write symbol pairs cache file {}! Details: {}", cachePath, e.getMessage());
+        }
+    }
+
+    private Map<ExchangeName, Section> readSections() {
+        Map<ExchangeName, Section> sections = new EnumMap<>(ExchangeName.class);
+        if (!isEnabled() || !Files.exists(cachePath)) {
+            return sections;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(cachePath, StandardCharsets.UTF_8)) {
+            String header;
+            while ((header = reader.readLine()) != null) {
+                String[] headerValues = header.split(SEPARATOR);
+                ExchangeName exchangeName = ExchangeName.valueOf(headerValues[0]);
+                Instant fetchTime = Instant.ofEpochMilli(Long.parseLong(headerValues[1]));
+                int count = Integer.parseInt(headerValues[2]);
+                List<SymbolPair> symbolPairs = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    symbolPairs.add(readSymbolPair(exchangeName, reader.readLine()));
+                }
+                sections.put(exchangeName, new Section(fetchTime, symbolPairs));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unable to read symbol pairs cache file {}! Details: {}", cachePath, e.toString());
+            sections.clear();
+        }
+        return sections;
+    }
+
+    private SymbolPair readSymbolPair(ExchangeName exchangeName, String line) throws IOException {
+        if (line == null) {
+            throw new IOException("Unexpected end of file");
+        }
+        String[] values = line.split(SEPARATOR, -1);
+        if (values.length != 3) {
+            throw new IOException("Invalid symbol pair line: " + line);
+        }
+        SymbolPair symbolPair = new SymbolPair(exchangeName, values[2]);
+        symbolPair.setBase(values[0]);
+        symbolPair.setTarget(values[1]);
+        return symbolPair;
+    }
+
+    private void writeSection(BufferedWriter writer, ExchangeName exchangeName, Section section) throws IOException {
+        writer.write(String.join(SEPARATOR, exchangeName.name(), String.valueOf(section.fetchTime.toEpochMilli()),
+                                 String.valueOf(section.symbolPairs.size())));
+        writer.newLine();
+        for (SymbolPair symbolPair : section.symbolPairs) {
+            writer.write(String.join(SEPARATOR, symbolPair.getBase(), symbolPair.getTarget(), symbolPair.getName()));
+            writer.newLine();
+        }
+    }
+
+    private static final class Section {
+
+        private final Instant fetchTime;
+        private final List<SymbolPair> symbolPairs;
+
+        private Section(Instant fetchTime, List<SymbolPair> symbolPairs) {
+            this.fetchTime = fetchTime;
+            this.symbolPairs = symbolPairs;
+        }
+    }
+}
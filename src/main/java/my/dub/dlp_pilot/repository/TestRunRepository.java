@@ -1,7 +1,10 @@
 package my.dub.dlp_pilot.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import my.dub.dlp_pilot.model.TestRun;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +12,17 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface TestRunRepository extends CrudRepository<TestRun, Long> {
+
+    /**
+     * Get all {@link TestRun} records with {@link TestRun#getEndTime()} before the specified date-time, except the one
+     * with a specific ID.
+     *
+     * @param endTime
+     *         a non-null date-time to filter on
+     * @param id
+     *         a non-null ID of TestRun to exclude
+     *
+     * @return a list of filtered {@link TestRun} entities
+     */
+    List<TestRun> findAllByEndTimeBeforeAndIdNot(@NonNull LocalDateTime endTime, @NonNull Long id);
 }
@@ -1,15 +1,14 @@
 package my.dub.dlp_pilot.repository;
 
-import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
-import my.dub.dlp_pilot.model.Exchange;
-import my.dub.dlp_pilot.model.ExchangeName;
-import my.dub.dlp_pilot.model.Position;
+import java.util.Optional;
+import java.util.Set;
 import my.dub.dlp_pilot.model.TestRun;
 import my.dub.dlp_pilot.model.Trade;
-import my.dub.dlp_pilot.model.TradeResultType;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 
@@ -30,34 +29,30 @@ public interface TradeRepository extends CrudRepository<Trade, Long> {
      */
     List<Trade> findDistinctByWrittenToFileFalseAndTestRunIdEqualsOrderByEndTimeAsc(@NonNull Long testRunId);
 
-    // TODO: rework to ensure unique check (Instant not supported)
+    /**
+     * Get the max {@link Trade#getLocalId()} of {@link Trade} records related to a {@link TestRun} with a specific ID.
+     *
+     * @param testRunId
+     *         a non-null ID of TestRun to filter on
+     *
+     * @return the max local ID, or empty if no trades with local ID were saved for the test run
+     */
+    @Query("select max(t.localId) from Trade t where t.testRun.id = :testRunId")
+    Optional<Long> findMaxLocalIdByTestRunId(@NonNull @Param("testRunId") Long testRunId);
 
     /**
-     * Check if a record with values passed as parameters exists.
+     * Get the {@link Trade#getLocalId()} values among passed ones, of {@link Trade} records related to a
+     * {@link TestRun} with a specific ID.
      *
-     * @param base
-     *         a non-null String to filter on {@link Trade#getBase()}
-     * @param target
-     *         a non-null String to filter on {@link Trade#getTarget()}
-     * @param exchangeShort
-     *         a non-null ExchangeName to filter on related short {@link Position}'s {@link Exchange#getName()}
-     * @param exchangeLong
-     *         a non-null ExchangeName to filter on related long {@link Position}'s {@link Exchange#getName()}
-     * @param openPriceShort
-     *         a non-null BigDecimal to filter on related short {@link Position#getOpenPrice()}
-     * @param openPriceLong
-     *         a non-null BigDecimal to filter on related long {@link Position#getOpenPrice()}
-     * @param resultType
-     *         a non-null TradeResultType to filter on {@link Trade#getResultType()}
+     * @param testRunId
+     *         a non-null ID of TestRun to filter on
+     * @param localIds
+     *         a non-null, non-empty collection of local IDs to filter on
      *
-     * @return <code>true</code> if any match was found, <code>false</code> otherwise
+     * @return a set of local IDs of the saved trades
      */
-    @Query("select case when count(t)> 0 then true else false end from Trade t where t.base=:base"
-                   + " and t.target=:target and t.positionShort.exchange.name=:exchangeShort"
-                   + " and t.positionShort.openPrice=:openPriceShort and t.positionLong.exchange.name=:exchangeLong"
-                   + " and t.positionLong.openPrice=:openPriceLong and t.resultType=:resultType")
-    boolean checkSimilarExists(@NonNull String base, @NonNull String target, @NonNull ExchangeName exchangeShort,
-            @NonNull ExchangeName exchangeLong, @NonNull BigDecimal openPriceShort, @NonNull BigDecimal openPriceLong,
-            @NonNull TradeResultType resultType);
+    @Query("select t.localId from Trade t where t.testRun.id = :testRunId and t.localId in :localIds")
+    Set<Long> findLocalIdsByTestRunIdAndLocalIdIn(@NonNull @Param("testRunId") Long testRunId,
+            @NonNull @Param("localIds") Collection<Long> localIds);
 
 }
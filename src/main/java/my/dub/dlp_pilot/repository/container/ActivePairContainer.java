@@ -0,0 +1,76 @@
+package my.dub.dlp_pilot.repository.container;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import my.dub.dlp_pilot.Constants;
+import my.dub.dlp_pilot.model.ExchangeName;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * An in-memory container for the symbol pairs with a positive price difference between exchanges, which are close to a
+ * trade entry. The time a pair was last seen active is stored for each exchange, keyed by {@link
+ * my.dub.dlp_pilot.model.dto.PriceData#getPair()}. Records are overwritten, so the size of the container is bounded
+ * by the number of symbol pairs.
+ */
+@Component
+public class ActivePairContainer {
+
+    private final Map<ExchangeName, Map<String, Long>> activeTimes = new EnumMap<>(ExchangeName.class);
+
+    public ActivePairContainer() {
+        for (ExchangeName exchangeName : ExchangeName.values()) {
+            activeTimes.put(exchangeName, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Mark a symbol pair as active on 2 exchanges at the current time.
+     *
+     * @param base
+     *         a non-null base of the symbol pair
+     * @param target
+     *         a non-null target of the symbol pair
+     * @param exchange1
+     *         a non-null first exchange name
+     * @param exchange2
+     *         a non-null second exchange name
+     */
+    public void markActive(@NonNull String base, @NonNull String target, @NonNull ExchangeName exchange1,
+            @NonNull ExchangeName exchange2) {
+        checkNotNull(base, Constants.NULL_ARGUMENT_MESSAGE, "base");
+        checkNotNull(target, Constants.NULL_ARGUMENT_MESSAGE, "target");
+        checkNotNull(exchange1, Constants.NULL_ARGUMENT_MESSAGE, "exchange1");
+        checkNotNull(exchange2, Constants.NULL_ARGUMENT_MESSAGE, "exchange2");
+
+        String pair = base + Constants.DEFAULT_PAIR_DELIMITER + target;
+        long now = System.currentTimeMillis();
+        activeTimes.get(exchange1).put(pair, now);
+        activeTimes.get(exchange2).put(pair, now);
+    }
+
+    /**
+     * Get the symbol pairs active on a specific exchange since a specific time.
+     *
+     * @param exchangeName
+     *         a non-null exchange name
+     * @param since
+     *         a non-null earliest time of activity
+     *
+     * @return a non-null set of symbol pairs in the format of {@link my.dub.dlp_pilot.model.dto.PriceData#getPair()}
+     */
+    public Set<String> getActivePairs(@NonNull ExchangeName exchangeName, @NonNull Instant since) {
+        checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, "exchangeName");
+        checkNotNull(since, Constants.NULL_ARGUMENT_MESSAGE, "since");
+
+        long sinceMillis = since.toEpochMilli();
+        return activeTimes.get(exchangeName).entrySet().stream().filter(entry -> entry.getValue() >= sinceMillis)
+                .map(Map.Entry::getKey).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,268 @@
+package my.dub.dlp_pilot.repository.container;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import my.dub.dlp_pilot.Constants;
+import my.dub.dlp_pilot.configuration.ParametersHolder;
+import my.dub.dlp_pilot.model.Bar;
+import my.dub.dlp_pilot.model.ExchangeName;
+import my.dub.dlp_pilot.model.dto.BarAverage;
+import my.dub.dlp_pilot.model.dto.LastBar;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * A container of sliding-window aggregates of {@link Bar}s saved within the current test run, one per exchange and
+ * symbol pair. Bars are stored in the price data base TimeFrame. Each aggregate is a ring buffer of bar prices with one
+ * slot per base TimeFrame within the price data capture period. Adding a bar evicts the bars that fell out of the
+ * window ending at the latest bar of the pair, so {@link BarAverage}s are served from a bounded, fresh window without
+ * aggregating the stored bars.
+ * <p>
+ * The average price is the average typical price <pre>(High+Low+Close)/3</pre> of the buffered bars rolled up to the
+ * price data capture TimeFrame. The rollup is computed on demand and cached until the next bar of the pair is added.
+ */
+@Component
+public class BarAggregateContainer {
+
+    private final Map<ExchangeName, Map<String, BarAggregate>> aggregates = new EnumMap<>(ExchangeName.class);
+    private final long timeFrameMillis;
+    private final int rollupSize;
+    private final int windowSize;
+
+    @Autowired
+    public BarAggregateContainer(ParametersHolder parameters) {
+        timeFrameMillis = parameters.getDataBaseTimeFrame().getDuration().toMillis();
+        long captureTimeFrameMillis = parameters.getDataCaptureTimeFrame().getDuration().toMillis();
+        rollupSize = Math.toIntExact(Math.max(1, captureTimeFrameMillis / timeFrameMillis));
+        long capturePeriodMillis = parameters.getDataCapturePeriodDuration().toMillis();
+        // in capture TimeFrames
+        windowSize = Math.toIntExact(
+                Math.max(1, (capturePeriodMillis + captureTimeFrameMillis - 1) / captureTimeFrameMillis));
+        for (ExchangeName exchangeName : ExchangeName.values()) {
+            aggregates.put(exchangeName, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Add {@link Bar}s of the base TimeFrame to aggregates of their exchanges and symbol pairs. A bar opened within the
+     * same TimeFrame as an already added bar of the same exchange and pair, or opened before the current window of the
+     * pair, is skipped.
+     *
+     * @param bars
+     *         a non-null collection of bars with non-null exchange name, base, target, prices and close time
+     */
+    public void addBars(@NonNull Collection<Bar> bars) {
+        checkNotNull(bars, Constants.NULL_ARGUMENT_MESSAGE, "bars");
+
+        bars.forEach(bar -> aggregates.get(bar.getExchangeName())
+                .computeIfAbsent(bar.getPair(), pair -> new BarAggregate(bar, timeFrameMillis, rollupSize, windowSize))
+                .add(bar));
+    }
+
+    /**
+     * Get the average typical price of a symbol pair on a specific exchange within the current window, rolled up to
+     * the capture TimeFrame.
+     *
+     * @param exchangeName
+     *         a non-null exchange name
+     * @param base
+     *         a non-null base of the symbol pair
+     * @param target
+     *         a non-null target of the symbol pair
+     *
+     * @return the average price, or an empty optional if no bars were added for the pair
+     */
+    public Optional<BigDecimal> getAveragePrice(@NonNull ExchangeName exchangeName, @NonNull String base,
+            @NonNull String target) {
+        checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, "exchangeName");
+        checkNotNull(base, Constants.NULL_ARGUMENT_MESSAGE, "base");
+        checkNotNull(target, Constants.NULL_ARGUMENT_MESSAGE, "target");
+
+        BarAggregate aggregate = aggregates.get(exchangeName).get(base + Constants.DEFAULT_PAIR_DELIMITER + target);
+        return Optional.ofNullable(aggregate).map(BarAggregate::getAveragePrice);
+    }
+
+    /**
+     * Get {@link BarAverage}s of all exchanges.
+     *
+     * @return a non-null list of bar averages
+     */
+    public List<BarAverage> getBarAverages() {
+        return aggregates.values().stream().flatMap(exchangeAggregates -> exchangeAggregates.values().stream())
+                .map(BarAggregate::toBarAverage).collect(Collectors.toList());
+    }
+
+    /**
+     * Get {@link BarAverage}s of a specific exchange.
+     *
+     * @param exchangeName
+     *         a non-null exchange name
+     *
+     * @return a non-null list of bar averages
+     */
+    public List<BarAverage> getBarAverages(@NonNull ExchangeName exchangeName) {
+        checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, "exchangeName");
+
+        return aggregates.get(exchangeName).values().stream().map(BarAggregate::toBarAverage)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get {@link LastBar}s of a specific exchange.
+     *
+     * @param exchangeName
+     *         a non-null exchange name
+     *
+     * @return a non-null list of last bars
+     */
+    public List<LastBar> getLastBars(@NonNull ExchangeName exchangeName) {
+        checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, "exchangeName");
+
+        return aggregates.get(exchangeName).values().stream().map(BarAggregate::toLastBar)
+                .collect(Collectors.toList());
+    }
+
+    private static final class BarAggregate {
+
+        private static final BigDecimal TYPICAL_PRICE_COMPONENTS = BigDecimal.valueOf(3);
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private final ExchangeName exchangeName;
+        private final String base;
+        private final String target;
+        private final long timeFrameMillis;
+        // number of base TimeFrames in a capture TimeFrame
+        private final int rollupSize;
+        // base TimeFrame numbers (since epoch) of the buffered bars, and their prices, by slot
+        private final long[] slotTimeFrames;
+        private final BigDecimal[] slotHighs;
+        private final BigDecimal[] slotLows;
+        private final BigDecimal[] slotCloses;
+
+        private long latestTimeFrame = EMPTY;
+        private Instant lastCloseTime;
+        // reset on every added bar
+        private BigDecimal averagePrice;
+
+        private BarAggregate(Bar bar, long timeFrameMillis, int rollupSize, int windowSize) {
+            exchangeName = bar.getExchangeName();
+            base = bar.getBase();
+            target = bar.getTarget();
+            this.timeFrameMillis = timeFrameMillis;
+            this.rollupSize = rollupSize;
+            slotTimeFrames = new long[windowSize * rollupSize];
+            slotHighs = new BigDecimal[slotTimeFrames.length];
+            slotLows = new BigDecimal[slotTimeFrames.length];
+            slotCloses = new BigDecimal[slotTimeFrames.length];
+            Arrays.fill(slotTimeFrames, EMPTY);
+        }
+
+        private synchronized void add(Bar bar) {
+            Instant openTime = bar.getOpenTime() != null ? bar.getOpenTime() : bar.getCloseTime();
+            long timeFrame = Math.floorDiv(openTime.toEpochMilli(), timeFrameMillis);
+            if (latestTimeFrame != EMPTY && timeFrame <= latestTimeFrame - slotTimeFrames.length) {
+                return;
+            }
+            if (timeFrame > latestTimeFrame) {
+                advance(timeFrame);
+            }
+            int slot = slot(timeFrame);
+            if (slotTimeFrames[slot] == timeFrame) {
+                return;
+            }
+            slotTimeFrames[slot] = timeFrame;
+            slotHighs[slot] = bar.getHigh();
+            slotLows[slot] = bar.getLow();
+            slotCloses[slot] = bar.getClose();
+            averagePrice = null;
+            if (lastCloseTime == null || bar.getCloseTime().isAfter(lastCloseTime)) {
+                lastCloseTime = bar.getCloseTime();
+            }
+        }
+
+        private synchronized BigDecimal getAveragePrice() {
+            if (averagePrice == null) {
+                averagePrice = rollupAveragePrice();
+            }
+            return averagePrice;
+        }
+
+        private synchronized BarAverage toBarAverage() {
+            return new BarAverage(exchangeName, base, target, lastCloseTime, getAveragePrice());
+        }
+
+        private synchronized LastBar toLastBar() {
+            return new LastBar(exchangeName, base, target, lastCloseTime);
+        }
+
+        // rolls the buffered bars up to capture TimeFrames in time order, without creating intermediate bars
+        private BigDecimal rollupAveragePrice() {
+            long windowStartGroup = Math.floorDiv(latestTimeFrame, rollupSize) - slotTimeFrames.length / rollupSize + 1;
+            BigDecimal priceSum = BigDecimal.ZERO;
+            int count = 0;
+            long group = EMPTY;
+            BigDecimal high = null;
+            BigDecimal low = null;
+            BigDecimal close = null;
+            for (long timeFrame = latestTimeFrame - slotTimeFrames.length + 1; timeFrame <= latestTimeFrame;
+                    timeFrame++) {
+                int slot = slot(timeFrame);
+                long slotGroup = Math.floorDiv(timeFrame, rollupSize);
+                if (slotTimeFrames[slot] != timeFrame || slotGroup < windowStartGroup) {
+                    continue;
+                }
+                if (slotGroup != group) {
+                    if (group != EMPTY) {
+                        priceSum = priceSum.add(high).add(low).add(close);
+                        count++;
+                    }
+                    group = slotGroup;
+                    high = slotHighs[slot];
+                    low = slotLows[slot];
+                } else {
+                    high = high.max(slotHighs[slot]);
+                    low = low.min(slotLows[slot]);
+                }
+                close = slotCloses[slot];
+            }
+            priceSum = priceSum.add(high).add(low).add(close);
+            count++;
+            BigDecimal componentsCount = TYPICAL_PRICE_COMPONENTS.multiply(BigDecimal.valueOf(count));
+            return priceSum.divide(componentsCount, MathContext.DECIMAL64);
+        }
+
+        // slots of the TimeFrames passed since the latest one hold bars that are now out of the window
+        private void advance(long timeFrame) {
+            if (latestTimeFrame != EMPTY) {
+                long evictFrom = Math.max(latestTimeFrame + 1, timeFrame - slotTimeFrames.length + 1);
+                for (long evicted = evictFrom; evicted <= timeFrame; evicted++) {
+                    evict(slot(evicted));
+                }
+            }
+            latestTimeFrame = timeFrame;
+        }
+
+        private void evict(int slot) {
+            slotTimeFrames[slot] = EMPTY;
+            slotHighs[slot] = null;
+            slotLows[slot] = null;
+            slotCloses[slot] = null;
+        }
+
+        private int slot(long timeFrame) {
+            return Math.floorMod(timeFrame, slotTimeFrames.length);
+        }
+    }
+}
@@ -1,31 +1,34 @@
 package my.dub.dlp_pilot.repository.container;
 
-import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import my.dub.dlp_pilot.Constants;
 import my.dub.dlp_pilot.model.ExchangeName;
-import my.dub.dlp_pilot.model.dto.PriceData;
 import my.dub.dlp_pilot.model.dto.SymbolPair;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
-import org.springframework.util.CollectionUtils;
 
 /**
- * An in-memory container for {@link SymbolPair} objects. Uses a concurrent map implementation, where the key represents
- * the {@link ExchangeName}. NOTE: this container <b>allows duplicates</b>!
+ * An in-memory container for {@link SymbolPair} objects, grouped by {@link ExchangeName}. NOTE: this container
+ * <b>allows duplicates</b>!
+ * <p>
+ * Records of each exchange are kept as an immutable list, together with an immutable index of the records by their
+ * exchange-specific {@link SymbolPair#getName()}, so lookups never need to scan the records. Every modification builds
+ * new lists and indexes and publishes all of them with a single reference swap, so readers never lock and always see
+ * a consistent state, while modifications are serialized.
  */
 @Component
 public class SymbolPairContainer {
 
-    private final Map<ExchangeName, List<SymbolPair>> symbolPairsMap = new ConcurrentHashMap<>();
+    private volatile Map<ExchangeName, ExchangeSymbolPairs> symbolPairsMap = Map.of();
 
     /**
      * Add multiple {@link SymbolPair} objects to container.
@@ -33,11 +36,14 @@ public class SymbolPairContainer {
      * @param symbolPairs
      *         a non-null collection of symbol pairs, possibly having different {@link SymbolPair#getExchangeName()}
      */
-    public void addAll(@NonNull Collection<SymbolPair> symbolPairs) {
+    public synchronized void addAll(@NonNull Collection<SymbolPair> symbolPairs) {
         checkNotNull(symbolPairs, Constants.NULL_ARGUMENT_MESSAGE, "symbolPairs");
-        Map<ExchangeName, List<SymbolPair>> collectedSP =
-                symbolPairs.stream().collect(Collectors.groupingBy(PriceData::getExchangeName));
-        symbolPairsMap.putAll(collectedSP);
+
+        Map<ExchangeName, List<SymbolPair>> updated = new EnumMap<>(ExchangeName.class);
+        symbolPairs.forEach(symbolPair -> updated
+                .computeIfAbsent(symbolPair.getExchangeName(), exchangeName -> new ArrayList<>(getAll(exchangeName)))
+                .add(symbolPair));
+        publish(updated);
     }
 
     /**
@@ -46,12 +52,29 @@ public class SymbolPairContainer {
      * @param exchangeName
      *         a non-null exchange name
      *
-     * @return a non-null list of {@link SymbolPair} objects with the specified exchange name
+     * @return a non-null immutable list of {@link SymbolPair} objects with the specified exchange name
      */
     public List<SymbolPair> getAll(@NonNull ExchangeName exchangeName) {
         checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, "exchangeName");
 
-        return Optional.ofNullable(symbolPairsMap.get(exchangeName)).orElse(new ArrayList<>());
+        ExchangeSymbolPairs exchangeSymbolPairs = symbolPairsMap.get(exchangeName);
+        return exchangeSymbolPairs == null ? List.of() : exchangeSymbolPairs.symbolPairs;
+    }
+
+    /**
+     * Get an immutable index of all records for a specific {@link ExchangeName}, keyed by {@link SymbolPair#getName()}.
+     * If several records share the same name, the first one added is indexed.
+     *
+     * @param exchangeName
+     *         a non-null exchange name
+     *
+     * @return a non-null immutable map of {@link SymbolPair} objects with the specified exchange name
+     */
+    public Map<String, SymbolPair> getAllByName(@NonNull ExchangeName exchangeName) {
+        checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, "exchangeName");
+
+        ExchangeSymbolPairs exchangeSymbolPairs = symbolPairsMap.get(exchangeName);
+        return exchangeSymbolPairs == null ? Map.of() : exchangeSymbolPairs.symbolPairsByName;
     }
 
     /**
@@ -60,30 +83,24 @@ public class SymbolPairContainer {
      * @return a non-null list of all {@link SymbolPair} objects stored in this container
      */
     public List<SymbolPair> getAll() {
-        return symbolPairsMap.entrySet().stream()
-                .flatMap(exchangeNameListEntry -> exchangeNameListEntry.getValue().stream())
+        return symbolPairsMap.values().stream()
+                .flatMap(exchangeSymbolPairs -> exchangeSymbolPairs.symbolPairs.stream())
                 .collect(Collectors.toList());
     }
 
     /**
-     * Get a record with a specific {@link ExchangeName} and stored under a specific index.
-     *
-     * @param exchangeName
-     *         a non-null exchange name
-     * @param index
-     *         a non-negative index of the container's underlying list
+     * Check if a record equal to a specific {@link SymbolPair} is stored in container.
      *
-     * @return a {@link SymbolPair} object
+     * @param symbolPair
+     *         a non-null symbol pair
      *
-     * @throws IndexOutOfBoundsException
-     *         if the index value exceeds the number of elements in the container's underlying list
+     * @return {@code true} if the symbol pair is stored in container
      */
-    public SymbolPair get(@NonNull ExchangeName exchangeName, int index) {
-        checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, "exchangeName");
-        checkArgument(index >= 0, "Cannot get item if index < 0!");
+    public boolean contains(@NonNull SymbolPair symbolPair) {
+        checkNotNull(symbolPair, Constants.NULL_ARGUMENT_MESSAGE, "symbolPair");
 
-        List<SymbolPair> symbolPairs = symbolPairsMap.get(exchangeName);
-        return symbolPairs.get(index);
+        return symbolPair.equals(getAllByName(symbolPair.getExchangeName()).get(symbolPair.getName()))
+                || getAll(symbolPair.getExchangeName()).contains(symbolPair);
     }
 
     /**
@@ -95,34 +112,75 @@ public class SymbolPairContainer {
      * @return the number of records
      */
     public int size(@NonNull ExchangeName exchangeName) {
-        checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, "exchangeName");
-
-        List<SymbolPair> symbolPairs = symbolPairsMap.get(exchangeName);
-        return CollectionUtils.isEmpty(symbolPairs) ? 0 : symbolPairs.size();
+        return getAll(exchangeName).size();
     }
 
     /**
-     * Remove a record with a specific {@link ExchangeName} stored under a specific index.
+     * Remove all records equal to a specific {@link SymbolPair}. Does nothing if there are no such records.
      *
-     * @param exchangeName
-     *         a non-null exchange name
-     * @param index
-     *         a non-negative index of the container's underlying list
+     * @param symbolPair
+     *         a non-null symbol pair
+     */
+    public synchronized void remove(@NonNull SymbolPair symbolPair) {
+        checkNotNull(symbolPair, Constants.NULL_ARGUMENT_MESSAGE, "symbolPair");
+
+        if (!getAll(symbolPair.getExchangeName()).contains(symbolPair)) {
+            return;
+        }
+        List<SymbolPair> updated = new ArrayList<>(getAll(symbolPair.getExchangeName()));
+        updated.removeIf(symbolPair::equals);
+        publish(Map.of(symbolPair.getExchangeName(), updated));
+    }
+
+    /**
+     * Replace all container records with the ones computed from the current records. The computed records are
+     * published at once, so readers see either the previous or the new records, and never an empty container in
+     * between. If the computation throws an exception, the container is left unchanged.
      *
-     * @throws IndexOutOfBoundsException
-     *         if the index value exceeds the number of elements in the container's underlying list
+     * @param replacement
+     *         a non-null function receiving a modifiable copy of all current records and returning the non-null new
+     *         records
      */
-    public void remove(@NonNull ExchangeName exchangeName, int index) {
-        checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, "exchangeName");
-        checkArgument(index >= 0, "Cannot remove item if index < 0!");
+    public synchronized void replaceAll(
+            @NonNull Function<List<SymbolPair>, ? extends Collection<SymbolPair>> replacement) {
+        checkNotNull(replacement, Constants.NULL_ARGUMENT_MESSAGE, "replacement");
 
-        Optional.ofNullable(symbolPairsMap.get(exchangeName)).ifPresent(symbolPairs -> symbolPairs.remove(index));
+        Collection<SymbolPair> symbolPairs =
+                checkNotNull(replacement.apply(getAll()), Constants.NULL_ARGUMENT_MESSAGE, "symbolPairs");
+        Map<ExchangeName, ExchangeSymbolPairs> published = new EnumMap<>(ExchangeName.class);
+        symbolPairs.stream().collect(Collectors.groupingBy(SymbolPair::getExchangeName))
+                .forEach((exchangeName, exchangeSymbolPairs) -> published
+                        .put(exchangeName, new ExchangeSymbolPairs(exchangeSymbolPairs)));
+        symbolPairsMap = Map.copyOf(published);
     }
 
     /**
      * Remove all container records.
      */
-    public void removeAll() {
-        symbolPairsMap.clear();
+    public synchronized void removeAll() {
+        symbolPairsMap = Map.of();
+    }
+
+    // records of exchanges absent in the passed map are kept as they are
+    private void publish(Map<ExchangeName, List<SymbolPair>> updatedRecords) {
+        Map<ExchangeName, ExchangeSymbolPairs> published = new EnumMap<>(ExchangeName.class);
+        published.putAll(symbolPairsMap);
+        updatedRecords.forEach((exchangeName, symbolPairs) -> published.put(exchangeName,
+                                                                            new ExchangeSymbolPairs(symbolPairs)));
+        symbolPairsMap = Map.copyOf(published);
+    }
+
+    private static final class ExchangeSymbolPairs {
+
+        private final List<SymbolPair> symbolPairs;
+        private final Map<String, SymbolPair> symbolPairsByName;
+
+        private ExchangeSymbolPairs(List<SymbolPair> symbolPairs) {
+            this.symbolPairs = List.copyOf(symbolPairs);
+            Map<String, SymbolPair> byName = new HashMap<>();
+            symbolPairs.stream().filter(symbolPair -> symbolPair.getName() != null)
+                    .forEach(symbolPair -> byName.putIfAbsent(symbolPair.getName(), symbolPair));
+            this.symbolPairsByName = Map.copyOf(byName);
+        }
     }
 }
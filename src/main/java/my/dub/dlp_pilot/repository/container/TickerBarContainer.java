@@ -0,0 +1,132 @@
+package my.dub.dlp_pilot.repository.container;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import my.dub.dlp_pilot.Constants;
+import my.dub.dlp_pilot.configuration.ParametersHolder;
+import my.dub.dlp_pilot.model.Bar;
+import my.dub.dlp_pilot.model.ExchangeName;
+import my.dub.dlp_pilot.model.dto.Ticker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * A container of open {@link Bar}s built from polled {@link Ticker}s, one per exchange and symbol pair within the
+ * price data base TimeFrame. The price of a ticker is its close price, or its bid price if the exchange does not
+ * provide one. Tickers do not carry the traded volume, so the volume of built bars is zero.
+ * <p>
+ * A bar is closed once a ticker of the pair falls into the next TimeFrame, or once its close time has passed. The first
+ * bar of each symbol pair is discarded on close, as it is opened in the middle of its TimeFrame.
+ */
+@Component
+public class TickerBarContainer {
+
+    private final Map<ExchangeName, Map<String, Bar>> openBars = new EnumMap<>(ExchangeName.class);
+    // symbol pairs with the first (partial) bar closed
+    private final Map<ExchangeName, Set<String>> startedPairs = new EnumMap<>(ExchangeName.class);
+    private final long timeFrameMillis;
+
+    @Autowired
+    public TickerBarContainer(ParametersHolder parameters) {
+        timeFrameMillis = parameters.getDataBaseTimeFrame().getDuration().toMillis();
+        for (ExchangeName exchangeName : ExchangeName.values()) {
+            openBars.put(exchangeName, new HashMap<>());
+            startedPairs.put(exchangeName, new HashSet<>());
+        }
+    }
+
+    /**
+     * Fold {@link Ticker}s of a specific exchange into the open bars of their symbol pairs. Tickers with invalid
+     * prices, or older than the open bar of their pair, are skipped.
+     *
+     * @param exchangeName
+     *         a non-null exchange name
+     * @param tickers
+     *         a non-null collection of tickers of the exchange
+     * @param now
+     *         a non-null current time, bars with the close time not after it are closed
+     *
+     * @return a non-null list of closed bars, possibly empty
+     */
+    public List<Bar> update(@NonNull ExchangeName exchangeName, @NonNull Collection<Ticker> tickers,
+            @NonNull Instant now) {
+        checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, "exchangeName");
+        checkNotNull(tickers, Constants.NULL_ARGUMENT_MESSAGE, "tickers");
+        checkNotNull(now, Constants.NULL_ARGUMENT_MESSAGE, "now");
+
+        Map<String, Bar> exchangeBars = openBars.get(exchangeName);
+        Set<String> exchangeStartedPairs = startedPairs.get(exchangeName);
+        List<Bar> closedBars = new ArrayList<>();
+        synchronized (exchangeBars) {
+            for (Ticker ticker : tickers) {
+                if (ticker.isPriceInvalid() || ticker.getDateTime() == null) {
+                    continue;
+                }
+                String pair = ticker.getPair();
+                Bar bar = exchangeBars.get(pair);
+                Instant openTime = Instant.ofEpochMilli(
+                        Math.floorDiv(ticker.getDateTime().toEpochMilli(), timeFrameMillis) * timeFrameMillis);
+                if (bar != null && bar.getOpenTime().isBefore(openTime)) {
+                    close(pair, bar, exchangeStartedPairs, closedBars);
+                    bar = null;
+                }
+                if (bar == null) {
+                    exchangeBars.put(pair, open(ticker, openTime));
+                } else if (!ticker.getDateTime().isBefore(bar.getOpenTime())) {
+                    fold(bar, getPrice(ticker));
+                }
+            }
+            Iterator<Map.Entry<String, Bar>> iterator = exchangeBars.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Bar> entry = iterator.next();
+                if (!entry.getValue().getCloseTime().isAfter(now)) {
+                    iterator.remove();
+                    close(entry.getKey(), entry.getValue(), exchangeStartedPairs, closedBars);
+                }
+            }
+        }
+        return closedBars;
+    }
+
+    private Bar open(Ticker ticker, Instant openTime) {
+        BigDecimal price = getPrice(ticker);
+        Bar bar = new Bar(ticker.getExchangeName(), ticker.getBase(), ticker.getTarget());
+        bar.setOpen(price);
+        bar.setHigh(price);
+        bar.setLow(price);
+        bar.setClose(price);
+        bar.setVolume(BigDecimal.ZERO);
+        bar.setOpenTime(openTime);
+        bar.setCloseTime(openTime.plusMillis(timeFrameMillis));
+        return bar;
+    }
+
+    private void fold(Bar bar, BigDecimal price) {
+        bar.setHigh(bar.getHigh().max(price));
+        bar.setLow(bar.getLow().min(price));
+        bar.setClose(price);
+    }
+
+    private void close(String pair, Bar bar, Set<String> exchangeStartedPairs, List<Bar> closedBars) {
+        if (exchangeStartedPairs.add(pair)) {
+            return;
+        }
+        closedBars.add(bar);
+    }
+
+    private static BigDecimal getPrice(Ticker ticker) {
+        return ticker.getClosePrice() != null ? ticker.getClosePrice() : ticker.getPriceBid();
+    }
+}
@@ -3,10 +3,13 @@ package my.dub.dlp_pilot.repository.container;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import java.math.BigDecimal;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -17,6 +20,7 @@ import my.dub.dlp_pilot.model.ExchangeName;
 import my.dub.dlp_pilot.model.dto.PriceData;
 import my.dub.dlp_pilot.model.dto.Ticker;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
@@ -27,22 +31,26 @@ import org.springframework.util.CollectionUtils;
  * Ticker#isSimilar(PriceData)}. If a {@link Ticker} object has a stale price (bid and ask/ close) i.e. price hasn't
  * changed, then this object would not be added to container.
  * <p>
- * Uses separate concurrent sets to avoid concurrency exceptions without using synchronization.
+ * Uses a separate concurrent map per {@link ExchangeName}, keyed by an interned pair key, to avoid concurrency
+ * exceptions without using synchronization. Updated tickers replace the existing ones in place.
  */
 @Component
 public class TickerContainer {
 
+    private static final Interner<String> PAIR_KEYS = Interners.newStrongInterner();
+
     // Exclude concurrency exceptions by decentralizing storage
-    private final Set<Ticker> bigONETickers = Collections.newSetFromMap(new ConcurrentHashMap<>());
-    private final Set<Ticker> binanceTickers = Collections.newSetFromMap(new ConcurrentHashMap<>());
-    private final Set<Ticker> bitBayTickers = Collections.newSetFromMap(new ConcurrentHashMap<>());
-    private final Set<Ticker> bitfinexTickers = Collections.newSetFromMap(new ConcurrentHashMap<>());
-    private final Set<Ticker> bitmartTickers = Collections.newSetFromMap(new ConcurrentHashMap<>());
-    private final Set<Ticker> bitmaxTickers = Collections.newSetFromMap(new ConcurrentHashMap<>());
-    private final Set<Ticker> bittrexTickers = Collections.newSetFromMap(new ConcurrentHashMap<>());
-    private final Set<Ticker> exmoTickers = Collections.newSetFromMap(new ConcurrentHashMap<>());
-    private final Set<Ticker> gateTickers = Collections.newSetFromMap(new ConcurrentHashMap<>());
-    private final Set<Ticker> huobiTickers = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final Map<ExchangeName, Map<String, Ticker>> tickersMap = new EnumMap<>(ExchangeName.class);
+
+    private final TickerPriceMatrix priceMatrix;
+
+    @Autowired
+    public TickerContainer(TickerPriceMatrix priceMatrix) {
+        this.priceMatrix = priceMatrix;
+        for (ExchangeName exchangeName : ExchangeName.values()) {
+            tickersMap.put(exchangeName, new ConcurrentHashMap<>());
+        }
+    }
 
     /**
      * Get all records in container.
@@ -59,8 +67,7 @@ public class TickerContainer {
      * @return a Stream of all Ticker records
      */
     public Stream<Ticker> getAllStream() {
-        return Stream.of(bigONETickers, binanceTickers, bitBayTickers, bitfinexTickers, bitmartTickers, bitmaxTickers,
-                         bittrexTickers, exmoTickers, gateTickers, huobiTickers).flatMap(Collection::stream);
+        return tickersMap.values().stream().flatMap(tickers -> tickers.values().stream());
     }
 
     /**
@@ -74,7 +81,7 @@ public class TickerContainer {
     public Set<Ticker> getTickers(@NonNull ExchangeName exchangeName) {
         checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, "exchangeName");
 
-        return tickerSet(exchangeName);
+        return new HashSet<>(tickersMap.get(exchangeName).values());
     }
 
     /**
@@ -96,18 +103,13 @@ public class TickerContainer {
         checkArgument(StringUtils.isNotEmpty(base), Constants.EMPTY_STRING_ARGUMENT_MESSAGE, "base");
         checkArgument(StringUtils.isNotEmpty(target), Constants.EMPTY_STRING_ARGUMENT_MESSAGE, "target");
 
-        Set<Ticker> tickers = tickerSet(exchangeName);
-        if (CollectionUtils.isEmpty(tickers)) {
-            return Optional.empty();
-        }
-        return tickers.stream().filter(ticker -> ticker.getBase().equals(base) && ticker.getTarget().equals(target))
-                .findFirst();
+        return Optional.ofNullable(tickersMap.get(exchangeName).get(pairKey(base, target)));
     }
 
     /**
      * Add multiple {@link Ticker} objects to container. For an object to be added to container, replacing similar
      * Ticker, it should have a different bid or ask price, and a different close price. Once a new ticker is added, its
-     * previous prices are updated.
+     * previous prices are updated, and its prices are written to {@link TickerPriceMatrix}.
      *
      * @param exchangeName
      *         a non-null exchange name
@@ -122,50 +124,33 @@ public class TickerContainer {
         checkArgument(tickers.stream().allMatch(ticker -> exchangeName.equals(ticker.getExchangeName())),
                       "Argument exchangeName does not match with tickers exchangeName!");
 
-        Set<Ticker> tickerSet = tickerSet(exchangeName);
-        tickers.forEach(newTicker -> getTicker(exchangeName, newTicker.getBase(), newTicker.getTarget())
-                .ifPresentOrElse(existingTicker -> {
-                    BigDecimal existingPriceAsk = existingTicker.getPriceAsk();
-                    BigDecimal existingPriceBid = existingTicker.getPriceBid();
-                    if ((existingPriceAsk.compareTo(newTicker.getPriceAsk()) != 0
-                            || existingPriceBid.compareTo(newTicker.getPriceBid()) != 0)) {
-                        BigDecimal existingClosePrice = existingTicker.getClosePrice();
-                        if (existingClosePrice != null
-                                && existingClosePrice.compareTo(newTicker.getClosePrice()) == 0) {
-                            return;
-                        }
-                        newTicker.setPreviousPriceAsk(existingPriceAsk);
-                        newTicker.setPreviousPriceBid(existingPriceBid);
-                        tickerSet.remove(existingTicker);
-                        tickerSet.add(newTicker);
-                    }
-                }, () -> tickerSet.add(newTicker)));
+        Map<String, Ticker> exchangeTickers = tickersMap.get(exchangeName);
+        for (Ticker newTicker : tickers) {
+            Ticker storedTicker = exchangeTickers
+                    .merge(pairKey(newTicker.getBase(), newTicker.getTarget()), newTicker, this::replaceIfChanged);
+            if (storedTicker == newTicker) {
+                priceMatrix.update(newTicker);
+            }
+        }
     }
 
-    private Set<Ticker> tickerSet(@NonNull ExchangeName exchangeName) {
-        checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, "exchangeName");
-        switch (exchangeName) {
-            case BIGONE:
-                return bigONETickers;
-            case BINANCE:
-                return binanceTickers;
-            case BITBAY:
-                return bitBayTickers;
-            case BITFINEX:
-                return bitfinexTickers;
-            case BITMART:
-                return bitmartTickers;
-            case BITMAX:
-                return bitmaxTickers;
-            case BITTREX:
-                return bittrexTickers;
-            case EXMO:
-                return exmoTickers;
-            case GATE:
-                return gateTickers;
-            case HUOBI:
-                return huobiTickers;
+    private Ticker replaceIfChanged(Ticker existingTicker, Ticker newTicker) {
+        BigDecimal existingPriceAsk = existingTicker.getPriceAsk();
+        BigDecimal existingPriceBid = existingTicker.getPriceBid();
+        if (existingPriceAsk.compareTo(newTicker.getPriceAsk()) == 0
+                && existingPriceBid.compareTo(newTicker.getPriceBid()) == 0) {
+            return existingTicker;
         }
-        return new HashSet<>();
+        BigDecimal existingClosePrice = existingTicker.getClosePrice();
+        if (existingClosePrice != null && existingClosePrice.compareTo(newTicker.getClosePrice()) == 0) {
+            return existingTicker;
+        }
+        newTicker.setPreviousPriceAsk(existingPriceAsk);
+        newTicker.setPreviousPriceBid(existingPriceBid);
+        return newTicker;
+    }
+
+    private static String pairKey(String base, String target) {
+        return PAIR_KEYS.intern(base + Constants.DEFAULT_PAIR_DELIMITER + target);
     }
 }
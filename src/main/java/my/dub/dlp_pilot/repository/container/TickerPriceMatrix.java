@@ -0,0 +1,303 @@
+package my.dub.dlp_pilot.repository.container;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import my.dub.dlp_pilot.Constants;
+import my.dub.dlp_pilot.model.ExchangeName;
+import my.dub.dlp_pilot.model.dto.Ticker;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * A dense cross-exchange price matrix, indexed by {@code [pairId][exchangeId]}, where the pair id is assigned on the
+ * first update of a base/target pair and the exchange id is {@link ExchangeName#ordinal()}. Each cell holds the bid
+ * price, the ask price and the update timestamp of the latest {@link Ticker} as primitive longs, with prices stored in
+ * fixed-point representation (see {@link #toFixedPoint(BigDecimal)}).
+ * <p>
+ * Every row is guarded by its own sequence number (seqlock): writers make the sequence odd while updating a cell, and
+ * readers retry until they copy the row between two equal even sequence values. This gives consistent row snapshots
+ * without locking readers.
+ * <p>
+ * Each update also marks the pair as dirty for the updated exchange, so that consumers can re-evaluate only the pairs
+ * changed since their last poll (see {@link #pollDirty(ExchangeName)}).
+ */
+@Component
+public class TickerPriceMatrix {
+
+    /**
+     * Number of fractional decimal digits kept in the fixed-point prices, the same as the scale of prices stored in DB.
+     */
+    public static final int FIXED_POINT_SCALE = Constants.PRICE_SCALE;
+    /**
+     * Fixed-point value of prices that do not fit into a long with {@link #FIXED_POINT_SCALE} fractional digits (above
+     * ~9.2 million). Such prices are present, but cannot be compared in fixed-point representation.
+     */
+    public static final long SATURATED_PRICE = Long.MAX_VALUE;
+
+    private static final ExchangeName[] EXCHANGE_NAMES = ExchangeName.values();
+    private static final int SEQUENCE_INDEX = 0;
+    // bit mask of exchange ordinals with unconsumed updates, outside of the seqlock
+    private static final int DIRTY_INDEX = 1;
+    private static final int CELLS_INDEX = 2;
+    private static final int BID_OFFSET = 0;
+    private static final int ASK_OFFSET = 1;
+    private static final int TIMESTAMP_OFFSET = 2;
+    private static final int CELL_LENGTH = 3;
+    private static final int ROW_LENGTH = CELLS_INDEX + EXCHANGE_NAMES.length * CELL_LENGTH;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final VarHandle ROW_ELEMENTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final Map<String, Integer> pairIds = new ConcurrentHashMap<>();
+    private final Map<ExchangeName, Queue<Integer>> dirtyPairIds = new EnumMap<>(ExchangeName.class);
+
+    private volatile long[][] rows = new long[INITIAL_CAPACITY][];
+    private volatile String[] bases = new String[INITIAL_CAPACITY];
+    private volatile String[] targets = new String[INITIAL_CAPACITY];
+    private volatile int size;
+
+    public TickerPriceMatrix() {
+        checkState(EXCHANGE_NAMES.length <= Long.SIZE, "Dirty pair mask cannot hold all exchanges!");
+        for (ExchangeName exchangeName : EXCHANGE_NAMES) {
+            dirtyPairIds.put(exchangeName, new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    /**
+     * Convert a price to its fixed-point representation with {@link #FIXED_POINT_SCALE} fractional digits. Prices that
+     * are null or not positive are converted to 0, which marks the cell as empty. Prices that do not fit into a long
+     * are converted to {@link #SATURATED_PRICE}.
+     *
+     * @param price
+     *         a nullable price
+     *
+     * @return a positive fixed-point price, {@link #SATURATED_PRICE} or 0
+     */
+    public static long toFixedPoint(BigDecimal price) {
+        if (price == null || price.signum() <= 0) {
+            return 0;
+        }
+        try {
+            return price.movePointRight(FIXED_POINT_SCALE).setScale(0, RoundingMode.HALF_UP).longValueExact();
+        } catch (ArithmeticException e) {
+            return SATURATED_PRICE;
+        }
+    }
+
+    /**
+     * Get the number of pairs in the matrix. Pair ids are assigned sequentially, so valid ids range from 0 to {@code
+     * size() - 1}.
+     *
+     * @return the number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Write prices of a {@link Ticker} to the cell with the ticker's pair and exchange, and mark the pair as dirty for
+     * this exchange. A ticker with an invalid price clears the cell.
+     *
+     * @param ticker
+     *         a non-null ticker with non-null exchange name, base and target
+     */
+    public void update(@NonNull Ticker ticker) {
+        checkNotNull(ticker, Constants.NULL_ARGUMENT_MESSAGE, "ticker");
+
+        int pairId = pairIds.computeIfAbsent(ticker.getPair(), pair -> addRow(ticker.getBase(), ticker.getTarget()));
+        long[] row = rows[pairId];
+        int cellIndex = cellIndex(ticker.getExchangeName());
+        boolean valid = !ticker.isPriceInvalid();
+        long bid = valid ? toFixedPoint(ticker.getPriceBid()) : 0;
+        long ask = valid ? toFixedPoint(ticker.getPriceAsk()) : 0;
+        long timestamp = ticker.getDateTime() != null ? ticker.getDateTime().toEpochMilli() : 0;
+
+        long sequence = lockRow(row);
+        ROW_ELEMENTS.setOpaque(row, cellIndex + BID_OFFSET, bid);
+        ROW_ELEMENTS.setOpaque(row, cellIndex + ASK_OFFSET, ask);
+        ROW_ELEMENTS.setOpaque(row, cellIndex + TIMESTAMP_OFFSET, timestamp);
+        ROW_ELEMENTS.setRelease(row, SEQUENCE_INDEX, sequence + 2);
+
+        long exchangeBit = exchangeBit(ticker.getExchangeName());
+        long dirtyMask = (long) ROW_ELEMENTS.getAndBitwiseOr(row, DIRTY_INDEX, exchangeBit);
+        if ((dirtyMask & exchangeBit) == 0) {
+            dirtyPairIds.get(ticker.getExchangeName()).offer(pairId);
+        }
+    }
+
+    /**
+     * Take the next pair, which was updated for the specified exchange since it was last polled. Each pair is returned
+     * once per batch of updates, regardless of the number of updates in between polls.
+     *
+     * @param exchangeName
+     *         a non-null exchange name
+     *
+     * @return an id of the dirty pair, or -1 if there are no dirty pairs for the exchange
+     */
+    public int pollDirty(@NonNull ExchangeName exchangeName) {
+        checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, "exchangeName");
+
+        Integer pairId = dirtyPairIds.get(exchangeName).poll();
+        if (pairId == null) {
+            return -1;
+        }
+        // clear before the row is read, so that a concurrent update marks the pair again
+        ROW_ELEMENTS.getAndBitwiseAnd(rows[pairId], DIRTY_INDEX, ~exchangeBit(exchangeName));
+        return pairId;
+    }
+
+    /**
+     * Discard all dirty pairs of the specified exchange, e.g. before a full scan of the matrix.
+     *
+     * @param exchangeName
+     *         a non-null exchange name
+     */
+    public void clearDirty(@NonNull ExchangeName exchangeName) {
+        checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, "exchangeName");
+
+        while (pollDirty(exchangeName) >= 0) {
+            // drain the queue
+        }
+    }
+
+    /**
+     * Create a reusable snapshot buffer for {@link #read(int, RowSnapshot)}.
+     *
+     * @return a new empty snapshot
+     */
+    public RowSnapshot newSnapshot() {
+        return new RowSnapshot();
+    }
+
+    /**
+     * Copy a consistent state of the row with the specified pair id into the passed snapshot.
+     *
+     * @param pairId
+     *         an id of the pair, less than {@link #size()}
+     * @param snapshot
+     *         a non-null snapshot to overwrite
+     */
+    public void read(int pairId, @NonNull RowSnapshot snapshot) {
+        checkNotNull(snapshot, Constants.NULL_ARGUMENT_MESSAGE, "snapshot");
+        checkArgument(pairId >= 0 && pairId < size, "Pair id %s is out of bounds!", pairId);
+
+        long[] row = rows[pairId];
+        long[] values = snapshot.values;
+        while (true) {
+            long sequence = (long) ROW_ELEMENTS.getAcquire(row, SEQUENCE_INDEX);
+            if ((sequence & 1) == 0) {
+                for (int i = CELLS_INDEX; i < ROW_LENGTH; i++) {
+                    values[i] = (long) ROW_ELEMENTS.getOpaque(row, i);
+                }
+                VarHandle.loadLoadFence();
+                if ((long) ROW_ELEMENTS.getOpaque(row, SEQUENCE_INDEX) == sequence) {
+                    break;
+                }
+            }
+            Thread.onSpinWait();
+        }
+        snapshot.pairId = pairId;
+        snapshot.base = bases[pairId];
+        snapshot.target = targets[pairId];
+    }
+
+    private synchronized int addRow(String base, String target) {
+        int pairId = size;
+        if (pairId == rows.length) {
+            int newCapacity = pairId * 2;
+            bases = Arrays.copyOf(bases, newCapacity);
+            targets = Arrays.copyOf(targets, newCapacity);
+            rows = Arrays.copyOf(rows, newCapacity);
+        }
+        rows[pairId] = new long[ROW_LENGTH];
+        bases[pairId] = base;
+        targets[pairId] = target;
+        size = pairId + 1;
+        return pairId;
+    }
+
+    private static long lockRow(long[] row) {
+        while (true) {
+            long sequence = (long) ROW_ELEMENTS.getVolatile(row, SEQUENCE_INDEX);
+            if ((sequence & 1) == 0 && ROW_ELEMENTS.compareAndSet(row, SEQUENCE_INDEX, sequence, sequence + 1)) {
+                VarHandle.storeStoreFence();
+                return sequence;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private static int cellIndex(ExchangeName exchangeName) {
+        return CELLS_INDEX + exchangeName.ordinal() * CELL_LENGTH;
+    }
+
+    private static long exchangeBit(ExchangeName exchangeName) {
+        return 1L << exchangeName.ordinal();
+    }
+
+    /**
+     * A consistent copy of a single matrix row. Instances are mutable and meant to be reused across rows by a single
+     * thread.
+     */
+    public static final class RowSnapshot {
+
+        private final long[] values = new long[ROW_LENGTH];
+        private int pairId = -1;
+        private String base;
+        private String target;
+
+        private RowSnapshot() {
+        }
+
+        public int getPairId() {
+            return pairId;
+        }
+
+        public String getBase() {
+            return base;
+        }
+
+        public String getTarget() {
+            return target;
+        }
+
+        public boolean isPresent(ExchangeName exchangeName) {
+            return getBid(exchangeName) > 0 && getAsk(exchangeName) > 0;
+        }
+
+        /**
+         * Check if the prices of the exchange are exact in fixed-point representation, so they can be compared.
+         *
+         * @param exchangeName
+         *         a non-null exchange name
+         *
+         * @return {@code true} if neither price is {@link #SATURATED_PRICE}, {@code false} otherwise
+         */
+        public boolean isExact(ExchangeName exchangeName) {
+            return getBid(exchangeName) != SATURATED_PRICE && getAsk(exchangeName) != SATURATED_PRICE;
+        }
+
+        public long getBid(ExchangeName exchangeName) {
+            return values[cellIndex(exchangeName) + BID_OFFSET];
+        }
+
+        public long getAsk(ExchangeName exchangeName) {
+            return values[cellIndex(exchangeName) + ASK_OFFSET];
+        }
+
+        public long getTimestamp(ExchangeName exchangeName) {
+            return values[cellIndex(exchangeName) + TIMESTAMP_OFFSET];
+        }
+    }
+}
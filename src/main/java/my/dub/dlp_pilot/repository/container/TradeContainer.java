@@ -3,16 +3,22 @@ package my.dub.dlp_pilot.repository.container;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import my.dub.dlp_pilot.Constants;
 import my.dub.dlp_pilot.model.ExchangeName;
 import my.dub.dlp_pilot.model.Position;
 import my.dub.dlp_pilot.model.Trade;
+import my.dub.dlp_pilot.model.TradeState;
 import my.dub.dlp_pilot.model.dto.DetrimentalRecord;
 import org.springframework.data.util.Pair;
 import org.springframework.lang.NonNull;
@@ -22,6 +28,9 @@ import org.springframework.stereotype.Component;
  * An in-memory container for not persisted {@link Trade} objects, and for related {@link DetrimentalRecord} objects.
  * The uniqueness of each added {@link Trade} object is checked using {@link #isSimilarPresent(Trade)} and {@link
  * #isSimilarPresent(String, String, ExchangeName, ExchangeName)} methods.
+ * <p>
+ * Trades are additionally indexed by exchange name and by similarity key, and the number of trades per exchange is
+ * counted on add and remove, so that lookups and checks do not depend on the number of stored trades.
  */
 @Component
 public class TradeContainer {
@@ -31,28 +40,71 @@ public class TradeContainer {
      * DB
      */
     private final Map<Long, Trade> trades = new ConcurrentHashMap<>();
+    // trades by local id, for each exchange of their positions
+    private final Map<ExchangeName, Map<Long, Trade>> tradesByExchange = new EnumMap<>(ExchangeName.class);
+    private final Map<ExchangeName, AtomicLong> tradesCounts = new EnumMap<>(ExchangeName.class);
+    private final Map<String, Trade> tradesBySimilarityKey = new ConcurrentHashMap<>();
     private final Set<DetrimentalRecord> detrimentalRecords = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final AtomicLong localIdSequence = new AtomicLong();
 
-    private static final AtomicLong LOCAL_ID_SEQUENCE = new AtomicLong();
+    public TradeContainer() {
+        for (ExchangeName exchangeName : ExchangeName.values()) {
+            tradesByExchange.put(exchangeName, new ConcurrentHashMap<>());
+            tradesCounts.put(exchangeName, new AtomicLong());
+        }
+    }
 
     /**
-     * A <b>synchronized</b> method for adding a new {@link Trade} object. Checks if similar Trade object already
-     * exists. Generates and sets a new {@link Trade#getLocalId()} value.
+     * Add a new {@link Trade} object, if no similar Trade object exists. Generates and sets a new {@link
+     * Trade#getLocalId()} value.
      *
      * @param trade
      *         a non-null filled Trade object
      *
      * @return <code>true</code> if the new object was successfully added, <code>false</code> otherwise
      */
-    public synchronized boolean addTrade(@NonNull Trade trade) {
+    public boolean addTrade(@NonNull Trade trade) {
+        return addTrade(trade, 0);
+    }
+
+    /**
+     * Add a new {@link Trade} object, if no similar Trade object exists and the number of trades on each of its
+     * exchanges is below the limit. Generates and sets a new {@link Trade#getLocalId()} value.
+     * <p>
+     * The method is lock-free: a similar trade is claimed with an atomic insert by its similarity key, and the limit is
+     * enforced with compare-and-set on the per-exchange counters, so concurrent calls never add two similar trades or
+     * exceed the limit.
+     *
+     * @param trade
+     *         a non-null filled Trade object
+     * @param parallelTradesLimit
+     *         max number of trades per exchange, or 0 for no limit
+     *
+     * @return <code>true</code> if the new object was successfully added, <code>false</code> otherwise
+     */
+    public boolean addTrade(@NonNull Trade trade, int parallelTradesLimit) {
         checkNotNull(trade, Constants.NULL_ARGUMENT_MESSAGE, "trade");
 
-        if (isSimilarPresent(trade)) {
+        String similarityKey = similarityKey(trade);
+        if (tradesBySimilarityKey.putIfAbsent(similarityKey, trade) != null) {
+            return false;
+        }
+        ExchangeName exchangeShort = trade.getPositionShort().getExchange().getName();
+        ExchangeName exchangeLong = trade.getPositionLong().getExchange().getName();
+        if (!tryIncrementCount(exchangeShort, parallelTradesLimit)) {
+            tradesBySimilarityKey.remove(similarityKey, trade);
+            return false;
+        }
+        if (!exchangeShort.equals(exchangeLong) && !tryIncrementCount(exchangeLong, parallelTradesLimit)) {
+            tradesCounts.get(exchangeShort).decrementAndGet();
+            tradesBySimilarityKey.remove(similarityKey, trade);
             return false;
         }
-        long localId = LOCAL_ID_SEQUENCE.getAndIncrement();
+        long localId = localIdSequence.getAndIncrement();
         trade.setLocalId(localId);
-        return trades.putIfAbsent(localId, trade) == null;
+        trades.put(localId, trade);
+        forEachExchange(trade, exchangeName -> tradesByExchange.get(exchangeName).put(localId, trade));
+        return true;
     }
 
     /**
@@ -67,12 +119,12 @@ public class TradeContainer {
     public Set<Trade> getTrades(@NonNull ExchangeName exchange) {
         checkNotNull(exchange, Constants.NULL_ARGUMENT_MESSAGE, "exchange");
 
-        return trades.values().stream().filter(trade -> matchExchange(exchange, trade)).collect(Collectors.toSet());
+        return new HashSet<>(tradesByExchange.get(exchange).values());
     }
 
     /**
-     * Count the number of {@link Trade} objects that match the condition in {@link #matchExchange(ExchangeName, Trade)}
-     * method.
+     * Count the number of {@link Trade} objects with one of their related {@link Position} having the specified
+     * exchange name, for each of the exchange names.
      *
      * @param exchange1
      *         first non-null condition input
@@ -85,17 +137,7 @@ public class TradeContainer {
         checkNotNull(exchange1, Constants.NULL_ARGUMENT_MESSAGE, "exchange1");
         checkNotNull(exchange2, Constants.NULL_ARGUMENT_MESSAGE, "exchange2");
 
-        long exchange1Count = 0;
-        long exchange2Count = 0;
-        for (Trade trade : trades.values()) {
-            if (matchExchange(exchange1, trade)) {
-                exchange1Count++;
-            }
-            if (matchExchange(exchange2, trade)) {
-                exchange2Count++;
-            }
-        }
-        return Pair.of(exchange1Count, exchange2Count);
+        return Pair.of(tradesCounts.get(exchange1).get(), tradesCounts.get(exchange2).get());
     }
 
     /**
@@ -122,13 +164,7 @@ public class TradeContainer {
         checkNotNull(exchange1, Constants.NULL_ARGUMENT_MESSAGE, "exchange1");
         checkNotNull(exchange2, Constants.NULL_ARGUMENT_MESSAGE, "exchange2");
 
-        return trades.values().stream().anyMatch(trade -> {
-            ExchangeName exchangeShort = trade.getPositionShort().getExchange().getName();
-            ExchangeName exchangeLong = trade.getPositionLong().getExchange().getName();
-            return trade.getBase().equals(base) && trade.getTarget().equals(target) && (exchangeShort.equals(exchange1)
-                    && exchangeLong.equals(exchange2)) || (exchangeShort.equals(exchange2) && exchangeLong
-                    .equals(exchange1));
-        });
+        return tradesBySimilarityKey.containsKey(similarityKey(base, target, exchange1, exchange2));
     }
 
     /**
@@ -145,13 +181,7 @@ public class TradeContainer {
     public boolean isSimilarPresent(@NonNull Trade trade) {
         checkNotNull(trade, Constants.NULL_ARGUMENT_MESSAGE, "trade");
 
-        return trades.values().stream().anyMatch(existingTrade -> {
-            ExchangeName exchangeShort = existingTrade.getPositionShort().getExchange().getName();
-            ExchangeName exchangeLong = existingTrade.getPositionLong().getExchange().getName();
-            return existingTrade.getBase().equals(trade.getBase()) && existingTrade.getTarget()
-                    .equals(trade.getTarget()) && exchangeShort.equals(trade.getPositionShort().getExchange().getName())
-                    && exchangeLong.equals(trade.getPositionLong().getExchange().getName());
-        });
+        return tradesBySimilarityKey.containsKey(similarityKey(trade));
     }
 
     /**
@@ -163,7 +193,80 @@ public class TradeContainer {
      * @return <code>true</code> if a record was removed, <code>false</code> otherwise
      */
     public boolean remove(@NonNull Long localId) {
-        return trades.remove(checkNotNull(localId, Constants.NULL_ARGUMENT_MESSAGE, "localId")) != null;
+        Trade trade = trades.remove(checkNotNull(localId, Constants.NULL_ARGUMENT_MESSAGE, "localId"));
+        if (trade == null) {
+            return false;
+        }
+        forEachExchange(trade, exchangeName -> {
+            tradesByExchange.get(exchangeName).remove(localId);
+            tradesCounts.get(exchangeName).decrementAndGet();
+        });
+        tradesBySimilarityKey.remove(similarityKey(trade), trade);
+        return true;
+    }
+
+    /**
+     * Get all {@link Trade} objects not closed yet: trades in progress and trades being closed.
+     *
+     * @return a non-null list of trades not in {@link TradeState#CLOSED} state
+     */
+    public List<Trade> getTradesNotClosed() {
+        return trades.values().stream().filter(trade -> !TradeState.CLOSED.equals(trade.getState()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Get all {@link DetrimentalRecord} objects, including the invalidated ones not removed yet.
+     *
+     * @return a non-null set of detrimental records
+     */
+    public Set<DetrimentalRecord> getDetrimentalRecords() {
+        return new HashSet<>(detrimentalRecords);
+    }
+
+    /**
+     * Get the local ID the next added {@link Trade} object will be assigned.
+     *
+     * @return the next local ID of trades
+     */
+    public long getNextLocalId() {
+        return localIdSequence.get();
+    }
+
+    /**
+     * Restore {@link Trade} objects with their {@link Trade#getLocalId()} values, and {@link DetrimentalRecord} objects
+     * of a resumed test run. Trades similar to present ones are skipped. Local IDs of trades added afterwards start
+     * from the specified one, so that they do not clash with IDs of the trades saved before.
+     * <p>
+     * The parallel trades limit is not applied: the restored trades were within the limit when opened, and skipping
+     * any of them would drop an open trade of the test run. They are counted, so the limit still applies to the trades
+     * added afterwards, even if it was lowered for the resumed test run.
+     *
+     * @param restoredTrades
+     *         a non-null collection of trades with non-null local IDs
+     * @param restoredDetrimentalRecords
+     *         a non-null collection of detrimental records
+     * @param nextLocalId
+     *         the min local ID of trades added afterwards
+     */
+    public void restore(@NonNull Collection<Trade> restoredTrades,
+            @NonNull Collection<DetrimentalRecord> restoredDetrimentalRecords, long nextLocalId) {
+        checkNotNull(restoredTrades, Constants.NULL_ARGUMENT_MESSAGE, "restoredTrades");
+        checkNotNull(restoredDetrimentalRecords, Constants.NULL_ARGUMENT_MESSAGE, "restoredDetrimentalRecords");
+
+        restoredTrades.forEach(trade -> {
+            if (tradesBySimilarityKey.putIfAbsent(similarityKey(trade), trade) != null) {
+                return;
+            }
+            Long localId = trade.getLocalId();
+            trades.put(localId, trade);
+            forEachExchange(trade, exchangeName -> {
+                tradesByExchange.get(exchangeName).put(localId, trade);
+                tradesCounts.get(exchangeName).incrementAndGet();
+            });
+        });
+        detrimentalRecords.addAll(restoredDetrimentalRecords);
+        localIdSequence.accumulateAndGet(nextLocalId, Math::max);
     }
 
     /**
@@ -243,11 +346,41 @@ public class TradeContainer {
         return true;
     }
 
-    private boolean matchExchange(ExchangeName exchangeName, Trade trade) {
-        Position positionLong = trade.getPositionLong();
-        Position positionShort = trade.getPositionShort();
+    private boolean tryIncrementCount(ExchangeName exchangeName, int limit) {
+        AtomicLong tradesCount = tradesCounts.get(exchangeName);
+        if (limit <= 0) {
+            tradesCount.incrementAndGet();
+            return true;
+        }
+        long count;
+        do {
+            count = tradesCount.get();
+            if (count >= limit) {
+                return false;
+            }
+        } while (!tradesCount.compareAndSet(count, count + 1));
+        return true;
+    }
+
+    private void forEachExchange(Trade trade, Consumer<ExchangeName> action) {
+        ExchangeName exchangeShort = trade.getPositionShort().getExchange().getName();
+        ExchangeName exchangeLong = trade.getPositionLong().getExchange().getName();
+        action.accept(exchangeShort);
+        if (!exchangeShort.equals(exchangeLong)) {
+            action.accept(exchangeLong);
+        }
+    }
 
-        return (positionLong != null && exchangeName.equals(positionLong.getExchange().getName())) || (
-                positionShort != null && exchangeName.equals(positionShort.getExchange().getName()));
+    private static String similarityKey(Trade trade) {
+        return similarityKey(trade.getBase(), trade.getTarget(), trade.getPositionShort().getExchange().getName(),
+                             trade.getPositionLong().getExchange().getName());
+    }
+
+    private static String similarityKey(String base, String target, ExchangeName exchange1, ExchangeName exchange2) {
+        // symmetric in exchanges
+        if (exchange1.compareTo(exchange2) > 0) {
+            return base + Constants.DEFAULT_PAIR_DELIMITER + target + ':' + exchange2 + ':' + exchange1;
+        }
+        return base + Constants.DEFAULT_PAIR_DELIMITER + target + ':' + exchange1 + ':' + exchange2;
     }
 }
@@ -0,0 +1,39 @@
+package my.dub.dlp_pilot.service;
+
+import java.time.Duration;
+import java.util.Collection;
+import my.dub.dlp_pilot.model.Bar;
+import org.springframework.lang.NonNull;
+
+/**
+ * Service for write-behind persistence of {@link Bar}s built from tickers. Bars are queued by the caller and inserted
+ * to DB in batches by a dedicated writer, so that DB latency does not affect ticker processing.
+ */
+public interface BarPersistenceService {
+
+    /**
+     * Queue {@link Bar}s with their test run set to be inserted to DB. If the queue is full, the remaining bars are
+     * inserted synchronously on the calling thread.
+     *
+     * @param bars
+     *         a non-null collection of bars
+     */
+    void enqueue(@NonNull Collection<Bar> bars);
+
+    /**
+     * Wait until all queued {@link Bar}s are inserted to DB.
+     *
+     * @param timeout
+     *         a non-null maximum duration to wait for
+     *
+     * @return {@code true} if no bars are pending, {@code false} if the timeout has elapsed
+     */
+    boolean flush(@NonNull Duration timeout);
+
+    /**
+     * Check if any queued {@link Bar}s are not yet inserted to DB.
+     *
+     * @return {@code true} if there are pending bars, {@code false} otherwise
+     */
+    boolean hasPending();
+}
@@ -1,5 +1,6 @@
 package my.dub.dlp_pilot.service;
 
+import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
 import my.dub.dlp_pilot.model.Bar;
@@ -7,6 +8,7 @@ import my.dub.dlp_pilot.model.ExchangeName;
 import my.dub.dlp_pilot.model.TestRun;
 import my.dub.dlp_pilot.model.dto.BarAverage;
 import my.dub.dlp_pilot.model.dto.LastBar;
+import my.dub.dlp_pilot.model.dto.Ticker;
 import org.springframework.lang.NonNull;
 
 /**
@@ -15,7 +17,8 @@ import org.springframework.lang.NonNull;
 public interface BarService {
 
     /**
-     * Persist a collection of {@link Bar} entities, setting the passed {@link TestRun}.
+     * Persist a collection of {@link Bar} entities in bulk, setting the passed {@link TestRun}. Bars that were already
+     * persisted for the same test run, exchange, pair and open time are skipped.
      *
      * @param bars
      *         a non-null collection of Bars to persist
@@ -25,7 +28,33 @@ public interface BarService {
     void save(@NonNull Collection<Bar> bars, TestRun testRun);
 
     /**
-     * Delete all {@link Bar} entities, which have a specific {@link Bar#getTestRun()}.
+     * Fold polled {@link Ticker}s of a specific exchange into open {@link Bar}s of the price data base TimeFrame.
+     * Bars closed on the TimeFrame boundary are added to the averages and queued to be inserted to DB asynchronously,
+     * so that ticker processing does not wait for DB writes (see {@link #flushTickerBars(Duration)}).
+     *
+     * @param exchangeName
+     *         a non-null exchange name of the tickers
+     * @param tickers
+     *         a non-null collection of the current tickers of the exchange
+     * @param testRun
+     *         a non-null TestRun entity to set
+     */
+    void saveTickerBars(@NonNull ExchangeName exchangeName, @NonNull Collection<Ticker> tickers,
+            @NonNull TestRun testRun);
+
+    /**
+     * Wait until all {@link Bar}s queued by {@link #saveTickerBars} are inserted to DB.
+     *
+     * @param timeout
+     *         a non-null maximum duration to wait for
+     *
+     * @return {@code true} if all queued bars are inserted, {@code false} if the timeout has elapsed
+     */
+    boolean flushTickerBars(@NonNull Duration timeout);
+
+    /**
+     * Delete all {@link Bar} entities, which have a specific {@link Bar#getTestRun()}. Records are deleted in chunks,
+     * without loading them, and the progress is logged.
      *
      * @param testRun
      *         a non-null TestRun entity to filter on
@@ -36,38 +65,46 @@ public interface BarService {
 
     /**
      * Get all {@link BarAverage}s containing an average price <pre>(High+Low+Close)/3</pre> for a symbol pair on one
-     * exchange.
-     *
-     * @param testRun
-     *         a non-null TestRun entity to filter on
+     * exchange. Averages are served from memory, based on the bars saved within the current test run and opened within
+     * the price data capture period before the last bar of the pair.
      *
-     * @return a list of filtered BarAverages with a specific {@link Bar#getTestRun()}
+     * @return a list of BarAverages of the current test run
      */
-    List<BarAverage> loadAllBarAverages(@NonNull TestRun testRun);
+    List<BarAverage> loadAllBarAverages();
 
     /**
      * Get all {@link BarAverage}s containing an average price <pre>(High+Low+Close)/3</pre> for a symbol pair on a
-     * specific exchange.
+     * specific exchange. Averages are served from memory, based on the bars saved within the current test run and
+     * opened within the price data capture period before the last bar of the pair.
      *
-     * @param testRun
-     *         a non-null TestRun entity to filter on
      * @param exchangeName
      *         a non-null exchange name to filter on
      *
-     * @return a list of filtered BarAverages with a specific {@link Bar#getTestRun()} and {@link Bar#getExchangeName()}
+     * @return a list of BarAverages of the current test run with a specific {@link Bar#getExchangeName()}
      */
-    List<BarAverage> loadBarAverages(@NonNull TestRun testRun, @NonNull ExchangeName exchangeName);
+    List<BarAverage> loadBarAverages(@NonNull ExchangeName exchangeName);
 
     /**
      * Get all {@link LastBar}s containing the close time of the last {@link Bar} records for a symbol pair on a
-     * specific exchange.
+     * specific exchange. Last bars are served from memory, based on the bars saved within the current test run.
      *
-     * @param testRun
-     *         a non-null TestRun entity to filter on
      * @param exchangeName
      *         a non-null exchange name to filter on
      *
-     * @return a list of filtered LastBars with a specific {@link Bar#getTestRun()} and {@link Bar#getExchangeName()}
+     * @return a list of LastBars of the current test run with a specific {@link Bar#getExchangeName()}
+     */
+    List<LastBar> loadLastBars(@NonNull ExchangeName exchangeName);
+
+    /**
+     * Restore in-memory aggregates of {@link Bar} records of a resumed test run saved to DB before, for a specific
+     * exchange. Only the bars within the price data capture period are loaded.
+     *
+     * @param testRun
+     *         a non-null resumed TestRun entity
+     * @param exchangeName
+     *         a non-null exchange name
+     *
+     * @return the number of restored bars
      */
-    List<LastBar> loadLastBars(@NonNull TestRun testRun, @NonNull ExchangeName exchangeName);
+    int restoreBars(@NonNull TestRun testRun, @NonNull ExchangeName exchangeName);
 }
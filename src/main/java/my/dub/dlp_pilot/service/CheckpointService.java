@@ -0,0 +1,49 @@
+package my.dub.dlp_pilot.service;
+
+import java.util.Optional;
+import my.dub.dlp_pilot.model.TestRun;
+import my.dub.dlp_pilot.model.Trade;
+import my.dub.dlp_pilot.model.dto.TestRunCheckpoint;
+import org.springframework.lang.NonNull;
+
+/**
+ * A service for saving and restoring {@link TestRunCheckpoint}s of the current {@link TestRun} to a local file. The
+ * state persisted to DB (the test run, closed trades and bars) is not included in checkpoints. Checkpoints are
+ * disabled if the checkpoint file path parameter is empty.
+ */
+public interface CheckpointService {
+
+    /**
+     * Save a checkpoint of a specific test run, replacing the previous one. The checkpoint is written to a temporary
+     * file first, and moved to the checkpoint file atomically, so that an interrupted save does not corrupt the
+     * previous checkpoint.
+     *
+     * @param testRun
+     *         a non-null current {@link TestRun}
+     */
+    void save(@NonNull TestRun testRun);
+
+    /**
+     * Read the last saved checkpoint.
+     *
+     * @return the last saved checkpoint, or empty if there is none, or it cannot be read
+     */
+    Optional<TestRunCheckpoint> load();
+
+    /**
+     * Restore the in-memory state of a resumed test run from a checkpoint: trades not closed yet, detrimental records
+     * and the local ID sequence of trades. Trades being closed at checkpoint time are reopened, unless they have been
+     * saved to DB since. The local ID sequence continues after the max local ID of trades saved to DB.
+     *
+     * @param checkpoint
+     *         a non-null checkpoint of the test run
+     * @param testRun
+     *         a non-null resumed {@link TestRun}, set to the restored {@link Trade}s
+     */
+    void restore(@NonNull TestRunCheckpoint checkpoint, @NonNull TestRun testRun);
+
+    /**
+     * Delete the last saved checkpoint, so that a completed test run is not resumed.
+     */
+    void delete();
+}
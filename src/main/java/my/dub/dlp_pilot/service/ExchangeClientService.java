@@ -3,7 +3,9 @@ package my.dub.dlp_pilot.service;
 import java.io.IOException;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import my.dub.dlp_pilot.model.Bar;
 import my.dub.dlp_pilot.model.TimeFrame;
 import my.dub.dlp_pilot.model.dto.SymbolPair;
@@ -26,17 +28,16 @@ public interface ExchangeClientService {
     List<SymbolPair> fetchSymbolPairs() throws IOException;
 
     /**
-     * Get all latest tickers with symbol pairs from the specified list.
+     * Asynchronously get all latest tickers with symbol pairs from the specified index. Tickers of symbol pairs absent
+     * in the index are skipped. The calling thread is not blocked while waiting for the exchange response.
      *
      * @param symbolPairs
-     *         a non-null list of {@link SymbolPair} objects
+     *         a non-null map of {@link SymbolPair} objects keyed by {@link SymbolPair#getName()}
      *
-     * @return a set of recent {@link Ticker} objects
-     *
-     * @throws IOException
-     *         if an error occurs when executing request
+     * @return a future completing with a set of recent {@link Ticker} objects, or exceptionally if an error occurs
+     * when executing request
      */
-    Set<Ticker> fetchAllTickers(@NonNull List<SymbolPair> symbolPairs) throws IOException;
+    CompletableFuture<Set<Ticker>> fetchAllTickersAsync(@NonNull Map<String, SymbolPair> symbolPairs);
 
     /**
      * Get a list of bars for a specific symbol pair, time frame and within specific dates.
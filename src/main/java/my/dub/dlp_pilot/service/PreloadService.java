@@ -0,0 +1,34 @@
+package my.dub.dlp_pilot.service;
+
+import my.dub.dlp_pilot.exception.TestRunEndException;
+import my.dub.dlp_pilot.model.Bar;
+import my.dub.dlp_pilot.model.Exchange;
+import my.dub.dlp_pilot.model.TestRun;
+import org.springframework.lang.NonNull;
+
+/**
+ * A service for loading {@link Bar}s of all symbol pairs of an exchange on preload stage. The preload period of each
+ * symbol pair is split into time slices fetched by single requests, so that several requests are kept in flight, while
+ * the rate of requests is limited by the exchange rate limiter.
+ */
+public interface PreloadService {
+
+    /**
+     * Execute a single preload step for a specific exchange. The first step saves the bars cached on disk by previous
+     * test runs, and plans the time slices of all symbol pairs after the cached bars.
+     * Each step dispatches the next slice request, unless the number of requests in flight for the exchange has
+     * reached the configured limit, or no request permit is available. Fetched slices of a symbol pair are saved in
+     * order. Symbol pairs without any bars fetched are removed once the preload is complete.
+     *
+     * @param exchange
+     *         a non-null {@link Exchange}
+     * @param testRun
+     *         a non-null current {@link TestRun}
+     *
+     * @return {@code true} if preload is completed for the exchange, {@code false} otherwise
+     *
+     * @throws TestRunEndException
+     *         if a time slice could not be fetched or saved
+     */
+    boolean runPreload(@NonNull Exchange exchange, @NonNull TestRun testRun);
+}
@@ -10,8 +10,9 @@ import my.dub.dlp_pilot.model.dto.Ticker;
 import org.springframework.lang.NonNull;
 
 /**
- * A service for managing price differences via related DTOs. {@link PriceDifference} object contains average close
- * price values for symbol pairs on 2 different exchanges.
+ * A service for managing price differences via related DTOs. {@link PriceDifference} object registers a symbol pair
+ * traded on 2 different exchanges, while the average prices compared are read from the sliding windows of
+ * {@link my.dub.dlp_pilot.repository.container.BarAggregateContainer}.
  */
 public interface PriceDifferenceService {
 
@@ -24,18 +25,13 @@ public interface PriceDifferenceService {
      */
     void createPriceDifferences(@NonNull List<BarAverage> barAverages);
 
-    /**
-     * Update average close prices of existing cached {@link PriceDifference} objects.
-     *
-     * @param barAverages
-     *         a non-null list of {@link BarAverage} DTOs containing average close price data
-     */
-    void updatePriceDifferences(@NonNull List<BarAverage> barAverages);
-
     /**
      * Check all current {@link Ticker}s for similarity with {@link Ticker}s under a specific {@link ExchangeName}, and
-     * compare the ticker pairs found against the average price differences. If the current ticker price difference
-     * exceeds the average price difference - proceed to a new {@link Trade} creation check.
+     * compare the ticker pairs found against the current average price differences. If the current ticker price
+     * difference exceeds the average price difference - proceed to a new {@link Trade} creation check. Ticker pairs
+     * are screened on the {@link my.dub.dlp_pilot.repository.container.TickerPriceMatrix} before comparing exact
+     * prices. Only pairs updated under the specified exchange since its previous check are compared, except for
+     * periodic full scans.
      *
      * @param exchangeName
      *         a non-null {@link ExchangeName} for ticker check
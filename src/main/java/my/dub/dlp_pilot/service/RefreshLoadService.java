@@ -0,0 +1,31 @@
+package my.dub.dlp_pilot.service;
+
+import my.dub.dlp_pilot.model.Bar;
+import my.dub.dlp_pilot.model.ExchangeName;
+import my.dub.dlp_pilot.model.TestRun;
+import my.dub.dlp_pilot.service.client.RequestPriority;
+import org.springframework.lang.NonNull;
+
+/**
+ * A service for loading missing {@link Bar}s of symbol pairs of an exchange on refresh load stage. Bars are built from
+ * polled tickers during the test ({@link BarService#saveTickerBars}), so only symbol pairs with the last bar older
+ * than the time frame are refreshed. Each refresh cycle starts with the symbol pairs with open trades or close to a
+ * trade entry, requested with {@link RequestPriority#MEDIUM} priority. The remaining symbol pairs follow in index order
+ * with {@link RequestPriority#LOW} priority, spread evenly across the time frame.
+ */
+public interface RefreshLoadService {
+
+    /**
+     * Execute a single refresh load step for a specific exchange. The first step of a cycle selects the symbol pairs
+     * with missing bars and plans their order. Each step refreshes the next symbol pair, unless it is not due yet, or
+     * no request permit of its priority is available.
+     *
+     * @param exchangeName
+     *         a non-null {@link ExchangeName} of exchange
+     * @param testRun
+     *         a non-null current {@link TestRun}
+     *
+     * @return {@code true} if the refresh cycle is completed for the exchange, {@code false} otherwise
+     */
+    boolean runRefreshLoad(@NonNull ExchangeName exchangeName, @NonNull TestRun testRun);
+}
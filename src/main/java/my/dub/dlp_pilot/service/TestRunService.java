@@ -1,5 +1,6 @@
 package my.dub.dlp_pilot.service;
 
+import java.util.concurrent.CompletableFuture;
 import my.dub.dlp_pilot.model.Exchange;
 import my.dub.dlp_pilot.model.ExchangeName;
 import my.dub.dlp_pilot.model.TestRun;
@@ -16,12 +17,27 @@ public interface TestRunService {
     void init();
 
     /**
-     * Execute preload stage for a specific exchange.
+     * Resume the {@link TestRun} of the last saved checkpoint instead of initializing a new one. Bars of the test run
+     * within the price data capture period are restored from DB, and trades in progress from the checkpoint, so the
+     * preload stage and the stale interval wait are skipped. Missing bars are loaded on refresh load stage.
+     *
+     * @return {@code true} if the test run is resumed, {@code false} if there is no checkpoint, or its test run has
+     * ended
+     *
+     * @see CheckpointService
+     */
+    boolean resume();
+
+    /**
+     * Execute a single step of preload stage for a specific exchange. Each step dispatches at most one bar request,
+     * once a request permit is available.
      *
      * @param exchange
      *         a non-null {@link Exchange}
      *
      * @return {@code true} if preload stage is completed, {@code false} otherwise
+     *
+     * @see PreloadService
      */
     boolean runPreload(@NonNull Exchange exchange);
 
@@ -34,32 +50,41 @@ public interface TestRunService {
     void onPreloadComplete(@NonNull ExchangeName exchangeName);
 
     /**
-     * Execute refresh load stage for a specific exchange.
+     * Execute a single step of refresh load stage for a specific exchange. Each step refreshes at most one symbol pair,
+     * in the order of priority.
      *
      * @param exchangeName
      *         a non-null {@link ExchangeName} of exchange
      *
      * @return {@code true} if refresh load stage is completed, {@code false} otherwise
+     *
+     * @see RefreshLoadService
      */
     boolean runRefreshLoad(@NonNull ExchangeName exchangeName);
 
     /**
-     * Execute post-refresh load operations, distinguished by current state of preload stage.
+     * Execute post-refresh load operations. Average prices are kept up to date as bars are saved, and the last bars to
+     * refresh from are read at the start of each refresh cycle, so nothing is reloaded.
      *
      * @param exchangeName
      *         a non-null {@link ExchangeName} of exchange
-     * @param isPreloadComplete
-     *         a boolean flag indicating whether preload stage is complete ({@code true})
      */
-    void onRefreshLoadComplete(@NonNull ExchangeName exchangeName, boolean isPreloadComplete);
+    void onRefreshLoadComplete(@NonNull ExchangeName exchangeName);
 
     /**
-     * Execute test stage for a specific exchange.
+     * Execute test stage for a specific exchange. Tickers are fetched asynchronously, so the calling thread is not
+     * blocked while waiting for the exchange response. Fetched tickers are folded into bars ({@link
+     * BarService#saveTickerBars}), so that refresh load only fills the gaps.
+     * <p>
+     * Fetched tickers are processed on a dedicated bounded executor, one pass per exchange at a time. Fetches
+     * completed while the previous pass is still running are coalesced into the next pass.
      *
      * @param exchangeName
      *         a non-null {@link ExchangeName} of exchange
+     *
+     * @return a future completing when the tickers are fetched, before they are processed
      */
-    void runTest(@NonNull ExchangeName exchangeName);
+    CompletableFuture<Void> runTest(@NonNull ExchangeName exchangeName);
 
     /**
      * Execute pre-test operations common for all exchanges.
@@ -71,6 +96,20 @@ public interface TestRunService {
      */
     void onExit();
 
+    /**
+     * Save a checkpoint of the current {@link TestRun}, unless it has ended. Closed trades queued for persistence are
+     * flushed to DB before the checkpoint is taken.
+     *
+     * @see CheckpointService
+     */
+    void saveCheckpoint();
+
+    /**
+     * Delete bars of all previous {@link TestRun}s that have ended earlier than the bars retention duration (app
+     * parameter) ago. Does nothing if the retention is disabled.
+     */
+    void purgeExpiredBars();
+
     /**
      * Update the path to result file value of current {@link TestRun}.
      *
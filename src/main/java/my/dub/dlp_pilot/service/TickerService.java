@@ -3,6 +3,8 @@ package my.dub.dlp_pilot.service;
 import java.time.Duration;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import my.dub.dlp_pilot.exception.MissingEntityException;
 import my.dub.dlp_pilot.model.ExchangeName;
 import my.dub.dlp_pilot.model.dto.Ticker;
@@ -17,13 +19,18 @@ import org.springframework.retry.annotation.Retryable;
 public interface TickerService {
 
     /**
-     * Get recent tickers from the exchange with the specified {@link ExchangeName}. Save loaded objects to {@link
-     * TickerContainer}.
+     * Asynchronously get recent tickers from the exchange with the specified {@link ExchangeName}. Save loaded objects
+     * to {@link TickerContainer} on the passed executor once the response is parsed, so that the threads receiving
+     * exchange responses are not occupied by ticker processing.
      *
      * @param exchangeName
      *         a non-null exchange name
+     * @param executor
+     *         a non-null executor to save the loaded tickers on
+     *
+     * @return a future completing after the loaded tickers are saved
      */
-    void fetchAndSave(@NonNull ExchangeName exchangeName);
+    CompletableFuture<Void> fetchAndSaveAsync(@NonNull ExchangeName exchangeName, @NonNull Executor executor);
 
     /**
      * Get loaded tickers from {@link TickerContainer} with a specific {@link ExchangeName}.
@@ -36,11 +43,18 @@ public interface TickerService {
     Set<Ticker> getTickers(@NonNull ExchangeName exchangeName);
 
     /**
-     * Get all loaded tickers from {@link TickerContainer}.
+     * Get a loaded ticker from {@link TickerContainer} with specified exchange name, base and target.
      *
-     * @return a set containing all saved {@link Ticker} objects
+     * @param exchangeName
+     *         a non-null {@link ExchangeName} to filter on
+     * @param base
+     *         a non-null base to filter on
+     * @param target
+     *         a non-null target to filter on
+     *
+     * @return an {@link Optional} of the saved ticker
      */
-    Set<Ticker> getAllTickers();
+    Optional<Ticker> getTicker(@NonNull ExchangeName exchangeName, @NonNull String base, @NonNull String target);
 
     /**
      * Get a ticker with specified exchange name, base and target. If no matching object was found, throw {@link
@@ -58,20 +72,6 @@ public interface TickerService {
     @Retryable(value = MissingEntityException.class, backoff = @Backoff(0))
     Ticker getTickerWithRetry(@NonNull ExchangeName exchangeName, @NonNull String base, @NonNull String target);
 
-    /**
-     * Find an equivalent valid ticker to the original, from the passed ticker set. The equivalency is defined by
-     * equality of {@link Ticker#getBase()} and {@link Ticker#getTarget()}. The validity is defined by non-null positive
-     * or zero bid and ask prices.
-     *
-     * @param originalTicker
-     *         non-null ticker with input data for search
-     * @param tickerSet
-     *         non-null set of tickers to search in
-     *
-     * @return an {@link Optional} of similar ticker
-     */
-    Optional<Ticker> findValidEquivalentTickerFromSet(@NonNull Ticker originalTicker, @NonNull Set<Ticker> tickerSet);
-
     /**
      * Check separately if 1st and 2nd ticker passed are stale - the period from ticker creation is longer than duration
      * of passed stale interval. Update the {@link Ticker#isStale()} value.
@@ -0,0 +1,38 @@
+package my.dub.dlp_pilot.service;
+
+import java.time.Duration;
+import my.dub.dlp_pilot.model.Trade;
+import org.springframework.lang.NonNull;
+
+/**
+ * Service for write-behind persistence of closed {@link Trade}s. Closed trades are queued by the caller and saved to DB
+ * in batches by a dedicated writer, so that DB latency does not affect ticker processing.
+ */
+public interface TradePersistenceService {
+
+    /**
+     * Queue a closed {@link Trade} (with its positions) to be saved to DB. If the queue is full, the trade is saved
+     * synchronously on the calling thread.
+     *
+     * @param trade
+     *         a non-null closed trade
+     */
+    void enqueue(@NonNull Trade trade);
+
+    /**
+     * Wait until all queued {@link Trade}s are saved to DB.
+     *
+     * @param timeout
+     *         a non-null maximum duration to wait for
+     *
+     * @return {@code true} if no trades are pending, {@code false} if the timeout has elapsed
+     */
+    boolean flush(@NonNull Duration timeout);
+
+    /**
+     * Check if any queued {@link Trade}s are not yet saved to DB.
+     *
+     * @return {@code true} if there are pending trades, {@code false} otherwise
+     */
+    boolean hasPending();
+}
@@ -1,6 +1,7 @@
 package my.dub.dlp_pilot.service;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
 import my.dub.dlp_pilot.configuration.ParametersHolder;
@@ -10,10 +11,7 @@ import my.dub.dlp_pilot.model.Trade;
 import my.dub.dlp_pilot.model.TradeResultType;
 import my.dub.dlp_pilot.model.dto.Ticker;
 import my.dub.dlp_pilot.repository.container.TradeContainer;
-import org.hibernate.exception.LockAcquisitionException;
 import org.springframework.lang.NonNull;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
 
 /**
  * Service for core trade operations, as well as for managing {@link Trade} entities.
@@ -51,10 +49,9 @@ public interface TradeService {
             @NonNull BigDecimal averagePriceDifference, @NonNull TestRun testRun);
 
     /**
-     * A retryable method for handling all opened {@link Trade}s for a specific exchange. Retries in case of a {@link
-     * LockAcquisitionException} that may occur due to a heavily concurrent DB access.
-     * Closing a trade implies its removal from a local container and persisting to DB. For a trade to close, one of the
-     * following conditions should be met:
+     * Handle all opened {@link Trade}s for a specific exchange. Closing a trade implies its removal from a local
+     * container and queueing for persistence to DB ({@link TradePersistenceService}), so that no DB access is done on
+     * the calling thread. For a trade to close, one of the following conditions should be met:
      * <ul>
      *     <li>TIMEOUT - trade is opened longer than allowed before timeout (trade timeout duration app parameter)</li>
      *     <li>SUCCESSFUL - trade's income is currently greater than or equal to profit percentages set as app
@@ -66,20 +63,17 @@ public interface TradeService {
      * @param exchangeName
      *         a non-null {@link ExchangeName} of exchange
      */
-    @Retryable(value = LockAcquisitionException.class, backoff = @Backoff(100))
     void handleTrades(@NonNull ExchangeName exchangeName);
 
     /**
-     * A retryable method for closing all opened {@link Trade}s for a specific exchange with a set result type. Retries
-     * in case of a {@link LockAcquisitionException} that may occur due to a heavily concurrent DB access.
-     * Closing a trade implies its removal from a local container and persisting to DB.
+     * Close all opened {@link Trade}s for a specific exchange with a set result type. Closing a trade implies its
+     * removal from a local container and queueing for persistence to DB ({@link TradePersistenceService}).
      *
      * @param exchangeName
      *         a non-null {@link ExchangeName} of exchange
      * @param tradeResultType
      *         a non-null {@link TradeResultType} to set for all closed trades
      */
-    @Retryable(value = LockAcquisitionException.class, backoff = @Backoff(0))
     void closeTrades(@NonNull ExchangeName exchangeName, @NonNull TradeResultType tradeResultType);
 
     /**
@@ -101,9 +95,20 @@ public interface TradeService {
     void saveOrUpdate(Collection<Trade> trades);
 
     /**
-     * Check if all {@link Trade}s are closed - no records exist in local container ({@link TradeContainer}).
+     * Check if all {@link Trade}s are closed - no records exist in local container ({@link TradeContainer}) and all
+     * closed trades are saved to DB.
      *
      * @return {@code true} if all trades are closed, {@code false} otherwise
      */
     boolean isAllTradesClosed();
+
+    /**
+     * Wait until all closed {@link Trade}s are saved to DB.
+     *
+     * @param timeout
+     *         a non-null maximum duration to wait for
+     *
+     * @return {@code true} if all closed trades are saved, {@code false} if the timeout has elapsed
+     */
+    boolean flushClosedTrades(@NonNull Duration timeout);
 }
@@ -2,17 +2,30 @@ package my.dub.dlp_pilot.service.client;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
 import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import lombok.extern.slf4j.Slf4j;
 import my.dub.dlp_pilot.Constants;
+import my.dub.dlp_pilot.exception.client.UnexpectedEndpointResponseException;
+import my.dub.dlp_pilot.model.Bar;
 import my.dub.dlp_pilot.model.Exchange;
 import my.dub.dlp_pilot.model.ExchangeName;
+import my.dub.dlp_pilot.model.TimeFrame;
+import my.dub.dlp_pilot.model.dto.PriceData;
 import my.dub.dlp_pilot.model.dto.SymbolPair;
 import my.dub.dlp_pilot.service.ExchangeService;
 import org.springframework.beans.factory.InitializingBean;
@@ -55,7 +68,14 @@ public abstract class AbstractExchangeClientService implements InitializingBean
             log.trace("Null or empty price node found in response from {} exchange. Skipping...", exchangeFullName);
             return Optional.empty();
         }
-        String price = priceNode.asText();
+        return parsePrice(priceNode.asText());
+    }
+
+    protected Optional<BigDecimal> parsePrice(String price) {
+        if (price == null) {
+            log.trace("Null or empty price value found in response from {} exchange. Skipping...", exchangeFullName);
+            return Optional.empty();
+        }
         try {
             return Optional.of(new BigDecimal(price).setScale(Constants.PRICE_SCALE, RoundingMode.HALF_UP));
         } catch (NumberFormatException e) {
@@ -70,7 +90,14 @@ public abstract class AbstractExchangeClientService implements InitializingBean
             log.trace("Null or empty volume node found in response from {} exchange. Skipping...", exchangeFullName);
             return Optional.empty();
         }
-        String volume = volumeNode.asText();
+        return parseVolume(volumeNode.asText());
+    }
+
+    protected Optional<BigDecimal> parseVolume(String volume) {
+        if (volume == null) {
+            log.trace("Null or empty volume value found in response from {} exchange. Skipping...", exchangeFullName);
+            return Optional.empty();
+        }
         try {
             return Optional.of(new BigDecimal(volume).setScale(Constants.VOLUME_SCALE, RoundingMode.HALF_UP));
         } catch (NumberFormatException e) {
@@ -85,7 +112,15 @@ public abstract class AbstractExchangeClientService implements InitializingBean
             log.trace("Null or empty dateTime node found in response from {} exchange. Skipping...", exchangeFullName);
             return Optional.empty();
         }
-        String dateTimeStr = dateTimeNode.asText();
+        return parseDateTimeHR(dateTimeNode.asText());
+    }
+
+    protected Optional<Instant> parseDateTimeHR(String dateTimeStr) {
+        if (dateTimeStr == null) {
+            log.trace("Null or empty dateTime value found in response from {} exchange. Skipping...",
+                      exchangeFullName);
+            return Optional.empty();
+        }
         try {
             return Optional.of(Instant.parse(dateTimeStr));
         } catch (DateTimeParseException e) {
@@ -124,6 +159,263 @@ public abstract class AbstractExchangeClientService implements InitializingBean
         return Optional.of(dateTime);
     }
 
+    /**
+     * Read the current token of a streaming parser as a string. Nested objects and arrays are skipped whole, so the
+     * parser is always left at the last token of the value.
+     *
+     * @return the scalar value as a string, or {@code null} if the value is null, an object or an array
+     */
+    protected String readValueAsString(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token != null && token.isStructStart()) {
+            parser.skipChildren();
+            return null;
+        }
+        return parser.getValueAsString();
+    }
+
+    /**
+     * Read the current token of a streaming parser as a price value and pass it to the setter.
+     *
+     * @return {@code true} if the price was parsed and set
+     */
+    protected boolean readPrice(JsonParser parser, Consumer<BigDecimal> setter) throws IOException {
+        Optional<BigDecimal> price = parsePrice(readValueAsString(parser));
+        price.ifPresent(setter);
+        return price.isPresent();
+    }
+
+    /**
+     * Read the current token of a streaming parser as a volume value and pass it to the setter.
+     *
+     * @return {@code true} if the volume was parsed and set
+     */
+    protected boolean readVolume(JsonParser parser, Consumer<BigDecimal> setter) throws IOException {
+        Optional<BigDecimal> volume = parseVolume(readValueAsString(parser));
+        volume.ifPresent(setter);
+        return volume.isPresent();
+    }
+
+    /**
+     * Read the current token of a streaming parser as an exchange-specific symbol pair name, find the symbol pair and
+     * set its base and target to the price data object.
+     *
+     * @return {@code true} if the symbol pair was found in the passed index
+     */
+    protected boolean readSymbolPair(JsonParser parser, Map<String, SymbolPair> symbolPairs, PriceData priceData)
+            throws IOException {
+        return readSymbolPair(readValueAsString(parser), symbolPairs, priceData);
+    }
+
+    /**
+     * Find a symbol pair by its exchange-specific name and set its base and target to the price data object. Symbols
+     * absent in the index are rejected without any scan, so the rest of their data may be skipped by the caller.
+     *
+     * @return {@code true} if the symbol pair was found in the passed index
+     */
+    protected boolean readSymbolPair(String name, Map<String, SymbolPair> symbolPairs, PriceData priceData) {
+        SymbolPair symbolPair = name == null ? null : symbolPairs.get(name);
+        if (symbolPair == null) {
+            return false;
+        }
+        priceData.setBase(symbolPair.getBase());
+        priceData.setTarget(symbolPair.getTarget());
+        return true;
+    }
+
+    /**
+     * Read the rest of an unexpected response (usually an error object) and throw an exception describing it.
+     *
+     * @param parser
+     *         a streaming parser positioned at the first token of the unexpected value
+     * @param errorMessage
+     *         fallback message, used if the response does not contain error details
+     *
+     * @throws UnexpectedEndpointResponseException
+     *         in any case
+     */
+    protected <T> T readErrorResponse(JsonParser parser, String errorMessage) throws IOException {
+        JsonNode parentNode = parser.currentToken() == null ? null : parser.readValueAsTree();
+        if (parentNode != null) {
+            checkResponseStatus(parentNode, errorMessage);
+        }
+        throw new UnexpectedEndpointResponseException(exchangeFullName, errorMessage);
+    }
+
+    /**
+     * Read the rest of an array of scalar values found instead of the expected array of objects or arrays (usually an
+     * error array) and throw an exception describing it.
+     *
+     * @param parser
+     *         a streaming parser positioned at the first value of the array
+     * @param errorMessage
+     *         fallback message, used if the response does not contain error details
+     *
+     * @throws UnexpectedEndpointResponseException
+     *         in any case
+     */
+    protected <T> T readErrorArray(JsonParser parser, String errorMessage) throws IOException {
+        ArrayNode parentNode = JsonNodeFactory.instance.arrayNode();
+        for (JsonToken token = parser.currentToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+            parentNode.add((JsonNode) parser.readValueAsTree());
+        }
+        checkResponseStatus(parentNode, errorMessage);
+        throw new UnexpectedEndpointResponseException(exchangeFullName, errorMessage);
+    }
+
+    /**
+     * Read a response wrapped into a {@code {"code": 0, "data": ...}} envelope from a streaming parser. The data
+     * parser is invoked with the parser positioned at the first token of the data value.
+     *
+     * @param parser
+     *         a streaming parser positioned before the first token of the response
+     * @param errorMessage
+     *         message of the exception thrown if the response contains no data
+     * @param dataParser
+     *         a parser reading the data value
+     *
+     * @return the result of the data parser
+     *
+     * @throws UnexpectedEndpointResponseException
+     *         if the response code is not successful, or the response contains no data
+     */
+    protected <T> T readDataResponse(JsonParser parser, String errorMessage, ResponseParser<T> dataParser)
+            throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return readErrorResponse(parser, errorMessage);
+        }
+        String code = null;
+        String message = null;
+        T result = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken valueToken = parser.nextToken();
+            if ("code".equals(fieldName)) {
+                code = parser.getValueAsString();
+            } else if ("message".equals(fieldName)) {
+                message = parser.getValueAsString();
+            } else if ("data".equals(fieldName) && valueToken != JsonToken.VALUE_NULL && (code == null || "0"
+                    .equals(code))) {
+                result = dataParser.parse(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (code != null && !"0".equals(code)) {
+            throw new UnexpectedEndpointResponseException(exchangeFullName, code, message);
+        }
+        if (result == null) {
+            throw new UnexpectedEndpointResponseException(exchangeFullName, errorMessage);
+        }
+        return result;
+    }
+
+    /**
+     * Read a response containing an array of bars, each represented as an array of values, from a streaming parser.
+     * Bars not closed yet are skipped, reading stops at the first bar opened after the end time. Nested values are
+     * skipped whole: a bar with a nested value in place of a bar field is invalid, other nested values are ignored. An
+     * array of scalar values is read as an error array.
+     *
+     * @param parser
+     *         a streaming parser positioned before the first token of the response
+     * @param symbolPair
+     *         symbol pair of the bars
+     * @param timeFrame
+     *         time frame of the bars
+     * @param endTime
+     *         a nullable end time of the requested period
+     * @param fields
+     *         bar fields, in the order of values in each bar array. Values beyond the passed fields are ignored
+     *
+     * @return a list of parsed bars
+     */
+    protected List<Bar> readArrayBars(JsonParser parser, SymbolPair symbolPair, TimeFrame timeFrame, Instant endTime,
+            List<BarField> fields) throws IOException {
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            return readErrorResponse(parser, Constants.NO_BARS_FOUND_IN_RESPONSE_MSG);
+        }
+        List<Bar> bars = new ArrayList<>();
+        int barsCount = 0;
+        Instant now = Instant.now();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_ARRAY) {
+                if (barsCount == 0 && token.isScalarValue()) {
+                    return readErrorArray(parser, Constants.NO_BARS_FOUND_IN_RESPONSE_MSG);
+                }
+                parser.skipChildren();
+                continue;
+            }
+            barsCount++;
+            Bar bar = new Bar(exchangeName, symbolPair.getBase(), symbolPair.getTarget());
+            boolean valid = true;
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (valid && index < fields.size()) {
+                    valid = readBarField(parser, fields.get(index), bar, timeFrame);
+                } else {
+                    parser.skipChildren();
+                }
+                index++;
+            }
+            if (!valid || index < fields.size()) {
+                continue;
+            }
+            if (endTime != null && bar.getOpenTime().isAfter(endTime)) {
+                break;
+            }
+            if (bar.getCloseTime().isAfter(now)) {
+                continue;
+            }
+            bars.add(bar);
+        }
+        if (barsCount == 0) {
+            throw new UnexpectedEndpointResponseException(exchangeFullName, Constants.NO_BARS_FOUND_IN_RESPONSE_MSG);
+        }
+        return bars;
+    }
+
+    protected boolean readBarField(JsonParser parser, BarField field, Bar bar, TimeFrame timeFrame)
+            throws IOException {
+        switch (field) {
+            case OPEN_TIME_MILLIS:
+                return readBarTime(parser, ChronoUnit.MILLIS, bar, timeFrame);
+            case OPEN_TIME_SECONDS:
+                return readBarTime(parser, ChronoUnit.SECONDS, bar, timeFrame);
+            case OPEN:
+                return readPrice(parser, bar::setOpen);
+            case HIGH:
+                return readPrice(parser, bar::setHigh);
+            case LOW:
+                return readPrice(parser, bar::setLow);
+            case CLOSE:
+                return readPrice(parser, bar::setClose);
+            case VOLUME:
+                return readVolume(parser, bar::setVolume);
+            default:
+                parser.skipChildren();
+                return true;
+        }
+    }
+
+    private boolean readBarTime(JsonParser parser, ChronoUnit epochChronoUnit, Bar bar, TimeFrame timeFrame)
+            throws IOException {
+        String epochValue = readValueAsString(parser);
+        long epoch;
+        try {
+            epoch = Long.parseLong(epochValue);
+        } catch (NumberFormatException e) {
+            log.trace("Wrong dateTime found in response ({}) from {} exchange. Skipping...", epochValue,
+                      exchangeFullName);
+            return false;
+        }
+        Instant openTime =
+                ChronoUnit.SECONDS.equals(epochChronoUnit) ? Instant.ofEpochSecond(epoch) : Instant.ofEpochMilli(epoch);
+        bar.setOpenTime(openTime);
+        bar.setCloseTime(openTime.plus(timeFrame.getDuration()));
+        return true;
+    }
+
     protected boolean setSymbols(@NonNull String input, @NonNull String splitRegex, @NonNull SymbolPair symbolPair) {
         checkNotNull(input, Constants.NULL_ARGUMENT_MESSAGE, "input");
         checkNotNull(splitRegex, Constants.NULL_ARGUMENT_MESSAGE, "splitRegex");
@@ -171,4 +463,11 @@ public abstract class AbstractExchangeClientService implements InitializingBean
     }
 
     protected abstract void checkResponseStatus(JsonNode parentNode, String errorMessage);
+
+    /**
+     * Bar value types found in exchange responses.
+     */
+    protected enum BarField {
+        OPEN_TIME_MILLIS, OPEN_TIME_SECONDS, OPEN, HIGH, LOW, CLOSE, VOLUME, IGNORED
+    }
 }
@@ -1,73 +1,246 @@
 package my.dub.dlp_pilot.service.client;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.api.client.http.GenericUrl;
-import com.google.api.client.http.HttpRequest;
-import com.google.api.client.http.HttpRequestFactory;
-import com.google.api.client.http.HttpResponse;
-import com.google.api.client.http.HttpStatusCodes;
-import com.google.api.client.http.HttpTransport;
-import com.google.api.client.http.javanet.NetHttpTransport;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 import lombok.SneakyThrows;
 import my.dub.dlp_pilot.exception.client.UnexpectedResponseStatusCodeException;
+import my.dub.dlp_pilot.model.ExchangeName;
 import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.message.BasicNameValuePair;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
 /**
- * Client for executing HTTP requests.
+ * Client for executing HTTP requests. All requests share a single pooled keep-alive {@link HttpClient}, preferring
+ * HTTP/2 where the exchange supports it, and are executed asynchronously. Blocking methods are kept as thin wrappers
+ * over their asynchronous counterparts.
+ * <p>
+ * Hot paths should use the {@link ResponseParser} variants, which read the response stream token by token without
+ * building an intermediate tree.
+ * <p>
+ * Status codes and headers of all responses are reported to {@link ApiRateLimiter}, which tunes the request rate of
+ * the exchange.
  */
 @Service
-public class ApiClient {
+public class ApiClient implements DisposableBean {
 
-    private HttpTransport transport = new NetHttpTransport();
-    private HttpRequestFactory requestFactory = transport.createRequestFactory();
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
 
-    public String executeRequest(String url, String exchangeName) throws IOException {
-        HttpRequest req = requestFactory.buildGetRequest(new GenericUrl(url));
-        HttpResponse response = req.execute();
-        int statusCode = response.getStatusCode();
-        if (!HttpStatusCodes.isSuccess(statusCode)) {
-            throw new UnexpectedResponseStatusCodeException(exchangeName, statusCode, url);
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ExecutorService executor = Executors.newCachedThreadPool(new CustomizableThreadFactory("api-"));
+    private final HttpClient httpClient =
+            HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).connectTimeout(CONNECT_TIMEOUT)
+                    .followRedirects(HttpClient.Redirect.NORMAL).executor(executor).build();
+    private final ApiRateLimiter rateLimiter;
+
+    @Autowired
+    public ApiClient(ApiRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Wait for the completion of an asynchronous request, unwrapping the original cause of failure.
+     *
+     * @param future
+     *         a future returned by one of the asynchronous methods of this client
+     * @param <T>
+     *         type of the result
+     *
+     * @return the result of the request
+     *
+     * @throws IOException
+     *         if an error occurs when executing request
+     */
+    public static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
         }
-        return response.parseAsString();
     }
 
-    public String executeRequest(String baseUrl, String endpointUrl, String exchangeName) throws IOException {
+    public CompletableFuture<String> executeRequestAsync(String url, ExchangeName exchangeName) {
+        return sendAsync(url, exchangeName).thenApply(body -> {
+            try (InputStream inputStream = body) {
+                return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public String executeRequest(String url, ExchangeName exchangeName) throws IOException {
+        return await(executeRequestAsync(url, exchangeName));
+    }
+
+    public String executeRequest(String baseUrl, String endpointUrl, ExchangeName exchangeName) throws IOException {
         String fullUrl = baseUrl + endpointUrl;
         return executeRequest(fullUrl, exchangeName);
     }
 
-    @SneakyThrows(URISyntaxException.class)
+    /**
+     * Execute a GET request without blocking the calling thread, reading the response stream with the specified
+     * streaming parser.
+     *
+     * @param url
+     *         full request URL
+     * @param exchangeName
+     *         name of the exchange, used for rate limiting and error reporting
+     * @param responseParser
+     *         a parser reading the response body
+     * @param <T>
+     *         type of the parsing result
+     *
+     * @return a future completing with the parsing result, or exceptionally with an {@link
+     * UnexpectedResponseStatusCodeException} or an {@link IOException}
+     */
+    public <T> CompletableFuture<T> executeRequestParseResponseAsync(String url, ExchangeName exchangeName,
+            ResponseParser<T> responseParser) {
+        return sendAsync(url, exchangeName).thenApply(body -> {
+            try (JsonParser parser = mapper.getFactory().createParser(body)) {
+                return responseParser.parse(parser);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public <T> CompletableFuture<T> executeRequestParseResponseAsync(String baseUrl, String endpointUrl,
+            ExchangeName exchangeName, ResponseParser<T> responseParser) {
+        return executeRequestParseResponseAsync(baseUrl + endpointUrl, exchangeName, responseParser);
+    }
+
+    public <T> CompletableFuture<T> executeRequestParseResponseAsync(String baseUrl, String endpointUrl,
+            String queryParamKey, String queryParamValue, ExchangeName exchangeName, ResponseParser<T> responseParser) {
+        return executeRequestParseResponseAsync(buildUrl(baseUrl, endpointUrl, queryParamKey, queryParamValue),
+                                                exchangeName, responseParser);
+    }
+
+    public <T> T executeRequestParseResponse(String baseUrl, String endpointUrl, Map<String, String> queryParams,
+            ExchangeName exchangeName, ResponseParser<T> responseParser) throws IOException {
+        return await(executeRequestParseResponseAsync(buildUrl(baseUrl, endpointUrl, queryParams), exchangeName,
+                                                      responseParser));
+    }
+
+    /**
+     * Execute a GET request without blocking the calling thread. The response body is parsed directly from the
+     * incoming stream, without buffering it to a string first.
+     *
+     * @param url
+     *         full request URL
+     * @param exchangeName
+     *         name of the exchange, used for rate limiting and error reporting
+     *
+     * @return a future completing with the root node of the response, or exceptionally with an {@link
+     * UnexpectedResponseStatusCodeException} or an {@link IOException}
+     */
+    public CompletableFuture<JsonNode> executeRequestParseResponseAsync(String url, ExchangeName exchangeName) {
+        return sendAsync(url, exchangeName).thenApply(body -> {
+            try (InputStream inputStream = body) {
+                return mapper.readTree(inputStream);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public CompletableFuture<JsonNode> executeRequestParseResponseAsync(String baseUrl, String endpointUrl,
+            ExchangeName exchangeName) {
+        return executeRequestParseResponseAsync(baseUrl + endpointUrl, exchangeName);
+    }
+
+    public CompletableFuture<JsonNode> executeRequestParseResponseAsync(String baseUrl, String endpointUrl,
+            String queryParamKey, String queryParamValue, ExchangeName exchangeName) {
+        return executeRequestParseResponseAsync(buildUrl(baseUrl, endpointUrl, queryParamKey, queryParamValue),
+                                                exchangeName);
+    }
+
     public JsonNode executeRequestParseResponse(String baseUrl, String endpointUrl, Map<String, String> queryParams,
-            String exchangeName) throws IOException {
-        String fullUrl = new URIBuilder(baseUrl + endpointUrl).addParameters(
+            ExchangeName exchangeName) throws IOException {
+        return executeRequestParseResponse(buildUrl(baseUrl, endpointUrl, queryParams), exchangeName);
+    }
+
+    public JsonNode executeRequestParseResponse(String baseUrl, String endpointUrl, String queryParamKey,
+            String queryParamValue, ExchangeName exchangeName) throws IOException {
+        return await(executeRequestParseResponseAsync(baseUrl, endpointUrl, queryParamKey, queryParamValue,
+                                                      exchangeName));
+    }
+
+    public JsonNode executeRequestParseResponse(String url, ExchangeName exchangeName) throws IOException {
+        return await(executeRequestParseResponseAsync(url, exchangeName));
+    }
+
+    public JsonNode executeRequestParseResponse(String baseUrl, String endpointUrl, ExchangeName exchangeName)
+            throws IOException {
+        return await(executeRequestParseResponseAsync(baseUrl, endpointUrl, exchangeName));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    @SneakyThrows(URISyntaxException.class)
+    private String buildUrl(String baseUrl, String endpointUrl, Map<String, String> queryParams) {
+        return new URIBuilder(baseUrl + endpointUrl).addParameters(
                 queryParams.entrySet().stream().map(entry -> new BasicNameValuePair(entry.getKey(), entry.getValue()))
                         .collect(Collectors.toList())).build().toString();
-        return executeRequestParseResponse(fullUrl, exchangeName);
     }
 
     @SneakyThrows(URISyntaxException.class)
-    public JsonNode executeRequestParseResponse(String baseUrl, String endpointUrl, String queryParamKey,
-            String queryParamValue, String exchangeName) throws IOException {
-        String fullUrl =
-                new URIBuilder(baseUrl + endpointUrl).addParameter(queryParamKey, queryParamValue).build().toString();
-        return executeRequestParseResponse(fullUrl, exchangeName);
+    private String buildUrl(String baseUrl, String endpointUrl, String queryParamKey, String queryParamValue) {
+        return new URIBuilder(baseUrl + endpointUrl).addParameter(queryParamKey, queryParamValue).build().toString();
     }
 
-    public JsonNode executeRequestParseResponse(String url, String exchangeName) throws IOException {
-        ObjectMapper mapper = new ObjectMapper();
-        return mapper.readTree(executeRequest(url, exchangeName));
+    private CompletableFuture<InputStream> sendAsync(String url, ExchangeName exchangeName) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(REQUEST_TIMEOUT).GET().build();
+        return httpClient.sendAsync(request, BodyHandlers.ofInputStream()).thenApply(response -> {
+            int statusCode = response.statusCode();
+            rateLimiter.onResponse(exchangeName, statusCode, response.headers());
+            if (statusCode < 200 || statusCode >= 300) {
+                closeQuietly(response);
+                throw new UnexpectedResponseStatusCodeException(exchangeName.getFullName(), statusCode, url);
+            }
+            return response.body();
+        });
     }
 
-    public JsonNode executeRequestParseResponse(String baseUrl, String endpointUrl, String exchangeName)
-            throws IOException {
-        ObjectMapper mapper = new ObjectMapper();
-        return mapper.readTree(executeRequest(baseUrl, endpointUrl, exchangeName));
+    private void closeQuietly(HttpResponse<InputStream> response) {
+        try {
+            response.body().close();
+        } catch (IOException ignored) {
+            // the response is discarded anyway
+        }
     }
 }
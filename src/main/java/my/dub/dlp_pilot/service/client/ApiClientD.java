@@ -120,7 +120,8 @@ public class ApiClientD {
 
     private Map<String, String> fetchHuobiSymbols(Exchange huobiExchange) throws IOException {
         String exchangeName = huobiExchange.getFullName();
-        String resp = apiClient.executeRequest(huobiExchange.getBaseEndpoint(), "v1/common/symbols", exchangeName);
+        String resp = apiClient.executeRequest(huobiExchange.getBaseEndpoint(), "v1/common/symbols",
+                                               huobiExchange.getName());
 
         ObjectMapper objectMapper = new ObjectMapper();
         JsonNode parentNode = objectMapper.readTree(resp);
@@ -152,7 +153,7 @@ public class ApiClientD {
      */
     private Set<Ticker> fetchBitBayTickers(Exchange exchange) throws IOException {
         String exchangeName = exchange.getFullName();
-        String resp = apiClient.executeRequest(exchange.getBaseEndpoint(), "trading/ticker", exchangeName);
+        String resp = apiClient.executeRequest(exchange.getBaseEndpoint(), "trading/ticker", exchange.getName());
         ObjectMapper objectMapper = new ObjectMapper();
         JsonNode parentNode = objectMapper.readTree(resp);
         JsonNode statusNode = parentNode.get(STATUS);
@@ -204,7 +205,7 @@ public class ApiClientD {
      */
     private Set<Ticker> fetchBitmartTickers(Exchange exchange) throws IOException {
         String exchangeName = exchange.getFullName();
-        String resp = apiClient.executeRequest(exchange.getBaseEndpoint(), TICKER, exchangeName);
+        String resp = apiClient.executeRequest(exchange.getBaseEndpoint(), TICKER, exchange.getName());
         ObjectMapper objectMapper = new ObjectMapper();
         JsonNode parentNode = objectMapper.readTree(resp);
         if (parentNode == null || parentNode.isEmpty()) {
@@ -238,7 +239,7 @@ public class ApiClientD {
      */
     private Set<Ticker> fetchBittrexTickers(Exchange exchange) throws IOException {
         String exchangeName = exchange.getFullName();
-        String resp = apiClient.executeRequest(exchange.getBaseEndpoint(), "markets/tickers", exchangeName);
+        String resp = apiClient.executeRequest(exchange.getBaseEndpoint(), "markets/tickers", exchange.getName());
         ObjectMapper objectMapper = new ObjectMapper();
         JsonNode parentNode = objectMapper.readTree(resp);
 
@@ -275,7 +276,7 @@ public class ApiClientD {
      */
     private Set<Ticker> fetchExmoTickers(Exchange exchange) throws IOException {
         String exchangeName = exchange.getFullName();
-        String resp = apiClient.executeRequest(exchange.getBaseEndpoint(), TICKER, exchangeName);
+        String resp = apiClient.executeRequest(exchange.getBaseEndpoint(), TICKER, exchange.getName());
         JsonNode parentNode = new ObjectMapper().readTree(resp);
         if (parentNode == null || parentNode.isEmpty()) {
             throw new UnexpectedEndpointResponseException(exchangeName, NO_TICKERS_FOUND_IN_RESPONSE_MSG);
@@ -309,7 +310,7 @@ public class ApiClientD {
      */
     private Set<Ticker> fetchHuobiTickers(Exchange exchange) throws IOException {
         String exchangeName = exchange.getFullName();
-        String resp = apiClient.executeRequest(exchange.getBaseEndpoint(), "market/tickers", exchangeName);
+        String resp = apiClient.executeRequest(exchange.getBaseEndpoint(), "market/tickers", exchange.getName());
         JsonNode parentNode = new ObjectMapper().readTree(resp);
         if (parentNode == null || parentNode.isEmpty()) {
             throw new UnexpectedEndpointResponseException(exchangeName, NO_TICKERS_FOUND_IN_RESPONSE_MSG);
@@ -0,0 +1,238 @@
+package my.dub.dlp_pilot.service.client;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.net.http.HttpHeaders;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import my.dub.dlp_pilot.Constants;
+import my.dub.dlp_pilot.model.Exchange;
+import my.dub.dlp_pilot.model.ExchangeName;
+import my.dub.dlp_pilot.service.ExchangeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * A token bucket per exchange, shared by all requests to the exchange. A bucket refills at the rate of {@link
+ * Exchange#getApiRequestsPerMinPreload()} requests per minute and holds up to {@link #BURST_DURATION} worth of
+ * requests, so that short bursts are allowed. Requests of lower {@link RequestPriority} leave a share of the burst
+ * capacity for requests of higher priority.
+ * <p>
+ * The rate adapts to the responses reported by {@link ApiClient}. When the exchange throttles requests (HTTP 429 or
+ * 418), the rate is halved and the bucket is paused for the {@code Retry-After} period. When the used request weight
+ * reported by Binance approaches its limit, the bucket is paused until the weight is reset. Successful responses then
+ * restore the rate gradually.
+ */
+@Slf4j
+@Component
+public class ApiRateLimiter {
+
+    private static final Duration BURST_DURATION = Duration.ofSeconds(10);
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(30);
+    private static final double DECREASE_FACTOR = 0.5;
+    private static final double MIN_RATE_FACTOR = 0.1;
+    // share of the configured rate restored on each successful response
+    private static final double INCREASE_FACTOR = 0.02;
+    private static final int STATUS_TOO_MANY_REQUESTS = 429;
+    // sent by Binance to clients which keep sending requests after 429
+    private static final int STATUS_IP_BANNED = 418;
+    private static final String RETRY_AFTER_HEADER = "Retry-After";
+    private static final String BINANCE_USED_WEIGHT_HEADER = "X-MBX-USED-WEIGHT-1M";
+    private static final int BINANCE_WEIGHT_LIMIT = 1200;
+    private static final double USED_WEIGHT_THRESHOLD = 0.9;
+
+    private final ExchangeService exchangeService;
+    private final Map<ExchangeName, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ApiRateLimiter(ExchangeService exchangeService) {
+        this.exchangeService = exchangeService;
+    }
+
+    /**
+     * Take a permit of {@link RequestPriority#HIGH} priority for a request to a specific exchange, if one is available
+     * immediately.
+     *
+     * @param exchangeName
+     *         a non-null exchange name
+     *
+     * @return {@code true} if the permit was taken
+     */
+    public boolean tryAcquire(@NonNull ExchangeName exchangeName) {
+        return tryAcquire(exchangeName, RequestPriority.HIGH);
+    }
+
+    /**
+     * Take a permit for a request to a specific exchange, if one is available immediately for the priority.
+     *
+     * @param exchangeName
+     *         a non-null exchange name
+     * @param priority
+     *         a non-null priority of the request
+     *
+     * @return {@code true} if the permit was taken
+     */
+    public boolean tryAcquire(@NonNull ExchangeName exchangeName, @NonNull RequestPriority priority) {
+        checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, "exchangeName");
+        checkNotNull(priority, Constants.NULL_ARGUMENT_MESSAGE, "priority");
+
+        return getBucket(exchangeName).tryAcquire(System.nanoTime(), priority);
+    }
+
+    /**
+     * Reserve a permit of {@link RequestPriority#HIGH} priority for a request to a specific exchange. The permit is
+     * taken in any case, the request should be sent no earlier than the returned delay has elapsed.
+     *
+     * @param exchangeName
+     *         a non-null exchange name
+     *
+     * @return a non-null, non-negative delay before the request may be sent
+     */
+    public Duration reserve(@NonNull ExchangeName exchangeName) {
+        checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, "exchangeName");
+
+        return Duration.ofNanos(getBucket(exchangeName).reserve(System.nanoTime()));
+    }
+
+    /**
+     * Get the current rate of requests to a specific exchange.
+     *
+     * @param exchangeName
+     *         a non-null exchange name
+     *
+     * @return the number of requests per minute
+     */
+    public double getRequestsPerMin(@NonNull ExchangeName exchangeName) {
+        checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, "exchangeName");
+
+        return getBucket(exchangeName).getRequestsPerMin();
+    }
+
+    void onResponse(ExchangeName exchangeName, int statusCode, HttpHeaders headers) {
+        String exchangeFullName = exchangeName.getFullName();
+        TokenBucket bucket = getBucket(exchangeName);
+        long now = System.nanoTime();
+        if (statusCode == STATUS_TOO_MANY_REQUESTS || statusCode == STATUS_IP_BANNED) {
+            Duration retryAfter = parseRetryAfter(headers).orElse(DEFAULT_RETRY_AFTER);
+            bucket.throttle(now, retryAfter, true);
+            log.warn("{} exchange throttled requests (HTTP {})! Pausing requests for {}s, rate lowered to {} "
+                             + "requests/min", exchangeFullName, statusCode, retryAfter.toSeconds(),
+                     Math.round(bucket.getRequestsPerMin()));
+            return;
+        }
+        Optional<Integer> usedWeight = parseInt(headers, BINANCE_USED_WEIGHT_HEADER);
+        if (usedWeight.isPresent() && usedWeight.get() >= BINANCE_WEIGHT_LIMIT * USED_WEIGHT_THRESHOLD) {
+            Instant current = Instant.now();
+            Duration untilReset = Duration.between(current, current.truncatedTo(ChronoUnit.MINUTES).plusSeconds(60));
+            bucket.throttle(now, untilReset, false);
+            log.warn("{} exchange used weight {} of {}! Pausing requests for {}s", exchangeFullName, usedWeight.get(),
+                     BINANCE_WEIGHT_LIMIT, untilReset.toSeconds());
+            return;
+        }
+        if (statusCode >= 200 && statusCode < 300 && bucket.restore(now)) {
+            log.info("Request rate of {} exchange restored to {} requests/min", exchangeFullName,
+                     Math.round(bucket.getRequestsPerMin()));
+        }
+    }
+
+    private TokenBucket getBucket(ExchangeName exchangeName) {
+        return buckets.computeIfAbsent(exchangeName, name -> new TokenBucket(
+                exchangeService.findByName(name).getApiRequestsPerMinPreload(), System.nanoTime()));
+    }
+
+    private static Optional<Duration> parseRetryAfter(HttpHeaders headers) {
+        // HTTP-date values are not sent by supported exchanges
+        return parseInt(headers, RETRY_AFTER_HEADER).filter(seconds -> seconds > 0).map(Duration::ofSeconds);
+    }
+
+    private static Optional<Integer> parseInt(HttpHeaders headers, String name) {
+        try {
+            return headers.firstValue(name).map(String::trim).map(Integer::valueOf);
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    static final class TokenBucket {
+
+        private static final double NANOS_PER_MIN = 60e9;
+
+        private final double configuredRate;
+        private final double minRate;
+        private final double capacity;
+
+        // tokens per nanosecond
+        private double rate;
+        // negative if permits were reserved ahead of time
+        private double tokens;
+        // in the future while the bucket is paused
+        private long lastRefillTime;
+
+        TokenBucket(int requestsPerMin, long now) {
+            configuredRate = Math.max(1, requestsPerMin) / NANOS_PER_MIN;
+            minRate = configuredRate * MIN_RATE_FACTOR;
+            capacity = Math.max(1, configuredRate * BURST_DURATION.toNanos());
+            rate = configuredRate;
+            tokens = capacity;
+            lastRefillTime = now;
+        }
+
+        synchronized boolean tryAcquire(long now, RequestPriority priority) {
+            refill(now);
+            double reservedTokens = Math.floor(capacity * priority.getReservedShare());
+            if (now < lastRefillTime || tokens - 1 < reservedTokens) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+
+        synchronized long reserve(long now) {
+            refill(now);
+            tokens--;
+            long waitTime = lastRefillTime - now;
+            if (tokens < 0) {
+                waitTime += (long) Math.ceil(-tokens / rate);
+            }
+            return Math.max(0, waitTime);
+        }
+
+        synchronized void throttle(long now, Duration pause, boolean lowerRate) {
+            refill(now);
+            if (lowerRate) {
+                rate = Math.max(minRate, rate * DECREASE_FACTOR);
+            }
+            tokens = Math.min(tokens, 0);
+            lastRefillTime = Math.max(lastRefillTime, now + pause.toNanos());
+        }
+
+        /**
+         * @return {@code true} if the rate has just reached the configured rate
+         */
+        synchronized boolean restore(long now) {
+            if (rate >= configuredRate) {
+                return false;
+            }
+            refill(now);
+            rate = Math.min(configuredRate, rate + configuredRate * INCREASE_FACTOR);
+            return rate >= configuredRate;
+        }
+
+        synchronized double getRequestsPerMin() {
+            return rate * NANOS_PER_MIN;
+        }
+
+        private void refill(long now) {
+            if (now > lastRefillTime) {
+                tokens = Math.min(capacity, tokens + (now - lastRefillTime) * rate);
+                lastRefillTime = now;
+            }
+        }
+    }
+}
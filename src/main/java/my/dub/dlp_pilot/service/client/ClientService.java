@@ -4,6 +4,7 @@ import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import my.dub.dlp_pilot.exception.TestRunEndException;
 import my.dub.dlp_pilot.model.Bar;
 import my.dub.dlp_pilot.model.ExchangeName;
@@ -21,7 +22,8 @@ public interface ClientService {
 
     /**
      * Get all relevant (with similar pairs on other exchanges) symbol pairs for each exchange among passed. Add all
-     * fetched objects to {@link SymbolPairContainer}.
+     * fetched objects to {@link SymbolPairContainer}. Symbol pairs loaded from cache are updated in the container
+     * once they are refreshed in the background.
      *
      * @param exchangeNames
      *         a non-null collection of {@link ExchangeName} of exchanges
@@ -32,49 +34,37 @@ public interface ClientService {
     void loadAllSymbolPairs(@NonNull Collection<ExchangeName> exchangeNames);
 
     /**
-     * Get the number of loaded {@link SymbolPair}s for a specific exchange.
+     * Remove a loaded {@link SymbolPair}. Does nothing if the symbol pair is not loaded.
      *
-     * @param exchangeName
-     *         the non-null {@link ExchangeName} of exchange
-     *
-     * @return the number of loaded symbol pairs for a specific exchange
-     */
-    int getSymbolPairsCount(@NonNull ExchangeName exchangeName);
-
-    /**
-     * Remove a loaded {@link SymbolPair} of a specific exchange by its storage index.
-     *
-     * @param exchangeName
-     *         the non-null {@link ExchangeName} of exchange
-     * @param index
-     *         symbol pair storage index
+     * @param symbolPair
+     *         the non-null symbol pair
      *
      * @see SymbolPairContainer
      */
-    void removeSymbolPair(@NonNull ExchangeName exchangeName, int index);
+    void removeSymbolPair(@NonNull SymbolPair symbolPair);
 
     /**
-     * Get recent ticker for each symbol pair of a specific exchange. Set the exchange faulty if any error occurs.
+     * Asynchronously get recent ticker for each symbol pair of a specific exchange. Set the exchange faulty if any
+     * error occurs. The calling thread is released as soon as the request is sent.
      *
      * @param exchangeName
      *         the non-null {@link ExchangeName} of exchange
      *
-     * @return a set (possibly empty) of loaded tickers
+     * @return a future completing with a set (possibly empty) of loaded tickers. The future never completes
+     * exceptionally because of request errors
      */
-    Set<Ticker> fetchTickers(@NonNull ExchangeName exchangeName);
+    CompletableFuture<Set<Ticker>> fetchTickersAsync(@NonNull ExchangeName exchangeName);
 
     /**
-     * Get a list of bars for a time frame, within specific dates, and for a symbol pair with a storage index, from a
-     * specific exchange. Intended to be invoked on preload stage.
+     * Get a list of bars for a time frame, within specific dates, and for a symbol pair, from the exchange of the
+     * symbol pair. Intended to be invoked on preload stage.
      *
-     * @param exchangeName
-     *         non-null {@link ExchangeName} of exchange
+     * @param symbolPair
+     *         non-null {@link SymbolPair}
      * @param timeFrame
      *         non-null preload {@link TimeFrame}
      * @param startTime
      *         non-null {@link Instant} preload start time
-     * @param symbolPairIndex
-     *         symbol pair storage index
      * @param endTime
      *         non-null {@link Instant} preload end time
      *
@@ -83,26 +73,24 @@ public interface ClientService {
      * @throws TestRunEndException
      *         if an {@link java.io.IOException} occurs during load process
      */
-    List<Bar> fetchBarsPreload(@NonNull ExchangeName exchangeName, @NonNull TimeFrame timeFrame,
-            @NonNull Instant startTime, int symbolPairIndex, Instant endTime);
+    List<Bar> fetchBarsPreload(@NonNull SymbolPair symbolPair, @NonNull TimeFrame timeFrame,
+            @NonNull Instant startTime, @NonNull Instant endTime);
 
     /**
-     * Get a list of bars for a time frame and for a symbol pair with a storage index, from a specific exchange. Bars
-     * are loaded only if the similar last bar, recorded to DB, is older than the selected time frame. Intended to be
-     * invoked on refresh load stage.
+     * Get a list of bars for a time frame and for a symbol pair, from the exchange of the symbol pair. Bars are loaded
+     * only if the similar last bar, recorded to DB, is older than the selected time frame. Intended to be invoked on
+     * refresh load stage.
      *
-     * @param exchangeName
-     *         non-null {@link ExchangeName} of exchange
+     * @param symbolPair
+     *         non-null {@link SymbolPair}
      * @param timeFrame
      *         non-null {@link TimeFrame}
-     * @param symbolPairIndex
-     *         symbol pair storage index
      * @param lastBars
      *         a non-null collection of {@link LastBar} containing data for the last bar records in DB
      *
      * @return a list of loaded bars
      */
-    List<Bar> fetchBars(@NonNull ExchangeName exchangeName, @NonNull TimeFrame timeFrame, int symbolPairIndex,
+    List<Bar> fetchBars(@NonNull SymbolPair symbolPair, @NonNull TimeFrame timeFrame,
             @NonNull Collection<LastBar> lastBars);
 
     /**
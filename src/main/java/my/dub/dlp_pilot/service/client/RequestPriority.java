@@ -0,0 +1,23 @@
+package my.dub.dlp_pilot.service.client;
+
+import lombok.Getter;
+
+/**
+ * Priority of a request permit taken from {@link ApiRateLimiter}. A permit of lower priority is given only if the share
+ * of the burst capacity reserved for higher priorities is left in the bucket after taking it.
+ */
+@Getter
+public enum RequestPriority {
+    // ticker polls and preload
+    HIGH(0),
+    // refresh load of symbol pairs with open trades or close to a trade entry
+    MEDIUM(0.2),
+    // refresh load of the remaining symbol pairs
+    LOW(0.4);
+
+    private final double reservedShare;
+
+    RequestPriority(double reservedShare) {
+        this.reservedShare = reservedShare;
+    }
+}
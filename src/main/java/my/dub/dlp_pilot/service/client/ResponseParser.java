@@ -0,0 +1,27 @@
+package my.dub.dlp_pilot.service.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import java.io.IOException;
+
+/**
+ * Parser of an HTTP response body, reading tokens directly from the response stream.
+ *
+ * @param <T>
+ *         type of the parsing result
+ */
+@FunctionalInterface
+public interface ResponseParser<T> {
+
+    /**
+     * Read the response body into a result object.
+     *
+     * @param parser
+     *         a streaming {@link JsonParser} positioned before the first token of the response body
+     *
+     * @return the result object
+     *
+     * @throws IOException
+     *         if an error occurs when reading the response body
+     */
+    T parse(JsonParser parser) throws IOException;
+}
@@ -0,0 +1,325 @@
+package my.dub.dlp_pilot.service.impl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import my.dub.dlp_pilot.Constants;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * A base for write-behind persistence services. A single writer thread drains the bounded queue, writing a batch once
+ * it reaches the batch size or once the write interval has elapsed since its first record. A batch that cannot be
+ * written is retried, and then written record by record, so that a single invalid record does not block the rest.
+ * <p>
+ * Records that still cannot be written are retried by the writer with an exponential backoff until they are written,
+ * and stay pending meanwhile. Only records rejected by DB constraints are dropped, as retries cannot help.
+ *
+ * @param <T>
+ *         type of the persisted records
+ */
+@Slf4j
+public abstract class AbstractWriteBehindService<T> implements InitializingBean, DisposableBean {
+
+    private static final int QUEUE_CAPACITY_BATCHES = 64;
+    private static final int MAX_BATCH_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_MILLIS = 1000;
+    private static final long MAX_RETRY_DELAY_MILLIS = Duration.ofMinutes(1).toMillis();
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String threadNamePrefix;
+    // plural noun of the records, used in logs
+    private final String recordsName;
+    // queued records and records being written or waiting for retry
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final Object flushMonitor = new Object();
+    // records not written, waiting for their next attempt; accessed by the writer thread only
+    private final List<Retry<T>> retries = new ArrayList<>();
+
+    private BlockingQueue<T> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    protected AbstractWriteBehindService(String threadNamePrefix, String recordsName) {
+        this.threadNamePrefix = threadNamePrefix;
+        this.recordsName = recordsName;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        queue = new ArrayBlockingQueue<>(getBatchSize() * QUEUE_CAPACITY_BATCHES);
+        running = true;
+        writer = new CustomizableThreadFactory(threadNamePrefix).newThread(this::writeBatches);
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Wait until all queued records are written to DB.
+     *
+     * @param timeout
+     *         a non-null maximum duration to wait for
+     *
+     * @return {@code true} if no records are pending, {@code false} if the timeout has elapsed
+     */
+    public boolean flush(@NonNull Duration timeout) {
+        checkNotNull(timeout, Constants.NULL_ARGUMENT_MESSAGE, "timeout");
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (flushMonitor) {
+            while (hasPending()) {
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMillis <= 0) {
+                    return false;
+                }
+                try {
+                    flushMonitor.wait(remainingMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check if any queued records are not yet written to DB.
+     *
+     * @return {@code true} if there are pending records, {@code false} otherwise
+     */
+    public boolean hasPending() {
+        return pendingCount.get() > 0;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        writer.join(SHUTDOWN_TIMEOUT.toMillis());
+        if (hasPending()) {
+            log.error("{} {} were not written on shutdown!", pendingCount.get(), recordsName);
+        }
+    }
+
+    /**
+     * Queue records to be written to DB. If the queue is full, the remaining records are written synchronously on the
+     * calling thread.
+     *
+     * @param records
+     *         a non-null collection of records
+     */
+    protected void enqueueAll(@NonNull Collection<T> records) {
+        List<T> notQueued = new ArrayList<>();
+        for (T record : records) {
+            pendingCount.incrementAndGet();
+            if (!running || !queue.offer(record)) {
+                notQueued.add(record);
+            }
+        }
+        if (notQueued.isEmpty()) {
+            return;
+        }
+        log.warn("{} {} could not be queued, writing them synchronously", notQueued.size(), recordsName);
+        try {
+            writeAll(notQueued);
+        } finally {
+            onWritten(notQueued.size());
+        }
+    }
+
+    /**
+     * @return the maximum number of records written at once
+     */
+    protected abstract int getBatchSize();
+
+    /**
+     * @return the maximum duration a queued record waits for its batch to fill up
+     */
+    protected abstract Duration getWriteInterval();
+
+    /**
+     * Write records to DB in a single transaction.
+     *
+     * @param records
+     *         a non-null non-empty list of records
+     */
+    protected abstract void writeAll(List<T> records);
+
+    /**
+     * Write a single record to DB.
+     *
+     * @param record
+     *         a non-null record
+     */
+    protected abstract void write(T record);
+
+    /**
+     * Describe a record for logs.
+     *
+     * @param record
+     *         a non-null record
+     *
+     * @return a short description of the record
+     */
+    protected abstract String describe(T record);
+
+    /**
+     * Prepare records for the next attempt after they failed to be written. Does nothing by default.
+     *
+     * @param records
+     *         a non-null list of records
+     */
+    protected void onWriteFailed(List<T> records) {
+    }
+
+    private void writeBatches() {
+        int batchSize = getBatchSize();
+        long intervalNanos = getWriteInterval().toNanos();
+        List<T> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                T first = queue.poll(Math.min(intervalNanos, getNanosToNextRetry()), TimeUnit.NANOSECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    long deadline = System.nanoTime() + intervalNanos;
+                    while (batch.size() < batchSize) {
+                        T next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queue.drainTo(batch);
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+            retryDue();
+        }
+        writeRetriesOnShutdown();
+    }
+
+    private void writeBatch(List<T> batch) {
+        for (int attempt = 1; attempt <= MAX_BATCH_ATTEMPTS; attempt++) {
+            try {
+                writeAll(batch);
+                log.debug("{} {} written", batch.size(), recordsName);
+                onWritten(batch.size());
+                return;
+            } catch (RuntimeException e) {
+                log.error("Unable to write {} {} (attempt {} of {})! Details: {}", batch.size(), recordsName, attempt,
+                          MAX_BATCH_ATTEMPTS, e.getMessage());
+                onWriteFailed(batch);
+                if (attempt < MAX_BATCH_ATTEMPTS && !sleep(RETRY_DELAY_MILLIS * attempt)) {
+                    break;
+                }
+            }
+        }
+        writeEach(batch, 1);
+    }
+
+    // stops at the first record that fails for a reason other than rejection, as the rest would likely fail as well
+    private void writeEach(List<T> records, int attempt) {
+        for (int i = 0; i < records.size(); i++) {
+            T record = records.get(i);
+            try {
+                write(record);
+                onWritten(1);
+            } catch (DataIntegrityViolationException e) {
+                log.error("{} was rejected by DB and will not be written! Details: {}", describe(record),
+                          e.getMessage());
+                onWritten(1);
+            } catch (RuntimeException e) {
+                List<T> notWritten = new ArrayList<>(records.subList(i, records.size()));
+                onWriteFailed(notWritten);
+                long delayMillis = Math.min(RETRY_DELAY_MILLIS << Math.min(attempt - 1, 16), MAX_RETRY_DELAY_MILLIS);
+                log.error("{} {} were not written (attempt {}), retrying in {} ms! Details: {}", notWritten.size(),
+                          recordsName, attempt, delayMillis, e.getMessage());
+                retries.add(new Retry<>(notWritten, attempt + 1,
+                                        System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis)));
+                return;
+            }
+        }
+    }
+
+    private void retryDue() {
+        long now = System.nanoTime();
+        List<Retry<T>> dueRetries = new ArrayList<>();
+        for (Iterator<Retry<T>> iterator = retries.iterator(); iterator.hasNext(); ) {
+            Retry<T> retry = iterator.next();
+            if (now - retry.dueNanos >= 0) {
+                dueRetries.add(retry);
+                iterator.remove();
+            }
+        }
+        dueRetries.forEach(retry -> writeEach(retry.records, retry.attempt));
+    }
+
+    private long getNanosToNextRetry() {
+        long now = System.nanoTime();
+        return retries.stream().mapToLong(retry -> Math.max(0, retry.dueNanos - now)).min().orElse(Long.MAX_VALUE);
+    }
+
+    // a last attempt without backoff, records still not written are reported as pending by destroy
+    private void writeRetriesOnShutdown() {
+        for (Retry<T> retry : retries) {
+            for (T record : retry.records) {
+                try {
+                    write(record);
+                    onWritten(1);
+                } catch (RuntimeException e) {
+                    log.error("{} was not written on shutdown! Details: {}", describe(record), e.getMessage());
+                }
+            }
+        }
+        retries.clear();
+    }
+
+    private void onWritten(int recordsCount) {
+        if (pendingCount.addAndGet(-recordsCount) <= 0) {
+            synchronized (flushMonitor) {
+                flushMonitor.notifyAll();
+            }
+        }
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static final class Retry<T> {
+
+        private final List<T> records;
+        private final int attempt;
+        private final long dueNanos;
+
+        private Retry(List<T> records, int attempt, long dueNanos) {
+            this.records = records;
+            this.attempt = attempt;
+            this.dueNanos = dueNanos;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package my.dub.dlp_pilot.service.impl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import my.dub.dlp_pilot.Constants;
+import my.dub.dlp_pilot.model.Bar;
+import my.dub.dlp_pilot.repository.BarRepository;
+import my.dub.dlp_pilot.service.BarPersistenceService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of {@link BarPersistenceService} service, based on {@link AbstractWriteBehindService}. Bars are
+ * retried until they are inserted, as they are already added to the bar aggregates, and the refresh load would not
+ * fill the gaps left by dropped bars. Duplicate bars are skipped by the insert itself.
+ */
+@Slf4j
+@Service
+public class BarPersistenceServiceImpl extends AbstractWriteBehindService<Bar> implements BarPersistenceService {
+
+    // matches the rows per statement of the bulk insert
+    private static final int BATCH_SIZE = 500;
+    private static final Duration WRITE_INTERVAL = Duration.ofSeconds(1);
+
+    private final BarRepository repository;
+
+    @Autowired
+    public BarPersistenceServiceImpl(BarRepository repository) {
+        super("bar_writer-", "bars");
+        this.repository = repository;
+    }
+
+    @Override
+    public void enqueue(@NonNull Collection<Bar> bars) {
+        checkNotNull(bars, Constants.NULL_ARGUMENT_MESSAGE, "bars");
+
+        enqueueAll(bars);
+    }
+
+    @Override
+    protected int getBatchSize() {
+        return BATCH_SIZE;
+    }
+
+    @Override
+    protected Duration getWriteInterval() {
+        return WRITE_INTERVAL;
+    }
+
+    @Override
+    protected void writeAll(List<Bar> bars) {
+        int insertedCount = repository.insertAll(bars);
+        log.trace("{} bars inserted, {} duplicates skipped", insertedCount, bars.size() - insertedCount);
+    }
+
+    @Override
+    protected void write(Bar bar) {
+        repository.insertAll(List.of(bar));
+    }
+
+    @Override
+    protected String describe(Bar bar) {
+        return "Bar " + bar.getExchangeName() + ":" + bar.getPair() + " opened at " + bar.getOpenTime();
+    }
+}
@@ -2,20 +2,28 @@ package my.dub.dlp_pilot.service.impl;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 import my.dub.dlp_pilot.Constants;
+import my.dub.dlp_pilot.configuration.ParametersHolder;
 import my.dub.dlp_pilot.model.Bar;
 import my.dub.dlp_pilot.model.ExchangeName;
 import my.dub.dlp_pilot.model.TestRun;
 import my.dub.dlp_pilot.model.dto.BarAverage;
 import my.dub.dlp_pilot.model.dto.LastBar;
+import my.dub.dlp_pilot.model.dto.Ticker;
 import my.dub.dlp_pilot.repository.BarRepository;
+import my.dub.dlp_pilot.repository.container.BarAggregateContainer;
+import my.dub.dlp_pilot.repository.container.TickerBarContainer;
+import my.dub.dlp_pilot.service.BarPersistenceService;
 import my.dub.dlp_pilot.service.BarService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -27,12 +35,23 @@ import org.springframework.transaction.annotation.Transactional;
 public class BarServiceImpl implements BarService {
 
     private static final String TEST_RUN_PARAMETER = "testRun";
+    private static final int DELETE_CHUNK_SIZE = 10_000;
+    private static final int PROGRESS_LOG_CHUNKS = 10;
 
     private final BarRepository repository;
+    private final BarAggregateContainer barAggregates;
+    private final TickerBarContainer tickerBars;
+    private final ParametersHolder parameters;
+    private final BarPersistenceService persistenceService;
 
     @Autowired
-    public BarServiceImpl(BarRepository repository) {
+    public BarServiceImpl(BarRepository repository, BarAggregateContainer barAggregates,
+            TickerBarContainer tickerBars, ParametersHolder parameters, BarPersistenceService persistenceService) {
         this.repository = repository;
+        this.barAggregates = barAggregates;
+        this.tickerBars = tickerBars;
+        this.parameters = parameters;
+        this.persistenceService = persistenceService;
     }
 
     @Override
@@ -44,42 +63,96 @@ public class BarServiceImpl implements BarService {
             return;
         }
         bars.stream().filter(bar -> bar.getTestRun() == null).forEach(bar -> bar.setTestRun(testRun));
-        repository.saveAll(bars);
+        int insertedCount = repository.insertAll(bars);
+        if (insertedCount < bars.size()) {
+            log.debug("{} duplicate bars skipped", bars.size() - insertedCount);
+        }
+        barAggregates.addBars(bars);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void saveTickerBars(@NonNull ExchangeName exchangeName, @NonNull Collection<Ticker> tickers,
+            @NonNull TestRun testRun) {
+        checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, "exchangeName");
+        checkNotNull(tickers, Constants.NULL_ARGUMENT_MESSAGE, "tickers");
+        checkNotNull(testRun, Constants.NULL_ARGUMENT_MESSAGE, TEST_RUN_PARAMETER);
+
+        List<Bar> closedBars = tickerBars.update(exchangeName, tickers, Instant.now());
+        if (!closedBars.isEmpty()) {
+            log.trace("{} bars built from tickers on {} exchange", closedBars.size(), exchangeName.getFullName());
+            closedBars.forEach(bar -> bar.setTestRun(testRun));
+            persistenceService.enqueue(closedBars);
+            barAggregates.addBars(closedBars);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean flushTickerBars(@NonNull Duration timeout) {
+        checkNotNull(timeout, Constants.NULL_ARGUMENT_MESSAGE, "timeout");
+
+        return persistenceService.flush(timeout);
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public boolean deleteAll(@NonNull TestRun testRun) {
         checkNotNull(testRun, Constants.NULL_ARGUMENT_MESSAGE, TEST_RUN_PARAMETER);
 
-        Long deletedCount = repository.deleteAllByTestRunIdEquals(testRun.getId());
+        // each chunk is committed separately to keep transactions short
+        Long testRunId = testRun.getId();
+        long deletedCount = 0;
+        int chunksCount = 0;
+        int chunkDeletedCount;
+        do {
+            chunkDeletedCount = repository.deleteChunkByTestRunId(testRunId, DELETE_CHUNK_SIZE);
+            deletedCount += chunkDeletedCount;
+            chunksCount++;
+            if (chunksCount % PROGRESS_LOG_CHUNKS == 0) {
+                log.info("Deleting bars of test run #{}: {} deleted so far", testRunId, deletedCount);
+            }
+        } while (chunkDeletedCount == DELETE_CHUNK_SIZE);
         boolean deleted = deletedCount > 0L;
         if (deleted) {
-            log.info("Successfully deleted {} bars", deletedCount);
+            log.info("Successfully deleted {} bars of test run #{}", deletedCount, testRunId);
         }
         return deleted;
     }
 
     @Override
-    public List<BarAverage> loadAllBarAverages(@NonNull TestRun testRun) {
-        checkNotNull(testRun, Constants.NULL_ARGUMENT_MESSAGE, TEST_RUN_PARAMETER);
+    public List<BarAverage> loadAllBarAverages() {
+        return barAggregates.getBarAverages();
+    }
 
-        return repository.getAllBarAverages(testRun.getId());
+    @Override
+    public List<BarAverage> loadBarAverages(@NonNull ExchangeName exchangeName) {
+        checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, "exchangeName");
+
+        return barAggregates.getBarAverages(exchangeName);
     }
 
     @Override
-    public List<BarAverage> loadBarAverages(@NonNull TestRun testRun, @NonNull ExchangeName exchangeName) {
-        checkNotNull(testRun, Constants.NULL_ARGUMENT_MESSAGE, TEST_RUN_PARAMETER);
+    public List<LastBar> loadLastBars(@NonNull ExchangeName exchangeName) {
         checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, "exchangeName");
 
-        return repository.getBarAverages(exchangeName, testRun.getId());
+        return barAggregates.getLastBars(exchangeName);
     }
 
     @Override
-    public List<LastBar> loadLastBars(@NonNull TestRun testRun, @NonNull ExchangeName exchangeName) {
+    @Transactional(readOnly = true)
+    public int restoreBars(@NonNull TestRun testRun, @NonNull ExchangeName exchangeName) {
         checkNotNull(testRun, Constants.NULL_ARGUMENT_MESSAGE, TEST_RUN_PARAMETER);
         checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, "exchangeName");
 
-        return repository.getLastBars(exchangeName, testRun.getId());
+        Instant windowStartTime = Instant.now().minus(parameters.getDataCapturePeriodDuration());
+        List<Bar> bars = repository
+                .findAllByTestRunAndExchangeNameAndOpenTimeGreaterThanEqualOrderByOpenTime(testRun, exchangeName,
+                                                                                          windowStartTime);
+        barAggregates.addBars(bars);
+        log.info("Restored {} bars of test run #{} on {} exchange", bars.size(), testRun.getId(),
+                 exchangeName.getFullName());
+        return bars.size();
     }
 
 }
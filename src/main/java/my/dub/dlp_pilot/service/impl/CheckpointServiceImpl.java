@@ -0,0 +1,183 @@
+package my.dub.dlp_pilot.service.impl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import my.dub.dlp_pilot.Constants;
+import my.dub.dlp_pilot.configuration.ParametersHolder;
+import my.dub.dlp_pilot.model.Position;
+import my.dub.dlp_pilot.model.TestRun;
+import my.dub.dlp_pilot.model.Trade;
+import my.dub.dlp_pilot.model.TradeResultType;
+import my.dub.dlp_pilot.model.dto.TestRunCheckpoint;
+import my.dub.dlp_pilot.model.dto.TradeSnapshot;
+import my.dub.dlp_pilot.model.dto.TradeSnapshot.PositionSnapshot;
+import my.dub.dlp_pilot.repository.TradeRepository;
+import my.dub.dlp_pilot.repository.container.TradeContainer;
+import my.dub.dlp_pilot.service.CheckpointService;
+import my.dub.dlp_pilot.service.ExchangeService;
+import my.dub.dlp_pilot.util.DateUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+
+/**
+ * An implementation of {@link CheckpointService} service. Checkpoints are serialized with Java serialization and
+ * compressed with GZIP. Only classes of the application and of the JDK are accepted on deserialization.
+ * <p>
+ * Trades are saved as {@link TradeSnapshot}s rather than entities, so that checkpoints do not hold the live trades
+ * modified by other threads, nor the related {@link my.dub.dlp_pilot.model.Exchange} and {@link TestRun} entities.
+ * Restored trades are built from the snapshots with the exchanges from DB and the resumed test run.
+ */
+@Slf4j
+@Service
+public class CheckpointServiceImpl implements CheckpointService {
+
+    private static final String TEMP_EXTENSION = ".tmp";
+    private static final ObjectInputFilter INPUT_FILTER =
+            ObjectInputFilter.Config.createFilter("my.dub.dlp_pilot.**;java.**;!*");
+
+    private final TradeContainer tradeContainer;
+    private final TradeRepository tradeRepository;
+    private final ExchangeService exchangeService;
+    private final Path checkpointPath;
+
+    @Autowired
+    public CheckpointServiceImpl(TradeContainer tradeContainer, TradeRepository tradeRepository,
+            ExchangeService exchangeService, ParametersHolder parameters) {
+        this.tradeContainer = tradeContainer;
+        this.tradeRepository = tradeRepository;
+        this.exchangeService = exchangeService;
+        String checkpointFilePath = parameters.getCheckpointFilePath();
+        checkpointPath = StringUtils.isEmpty(checkpointFilePath) ? null : Path.of(checkpointFilePath);
+    }
+
+    @Override
+    public void save(@NonNull TestRun testRun) {
+        checkNotNull(testRun, Constants.NULL_ARGUMENT_MESSAGE, "testRun");
+
+        if (checkpointPath == null) {
+            return;
+        }
+        List<TradeSnapshot> trades =
+                tradeContainer.getTradesNotClosed().stream().map(TradeSnapshot::of).collect(Collectors.toList());
+        // the sequence is read last, so that it is not behind the local IDs of the saved trades
+        TestRunCheckpoint checkpoint =
+                new TestRunCheckpoint(testRun.getId(), Instant.now(), trades, tradeContainer.getDetrimentalRecords(),
+                                      tradeContainer.getNextLocalId());
+        Path tempPath = checkpointPath.resolveSibling(checkpointPath.getFileName() + TEMP_EXTENSION);
+        try {
+            Path parentDir = checkpointPath.toAbsolutePath().getParent();
+            if (parentDir != null) {
+                Files.createDirectories(parentDir);
+            }
+            try (ObjectOutputStream out = new ObjectOutputStream(
+                    new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath))))) {
+                out.writeObject(checkpoint);
+            }
+            Files.move(tempPath, checkpointPath, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Checkpoint of test run #{} saved with {} trades not closed", testRun.getId(),
+                      checkpoint.getTrades().size());
+        } catch (IOException e) {
+            log.error("Unable to save test run checkpoint to {}! Details: {}", checkpointPath, e.getMessage());
+        }
+    }
+
+    @Override
+    public Optional<TestRunCheckpoint> load() {
+        if (checkpointPath == null || !Files.exists(checkpointPath)) {
+            return Optional.empty();
+        }
+        try (ObjectInputStream in = new ObjectInputStream(
+                new GZIPInputStream(new BufferedInputStream(Files.newInputStream(checkpointPath))))) {
+            in.setObjectInputFilter(INPUT_FILTER);
+            return Optional.of((TestRunCheckpoint) in.readObject());
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            log.warn("Unable to read test run checkpoint from {}! Details: {}", checkpointPath, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void restore(@NonNull TestRunCheckpoint checkpoint, @NonNull TestRun testRun) {
+        checkNotNull(checkpoint, Constants.NULL_ARGUMENT_MESSAGE, "checkpoint");
+        checkNotNull(testRun, Constants.NULL_ARGUMENT_MESSAGE, "testRun");
+
+        List<Long> localIds =
+                checkpoint.getTrades().stream().map(TradeSnapshot::getLocalId).collect(Collectors.toList());
+        // trades being closed at checkpoint time may have been saved afterwards
+        Set<Long> savedLocalIds = localIds.isEmpty()
+                ? Set.of()
+                : tradeRepository.findLocalIdsByTestRunIdAndLocalIdIn(testRun.getId(), localIds);
+        List<Trade> trades = checkpoint.getTrades().stream()
+                .filter(trade -> !savedLocalIds.contains(trade.getLocalId()))
+                .map(trade -> toTrade(trade, testRun)).collect(Collectors.toList());
+        // trades opened after the checkpoint may have been saved with greater local IDs
+        long nextLocalId = Math.max(checkpoint.getNextTradeLocalId(),
+                                    tradeRepository.findMaxLocalIdByTestRunId(testRun.getId()).map(id -> id + 1)
+                                            .orElse(0L));
+        tradeContainer.restore(trades, checkpoint.getDetrimentalRecords(), nextLocalId);
+        log.info("Restored {} trades not closed of test run #{} from checkpoint created at {}", trades.size(),
+                 testRun.getId(), DateUtils.formatDateTime(checkpoint.getCreatedTime()));
+    }
+
+    @Override
+    public void delete() {
+        if (checkpointPath == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(checkpointPath);
+        } catch (IOException e) {
+            log.error("Unable to delete test run checkpoint {}! Details: {}", checkpointPath, e.getMessage());
+        }
+    }
+
+    // a trade being closed at checkpoint time is reopened, its closing fields are set again on its next close
+    private Trade toTrade(TradeSnapshot snapshot, TestRun testRun) {
+        Trade trade = new Trade();
+        trade.setLocalId(snapshot.getLocalId());
+        trade.setBase(snapshot.getBase());
+        trade.setTarget(snapshot.getTarget());
+        trade.setFixedExpensesUsd(snapshot.getFixedExpensesUsd());
+        trade.setStartTime(snapshot.getStartTime());
+        trade.setEntryPercentageDiff(snapshot.getEntryPercentageDiff());
+        trade.setAveragePriceDiff(snapshot.getAveragePriceDiff());
+        trade.setOpenPriceDiff(snapshot.getOpenPriceDiff());
+        trade.setDetrimentalSync(snapshot.isDetrimentalSync());
+        trade.setPositions(toPosition(snapshot.getPositionShort()), toPosition(snapshot.getPositionLong()));
+        trade.setResultType(TradeResultType.IN_PROGRESS);
+        trade.setTestRun(testRun);
+        trade.setWrittenToFile(false);
+        return trade;
+    }
+
+    private Position toPosition(PositionSnapshot snapshot) {
+        Position position = new Position();
+        position.setSide(snapshot.getSide());
+        position.setOpenPrice(snapshot.getOpenPrice());
+        position.setMinPnlUsd(snapshot.getMinPnlUsd());
+        position.setMinPnlTime(snapshot.getMinPnlTime());
+        position.setMaxPnlUsd(snapshot.getMaxPnlUsd());
+        position.setMaxPnlTime(snapshot.getMaxPnlTime());
+        position.setExchange(exchangeService.findByName(snapshot.getExchangeName()));
+        return position;
+    }
+}
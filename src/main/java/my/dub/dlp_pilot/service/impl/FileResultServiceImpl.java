@@ -9,6 +9,7 @@ import java.math.BigDecimal;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -27,6 +28,7 @@ import my.dub.dlp_pilot.service.FileResultService;
 import my.dub.dlp_pilot.service.TestRunService;
 import my.dub.dlp_pilot.service.TradeService;
 import my.dub.dlp_pilot.util.DateUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
@@ -39,6 +41,7 @@ import org.springframework.util.CollectionUtils;
 public class FileResultServiceImpl implements FileResultService {
     private static final String USD = "USD";
     private static final String EXTENSION = ".csv";
+    private static final Duration FLUSH_TIMEOUT = Duration.ofSeconds(10);
 
     private final TradeService tradeService;
     private final TestRunService testRunService;
@@ -64,6 +67,10 @@ public class FileResultServiceImpl implements FileResultService {
 
     @Override
     public void write() {
+        // trades closed on test run end should be saved before the last lines are written
+        if (testRunService.checkTestRunEnd() && !tradeService.flushClosedTrades(FLUSH_TIMEOUT)) {
+            log.warn("Not all closed trades were saved in {}", DateUtils.formatDuration(FLUSH_TIMEOUT));
+        }
         List<Trade> completedTrades =
                 tradeService.getCompletedTradesNotWrittenToFile(testRunService.getCurrentTestRun());
         if (CollectionUtils.isEmpty(completedTrades)) {
@@ -98,6 +105,13 @@ public class FileResultServiceImpl implements FileResultService {
     @SneakyThrows
     private void initFile() {
         TestRun currentTestRun = testRunService.getCurrentTestRun();
+        // a resumed test run keeps writing to its file
+        String existingFilePath = currentTestRun.getPathToResultFile();
+        if (StringUtils.isNotEmpty(existingFilePath) && Files.exists(Path.of(existingFilePath))) {
+            filePath = Path.of(existingFilePath);
+            log.info("Resumed test result file: {}", filePath);
+            return;
+        }
         String fileName = "test-run#" + currentTestRun.getId() + "_" + DateUtils
                 .formatDateTimeShort(currentTestRun.getStartTime()) + EXTENSION;
         String resultDir = parameters.getPathToResultDir();
@@ -0,0 +1,318 @@
+package my.dub.dlp_pilot.service.impl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.extern.slf4j.Slf4j;
+import my.dub.dlp_pilot.Constants;
+import my.dub.dlp_pilot.configuration.ParametersHolder;
+import my.dub.dlp_pilot.exception.TestRunEndException;
+import my.dub.dlp_pilot.model.Bar;
+import my.dub.dlp_pilot.model.Exchange;
+import my.dub.dlp_pilot.model.ExchangeName;
+import my.dub.dlp_pilot.model.TestRun;
+import my.dub.dlp_pilot.model.TimeFrame;
+import my.dub.dlp_pilot.model.dto.SymbolPair;
+import my.dub.dlp_pilot.repository.BarFileCache;
+import my.dub.dlp_pilot.repository.container.SymbolPairContainer;
+import my.dub.dlp_pilot.service.BarService;
+import my.dub.dlp_pilot.service.PreloadService;
+import my.dub.dlp_pilot.service.client.ApiRateLimiter;
+import my.dub.dlp_pilot.service.client.ClientService;
+import my.dub.dlp_pilot.util.DateUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of {@link PreloadService} service. Slice requests are executed on a separate thread pool, as exchange
+ * clients block while waiting for the response. A slice covers at most the number of bars an exchange returns per
+ * request. A slice that could not be fetched is retried before failing the preload.
+ * <p>
+ * Bars of a symbol pair cached on disk by previous test runs ({@link BarFileCache}) are saved without requests, if
+ * they cover the start of the preload period, so only the bars after the last cached one are fetched. Fetched bars
+ * are appended to the cache.
+ */
+@Slf4j
+@Service
+public class PreloadServiceImpl implements PreloadService, DisposableBean {
+
+    private static final int MAX_SLICE_ATTEMPTS = 3;
+
+    private final ClientService clientService;
+    private final BarService barService;
+    private final ParametersHolder parameters;
+    private final ApiRateLimiter rateLimiter;
+    private final SymbolPairContainer symbolPairContainer;
+    private final BarFileCache barCache;
+    private final Map<ExchangeName, ExchangePreload> preloads = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool(new CustomizableThreadFactory("preload-"));
+
+    @Autowired
+    public PreloadServiceImpl(ClientService clientService, BarService barService, ParametersHolder parameters,
+            ApiRateLimiter rateLimiter, SymbolPairContainer symbolPairContainer, BarFileCache barCache) {
+        this.clientService = clientService;
+        this.barService = barService;
+        this.parameters = parameters;
+        this.rateLimiter = rateLimiter;
+        this.symbolPairContainer = symbolPairContainer;
+        this.barCache = barCache;
+    }
+
+    @Override
+    public boolean runPreload(@NonNull Exchange exchange, @NonNull TestRun testRun) {
+        checkNotNull(exchange, Constants.NULL_ARGUMENT_MESSAGE, "exchange");
+        checkNotNull(testRun, Constants.NULL_ARGUMENT_MESSAGE, "testRun");
+
+        ExchangeName exchangeName = exchange.getName();
+        ExchangePreload preload = preloads.get(exchangeName);
+        if (preload == null) {
+            // planned outside of the map, as planning reads bars from disk
+            ExchangePreload planned = plan(exchange, testRun);
+            preload = preloads.putIfAbsent(exchangeName, planned);
+            if (preload == null) {
+                preload = planned;
+                preload.saveCachedBars();
+            }
+        }
+        if (preload.failure != null) {
+            preloads.remove(exchangeName);
+            throw preload.failure;
+        }
+        if (preload.isComplete()) {
+            preloads.remove(exchangeName);
+            preload.removeExcludedPairs();
+            return true;
+        }
+        preload.dispatchNext();
+        return false;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private ExchangePreload plan(Exchange exchange, TestRun testRun) {
+        TimeFrame timeFrame = parameters.getDataBaseTimeFrame();
+        boolean isDescPreload = Boolean.FALSE.equals(exchange.getAscendingPreload());
+        // boundaries of a slice are inclusive
+        int barsPerSlice = Math.max(1, exchange.getMaxBarsPerRequest() - 1);
+        Duration sliceDuration = timeFrame.getDuration().multipliedBy(barsPerSlice);
+        Instant preloadStartTime = DateUtils.toInstant(testRun.getPreloadStartTime());
+        Instant preloadEndTime = DateUtils.toInstant(testRun.getStartTime());
+        ExchangePreload preload = new ExchangePreload(exchange.getName(), testRun, timeFrame);
+        List<SymbolPair> symbolPairs = symbolPairContainer.getAll(exchange.getName());
+        long cachedBarsCount = 0;
+        for (SymbolPair symbolPair : symbolPairs) {
+            PairPreload pair = new PairPreload(symbolPair);
+            Instant fetchStartTime = loadCachedBars(pair, exchange.getName(), timeFrame, preloadStartTime,
+                                                    preloadEndTime);
+            cachedBarsCount += pair.barsCount;
+            if (isDescPreload) {
+                for (Instant end = preloadEndTime; end.isAfter(fetchStartTime); end = end.minus(sliceDuration)) {
+                    Instant start = end.minus(sliceDuration);
+                    start = start.isAfter(fetchStartTime) ? start : fetchStartTime;
+                    // descending exchanges load bars backwards from the request start time
+                    pair.addSlice(end, start);
+                }
+            } else {
+                Instant from = fetchStartTime.minus(timeFrame.getDuration());
+                for (Instant start = from; start.isBefore(preloadEndTime); start = start.plus(sliceDuration)) {
+                    Instant end = start.plus(sliceDuration);
+                    end = end.isBefore(preloadEndTime) ? end : preloadEndTime;
+                    pair.addSlice(start, end);
+                }
+            }
+            preload.addPair(pair);
+        }
+        log.info("Preload of {} exchange planned: {} requests for {} symbol pairs, {} bars loaded from cache",
+                 exchange.getFullName(), preload.pending.size(), symbolPairs.size(), cachedBarsCount);
+        return preload;
+    }
+
+    // time the bars of the pair should be fetched from; the cached bars are saved once the plan is registered
+    private Instant loadCachedBars(PairPreload pair, ExchangeName exchangeName, TimeFrame timeFrame,
+            Instant preloadStartTime, Instant preloadEndTime) {
+        if (!barCache.isEnabled()) {
+            return preloadStartTime;
+        }
+        SymbolPair symbolPair = pair.symbolPair;
+        List<Bar> cachedBars = barCache.read(exchangeName, symbolPair.getBase(), symbolPair.getTarget(), timeFrame,
+                                             preloadStartTime.minus(timeFrame.getDuration()), preloadEndTime);
+        // bars missing at the start of the period cannot be fetched after the cached ones
+        if (cachedBars.isEmpty() || cachedBars.get(0).getOpenTime().isAfter(preloadStartTime)) {
+            return preloadStartTime;
+        }
+        // only the bars before the first gap are used, the rest are fetched starting from the gap
+        int contiguousCount = 1;
+        while (contiguousCount < cachedBars.size() && !cachedBars.get(contiguousCount).getOpenTime()
+                .isAfter(cachedBars.get(contiguousCount - 1).getOpenTime().plus(timeFrame.getDuration()))) {
+            contiguousCount++;
+        }
+        List<Bar> contiguousBars = cachedBars.subList(0, contiguousCount);
+        pair.cachedBars = contiguousBars;
+        pair.barsCount += contiguousBars.size();
+        return contiguousBars.get(contiguousCount - 1).getOpenTime().plus(timeFrame.getDuration());
+    }
+
+    private final class ExchangePreload {
+
+        private final ExchangeName exchangeName;
+        private final TestRun testRun;
+        private final TimeFrame timeFrame;
+        private final int maxInFlight = parameters.getPreloadRequestsInFlight();
+        private final List<PairPreload> pairs = new ArrayList<>();
+        // slices of all pairs, in the order of dispatch
+        private final Deque<Slice> pending = new ArrayDeque<>();
+
+        private int inFlight;
+        private volatile TestRunEndException failure;
+
+        private ExchangePreload(ExchangeName exchangeName, TestRun testRun, TimeFrame timeFrame) {
+            this.exchangeName = exchangeName;
+            this.testRun = testRun;
+            this.timeFrame = timeFrame;
+        }
+
+        private void addPair(PairPreload pair) {
+            pairs.add(pair);
+            pending.addAll(pair.slices);
+        }
+
+        private void saveCachedBars() {
+            pairs.stream().filter(pair -> !pair.cachedBars.isEmpty()).forEach(pair -> {
+                barService.save(pair.cachedBars, testRun);
+                pair.cachedBars = List.of();
+            });
+        }
+
+        private synchronized boolean isComplete() {
+            return pending.isEmpty() && inFlight == 0;
+        }
+
+        private void dispatchNext() {
+            Slice slice;
+            synchronized (this) {
+                if (inFlight >= maxInFlight || pending.isEmpty() || !rateLimiter.tryAcquire(exchangeName)) {
+                    return;
+                }
+                slice = pending.poll();
+                inFlight++;
+            }
+            executor.execute(() -> fetch(slice));
+        }
+
+        private void fetch(Slice slice) {
+            try {
+                List<Bar> bars = fetchSlice(slice);
+                if (bars != null) {
+                    slice.pair.onFetched(slice, bars, timeFrame, testRun);
+                }
+            } catch (RuntimeException e) {
+                log.error("Unable to save preloaded bars of symbol pair {} on {} exchange!",
+                          slice.pair.symbolPair.getPair(), exchangeName);
+                failure = new TestRunEndException(e);
+            } finally {
+                synchronized (this) {
+                    inFlight--;
+                }
+            }
+        }
+
+        // null if the slice could not be fetched
+        private List<Bar> fetchSlice(Slice slice) {
+            try {
+                return clientService.fetchBarsPreload(slice.pair.symbolPair, timeFrame, slice.requestStartTime,
+                                                      slice.requestEndTime);
+            } catch (RuntimeException e) {
+                slice.attempts++;
+                if (slice.attempts < MAX_SLICE_ATTEMPTS) {
+                    log.warn("Unable to preload bars of symbol pair {} on {} exchange (attempt {} of {})! "
+                                     + "Details: {}", slice.pair.symbolPair.getPair(), exchangeName, slice.attempts,
+                             MAX_SLICE_ATTEMPTS, e.getMessage());
+                    synchronized (this) {
+                        pending.addFirst(slice);
+                    }
+                } else {
+                    log.error("Unable to preload bars of symbol pair {} on {} exchange!",
+                              slice.pair.symbolPair.getPair(), exchangeName);
+                    failure = e instanceof TestRunEndException ? (TestRunEndException) e : new TestRunEndException(e);
+                }
+                return null;
+            }
+        }
+
+        private void removeExcludedPairs() {
+            pairs.stream().filter(pair -> pair.barsCount == 0)
+                    .forEach(pair -> clientService.removeSymbolPair(pair.symbolPair));
+            long barsCount = pairs.stream().mapToLong(pair -> pair.barsCount).sum();
+            log.info("Preloaded {} bars of {} symbol pairs on {} exchange", barsCount,
+                     pairs.stream().filter(pair -> pair.barsCount > 0).count(), exchangeName);
+        }
+    }
+
+    private final class PairPreload {
+
+        private final SymbolPair symbolPair;
+        private final List<Slice> slices = new ArrayList<>();
+
+        // slices fetched out of order, waiting for the previous ones
+        private final Map<Integer, List<Bar>> fetched = new HashMap<>();
+        private int nextToSave;
+        private long barsCount;
+        // contiguous bars loaded from cache, not saved yet
+        private List<Bar> cachedBars = List.of();
+
+        private PairPreload(SymbolPair symbolPair) {
+            this.symbolPair = symbolPair;
+        }
+
+        private void addSlice(Instant requestStartTime, Instant requestEndTime) {
+            slices.add(new Slice(this, slices.size(), requestStartTime, requestEndTime));
+        }
+
+        private synchronized void onFetched(Slice slice, List<Bar> bars, TimeFrame timeFrame, TestRun testRun) {
+            fetched.put(slice.order, bars);
+            while (fetched.containsKey(nextToSave)) {
+                List<Bar> nextBars = fetched.remove(nextToSave);
+                if (!nextBars.isEmpty()) {
+                    barService.save(nextBars, testRun);
+                    barCache.append(timeFrame, nextBars);
+                    barsCount += nextBars.size();
+                }
+                nextToSave++;
+            }
+            log.trace("Symbol pair {}: {} of {} slices saved", symbolPair.getPair(), nextToSave, slices.size());
+        }
+    }
+
+    private static final class Slice {
+
+        private final PairPreload pair;
+        private final int order;
+        private final Instant requestStartTime;
+        private final Instant requestEndTime;
+
+        private int attempts;
+
+        private Slice(PairPreload pair, int order, Instant requestStartTime, Instant requestEndTime) {
+            this.pair = pair;
+            this.order = order;
+            this.requestStartTime = requestStartTime;
+            this.requestEndTime = requestEndTime;
+        }
+    }
+}
@@ -4,27 +4,31 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.math.BigDecimal;
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLongArray;
 import lombok.extern.slf4j.Slf4j;
 import my.dub.dlp_pilot.Constants;
+import my.dub.dlp_pilot.configuration.ParametersHolder;
 import my.dub.dlp_pilot.model.ExchangeName;
 import my.dub.dlp_pilot.model.TestRun;
 import my.dub.dlp_pilot.model.dto.BarAverage;
 import my.dub.dlp_pilot.model.dto.PriceDifference;
 import my.dub.dlp_pilot.model.dto.Ticker;
+import my.dub.dlp_pilot.repository.container.ActivePairContainer;
+import my.dub.dlp_pilot.repository.container.BarAggregateContainer;
+import my.dub.dlp_pilot.repository.container.TickerPriceMatrix;
+import my.dub.dlp_pilot.repository.container.TickerPriceMatrix.RowSnapshot;
 import my.dub.dlp_pilot.service.PriceDifferenceService;
 import my.dub.dlp_pilot.service.TickerService;
 import my.dub.dlp_pilot.service.TradeService;
+import my.dub.dlp_pilot.util.PriceDataUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
-import org.springframework.util.CollectionUtils;
 
 /**
  * An implementation of {@link PriceDifferenceService} service.
@@ -33,57 +37,38 @@ import org.springframework.util.CollectionUtils;
 @Service
 public class PriceDifferenceServiceImpl implements PriceDifferenceService {
 
-    private final Set<PriceDifference> priceDifferences = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private static final ExchangeName[] EXCHANGE_NAMES = ExchangeName.values();
+    private static final char KEY_DELIMITER = ':';
+
+    // keyed by pair and both exchange names, in the order of declaration
+    private final Map<String, PriceDifference> priceDifferences = new ConcurrentHashMap<>();
+    private final AtomicLongArray lastFullScanTimes = new AtomicLongArray(EXCHANGE_NAMES.length);
 
     private final TickerService tickerService;
     private final TradeService tradeService;
+    private final TickerPriceMatrix priceMatrix;
+    private final BarAggregateContainer barAggregates;
+    private final ActivePairContainer activePairs;
+    private final ParametersHolder parametersHolder;
 
     @Autowired
-    public PriceDifferenceServiceImpl(TickerService tickerService, TradeService tradeService) {
+    public PriceDifferenceServiceImpl(TickerService tickerService, TradeService tradeService,
+            TickerPriceMatrix priceMatrix, BarAggregateContainer barAggregates, ActivePairContainer activePairs,
+            ParametersHolder parametersHolder) {
         this.tickerService = tickerService;
         this.tradeService = tradeService;
+        this.priceMatrix = priceMatrix;
+        this.barAggregates = barAggregates;
+        this.activePairs = activePairs;
+        this.parametersHolder = parametersHolder;
     }
 
     @Override
     public void createPriceDifferences(@NonNull List<BarAverage> barAverages) {
         checkNotNull(barAverages, Constants.NULL_ARGUMENT_MESSAGE, "barAverages");
 
-        for (int i = 0; i < barAverages.size() - 1; i++) {
-            for (int j = i + 1; j < barAverages.size(); j++) {
-                BarAverage bA1 = barAverages.get(i);
-                BarAverage bA2 = barAverages.get(j);
-                if (bA1.getBase().equals(bA2.getBase()) && bA1.getTarget().equals(bA2.getTarget()) && !bA1
-                        .getExchangeName().equals(bA2.getExchangeName()) && findPriceDifference(bA1.getBase(),
-                                                                                                bA1.getTarget(),
-                                                                                                bA1.getExchangeName(),
-                                                                                                bA2.getExchangeName())
-                        .isEmpty()) {
-                    priceDifferences.add(new PriceDifference(bA1.getBase(), bA1.getTarget(), bA1.getExchangeName(),
-                                                             bA1.getAveragePrice(), bA2.getExchangeName(),
-                                                             bA2.getAveragePrice()));
-                }
-            }
-        }
-    }
-
-    @Override
-    public void updatePriceDifferences(@NonNull List<BarAverage> barAverages) {
-        checkNotNull(barAverages, Constants.NULL_ARGUMENT_MESSAGE, "barAverages");
-
-        barAverages.forEach(barAverage -> {
-            List<PriceDifference> priceDiffs =
-                    findPriceDifferences(barAverage.getBase(), barAverage.getTarget(), barAverage.getExchangeName());
-            if (CollectionUtils.isEmpty(priceDiffs)) {
-                return;
-            }
-            priceDiffs.forEach(priceDifference -> {
-                if (priceDifference.getExchangeName().equals(barAverage.getExchangeName())) {
-                    priceDifference.setExchange1Average(barAverage.getAveragePrice());
-                } else {
-                    priceDifference.setExchange2Average(barAverage.getAveragePrice());
-                }
-            });
-        });
+        PriceDataUtils.forEachCrossExchangeCombination(barAverages, (bA1, bA2) -> addPriceDifference(
+                new PriceDifference(bA1.getBase(), bA1.getTarget(), bA1.getExchangeName(), bA2.getExchangeName())));
     }
 
     @Override
@@ -91,48 +76,114 @@ public class PriceDifferenceServiceImpl implements PriceDifferenceService {
         checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, "exchangeName");
         checkNotNull(testRun, Constants.NULL_ARGUMENT_MESSAGE, "testRun");
 
-        Set<Ticker> allTickers = tickerService.getAllTickers();
-        Set<Ticker> tickersToCompare = tickerService.getTickers(exchangeName);
-        allTickers.removeAll(tickersToCompare);
-        allTickers.forEach(equivalentTicker -> {
-            Optional<Ticker> tickerOpt =
-                    tickerService.findValidEquivalentTickerFromSet(equivalentTicker, tickersToCompare);
-            if (tickerOpt.isEmpty()) {
-                return;
+        RowSnapshot row = priceMatrix.newSnapshot();
+        if (isFullScanDue(exchangeName)) {
+            priceMatrix.clearDirty(exchangeName);
+            int pairsCount = priceMatrix.size();
+            for (int pairId = 0; pairId < pairsCount; pairId++) {
+                priceMatrix.read(pairId, row);
+                checkRow(row, exchangeName, testRun);
             }
-            Ticker ticker = tickerOpt.get();
-            String base = ticker.getBase();
-            String target = ticker.getTarget();
-            ExchangeName exchangeNameEquivalent = equivalentTicker.getExchangeName();
-            Optional<PriceDifference> priceDifferenceOptional =
-                    findPriceDifference(base, target, exchangeName, exchangeNameEquivalent);
-            if (priceDifferenceOptional.isEmpty()) {
-                log.error("No price difference was found for: {} and {} exchanges, base {} and target {}", exchangeName,
-                          exchangeNameEquivalent, base, target);
-                return;
+        } else {
+            // pairs updated on other exchanges are checked by evaluations of those exchanges
+            int pairId;
+            while ((pairId = priceMatrix.pollDirty(exchangeName)) >= 0) {
+                priceMatrix.read(pairId, row);
+                checkRow(row, exchangeName, testRun);
             }
+        }
+    }
+
+    private boolean isFullScanDue(ExchangeName exchangeName) {
+        long now = System.currentTimeMillis();
+        long lastFullScanTime = lastFullScanTimes.get(exchangeName.ordinal());
+        if (now - lastFullScanTime < parametersHolder.getFullScanIntervalDuration().toMillis()) {
+            return false;
+        }
+        lastFullScanTimes.set(exchangeName.ordinal(), now);
+        return true;
+    }
 
-            final PriceDifference priceDifference = priceDifferenceOptional.get();
-            Ticker ticker1;
-            Ticker ticker2;
-            if (ticker.getExchangeName().equals(priceDifference.getExchangeName())) {
-                ticker1 = ticker;
-                ticker2 = equivalentTicker;
-            } else {
-                ticker1 = equivalentTicker;
-                ticker2 = ticker;
+    private void checkRow(RowSnapshot row, ExchangeName exchangeName, TestRun testRun) {
+        if (!row.isPresent(exchangeName)) {
+            return;
+        }
+        for (ExchangeName exchangeNameEquivalent : EXCHANGE_NAMES) {
+            if (exchangeNameEquivalent == exchangeName || !row.isPresent(exchangeNameEquivalent)) {
+                continue;
             }
-            BigDecimal currentTickerValue = getCurrentPriceDiffValue(ticker1, ticker2);
-            if (canCheckTradeOpen(currentTickerValue, priceDifference.getAverage())) {
-                tradeService.checkTradeOpen(ticker1, ticker2, priceDifference.getAverage(), testRun);
-            } else {
-                // check tickers inverted
-                currentTickerValue = getCurrentPriceDiffValue(ticker2, ticker1);
-                if (canCheckTradeOpen(currentTickerValue, priceDifference.getAverage().negate())) {
-                    tradeService.checkTradeOpen(ticker2, ticker1, priceDifference.getAverage().negate(), testRun);
-                }
+            // a trade can be opened only on a positive price difference in either direction
+            if (row.isExact(exchangeName) && row.isExact(exchangeNameEquivalent)
+                    && row.getBid(exchangeName) <= row.getAsk(exchangeNameEquivalent)
+                    && row.getBid(exchangeNameEquivalent) <= row.getAsk(exchangeName)) {
+                continue;
             }
-        });
+            activePairs.markActive(row.getBase(), row.getTarget(), exchangeName, exchangeNameEquivalent);
+            checkPriceDifference(row, exchangeName, exchangeNameEquivalent, testRun);
+        }
+    }
+
+    // evaluated on the fixed-point prices of the row, tickers are only read for a trade that is about to be entered
+    private void checkPriceDifference(RowSnapshot row, ExchangeName exchangeName, ExchangeName exchangeNameEquivalent,
+            TestRun testRun) {
+        String base = row.getBase();
+        String target = row.getTarget();
+        Optional<PriceDifference> priceDifferenceOptional =
+                findPriceDifference(base, target, exchangeName, exchangeNameEquivalent);
+        if (priceDifferenceOptional.isEmpty()) {
+            // symbol pairs listed after the preload have no bars to create the price difference from
+            log.debug("No price difference was found for: {} and {} exchanges, base {} and target {}", exchangeName,
+                      exchangeNameEquivalent, base, target);
+            return;
+        }
+
+        final PriceDifference priceDifference = priceDifferenceOptional.get();
+        ExchangeName exchangeName1 = priceDifference.getExchangeName();
+        ExchangeName exchangeName2 = priceDifference.getExchangeName2();
+        Optional<BigDecimal> average1Opt = barAggregates.getAveragePrice(exchangeName1, base, target);
+        Optional<BigDecimal> average2Opt = barAggregates.getAveragePrice(exchangeName2, base, target);
+        if (average1Opt.isEmpty() || average2Opt.isEmpty()) {
+            return;
+        }
+        BigDecimal average = average1Opt.get().subtract(average2Opt.get());
+        long average1 = TickerPriceMatrix.toFixedPoint(average1Opt.get());
+        long average2 = TickerPriceMatrix.toFixedPoint(average2Opt.get());
+        if (!row.isExact(exchangeName1) || !row.isExact(exchangeName2) || !isExact(average1)
+                || !isExact(average2)) {
+            // prices out of the fixed-point range are compared on tickers
+            if (!checkTradeOpen(base, target, exchangeName1, exchangeName2, average, testRun)) {
+                checkTradeOpen(base, target, exchangeName2, exchangeName1, average.negate(), testRun);
+            }
+            return;
+        }
+        if (canCheckTradeOpen(row.getBid(exchangeName1) - row.getAsk(exchangeName2), average1 - average2)) {
+            checkTradeOpen(base, target, exchangeName1, exchangeName2, average, testRun);
+        } else if (canCheckTradeOpen(row.getBid(exchangeName2) - row.getAsk(exchangeName1), average2 - average1)) {
+            // check tickers inverted
+            checkTradeOpen(base, target, exchangeName2, exchangeName1, average.negate(), testRun);
+        }
+    }
+
+    // tickers may have changed since the row was read, so the price difference is checked again on their prices
+    private boolean checkTradeOpen(String base, String target, ExchangeName exchangeNameShort,
+            ExchangeName exchangeNameLong, BigDecimal average, TestRun testRun) {
+        Optional<Ticker> tickerShortOpt = tickerService.getTicker(exchangeNameShort, base, target);
+        Optional<Ticker> tickerLongOpt = tickerService.getTicker(exchangeNameLong, base, target);
+        if (tickerShortOpt.isEmpty() || tickerLongOpt.isEmpty() || tickerShortOpt.get().isPriceInvalid()
+                || tickerLongOpt.get().isPriceInvalid()) {
+            return false;
+        }
+        Ticker tickerShort = tickerShortOpt.get();
+        Ticker tickerLong = tickerLongOpt.get();
+        if (!canCheckTradeOpen(getCurrentPriceDiffValue(tickerShort, tickerLong), average)) {
+            return false;
+        }
+        tradeService.checkTradeOpen(tickerShort, tickerLong, average, testRun);
+        return true;
+    }
+
+    private boolean canCheckTradeOpen(long currentValue, long avgValue) {
+        return currentValue > 0 && currentValue > avgValue;
     }
 
     private boolean canCheckTradeOpen(BigDecimal currentValue, BigDecimal avgValue) {
@@ -150,22 +201,30 @@ public class PriceDifferenceServiceImpl implements PriceDifferenceService {
         checkNotNull(exchange1, Constants.NULL_ARGUMENT_MESSAGE, "exchange1");
         checkNotNull(exchange2, Constants.NULL_ARGUMENT_MESSAGE, "exchange2");
 
-        return priceDifferences.stream()
-                .filter(priceDiff -> isSimilarMatch(priceDiff, base, target, exchange1, exchange2)).findFirst();
+        return Optional.ofNullable(priceDifferences.get(priceDifferenceKey(base, target, exchange1, exchange2)));
     }
 
-    private List<PriceDifference> findPriceDifferences(String base, String target, ExchangeName exchange) {
-        return priceDifferences.stream()
-                .filter(priceDiff -> priceDiff.getBase().equals(base) && priceDiff.getTarget().equals(target) && (
-                        priceDiff.getExchangeName().equals(exchange) || priceDiff.getExchangeName2().equals(exchange)))
-                .collect(Collectors.toList());
+    private void addPriceDifference(PriceDifference priceDifference) {
+        priceDifferences.putIfAbsent(
+                priceDifferenceKey(priceDifference.getBase(), priceDifference.getTarget(),
+                                   priceDifference.getExchangeName(), priceDifference.getExchangeName2()),
+                priceDifference);
     }
 
-    private boolean isSimilarMatch(PriceDifference existingPD, String base, String target, ExchangeName exchange1,
+    private static String priceDifferenceKey(String base, String target, ExchangeName exchange1,
             ExchangeName exchange2) {
-        return existingPD.getBase().equals(base) && existingPD.getTarget().equals(target) && (
-                (existingPD.getExchangeName().equals(exchange1) && existingPD.getExchangeName2().equals(exchange2)) || (
-                        existingPD.getExchangeName().equals(exchange2) && existingPD.getExchangeName2()
-                                .equals(exchange1)));
+        // symmetric in exchanges
+        if (exchange1.compareTo(exchange2) > 0) {
+            return pairKey(base, target) + KEY_DELIMITER + exchange2 + KEY_DELIMITER + exchange1;
+        }
+        return pairKey(base, target) + KEY_DELIMITER + exchange1 + KEY_DELIMITER + exchange2;
+    }
+
+    private static String pairKey(String base, String target) {
+        return base + Constants.DEFAULT_PAIR_DELIMITER + target;
+    }
+
+    private static boolean isExact(long fixedPointPrice) {
+        return fixedPointPrice > 0 && fixedPointPrice != TickerPriceMatrix.SATURATED_PRICE;
     }
 }
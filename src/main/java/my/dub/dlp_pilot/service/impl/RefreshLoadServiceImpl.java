@@ -0,0 +1,156 @@
+package my.dub.dlp_pilot.service.impl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import my.dub.dlp_pilot.Constants;
+import my.dub.dlp_pilot.configuration.ParametersHolder;
+import my.dub.dlp_pilot.model.Bar;
+import my.dub.dlp_pilot.model.ExchangeName;
+import my.dub.dlp_pilot.model.TestRun;
+import my.dub.dlp_pilot.model.dto.LastBar;
+import my.dub.dlp_pilot.model.dto.SymbolPair;
+import my.dub.dlp_pilot.repository.container.ActivePairContainer;
+import my.dub.dlp_pilot.repository.container.SymbolPairContainer;
+import my.dub.dlp_pilot.repository.container.TradeContainer;
+import my.dub.dlp_pilot.service.BarService;
+import my.dub.dlp_pilot.service.RefreshLoadService;
+import my.dub.dlp_pilot.service.client.ApiRateLimiter;
+import my.dub.dlp_pilot.service.client.ClientService;
+import my.dub.dlp_pilot.service.client.RequestPriority;
+import my.dub.dlp_pilot.util.DateUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+
+/**
+ * Implementation of {@link RefreshLoadService} service. Symbol pairs active within the last time frame ({@link
+ * ActivePairContainer}) and symbol pairs with open trades are refreshed as soon as permits allow. The remaining symbol
+ * pairs are spread across a share of the time frame, so that the cycle completes before the next one starts.
+ */
+@Slf4j
+@Service
+public class RefreshLoadServiceImpl implements RefreshLoadService {
+
+    private static final String EXCHANGE_NAME_PARAMETER = "exchangeName";
+    private static final double SPREAD_SHARE = 0.8;
+
+    private final ClientService clientService;
+    private final BarService barService;
+    private final SymbolPairContainer symbolPairContainer;
+    private final TradeContainer tradeContainer;
+    private final ActivePairContainer activePairs;
+    private final ApiRateLimiter rateLimiter;
+    private final ParametersHolder parameters;
+
+    private final Map<ExchangeName, List<LastBar>> lastBars = new ConcurrentHashMap<>();
+    // steps of an exchange are executed sequentially, so planned pairs are not shared between threads
+    private final Map<ExchangeName, Deque<PlannedPair>> cycles = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RefreshLoadServiceImpl(ClientService clientService, BarService barService,
+            SymbolPairContainer symbolPairContainer, TradeContainer tradeContainer, ActivePairContainer activePairs,
+            ApiRateLimiter rateLimiter, ParametersHolder parameters) {
+        this.clientService = clientService;
+        this.barService = barService;
+        this.symbolPairContainer = symbolPairContainer;
+        this.tradeContainer = tradeContainer;
+        this.activePairs = activePairs;
+        this.rateLimiter = rateLimiter;
+        this.parameters = parameters;
+    }
+
+    @Override
+    public boolean runRefreshLoad(@NonNull ExchangeName exchangeName, @NonNull TestRun testRun) {
+        checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, EXCHANGE_NAME_PARAMETER);
+        checkNotNull(testRun, Constants.NULL_ARGUMENT_MESSAGE, "testRun");
+
+        Deque<PlannedPair> cycle = cycles.computeIfAbsent(exchangeName, this::plan);
+        PlannedPair next = cycle.peek();
+        if (next != null) {
+            if (System.nanoTime() < next.dueTime || !rateLimiter.tryAcquire(exchangeName, next.priority)) {
+                return false;
+            }
+            cycle.poll();
+            refresh(exchangeName, next, testRun);
+        }
+        if (cycle.isEmpty()) {
+            cycles.remove(exchangeName);
+            return true;
+        }
+        return false;
+    }
+
+    private Deque<PlannedPair> plan(ExchangeName exchangeName) {
+        Duration timeFrameDuration = parameters.getDataBaseTimeFrame().getDuration();
+        List<LastBar> exchangeLastBars = barService.loadLastBars(exchangeName);
+        lastBars.put(exchangeName, exchangeLastBars);
+        Map<String, Instant> lastCloseTimes = exchangeLastBars.stream()
+                .collect(Collectors.toMap(LastBar::getPair, LastBar::getCloseTime, (time1, time2) -> time1));
+        Set<String> activePairKeys =
+                new HashSet<>(activePairs.getActivePairs(exchangeName, Instant.now().minus(timeFrameDuration)));
+        tradeContainer.getTrades(exchangeName).forEach(trade -> activePairKeys.add(trade.getPair()));
+        List<SymbolPair> activeSymbolPairs = new ArrayList<>();
+        List<SymbolPair> remainingSymbolPairs = new ArrayList<>();
+        for (SymbolPair symbolPair : symbolPairContainer.getAll(exchangeName)) {
+            String pair = symbolPair.getPair();
+            Instant lastCloseTime = lastCloseTimes.get(pair);
+            // bars of a pair without the last bar cannot be refreshed
+            if (lastCloseTime == null || !DateUtils.isCurrentDurationLonger(lastCloseTime, timeFrameDuration)) {
+                continue;
+            }
+            (activePairKeys.contains(pair) ? activeSymbolPairs : remainingSymbolPairs).add(symbolPair);
+        }
+
+        Deque<PlannedPair> cycle = new ArrayDeque<>(activeSymbolPairs.size() + remainingSymbolPairs.size());
+        long startTime = System.nanoTime();
+        activeSymbolPairs.forEach(
+                symbolPair -> cycle.add(new PlannedPair(symbolPair, RequestPriority.MEDIUM, startTime)));
+        long interval = remainingSymbolPairs.isEmpty() ? 0
+                : (long) (timeFrameDuration.toNanos() * SPREAD_SHARE / remainingSymbolPairs.size());
+        for (int i = 0; i < remainingSymbolPairs.size(); i++) {
+            cycle.add(new PlannedPair(remainingSymbolPairs.get(i), RequestPriority.LOW, startTime + interval * i));
+        }
+        log.debug("Refresh load of {} exchange planned: {} active and {} remaining symbol pairs with missing bars",
+                  exchangeName.getFullName(), activeSymbolPairs.size(), remainingSymbolPairs.size());
+        return cycle;
+    }
+
+    private void refresh(ExchangeName exchangeName, PlannedPair plannedPair, TestRun testRun) {
+        if (!symbolPairContainer.contains(plannedPair.symbolPair)) {
+            log.debug("Symbol pair {} was removed from {} exchange since the refresh was planned, skipping refresh",
+                      plannedPair.symbolPair.getPair(), exchangeName.getFullName());
+            return;
+        }
+        List<Bar> bars = clientService.fetchBars(plannedPair.symbolPair, parameters.getDataBaseTimeFrame(),
+                                                 lastBars.getOrDefault(exchangeName, List.of()));
+        if (!CollectionUtils.isEmpty(bars)) {
+            barService.save(bars, testRun);
+        }
+    }
+
+    private static final class PlannedPair {
+
+        private final SymbolPair symbolPair;
+        private final RequestPriority priority;
+        private final long dueTime;
+
+        private PlannedPair(SymbolPair symbolPair, RequestPriority priority, long dueTime) {
+            this.symbolPair = symbolPair;
+            this.priority = priority;
+            this.dueTime = dueTime;
+        }
+    }
+}
@@ -5,52 +5,57 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
-import java.time.Instant;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import my.dub.dlp_pilot.Constants;
 import my.dub.dlp_pilot.configuration.ParametersHolder;
-import my.dub.dlp_pilot.model.Bar;
 import my.dub.dlp_pilot.model.Exchange;
 import my.dub.dlp_pilot.model.ExchangeName;
 import my.dub.dlp_pilot.model.TestRun;
-import my.dub.dlp_pilot.model.TimeFrame;
 import my.dub.dlp_pilot.model.TradeResultType;
 import my.dub.dlp_pilot.model.dto.BarAverage;
-import my.dub.dlp_pilot.model.dto.LastBar;
+import my.dub.dlp_pilot.model.dto.TestRunCheckpoint;
 import my.dub.dlp_pilot.repository.TestRunRepository;
 import my.dub.dlp_pilot.service.BarService;
+import my.dub.dlp_pilot.service.CheckpointService;
 import my.dub.dlp_pilot.service.ExchangeService;
+import my.dub.dlp_pilot.service.PreloadService;
 import my.dub.dlp_pilot.service.PriceDifferenceService;
+import my.dub.dlp_pilot.service.RefreshLoadService;
 import my.dub.dlp_pilot.service.TestRunService;
 import my.dub.dlp_pilot.service.TickerService;
 import my.dub.dlp_pilot.service.TradeService;
 import my.dub.dlp_pilot.service.client.ClientService;
 import my.dub.dlp_pilot.util.DateUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.CollectionUtils;
 
 /**
  * An implementation of {@link TestRunService} service.
  */
 @Slf4j
 @Service
-public class TestRunServiceImpl implements TestRunService {
+public class TestRunServiceImpl implements TestRunService, DisposableBean {
 
     private static final String EXCHANGE_NAME_PARAMETER = "exchangeName";
+    private static final Duration EXIT_FLUSH_TIMEOUT = Duration.ofSeconds(30);
 
     private final TestRunRepository repository;
     private final ParametersHolder parameters;
@@ -58,10 +63,14 @@ public class TestRunServiceImpl implements TestRunService {
     private final ClientService clientService;
     private final TickerService tickerService;
     private final BarService barService;
+    private final PreloadService preloadService;
+    private final RefreshLoadService refreshLoadService;
     private final PriceDifferenceService priceDifferenceService;
     private final TradeService tradeService;
+    private final CheckpointService checkpointService;
 
     private TestRun currentTestRun;
+    private boolean resumed;
 
     private LocalDateTime tickerStaleCheckEndDateTime;
     private LocalDateTime tradeStopDateTime;
@@ -71,88 +80,78 @@ public class TestRunServiceImpl implements TestRunService {
     private final AtomicBoolean tradeStop = new AtomicBoolean();
     private final AtomicBoolean testRunEnd = new AtomicBoolean();
 
-    private final Map<ExchangeName, AtomicInteger> loadPairsIndexMap = new ConcurrentHashMap<>();
-    private final Map<ExchangeName, Instant> preloadPairsDateTimeMap = new ConcurrentHashMap<>();
-    private final Map<ExchangeName, List<LastBar>> refreshLoadLastBars = new ConcurrentHashMap<>();
+    // a thread per exchange, as no more than one processing task of an exchange is submitted at a time; short tasks
+    // saving fetched tickers are queued behind them
+    private final ExecutorService processingExecutor =
+            Executors.newFixedThreadPool(ExchangeName.values().length, new CustomizableThreadFactory("processing-"));
+    // number of ticker fetches not processed yet, by exchange
+    private final Map<ExchangeName, AtomicInteger> pendingProcessing = new EnumMap<>(ExchangeName.class);
 
     @Autowired
     public TestRunServiceImpl(TestRunRepository repository, ParametersHolder parameters,
             ExchangeService exchangeService, ClientService clientService, TickerService tickerService,
-            BarService barService, PriceDifferenceService priceDifferenceService, TradeService tradeService) {
+            BarService barService, PreloadService preloadService, RefreshLoadService refreshLoadService,
+            PriceDifferenceService priceDifferenceService, TradeService tradeService,
+            CheckpointService checkpointService) {
         this.repository = repository;
         this.parameters = parameters;
         this.exchangeService = exchangeService;
         this.clientService = clientService;
         this.tickerService = tickerService;
         this.barService = barService;
+        this.preloadService = preloadService;
+        this.refreshLoadService = refreshLoadService;
         this.priceDifferenceService = priceDifferenceService;
         this.tradeService = tradeService;
+        this.checkpointService = checkpointService;
+        for (ExchangeName exchangeName : ExchangeName.values()) {
+            pendingProcessing.put(exchangeName, new AtomicInteger());
+        }
     }
 
     @Override
     public void init() {
         createAndSave();
-        Set<Exchange> exchanges = exchangeService.findAll();
-        exchanges.forEach(exchange -> loadPairsIndexMap.put(exchange.getName(), new AtomicInteger()));
-        clientService.loadAllSymbolPairs(loadPairsIndexMap.keySet());
+        clientService.loadAllSymbolPairs(getExchangeNames());
+    }
+
+    @Override
+    public boolean resume() {
+        Optional<TestRunCheckpoint> checkpointOptional = checkpointService.load();
+        if (checkpointOptional.isEmpty()) {
+            log.info("No Test Run checkpoint found, starting a new Test Run");
+            return false;
+        }
+        TestRunCheckpoint checkpoint = checkpointOptional.get();
+        TestRun testRun = repository.findById(checkpoint.getTestRunId()).orElse(null);
+        if (testRun == null || testRun.getTradesStartTime() == null || testRun.getEndTime() == null
+                || !LocalDateTime.now().isBefore(testRun.getEndTime())) {
+            log.info("Test Run #{} of the checkpoint cannot be resumed, starting a new Test Run",
+                     checkpoint.getTestRunId());
+            return false;
+        }
+        currentTestRun = testRun;
+        Set<ExchangeName> exchangeNames = getExchangeNames();
+        clientService.loadAllSymbolPairs(exchangeNames);
+        exchangeNames.forEach(exchangeName -> barService.restoreBars(testRun, exchangeName));
+        checkpointService.restore(checkpoint, testRun);
+        resumed = true;
+        log.info("Resuming Test Run #{} started at {}", testRun.getId(),
+                 DateUtils.formatDateTime(testRun.getStartTime()));
+        return true;
     }
 
     @Override
     public boolean runPreload(@NonNull Exchange exchange) {
         checkNotNull(exchange, Constants.NULL_ARGUMENT_MESSAGE, "exchange");
 
-        ExchangeName name = exchange.getName();
-        boolean isDescPreload = Boolean.FALSE.equals(exchange.getAscendingPreload());
-        TimeFrame dataCaptureTimeFrame = parameters.getDataCaptureTimeFrame();
-        LocalDateTime fallbackStartTime = isDescPreload
-                ? currentTestRun.getStartTime()
-                : currentTestRun.getPreloadStartTime().minus(dataCaptureTimeFrame.getDuration());
-        Instant startTime =
-                Optional.ofNullable(preloadPairsDateTimeMap.get(name)).orElse(DateUtils.toInstant(fallbackStartTime));
-        Instant endTime = DateUtils
-                .toInstant(isDescPreload ? currentTestRun.getPreloadStartTime() : currentTestRun.getStartTime());
-        AtomicInteger atomicSymbolPairIndex = loadPairsIndexMap.get(name);
-        List<Bar> bars = clientService
-                .fetchBarsPreload(name, dataCaptureTimeFrame, startTime, atomicSymbolPairIndex.get(), endTime);
-        // check if symbol pair is excluded
-        if (bars.isEmpty()) {
-            clientService.removeSymbolPair(name, atomicSymbolPairIndex.get());
-            preloadPairsDateTimeMap.remove(name);
-            return atomicSymbolPairIndex.get() >= clientService.getSymbolPairsCount(name);
-        }
-        // check to proceed to next symbol pair
-        if ((isDescPreload && bars.stream().anyMatch(bar -> !bar.getOpenTime().isAfter(endTime))) || (!isDescPreload
-                && bars.stream().anyMatch(bar -> !bar.getCloseTime().isBefore(endTime)))) {
-            atomicSymbolPairIndex.incrementAndGet();
-            preloadPairsDateTimeMap.remove(name);
-        } else {
-            Instant preloadIterationEndDateTime;
-            if (isDescPreload) {
-                preloadIterationEndDateTime =
-                        bars.stream().map(Bar::getOpenTime).min(Comparator.naturalOrder()).orElse(startTime);
-            } else {
-                preloadIterationEndDateTime =
-                        bars.stream().map(Bar::getCloseTime).max(Comparator.naturalOrder()).orElse(endTime);
-            }
-            if (DateUtils.isDurationLonger(isDescPreload ? endTime : preloadIterationEndDateTime,
-                                           isDescPreload ? preloadIterationEndDateTime : endTime,
-                                           dataCaptureTimeFrame.getDuration())) {
-                preloadPairsDateTimeMap.put(name, preloadIterationEndDateTime);
-            } else {
-                atomicSymbolPairIndex.incrementAndGet();
-                preloadPairsDateTimeMap.remove(name);
-            }
-        }
-        barService.save(bars, currentTestRun);
-        return atomicSymbolPairIndex.get() >= clientService.getSymbolPairsCount(name);
+        return preloadService.runPreload(exchange, currentTestRun);
     }
 
     @Override
     public void onPreloadComplete(@NonNull ExchangeName exchangeName) {
         checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, EXCHANGE_NAME_PARAMETER);
 
-        loadPairsIndexMap.get(exchangeName).set(0);
-        refreshLoadLastBars.putIfAbsent(exchangeName, barService.loadLastBars(currentTestRun, exchangeName));
         log.info("{} has finished its preload task", exchangeName);
     }
 
@@ -160,68 +159,80 @@ public class TestRunServiceImpl implements TestRunService {
     public boolean runRefreshLoad(@NonNull ExchangeName exchangeName) {
         checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, EXCHANGE_NAME_PARAMETER);
 
-        AtomicInteger atomicSymbolPairIndex = loadPairsIndexMap.get(exchangeName);
-        List<Bar> bars = clientService
-                .fetchBars(exchangeName, parameters.getDataCaptureTimeFrame(), atomicSymbolPairIndex.get(),
-                           refreshLoadLastBars.get(exchangeName));
-        atomicSymbolPairIndex.incrementAndGet();
-        if (!CollectionUtils.isEmpty(bars)) {
-            barService.save(bars, currentTestRun);
-        }
-        return atomicSymbolPairIndex.get() >= clientService.getSymbolPairsCount(exchangeName);
+        return refreshLoadService.runRefreshLoad(exchangeName, currentTestRun);
     }
 
     @Override
-    public void onRefreshLoadComplete(@NonNull ExchangeName exchangeName, boolean isPreloadComplete) {
+    public void onRefreshLoadComplete(@NonNull ExchangeName exchangeName) {
         checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, EXCHANGE_NAME_PARAMETER);
 
-        if (isPreloadComplete) {
-            List<BarAverage> barAverages = barService.loadBarAverages(currentTestRun, exchangeName);
-            priceDifferenceService.updatePriceDifferences(barAverages);
-            List<LastBar> lastBars = barAverages.stream()
-                    .map(barAverage -> new LastBar(barAverage.getExchangeName(), barAverage.getBase(),
-                                                   barAverage.getTarget(), barAverage.getLastCloseTime()))
-                    .collect(Collectors.toList());
-            refreshLoadLastBars.put(exchangeName, lastBars);
-        } else {
-            refreshLoadLastBars.put(exchangeName, barService.loadLastBars(currentTestRun, exchangeName));
-        }
-        loadPairsIndexMap.get(exchangeName).set(0);
         log.debug("Refresh load finished for {} exchange", exchangeName.getFullName());
     }
 
     @Override
-    public void runTest(@NonNull ExchangeName exchangeName) {
+    public CompletableFuture<Void> runTest(@NonNull ExchangeName exchangeName) {
         checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, EXCHANGE_NAME_PARAMETER);
 
-        if (!checkTestRunEnd()) {
-            tickerService.fetchAndSave(exchangeName);
-            if (checkTickerStaleCheckEnd() && !checkTradeStopped()) {
-                priceDifferenceService.handlePriceDifference(exchangeName, currentTestRun);
-                tradeService.handleTrades(exchangeName);
-            }
-        } else {
+        if (checkTestRunEnd()) {
             tradeService.closeTrades(exchangeName, TradeResultType.TEST_RUN_END);
+            return CompletableFuture.completedFuture(null);
         }
+        return tickerService.fetchAndSaveAsync(exchangeName, processingExecutor)
+                .thenRun(() -> submitProcessing(exchangeName));
     }
 
     @Override
     @Transactional
     public void prepareRunTest() {
-        List<BarAverage> barAverages = barService.loadAllBarAverages(currentTestRun);
+        List<BarAverage> barAverages = barService.loadAllBarAverages();
         priceDifferenceService.createPriceDifferences(barAverages);
-        updateTradeStartEndTime();
-        preloadPairsDateTimeMap.clear();
+        if (resumed) {
+            restoreTradeStartEndTime();
+        } else {
+            updateTradeStartEndTime();
+        }
         clientService.updateLoadedSymbolPairs();
     }
 
     @Override
     public void onExit() {
+        checkpointService.delete();
         if (parameters.isDeleteBarsOnExit()) {
+            // queued ticker bars would be inserted after the deletion otherwise
+            if (!barService.flushTickerBars(EXIT_FLUSH_TIMEOUT)) {
+                log.warn("Ticker bars of Test Run #{} were not flushed before deletion", currentTestRun.getId());
+            }
             barService.deleteAll(currentTestRun);
         }
     }
 
+    @Override
+    public void saveCheckpoint() {
+        if (checkTestRunEnd()) {
+            return;
+        }
+        // closed trades are saved to DB first, as they are not included in checkpoints
+        if (!tradeService.flushClosedTrades(parameters.getTradePersistenceIntervalDuration())) {
+            log.debug("Closed trades were not flushed before the checkpoint of Test Run #{}", currentTestRun.getId());
+        }
+        // bars are restored from DB on resume
+        if (!barService.flushTickerBars(parameters.getTradePersistenceIntervalDuration())) {
+            log.debug("Ticker bars were not flushed before the checkpoint of Test Run #{}", currentTestRun.getId());
+        }
+        checkpointService.save(currentTestRun);
+    }
+
+    @Override
+    public void purgeExpiredBars() {
+        Duration retentionDuration = parameters.getBarsRetentionDuration();
+        if (retentionDuration.isZero()) {
+            return;
+        }
+        List<TestRun> expiredTestRuns = repository
+                .findAllByEndTimeBeforeAndIdNot(LocalDateTime.now().minus(retentionDuration), currentTestRun.getId());
+        expiredTestRuns.forEach(barService::deleteAll);
+    }
+
     @Override
     public void updateResultFile(@NonNull String filePath) {
         checkNotNull(filePath, Constants.NULL_ARGUMENT_MESSAGE, "filePath");
@@ -243,6 +254,19 @@ public class TestRunServiceImpl implements TestRunService {
         log.info("Test Run ending at: {}", DateUtils.formatDateTime(testRunEndDateTime));
     }
 
+    private void restoreTradeStartEndTime() {
+        tickerStaleCheckEndDateTime = currentTestRun.getTradesStartTime();
+        testRunEndDateTime = currentTestRun.getEndTime();
+        tradeStopDateTime = testRunEndDateTime.minus(parameters.getExitDelayDuration());
+        log.info("Trades part resumed, started at: {}", DateUtils.formatDateTime(tickerStaleCheckEndDateTime));
+        log.info("Test Run ending at: {}", DateUtils.formatDateTime(testRunEndDateTime));
+    }
+
+    @Override
+    public void destroy() {
+        processingExecutor.shutdownNow();
+    }
+
     @Override
     public TestRun getCurrentTestRun() {
         return currentTestRun;
@@ -307,10 +331,42 @@ public class TestRunServiceImpl implements TestRunService {
         currentTestRun = repository.save(testRun);
     }
 
+    private Set<ExchangeName> getExchangeNames() {
+        return exchangeService.findAll().stream().map(Exchange::getName).collect(Collectors.toSet());
+    }
+
     private boolean checkTickerStaleCheckEnd() {
         if (!tickerStaleCheckEnd.get()) {
             tickerStaleCheckEnd.set(!LocalDateTime.now().isBefore(tickerStaleCheckEndDateTime));
         }
         return tickerStaleCheckEnd.get();
     }
+
+    private void submitProcessing(ExchangeName exchangeName) {
+        if (pendingProcessing.get(exchangeName).getAndIncrement() == 0) {
+            processingExecutor.execute(() -> process(exchangeName));
+        }
+    }
+
+    /**
+     * Process the latest fetched tickers of an exchange until no fetch is pending. Fetches completed while processing
+     * is running are coalesced into a single pass, as only the latest tickers are relevant.
+     */
+    private void process(ExchangeName exchangeName) {
+        AtomicInteger pending = pendingProcessing.get(exchangeName);
+        int processed;
+        do {
+            processed = pending.get();
+            try {
+                barService.saveTickerBars(exchangeName, tickerService.getTickers(exchangeName), currentTestRun);
+                if (checkTickerStaleCheckEnd() && !checkTradeStopped()) {
+                    priceDifferenceService.handlePriceDifference(exchangeName, currentTestRun);
+                    tradeService.handleTrades(exchangeName);
+                }
+            } catch (RuntimeException e) {
+                log.error("Unexpected error occurred when processing tickers of {} exchange",
+                          exchangeName.getFullName(), e);
+            }
+        } while (pending.addAndGet(-processed) > 0);
+    }
 }
@@ -5,6 +5,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import java.time.Duration;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import lombok.extern.slf4j.Slf4j;
 import my.dub.dlp_pilot.Constants;
 import my.dub.dlp_pilot.exception.MissingEntityException;
@@ -37,11 +39,12 @@ public class TickerServiceImpl implements TickerService {
     }
 
     @Override
-    public void fetchAndSave(@NonNull ExchangeName exchangeName) {
+    public CompletableFuture<Void> fetchAndSaveAsync(@NonNull ExchangeName exchangeName, @NonNull Executor executor) {
         checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, EXCHANGE_NAME_PARAMETER);
+        checkNotNull(executor, Constants.NULL_ARGUMENT_MESSAGE, "executor");
 
-        Set<Ticker> tickers = clientService.fetchTickers(exchangeName);
-        tickerContainer.addTickers(exchangeName, tickers);
+        return clientService.fetchTickersAsync(exchangeName)
+                .thenAcceptAsync(tickers -> tickerContainer.addTickers(exchangeName, tickers), executor);
     }
 
     @Override
@@ -51,8 +54,13 @@ public class TickerServiceImpl implements TickerService {
     }
 
     @Override
-    public Set<Ticker> getAllTickers() {
-        return tickerContainer.getAll();
+    public Optional<Ticker> getTicker(@NonNull ExchangeName exchangeName, @NonNull String base,
+            @NonNull String target) {
+        checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, EXCHANGE_NAME_PARAMETER);
+        checkNotNull(base, Constants.NULL_ARGUMENT_MESSAGE, "base");
+        checkNotNull(target, Constants.NULL_ARGUMENT_MESSAGE, "target");
+
+        return tickerContainer.getTicker(exchangeName, base, target);
     }
 
     @Override
@@ -65,21 +73,6 @@ public class TickerServiceImpl implements TickerService {
                 .orElseThrow(() -> new MissingEntityException(Ticker.class, exchangeName.getFullName(), base, target));
     }
 
-    @Override
-    public Optional<Ticker> findValidEquivalentTickerFromSet(@NonNull Ticker originalTicker,
-            @NonNull Set<Ticker> tickerSet) {
-        checkNotNull(originalTicker, Constants.NULL_ARGUMENT_MESSAGE, "originalTicker");
-        checkNotNull(tickerSet, Constants.NULL_ARGUMENT_MESSAGE, "tickerSet");
-
-        if (originalTicker.isPriceInvalid()) {
-            log.trace("Invalid price found in {}!", originalTicker.toShortString());
-            return Optional.empty();
-        }
-        return tickerSet.stream()
-                .filter(ticker -> !ticker.isPriceInvalid() && ticker.getBase().equals(originalTicker.getBase())
-                        && ticker.getTarget().equals(originalTicker.getTarget())).findAny();
-    }
-
     @Override
     public boolean checkStale(@NonNull Ticker ticker1, @NonNull Ticker ticker2,
             @NonNull Duration staleIntervalDuration) {
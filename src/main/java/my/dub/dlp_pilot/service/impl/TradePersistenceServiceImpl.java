@@ -0,0 +1,81 @@
+package my.dub.dlp_pilot.service.impl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.time.Duration;
+import java.util.List;
+import my.dub.dlp_pilot.Constants;
+import my.dub.dlp_pilot.configuration.ParametersHolder;
+import my.dub.dlp_pilot.model.Position;
+import my.dub.dlp_pilot.model.Trade;
+import my.dub.dlp_pilot.repository.TradeRepository;
+import my.dub.dlp_pilot.service.TradePersistenceService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of {@link TradePersistenceService} service, based on {@link AbstractWriteBehindService}. Closed
+ * trades are saved together with their positions.
+ */
+@Service
+public class TradePersistenceServiceImpl extends AbstractWriteBehindService<Trade> implements TradePersistenceService {
+
+    private final TradeRepository repository;
+    private final ParametersHolder parameters;
+
+    @Autowired
+    public TradePersistenceServiceImpl(TradeRepository repository, ParametersHolder parameters) {
+        super("trade_writer-", "closed trades");
+        this.repository = repository;
+        this.parameters = parameters;
+    }
+
+    @Override
+    public void enqueue(@NonNull Trade trade) {
+        checkNotNull(trade, Constants.NULL_ARGUMENT_MESSAGE, "trade");
+
+        enqueueAll(List.of(trade));
+    }
+
+    @Override
+    protected int getBatchSize() {
+        return parameters.getTradePersistenceBatchSize();
+    }
+
+    @Override
+    protected Duration getWriteInterval() {
+        return parameters.getTradePersistenceIntervalDuration();
+    }
+
+    @Override
+    protected void writeAll(List<Trade> trades) {
+        repository.saveAll(trades);
+    }
+
+    @Override
+    protected void write(Trade trade) {
+        repository.save(trade);
+    }
+
+    @Override
+    protected String describe(Trade trade) {
+        return "#" + trade.getLocalId() + " " + trade.toShortString();
+    }
+
+    // ids generated in a rolled back transaction would make the next save attempt merge instead of insert
+    @Override
+    protected void onWriteFailed(List<Trade> trades) {
+        for (Trade trade : trades) {
+            trade.setId(null);
+            resetId(trade.getPositionShort());
+            resetId(trade.getPositionLong());
+        }
+    }
+
+    private static void resetId(Position position) {
+        if (position != null) {
+            position.setId(null);
+        }
+    }
+}
@@ -34,6 +34,7 @@ import my.dub.dlp_pilot.repository.TradeRepository;
 import my.dub.dlp_pilot.repository.container.TradeContainer;
 import my.dub.dlp_pilot.service.ExchangeService;
 import my.dub.dlp_pilot.service.TickerService;
+import my.dub.dlp_pilot.service.TradePersistenceService;
 import my.dub.dlp_pilot.service.TradeService;
 import my.dub.dlp_pilot.util.Calculations;
 import my.dub.dlp_pilot.util.DateUtils;
@@ -54,15 +55,18 @@ public class TradeServiceImpl implements TradeService {
 
     private final TradeRepository repository;
     private final TradeContainer tradeContainer;
+    private final TradePersistenceService persistenceService;
     private final TickerService tickerService;
     private final ExchangeService exchangeService;
     private final ParametersHolder parameters;
 
     @Autowired
-    public TradeServiceImpl(TradeRepository repository, TradeContainer tradeContainer, TickerService tickerService,
-            ExchangeService exchangeService, ParametersHolder parameters) {
+    public TradeServiceImpl(TradeRepository repository, TradeContainer tradeContainer,
+            TradePersistenceService persistenceService, TickerService tickerService, ExchangeService exchangeService,
+            ParametersHolder parameters) {
         this.repository = repository;
         this.tradeContainer = tradeContainer;
+        this.persistenceService = persistenceService;
         this.tickerService = tickerService;
         this.exchangeService = exchangeService;
         this.parameters = parameters;
@@ -99,19 +103,20 @@ public class TradeServiceImpl implements TradeService {
 
         Trade trade = createTrade(tickerShort, tickerLong, currentPercentageDiff, testRun, currentPriceDifference,
                                   averagePriceDifference);
-        boolean tradeCreated = tradeContainer.addTrade(trade);
+        boolean tradeCreated = tradeContainer.addTrade(trade, parameters.getParallelTradesNumber());
         if (tradeCreated) {
             log.info("New #{} {} opened. Current price difference: {}; average price " + "difference: {}",
                      trade.getLocalId(), trade.toShortString(),
                      Calculations.originalDecimalResult(currentPriceDifference),
                      Calculations.originalDecimalResult(averagePriceDifference));
         } else {
-            log.error("Unable to locally save new #{} {}", trade.getLocalId(), trade.toShortString());
+            // a similar trade or the last allowed parallel trade was added concurrently
+            log.debug("New {} was not opened: similar trade exists or parallel trades limit is reached",
+                      trade.toShortString());
         }
     }
 
     @Override
-    @Transactional
     public void handleTrades(@NonNull ExchangeName exchangeName) {
         checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, "exchangeName");
 
@@ -147,7 +152,6 @@ public class TradeServiceImpl implements TradeService {
     }
 
     @Override
-    @Transactional
     public void closeTrades(@NonNull ExchangeName exchangeName, @NonNull TradeResultType tradeResultType) {
         checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, "exchangeName");
         checkNotNull(tradeResultType, Constants.NULL_ARGUMENT_MESSAGE, "tradeResultType");
@@ -182,7 +186,14 @@ public class TradeServiceImpl implements TradeService {
 
     @Override
     public boolean isAllTradesClosed() {
-        return tradeContainer.isEmpty();
+        return tradeContainer.isEmpty() && !persistenceService.hasPending();
+    }
+
+    @Override
+    public boolean flushClosedTrades(@NonNull Duration timeout) {
+        checkNotNull(timeout, Constants.NULL_ARGUMENT_MESSAGE, "timeout");
+
+        return persistenceService.flush(timeout);
     }
 
     private boolean canEnterTrade(Ticker tickerShort, Ticker tickerLong) {
@@ -203,11 +214,12 @@ public class TradeServiceImpl implements TradeService {
                 .checkDetrimentalRecord(tickerShort.getExchangeName(), tickerLong.getExchangeName(), base, target)) {
             return false;
         }
+        // fast rejection only, the limit is enforced when the trade is added to container
         int parallelTradesNumber = parameters.getParallelTradesNumber();
         if (parallelTradesNumber != 0) {
             Pair<Long, Long> tradesCount =
                     tradeContainer.tradesCount(tickerShort.getExchangeName(), tickerLong.getExchangeName());
-            return tradesCount.getFirst() <= parallelTradesNumber && tradesCount.getSecond() <= parallelTradesNumber;
+            return tradesCount.getFirst() < parallelTradesNumber && tradesCount.getSecond() < parallelTradesNumber;
         }
         return true;
     }
@@ -247,24 +259,28 @@ public class TradeServiceImpl implements TradeService {
         return false;
     }
 
-    private synchronized void handleClose(Trade trade, Ticker tickerShort, Ticker tickerLong,
-            TradeResultType tradeResultType) {
-        if (tradeContainer.isSimilarPresent(trade) && !repository
-                .checkSimilarExists(trade.getBase(), trade.getTarget(), tickerShort.getExchangeName(),
-                                    tickerLong.getExchangeName(), trade.getPositionShort().getOpenPrice(),
-                                    trade.getPositionLong().getOpenPrice(), tradeResultType)) {
+    private void handleClose(Trade trade, Ticker tickerShort, Ticker tickerLong, TradeResultType tradeResultType) {
+        // a trade can be handled on both of its exchanges at once, only one of the calls closes it
+        if (!trade.startClosing()) {
+            return;
+        }
+        Long localId = trade.getLocalId();
+        try {
             closeTrade(trade, tradeResultType, tickerShort, tickerLong);
-            repository.save(trade);
-            Long localId = trade.getLocalId();
-            boolean removed = tradeContainer.remove(localId);
-            if (!removed) {
-                log.error("#{} {} was not removed from container!", localId, trade.toShortString());
-            }
+            persistenceService.enqueue(trade);
+        } catch (RuntimeException e) {
+            trade.cancelClosing();
+            throw e;
+        }
+        boolean removed = tradeContainer.remove(localId);
+        trade.markClosed();
+        if (!removed) {
+            log.error("#{} {} was not removed from container!", localId, trade.toShortString());
+        }
 
-            log.info("#{} {} closed", localId, trade.toShortString());
-            if (TradeResultType.DETRIMENTAL.equals(tradeResultType)) {
-                recordDetrimental(trade);
-            }
+        log.info("#{} {} closed", localId, trade.toShortString());
+        if (TradeResultType.DETRIMENTAL.equals(tradeResultType)) {
+            recordDetrimental(trade);
         }
     }
 
@@ -6,8 +6,11 @@ import static my.dub.dlp_pilot.Constants.NO_BARS_FOUND_IN_RESPONSE_MSG;
 import static my.dub.dlp_pilot.Constants.NO_SYMBOL_DATA_FOUND_IN_RESPONSE_MSG;
 import static my.dub.dlp_pilot.Constants.NO_TICKERS_FOUND_IN_RESPONSE_MSG;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -15,9 +18,11 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import my.dub.dlp_pilot.Constants;
 import my.dub.dlp_pilot.exception.client.UnexpectedEndpointResponseException;
 import my.dub.dlp_pilot.model.Bar;
@@ -29,6 +34,7 @@ import my.dub.dlp_pilot.service.ExchangeClientService;
 import my.dub.dlp_pilot.service.ExchangeService;
 import my.dub.dlp_pilot.service.client.AbstractExchangeClientService;
 import my.dub.dlp_pilot.service.client.ApiClient;
+import my.dub.dlp_pilot.service.client.ResponseParser;
 import my.dub.dlp_pilot.util.DateUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -51,7 +57,7 @@ public class BigoneExchangeClientService extends AbstractExchangeClientService i
     @Override
     public List<SymbolPair> fetchSymbolPairs() throws IOException {
         JsonNode parentNode =
-                apiClient.executeRequestParseResponse(exchange.getBaseEndpoint(), "asset_pairs", exchangeFullName);
+                apiClient.executeRequestParseResponse(exchange.getBaseEndpoint(), "asset_pairs", exchangeName);
         checkResponseStatus(parentNode);
         JsonNode dataNode = getDataNode(parentNode, NO_SYMBOL_DATA_FOUND_IN_RESPONSE_MSG);
         List<SymbolPair> symbolPairsResult = new ArrayList<>();
@@ -73,47 +79,87 @@ public class BigoneExchangeClientService extends AbstractExchangeClientService i
      * @see <a href="https://open.big.one/docs/spot_tickers.html#ticker">BigONE REST API - Tickers</a>
      */
     @Override
-    public Set<Ticker> fetchAllTickers(@NonNull List<SymbolPair> symbolPairs) throws IOException {
+    public CompletableFuture<Set<Ticker>> fetchAllTickersAsync(@NonNull Map<String, SymbolPair> symbolPairs) {
         checkNotNull(symbolPairs, Constants.NULL_ARGUMENT_MESSAGE, "symbolPairs");
 
-        JsonNode parentNode = apiClient
-                .executeRequestParseResponse(exchange.getBaseEndpoint(), "asset_pairs/tickers", exchangeFullName);
-        checkResponseStatus(parentNode);
-        JsonNode dataNode = getDataNode(parentNode, NO_TICKERS_FOUND_IN_RESPONSE_MSG);
+        ResponseParser<Set<Ticker>> dataParser = parser -> parseTickers(parser, symbolPairs);
+        return apiClient.executeRequestParseResponseAsync(exchange.getBaseEndpoint(), "asset_pairs/tickers",
+                                                          exchangeName,
+                                                          parser -> readDataResponse(parser,
+                                                                                     NO_TICKERS_FOUND_IN_RESPONSE_MSG,
+                                                                                     dataParser));
+    }
+
+    private Set<Ticker> parseTickers(JsonParser parser, Map<String, SymbolPair> symbolPairs) throws IOException {
         Set<Ticker> tickers = new HashSet<>();
-        for (JsonNode innerNode : dataNode) {
-            Ticker ticker = new Ticker(ExchangeName.BIGONE);
-            String symbolPairName = innerNode.get("asset_pair_name").asText();
-            try {
-                SymbolPair symbolPair =
-                        symbolPairs.stream().filter(sP -> sP.getName().equals(symbolPairName)).findFirst()
-                                .orElseThrow();
-                ticker.setBase(symbolPair.getBase());
-                ticker.setTarget(symbolPair.getTarget());
-                ticker.setClosePrice(parsePrice(innerNode.get("close")).orElseThrow());
-                JsonNode askNode = innerNode.get("ask");
-                if (askNode == null) {
-                    logInvalidPriceData(ticker.getPair(), "ASK");
+        int tickersCount = 0;
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            tickersCount++;
+            Ticker ticker = new Ticker(exchangeName);
+            boolean valid = true;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken valueToken = parser.nextToken();
+                if (!valid) {
+                    parser.skipChildren();
                     continue;
                 }
-                ticker.setPriceAsk(parsePrice((askNode.get("price"))).orElseThrow());
-                ticker.setAskQuantity(parseVolume(askNode.get("quantity")).orElseThrow());
-                JsonNode bidNode = innerNode.get("bid");
-                if (bidNode == null) {
-                    logInvalidPriceData(ticker.getPair(), "BID");
-                    continue;
+                switch (fieldName) {
+                    case "asset_pair_name":
+                        valid = readSymbolPair(parser, symbolPairs, ticker);
+                        break;
+                    case "close":
+                        valid = readPrice(parser, ticker::setClosePrice);
+                        break;
+                    case "ask":
+                        valid = readOrder(parser, valueToken, ticker::setPriceAsk, ticker::setAskQuantity);
+                        if (!valid) {
+                            logInvalidPriceData(ticker.getPair(), "ASK");
+                        }
+                        break;
+                    case "bid":
+                        valid = readOrder(parser, valueToken, ticker::setPriceBid, ticker::setBidQuantity);
+                        if (!valid) {
+                            logInvalidPriceData(ticker.getPair(), "BID");
+                        }
+                        break;
+                    default:
+                        parser.skipChildren();
                 }
-                ticker.setPriceBid(parsePrice((bidNode.get("price"))).orElseThrow());
-                ticker.setBidQuantity(parseVolume(bidNode.get("quantity")).orElseThrow());
-            } catch (NoSuchElementException e) {
-                continue;
             }
-
-            tickers.add(ticker);
+            if (valid && ticker.getBase() != null && ticker.getClosePrice() != null && ticker.getPriceAsk() != null
+                    && ticker.getAskQuantity() != null && ticker.getPriceBid() != null
+                    && ticker.getBidQuantity() != null) {
+                tickers.add(ticker);
+            }
+        }
+        if (tickersCount == 0) {
+            throw new UnexpectedEndpointResponseException(exchangeFullName, NO_TICKERS_FOUND_IN_RESPONSE_MSG);
         }
         return tickers;
     }
 
+    private boolean readOrder(JsonParser parser, JsonToken valueToken, Consumer<BigDecimal> priceSetter,
+            Consumer<BigDecimal> quantitySetter) throws IOException {
+        if (valueToken != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return false;
+        }
+        boolean valid = true;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+            if (valid && "price".equals(fieldName)) {
+                valid = readPrice(parser, priceSetter);
+            } else if (valid && "quantity".equals(fieldName)) {
+                valid = readVolume(parser, quantitySetter);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return valid;
+    }
+
     /**
      * @see <a href="https://open.big.one/docs/spot_asset_pair_candle.html#candles-of-a-asset-pair">BigONE REST API -
      * Candles of an asset pair</a>
@@ -151,43 +197,74 @@ public class BigoneExchangeClientService extends AbstractExchangeClientService i
             return Collections.emptyList();
         }
         queryParams.put("period", timeFrame.getExchangeValue(exchangeName));
-        JsonNode parentNode = apiClient.executeRequestParseResponse(exchange.getBaseEndpoint(),
-                                                                    String.format("asset_pairs/%s/candles",
-                                                                                  symbolPair.getName()), queryParams,
-                                                                    exchangeFullName);
-        checkResponseStatus(parentNode);
-        JsonNode dataNode = getDataNode(parentNode, NO_BARS_FOUND_IN_RESPONSE_MSG);
+        String endpointUrl = String.format("asset_pairs/%s/candles", symbolPair.getName());
+        ResponseParser<List<Bar>> dataParser = parser -> parseBars(parser, symbolPair, timeFrame, endTime);
+        return apiClient.executeRequestParseResponse(exchange.getBaseEndpoint(), endpointUrl, queryParams,
+                                                     exchangeName,
+                                                     parser -> readDataResponse(parser, NO_BARS_FOUND_IN_RESPONSE_MSG,
+                                                                                dataParser));
+    }
+
+    private List<Bar> parseBars(JsonParser parser, SymbolPair symbolPair, TimeFrame timeFrame, Instant endTime)
+            throws IOException {
         List<Bar> bars = new ArrayList<>();
-        for (JsonNode innerNode : dataNode) {
-            Bar bar;
-            try {
-                Instant openTime = parseDateTimeHR(innerNode.get("time")).orElseThrow();
-                Instant closeTime = openTime.plus(timeFrame.getDuration());
-                if (endTime != null && closeTime.isBefore(endTime)) {
-                    break;
+        int barsCount = 0;
+        Instant now = Instant.now();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            barsCount++;
+            Bar bar = new Bar(exchangeName, symbolPair.getBase(), symbolPair.getTarget());
+            boolean valid = true;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                parser.nextToken();
+                if (valid) {
+                    valid = readBarValue(parser, fieldName, bar, timeFrame);
+                } else {
+                    parser.skipChildren();
                 }
-                if (closeTime.isAfter(Instant.now())) {
-                    continue;
-                }
-                bar = createBar(innerNode, symbolPair.getBase(), symbolPair.getTarget());
-                bar.setOpenTime(openTime);
-                bar.setCloseTime(closeTime);
-            } catch (NoSuchElementException ignored) {
+            }
+            if (!valid || bar.getOpenTime() == null || bar.getOpen() == null || bar.getHigh() == null
+                    || bar.getLow() == null || bar.getClose() == null || bar.getVolume() == null) {
+                continue;
+            }
+            if (endTime != null && bar.getCloseTime().isBefore(endTime)) {
+                break;
+            }
+            if (bar.getCloseTime().isAfter(now)) {
                 continue;
             }
             bars.add(bar);
         }
+        if (barsCount == 0) {
+            throw new UnexpectedEndpointResponseException(exchangeFullName, NO_BARS_FOUND_IN_RESPONSE_MSG);
+        }
         return bars;
     }
 
-    private Bar createBar(JsonNode innerNode, String base, String target) {
-        Bar bar = new Bar(exchangeName, base, target);
-        bar.setClose(parsePrice(innerNode.get("close")).orElseThrow());
-        bar.setHigh(parsePrice(innerNode.get("high")).orElseThrow());
-        bar.setLow(parsePrice(innerNode.get("low")).orElseThrow());
-        bar.setOpen(parsePrice(innerNode.get("open")).orElseThrow());
-        bar.setVolume(parseVolume(innerNode.get("volume")).orElseThrow());
-        return bar;
+    private boolean readBarValue(JsonParser parser, String fieldName, Bar bar, TimeFrame timeFrame)
+            throws IOException {
+        switch (fieldName) {
+            case "time":
+                Optional<Instant> openTime = parseDateTimeHR(readValueAsString(parser));
+                openTime.ifPresent(time -> {
+                    bar.setOpenTime(time);
+                    bar.setCloseTime(time.plus(timeFrame.getDuration()));
+                });
+                return openTime.isPresent();
+            case "open":
+                return readPrice(parser, bar::setOpen);
+            case "high":
+                return readPrice(parser, bar::setHigh);
+            case "low":
+                return readPrice(parser, bar::setLow);
+            case "close":
+                return readPrice(parser, bar::setClose);
+            case "volume":
+                return readVolume(parser, bar::setVolume);
+            default:
+                parser.skipChildren();
+                return true;
+        }
     }
 
     private JsonNode getDataNode(JsonNode parentNode, String errorMessage) {
@@ -205,9 +282,12 @@ public class BigoneExchangeClientService extends AbstractExchangeClientService i
     @Override
     protected void checkResponseStatus(JsonNode parentNode, String errorMessage) {
         JsonNode statusNode = parentNode.get("code");
+        if (statusNode == null) {
+            throw new UnexpectedEndpointResponseException(exchangeFullName, errorMessage);
+        }
         String status = statusNode.asText();
         if (!Objects.equals(status, "0")) {
-            String message = statusNode.get("message").asText();
+            String message = parentNode.path("message").asText();
             throw new UnexpectedEndpointResponseException(exchangeFullName, status, message);
         }
     }
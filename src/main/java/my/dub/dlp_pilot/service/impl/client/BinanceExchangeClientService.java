@@ -2,10 +2,11 @@ package my.dub.dlp_pilot.service.impl.client;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static my.dub.dlp_pilot.Constants.BINANCE_CLIENT_SERVICE_BEAN_NAME;
-import static my.dub.dlp_pilot.Constants.NO_BARS_FOUND_IN_RESPONSE_MSG;
 import static my.dub.dlp_pilot.Constants.NO_SYMBOL_DATA_FOUND_IN_RESPONSE_MSG;
 import static my.dub.dlp_pilot.Constants.NO_TICKERS_FOUND_IN_RESPONSE_MSG;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import java.io.IOException;
 import java.time.Instant;
@@ -15,8 +16,8 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import lombok.extern.slf4j.Slf4j;
 import my.dub.dlp_pilot.Constants;
 import my.dub.dlp_pilot.exception.client.UnexpectedEndpointResponseException;
@@ -40,6 +41,9 @@ public class BinanceExchangeClientService extends AbstractExchangeClientService
 
     private static final List<String> SYMBOL_STATUS_DISABLED = List.of("HALT", "BREAK");
     private static final String SYMBOL = "symbol";
+    private static final List<BarField> BINANCE_BAR_FIELDS =
+            List.of(BarField.OPEN_TIME_MILLIS, BarField.OPEN, BarField.HIGH, BarField.LOW, BarField.CLOSE,
+                    BarField.VOLUME);
 
     @Autowired
     public BinanceExchangeClientService(ExchangeService exchangeService, ApiClient apiClient) {
@@ -54,7 +58,7 @@ public class BinanceExchangeClientService extends AbstractExchangeClientService
     @Override
     public List<SymbolPair> fetchSymbolPairs() throws IOException {
         JsonNode parentNode =
-                apiClient.executeRequestParseResponse(exchange.getBaseEndpoint(), "exchangeInfo", exchangeFullName);
+                apiClient.executeRequestParseResponse(exchange.getBaseEndpoint(), "exchangeInfo", exchangeName);
         JsonNode symbolsNode = parentNode.get("symbols");
         if (symbolsNode == null || symbolsNode.isEmpty()) {
             throw new UnexpectedEndpointResponseException(exchangeFullName, NO_SYMBOL_DATA_FOUND_IN_RESPONSE_MSG);
@@ -93,29 +97,58 @@ public class BinanceExchangeClientService extends AbstractExchangeClientService
      * Binance REST API - Order Book</a>
      */
     @Override
-    public Set<Ticker> fetchAllTickers(@NonNull List<SymbolPair> symbolPairs) throws IOException {
+    public CompletableFuture<Set<Ticker>> fetchAllTickersAsync(@NonNull Map<String, SymbolPair> symbolPairs) {
         checkNotNull(symbolPairs, Constants.NULL_ARGUMENT_MESSAGE, "symbolPairs");
 
-        JsonNode parentNode = apiClient
-                .executeRequestParseResponse(exchange.getBaseEndpoint(), "ticker/bookTicker", exchangeFullName);
-        checkResponseStatus(parentNode, NO_TICKERS_FOUND_IN_RESPONSE_MSG);
+        return apiClient.executeRequestParseResponseAsync(exchange.getBaseEndpoint(), "ticker/bookTicker",
+                                                          exchangeName,
+                                                          parser -> parseTickers(parser, symbolPairs));
+    }
+
+    private Set<Ticker> parseTickers(JsonParser parser, Map<String, SymbolPair> symbolPairs) throws IOException {
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            return readErrorResponse(parser, NO_TICKERS_FOUND_IN_RESPONSE_MSG);
+        }
         Set<Ticker> tickers = new HashSet<>();
-        for (JsonNode innerNode : parentNode) {
-            Ticker ticker = new Ticker(ExchangeName.BINANCE);
-            String pair = innerNode.get(SYMBOL).asText();
-            try {
-                SymbolPair symbolPair =
-                        symbolPairs.stream().filter(sp -> pair.equals(sp.getName())).findFirst().orElseThrow();
-                ticker.setBase(symbolPair.getBase());
-                ticker.setTarget(symbolPair.getTarget());
-                ticker.setPriceAsk(parsePrice(innerNode.get("askPrice")).orElseThrow());
-                ticker.setPriceBid(parsePrice(innerNode.get("bidPrice")).orElseThrow());
-                ticker.setBidQuantity(parseVolume(innerNode.get("bidQty")).orElseThrow());
-                ticker.setAskQuantity(parseVolume(innerNode.get("askQty")).orElseThrow());
-            } catch (NoSuchElementException e) {
-                continue;
+        int tickersCount = 0;
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            tickersCount++;
+            Ticker ticker = new Ticker(exchangeName);
+            boolean valid = true;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                parser.nextToken();
+                if (!valid) {
+                    parser.skipChildren();
+                    continue;
+                }
+                switch (fieldName) {
+                    case SYMBOL:
+                        valid = readSymbolPair(parser, symbolPairs, ticker);
+                        break;
+                    case "askPrice":
+                        valid = readPrice(parser, ticker::setPriceAsk);
+                        break;
+                    case "bidPrice":
+                        valid = readPrice(parser, ticker::setPriceBid);
+                        break;
+                    case "askQty":
+                        valid = readVolume(parser, ticker::setAskQuantity);
+                        break;
+                    case "bidQty":
+                        valid = readVolume(parser, ticker::setBidQuantity);
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
             }
-            tickers.add(ticker);
+            if (valid && ticker.getBase() != null && ticker.getPriceAsk() != null && ticker.getPriceBid() != null
+                    && ticker.getAskQuantity() != null && ticker.getBidQuantity() != null) {
+                tickers.add(ticker);
+            }
+        }
+        if (tickersCount == 0) {
+            throw new UnexpectedEndpointResponseException(exchangeFullName, NO_TICKERS_FOUND_IN_RESPONSE_MSG);
         }
         return tickers;
     }
@@ -159,47 +192,17 @@ public class BinanceExchangeClientService extends AbstractExchangeClientService
         }
         queryParams.put("interval", timeFrame.getExchangeValue(exchangeName));
         queryParams.put(SYMBOL, symbolPair.getName());
-        JsonNode parentNode = apiClient
-                .executeRequestParseResponse(exchange.getBaseEndpoint(), "klines", queryParams, exchangeFullName);
-        checkResponseStatus(parentNode, NO_BARS_FOUND_IN_RESPONSE_MSG);
-        List<Bar> bars = new ArrayList<>();
-        for (JsonNode innerNode : parentNode) {
-            Bar bar;
-            try {
-                Instant openTime = parseDateTimeFromMillis(innerNode.get(0)).orElseThrow();
-                Instant closeTime = openTime.plus(timeFrame.getDuration());
-                if (endTime != null && openTime.isAfter(endTime)) {
-                    break;
-                }
-                if (closeTime.isAfter(Instant.now())) {
-                    continue;
-                }
-                bar = createBar(innerNode, symbolPair.getBase(), symbolPair.getTarget());
-                bar.setOpenTime(openTime);
-                bar.setCloseTime(closeTime);
-            } catch (NoSuchElementException ignored) {
-                continue;
-            }
-            bars.add(bar);
-        }
-        return bars;
-    }
-
-    private Bar createBar(JsonNode innerNode, String base, String target) {
-        Bar bar = new Bar(exchangeName, base, target);
-        bar.setOpen(parsePrice(innerNode.get(1)).orElseThrow());
-        bar.setHigh(parsePrice(innerNode.get(2)).orElseThrow());
-        bar.setLow(parsePrice(innerNode.get(3)).orElseThrow());
-        bar.setClose(parsePrice(innerNode.get(4)).orElseThrow());
-        bar.setVolume(parseVolume(innerNode.get(5)).orElseThrow());
-        return bar;
+        return apiClient.executeRequestParseResponse(exchange.getBaseEndpoint(), "klines", queryParams,
+                                                     exchangeName,
+                                                     parser -> readArrayBars(parser, symbolPair, timeFrame, endTime,
+                                                                             BINANCE_BAR_FIELDS));
     }
 
     @Override
     protected void checkResponseStatus(JsonNode parentNode, String errorMessage) {
         JsonNode statusNode = parentNode.get("code");
         if (statusNode != null) {
-            String message = statusNode.get("msg").asText();
+            String message = parentNode.get("msg").asText();
             throw new UnexpectedEndpointResponseException(exchangeFullName, statusNode.asText(), message);
         }
         if (parentNode.isEmpty()) {
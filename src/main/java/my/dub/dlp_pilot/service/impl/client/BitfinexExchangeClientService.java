@@ -2,6 +2,8 @@ package my.dub.dlp_pilot.service.impl.client;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import java.io.IOException;
 import java.time.Instant;
@@ -11,8 +13,8 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 import lombok.extern.slf4j.Slf4j;
@@ -38,6 +40,9 @@ public class BitfinexExchangeClientService extends AbstractExchangeClientService
     private static final List<String> RAW_TARGET_SYMBOLS =
             List.of("BTC", "ETH", "USD", "EUR", "JPY", "GBP", "EOS", "UST", "XCH", "CNHT");
     private static final String SYMBOL_PAIR_PREFIX = "t";
+    private static final List<BarField> BITFINEX_BAR_FIELDS =
+            List.of(BarField.OPEN_TIME_MILLIS, BarField.OPEN, BarField.CLOSE, BarField.HIGH, BarField.LOW,
+                    BarField.VOLUME);
 
     @Autowired
     public BitfinexExchangeClientService(ExchangeService exchangeService, ApiClient apiClient) {
@@ -51,7 +56,7 @@ public class BitfinexExchangeClientService extends AbstractExchangeClientService
     public List<SymbolPair> fetchSymbolPairs() throws IOException {
         JsonNode parentNode = apiClient.executeRequestParseResponse(exchange.getBaseEndpoint(),
                                                                     "conf/pub:map:currency:sym,pub:list:pair:exchange",
-                                                                    exchangeFullName);
+                                                                    exchangeName);
         checkResponseStatus(parentNode, Constants.NO_SYMBOL_DATA_FOUND_IN_RESPONSE_MSG);
         JsonNode firstNode = parentNode.get(0);
         Map<String, String> rawCurrenciesMap = StreamSupport.stream(firstNode.spliterator(), false)
@@ -90,39 +95,75 @@ public class BitfinexExchangeClientService extends AbstractExchangeClientService
      * @see <a href="https://docs.bitfinex.com/reference#rest-public-tickers">Bitfinex REST API - Tickers</a>
      */
     @Override
-    public Set<Ticker> fetchAllTickers(@NonNull List<SymbolPair> symbolPairs) throws IOException {
+    public CompletableFuture<Set<Ticker>> fetchAllTickersAsync(@NonNull Map<String, SymbolPair> symbolPairs) {
         checkNotNull(symbolPairs, Constants.NULL_ARGUMENT_MESSAGE, "symbolPairs");
 
-        JsonNode parentNode = apiClient
-                .executeRequestParseResponse(exchange.getBaseEndpoint(), "tickers", "symbols", "ALL", exchangeFullName);
-        checkResponseStatus(parentNode, Constants.NO_TICKERS_FOUND_IN_RESPONSE_MSG);
+        return apiClient.executeRequestParseResponseAsync(exchange.getBaseEndpoint(), "tickers", "symbols", "ALL",
+                                                          exchangeName,
+                                                          parser -> parseTickers(parser, symbolPairs));
+    }
+
+    private Set<Ticker> parseTickers(JsonParser parser, Map<String, SymbolPair> symbolPairs) throws IOException {
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            return readErrorResponse(parser, Constants.NO_TICKERS_FOUND_IN_RESPONSE_MSG);
+        }
         Set<Ticker> tickers = new HashSet<>();
-        for (JsonNode innerNode : parentNode) {
-            if (innerNode == null || innerNode.size() < 4) {
-                log.trace("Inner node does not contain full ticker data in response for exchange {}!", exchangeName);
+        int tickersCount = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_ARRAY) {
+                if (tickersCount == 0 && token.isScalarValue()) {
+                    return readErrorArray(parser, Constants.NO_TICKERS_FOUND_IN_RESPONSE_MSG);
+                }
+                parser.skipChildren();
                 continue;
             }
-            String pair = innerNode.get(0).asText();
-            if (!pair.startsWith(SYMBOL_PAIR_PREFIX)) {
-                continue;
+            tickersCount++;
+            Ticker ticker = new Ticker(exchangeName);
+            boolean valid = true;
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (valid) {
+                    valid = readTickerValue(parser, index, ticker, symbolPairs);
+                } else {
+                    parser.skipChildren();
+                }
+                index++;
             }
-            Ticker ticker = new Ticker(ExchangeName.BITFINEX);
-            try {
-                SymbolPair symbolPair =
-                        symbolPairs.stream().filter(sP -> sP.getName().equals(pair)).findFirst().orElseThrow();
-                ticker.setBase(symbolPair.getBase());
-                ticker.setTarget(symbolPair.getTarget());
-                ticker.setPriceBid(parsePrice(innerNode.get(1)).orElseThrow());
-                ticker.setPriceAsk(parsePrice(innerNode.get(3)).orElseThrow());
-                ticker.setClosePrice(parsePrice(innerNode.get(7)).orElseThrow());
-            } catch (NoSuchElementException ignored) {
+            if (index < 4) {
+                log.trace("Inner node does not contain full ticker data in response for exchange {}!", exchangeName);
                 continue;
             }
-            tickers.add(ticker);
+            if (valid && ticker.getBase() != null && ticker.getPriceBid() != null && ticker.getPriceAsk() != null
+                    && ticker.getClosePrice() != null) {
+                tickers.add(ticker);
+            }
+        }
+        if (tickersCount == 0) {
+            throw new UnexpectedEndpointResponseException(exchangeFullName,
+                                                          Constants.NO_TICKERS_FOUND_IN_RESPONSE_MSG);
         }
         return tickers;
     }
 
+    private boolean readTickerValue(JsonParser parser, int index, Ticker ticker,
+            Map<String, SymbolPair> symbolPairs)
+            throws IOException {
+        switch (index) {
+            case 0:
+                return readSymbolPair(parser, symbolPairs, ticker);
+            case 1:
+                return readPrice(parser, ticker::setPriceBid);
+            case 3:
+                return readPrice(parser, ticker::setPriceAsk);
+            case 7:
+                return readPrice(parser, ticker::setClosePrice);
+            default:
+                parser.skipChildren();
+                return true;
+        }
+    }
+
     /**
      * @see <a href="https://docs.bitfinex.com/reference#rest-public-candles">Bitfinex REST API - Candles</a>
      */
@@ -162,35 +203,10 @@ public class BitfinexExchangeClientService extends AbstractExchangeClientService
         queryParams.put("sort", "1");
         String endpointUrl = String.format("candles/trade:%s:%s/hist", timeFrame.getExchangeValue(exchangeName),
                                            symbolPair.getName());
-        JsonNode parentNode = apiClient
-                .executeRequestParseResponse(exchange.getBaseEndpoint(), endpointUrl, queryParams, exchangeFullName);
-        checkResponseStatus(parentNode, Constants.NO_BARS_FOUND_IN_RESPONSE_MSG);
-        List<Bar> bars = new ArrayList<>();
-        for (JsonNode innerNode : parentNode) {
-            Bar bar;
-            try {
-                Instant openTime = parseDateTimeFromMillis(innerNode.get(0)).orElseThrow();
-                Instant closeTime = openTime.plus(timeFrame.getDuration());
-                if (endTime != null && openTime.isAfter(endTime)) {
-                    break;
-                }
-                if (closeTime.isAfter(Instant.now())) {
-                    continue;
-                }
-                bar = new Bar(exchangeName, symbolPair.getBase(), symbolPair.getTarget());
-                bar.setOpenTime(openTime);
-                bar.setCloseTime(closeTime);
-                bar.setOpen(parsePrice(innerNode.get(1)).orElseThrow());
-                bar.setClose(parsePrice(innerNode.get(2)).orElseThrow());
-                bar.setHigh(parsePrice(innerNode.get(3)).orElseThrow());
-                bar.setLow(parsePrice(innerNode.get(4)).orElseThrow());
-                bar.setVolume(parseVolume(innerNode.get(5)).orElseThrow());
-            } catch (NoSuchElementException ignored) {
-                continue;
-            }
-            bars.add(bar);
-        }
-        return bars;
+        return apiClient.executeRequestParseResponse(exchange.getBaseEndpoint(), endpointUrl, queryParams,
+                                                     exchangeName,
+                                                     parser -> readArrayBars(parser, symbolPair, timeFrame, endTime,
+                                                                             BITFINEX_BAR_FIELDS));
     }
 
     @Override
@@ -199,13 +215,14 @@ public class BitfinexExchangeClientService extends AbstractExchangeClientService
             throw new UnexpectedEndpointResponseException(exchangeFullName, errorMessage);
         }
         JsonNode firstNode = parentNode.get(0);
+        // error responses are arrays of the "error" literal, error code and message
+        if (firstNode != null && "error".equalsIgnoreCase(firstNode.asText())) {
+            throw new UnexpectedEndpointResponseException(exchangeFullName, parentNode.path(1).asText(),
+                                                          parentNode.path(2).asText());
+        }
         if (firstNode == null || firstNode.isEmpty()) {
             throw new UnexpectedEndpointResponseException(exchangeFullName, errorMessage);
         }
-        if ("error".equalsIgnoreCase(firstNode.asText())) {
-            throw new UnexpectedEndpointResponseException(exchangeFullName, parentNode.get(2).asText(),
-                                                          parentNode.get(3).asText());
-        }
     }
 
 }
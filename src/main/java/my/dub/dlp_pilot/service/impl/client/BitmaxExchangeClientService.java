@@ -3,9 +3,13 @@ package my.dub.dlp_pilot.service.impl.client;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static my.dub.dlp_pilot.Constants.BITMAX_CLIENT_SERVICE_BEAN_NAME;
 import static my.dub.dlp_pilot.Constants.NO_BARS_FOUND_IN_RESPONSE_MSG;
+import static my.dub.dlp_pilot.Constants.NO_TICKERS_FOUND_IN_RESPONSE_MSG;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -13,8 +17,9 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import lombok.extern.slf4j.Slf4j;
 import my.dub.dlp_pilot.Constants;
 import my.dub.dlp_pilot.exception.client.UnexpectedEndpointResponseException;
@@ -27,6 +32,7 @@ import my.dub.dlp_pilot.service.ExchangeClientService;
 import my.dub.dlp_pilot.service.ExchangeService;
 import my.dub.dlp_pilot.service.client.AbstractExchangeClientService;
 import my.dub.dlp_pilot.service.client.ApiClient;
+import my.dub.dlp_pilot.service.client.ResponseParser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
@@ -50,7 +56,7 @@ public class BitmaxExchangeClientService extends AbstractExchangeClientService i
     @Override
     public List<SymbolPair> fetchSymbolPairs() throws IOException {
         JsonNode parentNode =
-                apiClient.executeRequestParseResponse(exchange.getBaseEndpoint(), "products", exchangeFullName);
+                apiClient.executeRequestParseResponse(exchange.getBaseEndpoint(), "products", exchangeName);
         checkResponseStatus(parentNode, "");
         JsonNode dataNode = getDataNode(parentNode, Constants.NO_SYMBOL_DATA_FOUND_IN_RESPONSE_MSG);
         List<SymbolPair> symbolPairsResult = new ArrayList<>();
@@ -70,45 +76,86 @@ public class BitmaxExchangeClientService extends AbstractExchangeClientService i
      * @see <a href="https://bitmax-exchange.github.io/bitmax-pro-api/#ticker">Bitfinex REST API - Ticker</a>
      */
     @Override
-    public Set<Ticker> fetchAllTickers(@NonNull List<SymbolPair> symbolPairs) throws IOException {
+    public CompletableFuture<Set<Ticker>> fetchAllTickersAsync(@NonNull Map<String, SymbolPair> symbolPairs) {
         checkNotNull(symbolPairs, Constants.NULL_ARGUMENT_MESSAGE, "symbolPairs");
 
-        JsonNode parentNode =
-                apiClient.executeRequestParseResponse(exchange.getBaseEndpoint(), "ticker", exchangeFullName);
-        checkResponseStatus(parentNode, "");
-        JsonNode dataNode = getDataNode(parentNode, Constants.NO_TICKERS_FOUND_IN_RESPONSE_MSG);
+        ResponseParser<Set<Ticker>> dataParser = parser -> parseTickers(parser, symbolPairs);
+        return apiClient.executeRequestParseResponseAsync(exchange.getBaseEndpoint(), "ticker", exchangeName,
+                                                          parser -> readDataResponse(parser,
+                                                                                     NO_TICKERS_FOUND_IN_RESPONSE_MSG,
+                                                                                     dataParser));
+    }
+
+    private Set<Ticker> parseTickers(JsonParser parser, Map<String, SymbolPair> symbolPairs) throws IOException {
         Set<Ticker> tickers = new HashSet<>();
-        for (JsonNode innerNode : dataNode) {
+        int tickersCount = 0;
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            tickersCount++;
             Ticker ticker = new Ticker(exchangeName);
-            try {
-                SymbolPair symbolPair =
-                        symbolPairs.stream().filter(sP -> sP.getName().equals(innerNode.get(SYMBOL).asText()))
-                                .findFirst().orElseThrow();
-                ticker.setBase(symbolPair.getBase());
-                ticker.setTarget(symbolPair.getTarget());
-                ticker.setClosePrice(parsePrice(innerNode.get("close")).orElseThrow());
-                JsonNode askNode = innerNode.get("ask");
-                if (askNode == null || askNode.isEmpty()) {
-                    logInvalidPriceData(symbolPair.getPair(), "ASK");
+            boolean valid = true;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken valueToken = parser.nextToken();
+                if (!valid) {
+                    parser.skipChildren();
                     continue;
                 }
-                ticker.setPriceAsk(parsePrice(askNode.get(0)).orElseThrow());
-                ticker.setAskQuantity(parseVolume(askNode.get(1)).orElseThrow());
-                JsonNode bidNode = innerNode.get("bid");
-                if (bidNode == null || bidNode.isEmpty()) {
-                    logInvalidPriceData(symbolPair.getPair(), "BID");
-                    continue;
+                switch (fieldName) {
+                    case SYMBOL:
+                        valid = readSymbolPair(parser, symbolPairs, ticker);
+                        break;
+                    case "close":
+                        valid = readPrice(parser, ticker::setClosePrice);
+                        break;
+                    case "ask":
+                        valid = readOrder(parser, valueToken, ticker::setPriceAsk, ticker::setAskQuantity);
+                        if (!valid) {
+                            logInvalidPriceData(ticker.getPair(), "ASK");
+                        }
+                        break;
+                    case "bid":
+                        valid = readOrder(parser, valueToken, ticker::setPriceBid, ticker::setBidQuantity);
+                        if (!valid) {
+                            logInvalidPriceData(ticker.getPair(), "BID");
+                        }
+                        break;
+                    default:
+                        parser.skipChildren();
                 }
-                ticker.setPriceBid(parsePrice(bidNode.get(0)).orElseThrow());
-                ticker.setBidQuantity(parseVolume(bidNode.get(1)).orElseThrow());
-            } catch (NoSuchElementException ignored) {
-                continue;
             }
-            tickers.add(ticker);
+            if (valid && ticker.getBase() != null && ticker.getClosePrice() != null && ticker.getPriceAsk() != null
+                    && ticker.getAskQuantity() != null && ticker.getPriceBid() != null
+                    && ticker.getBidQuantity() != null) {
+                tickers.add(ticker);
+            }
+        }
+        if (tickersCount == 0) {
+            throw new UnexpectedEndpointResponseException(exchangeFullName, NO_TICKERS_FOUND_IN_RESPONSE_MSG);
         }
         return tickers;
     }
 
+    private boolean readOrder(JsonParser parser, JsonToken valueToken, Consumer<BigDecimal> priceSetter,
+            Consumer<BigDecimal> quantitySetter) throws IOException {
+        if (valueToken != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return false;
+        }
+        boolean valid = true;
+        int index = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (valid && index == 0) {
+                valid = readPrice(parser, priceSetter);
+            } else if (valid && index == 1) {
+                valid = readVolume(parser, quantitySetter);
+            } else {
+                parser.skipChildren();
+            }
+            index++;
+        }
+        return valid && index >= 2;
+    }
+
     /**
      * @see <a href="https://bitmax-exchange.github.io/bitmax-pro-api/#historical-bar-data">Bitfinex REST API -
      * Historical Bar Data</a>
@@ -135,9 +182,13 @@ public class BitmaxExchangeClientService extends AbstractExchangeClientService i
 
     @Override
     protected void checkResponseStatus(JsonNode parentNode, String errorMessage) {
-        int code = parentNode.get("code").asInt();
+        JsonNode codeNode = parentNode.get("code");
+        if (codeNode == null) {
+            throw new UnexpectedEndpointResponseException(exchangeFullName, errorMessage);
+        }
+        int code = codeNode.asInt();
         if (code != 0) {
-            String message = parentNode.get("message").asText();
+            String message = parentNode.path("message").asText();
             throw new UnexpectedEndpointResponseException(exchangeFullName, String.valueOf(code), message);
         }
     }
@@ -164,41 +215,83 @@ public class BitmaxExchangeClientService extends AbstractExchangeClientService i
         } else {
             return Collections.emptyList();
         }
-        JsonNode parentNode = apiClient
-                .executeRequestParseResponse(exchange.getBaseEndpoint(), "barhist", queryParams, exchangeFullName);
-        checkResponseStatus(parentNode, "");
-        JsonNode dataNode = getDataNode(parentNode, NO_BARS_FOUND_IN_RESPONSE_MSG);
+        ResponseParser<List<Bar>> dataParser = parser -> parseBars(parser, symbolPair, timeFrame, endTime);
+        return apiClient.executeRequestParseResponse(exchange.getBaseEndpoint(), "barhist", queryParams,
+                                                     exchangeName,
+                                                     parser -> readDataResponse(parser, NO_BARS_FOUND_IN_RESPONSE_MSG,
+                                                                                dataParser));
+    }
+
+    private List<Bar> parseBars(JsonParser parser, SymbolPair symbolPair, TimeFrame timeFrame, Instant endTime)
+            throws IOException {
         List<Bar> bars = new ArrayList<>();
-        for (JsonNode innerNode : dataNode) {
-            Bar bar;
-            try {
-                JsonNode innerDataNode = innerNode.get("data");
-                if (innerDataNode == null || innerDataNode.isEmpty()) {
-                    log.trace("Inner node does not contain bar data in response for exchange {}!", exchangeName);
-                    continue;
-                }
-                Instant openTime = parseDateTimeFromMillis(innerDataNode.get("ts")).orElseThrow();
-                Instant closeTime = openTime.plus(timeFrame.getDuration());
-                if (endTime != null && openTime.isAfter(endTime)) {
-                    break;
+        int barsCount = 0;
+        Instant now = Instant.now();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            barsCount++;
+            Bar bar = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken valueToken = parser.nextToken();
+                if ("data".equals(fieldName) && valueToken == JsonToken.START_OBJECT) {
+                    bar = readBar(parser, symbolPair, timeFrame);
+                } else {
+                    parser.skipChildren();
                 }
-                if (closeTime.isAfter(Instant.now())) {
-                    continue;
-                }
-                bar = new Bar(exchangeName, symbolPair.getBase(), symbolPair.getTarget());
-                bar.setOpenTime(openTime);
-                bar.setCloseTime(closeTime);
-                bar.setOpen(parsePrice(innerDataNode.get("o")).orElseThrow());
-                bar.setClose(parsePrice(innerDataNode.get("c")).orElseThrow());
-                bar.setHigh(parsePrice(innerDataNode.get("h")).orElseThrow());
-                bar.setLow(parsePrice(innerDataNode.get("l")).orElseThrow());
-                bar.setVolume(parseVolume(innerDataNode.get("v")).orElseThrow());
-            } catch (NoSuchElementException ignored) {
+            }
+            if (bar == null) {
+                log.trace("Inner node does not contain bar data in response for exchange {}!", exchangeName);
+                continue;
+            }
+            if (endTime != null && bar.getOpenTime().isAfter(endTime)) {
+                break;
+            }
+            if (bar.getCloseTime().isAfter(now)) {
                 continue;
             }
             bars.add(bar);
         }
+        if (barsCount == 0) {
+            throw new UnexpectedEndpointResponseException(exchangeFullName, NO_BARS_FOUND_IN_RESPONSE_MSG);
+        }
         return bars;
     }
 
+    private Bar readBar(JsonParser parser, SymbolPair symbolPair, TimeFrame timeFrame) throws IOException {
+        Bar bar = new Bar(exchangeName, symbolPair.getBase(), symbolPair.getTarget());
+        boolean valid = true;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+            if (!valid) {
+                parser.skipChildren();
+                continue;
+            }
+            switch (fieldName) {
+                case "ts":
+                    valid = readBarField(parser, BarField.OPEN_TIME_MILLIS, bar, timeFrame);
+                    break;
+                case "o":
+                    valid = readBarField(parser, BarField.OPEN, bar, timeFrame);
+                    break;
+                case "c":
+                    valid = readBarField(parser, BarField.CLOSE, bar, timeFrame);
+                    break;
+                case "h":
+                    valid = readBarField(parser, BarField.HIGH, bar, timeFrame);
+                    break;
+                case "l":
+                    valid = readBarField(parser, BarField.LOW, bar, timeFrame);
+                    break;
+                case "v":
+                    valid = readBarField(parser, BarField.VOLUME, bar, timeFrame);
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        boolean complete = bar.getOpenTime() != null && bar.getOpen() != null && bar.getClose() != null
+                && bar.getHigh() != null && bar.getLow() != null && bar.getVolume() != null;
+        return valid && complete ? bar : null;
+    }
 }
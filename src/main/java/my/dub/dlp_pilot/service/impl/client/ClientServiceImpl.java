@@ -1,16 +1,23 @@
 package my.dub.dlp_pilot.service.impl.client;
 
-import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import my.dub.dlp_pilot.Constants;
@@ -23,103 +30,111 @@ import my.dub.dlp_pilot.model.TimeFrame;
 import my.dub.dlp_pilot.model.dto.LastBar;
 import my.dub.dlp_pilot.model.dto.SymbolPair;
 import my.dub.dlp_pilot.model.dto.Ticker;
+import my.dub.dlp_pilot.repository.SymbolPairFileCache;
 import my.dub.dlp_pilot.repository.container.SymbolPairContainer;
 import my.dub.dlp_pilot.service.ExchangeClientService;
 import my.dub.dlp_pilot.service.ExchangeService;
 import my.dub.dlp_pilot.service.client.ClientService;
 import my.dub.dlp_pilot.util.DateUtils;
+import my.dub.dlp_pilot.util.PriceDataUtils;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
 /**
- * An implementation of {@link ClientService} service.
+ * An implementation of {@link ClientService} service. Symbol pairs of all exchanges are fetched concurrently. If
+ * symbol pairs of all exchanges are present in {@link SymbolPairFileCache}, the cached ones are loaded right away, and
+ * the fetched ones refresh the cache in the background. Once the refresh is complete, cached symbol pairs no longer
+ * listed by their exchanges are removed from {@link SymbolPairContainer}, and newly relevant ones are added to it.
  */
 @Slf4j
 @Service
-public class ClientServiceImpl implements ClientService {
+public class ClientServiceImpl implements ClientService, DisposableBean {
 
     private static final String EXCHANGE_NAME_PARAMETER = "exchangeName";
+    private static final String SYMBOL_PAIR_PARAMETER = "symbolPair";
 
     private final SymbolPairContainer symbolPairContainer;
     private final ExchangeService exchangeService;
     private final Map<String, ExchangeClientService> exchangeClientServices;
+    private final SymbolPairFileCache symbolPairCache;
+    private final ExecutorService executor =
+            Executors.newCachedThreadPool(new CustomizableThreadFactory("symbol-pairs-"));
 
     @Autowired
     public ClientServiceImpl(SymbolPairContainer symbolPairContainer, ExchangeService exchangeService,
-            Map<String, ExchangeClientService> exchangeClientServices) {
+            Map<String, ExchangeClientService> exchangeClientServices, SymbolPairFileCache symbolPairCache) {
         this.symbolPairContainer = symbolPairContainer;
         this.exchangeService = exchangeService;
         this.exchangeClientServices = exchangeClientServices;
+        this.symbolPairCache = symbolPairCache;
     }
 
     @Override
     public void loadAllSymbolPairs(@NonNull Collection<ExchangeName> exchangeNames) {
         checkNotNull(exchangeNames, Constants.NULL_ARGUMENT_MESSAGE, "exchangeNames");
 
-        List<SymbolPair> allSymbolPairs = exchangeNames.stream().map(this::loadSymbolPairs).flatMap(Collection::stream)
-                .collect(Collectors.toList());
-        log.info("Loaded {} symbol pairs", allSymbolPairs.size());
-        Set<SymbolPair> relevantSymbolPairs = findRelevantSymbolPairs(allSymbolPairs);
-        if (CollectionUtils.isEmpty(relevantSymbolPairs)) {
-            throw new TestRunEndException("No relevant symbol pairs were found for Preload! Exiting...");
+        Map<ExchangeName, CompletableFuture<List<SymbolPair>>> fetches = exchangeNames.stream().collect(
+                Collectors.toMap(Function.identity(),
+                                 exchangeName -> CompletableFuture
+                                         .supplyAsync(() -> loadSymbolPairs(exchangeName), executor)));
+        Map<ExchangeName, List<SymbolPair>> cachedSymbolPairs = symbolPairCache.read(exchangeNames);
+        if (cachedSymbolPairs.keySet().containsAll(exchangeNames)) {
+            List<SymbolPair> allSymbolPairs = flatten(cachedSymbolPairs);
+            log.info("Loaded {} symbol pairs from cache, refreshing them in background", allSymbolPairs.size());
+            addRelevantSymbolPairs(allSymbolPairs);
+            // the refresh updates the loaded symbol pairs, so it may complete only after they are added
+            refreshInBackground(fetches, cachedSymbolPairs);
+        } else {
+            Map<ExchangeName, List<SymbolPair>> fetchedSymbolPairs = awaitAll(fetches);
+            symbolPairCache.write(fetchedSymbolPairs);
+            List<SymbolPair> allSymbolPairs = flatten(fetchedSymbolPairs);
+            log.info("Loaded {} symbol pairs", allSymbolPairs.size());
+            addRelevantSymbolPairs(allSymbolPairs);
         }
-        log.info("Filtered {} relevant symbol pairs for preload", relevantSymbolPairs.size());
-        symbolPairContainer.addAll(relevantSymbolPairs);
     }
 
     @Override
-    public int getSymbolPairsCount(@NonNull ExchangeName exchangeName) {
-        return symbolPairContainer
-                .size(checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, EXCHANGE_NAME_PARAMETER));
-    }
+    public void removeSymbolPair(@NonNull SymbolPair symbolPair) {
+        checkNotNull(symbolPair, Constants.NULL_ARGUMENT_MESSAGE, SYMBOL_PAIR_PARAMETER);
 
-    @Override
-    public void removeSymbolPair(@NonNull ExchangeName exchangeName, int index) {
-        checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, EXCHANGE_NAME_PARAMETER);
-        checkArgument(index >= 0, "Invalid symbol pair index passed for removal!");
-
-        symbolPairContainer.remove(exchangeName, index);
+        symbolPairContainer.remove(symbolPair);
     }
 
     @Override
-    public Set<Ticker> fetchTickers(@NonNull ExchangeName exchangeName) {
+    public CompletableFuture<Set<Ticker>> fetchTickersAsync(@NonNull ExchangeName exchangeName) {
         checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, EXCHANGE_NAME_PARAMETER);
 
         ExchangeClientService exchangeClientService = getExchangeClientService(exchangeName);
-        Set<Ticker> tickers = new HashSet<>();
-        try {
-            tickers = exchangeClientService.fetchAllTickers(symbolPairContainer.getAll(exchangeName));
-            log.trace("Successfully fetched {} tickers from {} exchange", tickers.size(), exchangeName.getFullName());
-            if (exchangeService.isExchangeFaulty(exchangeName)) {
-                log.info("Fault for {} exchange was resolved", exchangeName);
-                exchangeService.updateExchangeFault(exchangeName, false);
-            }
-        } catch (UnexpectedEndpointResponseException | UnexpectedResponseStatusCodeException e) {
-            if (!exchangeService.isExchangeFaulty(exchangeName)) {
-                log.warn(e.getMessage());
-                exchangeService.updateExchangeFault(exchangeName, true);
-            }
-        } catch (IOException e) {
-            if (!exchangeService.isExchangeFaulty(exchangeName)) {
-                log.error("Unable to fetch tickers on {} exchange! Details: {}", exchangeName, e.toString());
-                exchangeService.updateExchangeFault(exchangeName, true);
-            }
-        }
-        return tickers;
+        return exchangeClientService.fetchAllTickersAsync(symbolPairContainer.getAllByName(exchangeName))
+                .handle((tickers, throwable) -> {
+                    if (throwable != null) {
+                        onFetchTickersError(exchangeName, throwable);
+                        return new HashSet<>();
+                    }
+                    log.trace("Successfully fetched {} tickers from {} exchange", tickers.size(),
+                              exchangeName.getFullName());
+                    if (exchangeService.isExchangeFaulty(exchangeName)) {
+                        log.info("Fault for {} exchange was resolved", exchangeName);
+                        exchangeService.updateExchangeFault(exchangeName, false);
+                    }
+                    return tickers;
+                });
     }
 
     @Override
-    public List<Bar> fetchBarsPreload(@NonNull ExchangeName exchangeName, @NonNull TimeFrame timeFrame,
-            @NonNull Instant startTime, int symbolPairIndex, @NonNull Instant endTime) {
-        checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, EXCHANGE_NAME_PARAMETER);
+    public List<Bar> fetchBarsPreload(@NonNull SymbolPair symbolPair, @NonNull TimeFrame timeFrame,
+            @NonNull Instant startTime, @NonNull Instant endTime) {
+        checkNotNull(symbolPair, Constants.NULL_ARGUMENT_MESSAGE, SYMBOL_PAIR_PARAMETER);
         checkNotNull(timeFrame, Constants.NULL_ARGUMENT_MESSAGE, "timeFrame");
         checkNotNull(startTime, Constants.NULL_ARGUMENT_MESSAGE, "startTime");
         checkNotNull(endTime, Constants.NULL_ARGUMENT_MESSAGE, "endTime");
 
+        ExchangeName exchangeName = symbolPair.getExchangeName();
         ExchangeClientService exchangeClientService = getExchangeClientService(exchangeName);
-        SymbolPair symbolPair = symbolPairContainer.get(exchangeName, symbolPairIndex);
         List<Bar> fetchedBars = new ArrayList<>();
         try {
             fetchedBars = exchangeClientService.fetchBars(symbolPair, timeFrame, startTime, endTime);
@@ -137,14 +152,14 @@ public class ClientServiceImpl implements ClientService {
     }
 
     @Override
-    public List<Bar> fetchBars(@NonNull ExchangeName exchangeName, @NonNull TimeFrame timeFrame, int symbolPairIndex,
+    public List<Bar> fetchBars(@NonNull SymbolPair symbolPair, @NonNull TimeFrame timeFrame,
             @NonNull Collection<LastBar> lastBars) {
-        checkNotNull(exchangeName, Constants.NULL_ARGUMENT_MESSAGE, EXCHANGE_NAME_PARAMETER);
+        checkNotNull(symbolPair, Constants.NULL_ARGUMENT_MESSAGE, SYMBOL_PAIR_PARAMETER);
         checkNotNull(timeFrame, Constants.NULL_ARGUMENT_MESSAGE, "timeFrame");
         checkNotNull(lastBars, Constants.NULL_ARGUMENT_MESSAGE, "lastBars");
 
+        ExchangeName exchangeName = symbolPair.getExchangeName();
         ExchangeClientService exchangeClientService = getExchangeClientService(exchangeName);
-        SymbolPair symbolPair = symbolPairContainer.get(exchangeName, symbolPairIndex);
         List<Bar> fetchedBars = new ArrayList<>();
         LastBar lastBar = lastBars.stream().filter(lB -> lB.isSimilar(symbolPair)).findFirst().orElse(null);
         if (lastBar == null) {
@@ -172,14 +187,85 @@ public class ClientServiceImpl implements ClientService {
 
     @Override
     public void updateLoadedSymbolPairs() {
-        List<SymbolPair> allSymbolPairs = symbolPairContainer.getAll();
+        // the new symbol pairs replace the loaded ones at once, so concurrent readers never see an empty container
+        symbolPairContainer.replaceAll(allSymbolPairs -> {
+            Set<SymbolPair> relevantSymbolPairs = findRelevantSymbolPairs(allSymbolPairs);
+            if (CollectionUtils.isEmpty(relevantSymbolPairs)) {
+                throw new TestRunEndException("No relevant symbol pairs were found for Test Run! Exiting...");
+            }
+            log.info("Filtered {} relevant symbol pairs for Test Run", relevantSymbolPairs.size());
+            return relevantSymbolPairs;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void refreshInBackground(Map<ExchangeName, CompletableFuture<List<SymbolPair>>> fetches,
+            Map<ExchangeName, List<SymbolPair>> cachedSymbolPairs) {
+        Map<ExchangeName, List<SymbolPair>> fetchedSymbolPairs = new ConcurrentHashMap<>();
+        CompletableFuture<?>[] refreshes = fetches.entrySet().stream()
+                .map(entry -> entry.getValue().handle((symbolPairs, throwable) -> {
+                    if (throwable == null) {
+                        fetchedSymbolPairs.put(entry.getKey(), symbolPairs);
+                    } else {
+                        log.warn("Cached symbol pairs of {} exchange are kept", entry.getKey().getFullName());
+                    }
+                    return null;
+                })).toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(refreshes).thenRun(() -> {
+            symbolPairCache.write(fetchedSymbolPairs);
+            // cached symbol pairs are kept for exchanges which could not be refreshed
+            Map<ExchangeName, List<SymbolPair>> refreshedSymbolPairs = new EnumMap<>(ExchangeName.class);
+            refreshedSymbolPairs.putAll(cachedSymbolPairs);
+            refreshedSymbolPairs.putAll(fetchedSymbolPairs);
+            List<SymbolPair> allCachedSymbolPairs = flatten(cachedSymbolPairs);
+            List<SymbolPair> allRefreshedSymbolPairs = flatten(refreshedSymbolPairs);
+            Set<SymbolPair> delisted = new HashSet<>(allCachedSymbolPairs);
+            allRefreshedSymbolPairs.forEach(delisted::remove);
+            Set<SymbolPair> newlyRelevant = new HashSet<>(findRelevantSymbolPairs(allRefreshedSymbolPairs));
+            newlyRelevant.removeAll(findRelevantSymbolPairs(allCachedSymbolPairs));
+            symbolPairContainer.replaceAll(loadedSymbolPairs -> {
+                Set<SymbolPair> updated = new HashSet<>(loadedSymbolPairs);
+                updated.removeAll(delisted);
+                updated.addAll(newlyRelevant);
+                return findRelevantSymbolPairs(updated);
+            });
+            log.info("Symbol pairs refreshed: {} delisted symbol pairs removed, {} newly relevant symbol pairs added",
+                     delisted.size(), newlyRelevant.size());
+            if (!delisted.isEmpty()) {
+                log.debug("Delisted symbol pairs: {}", delisted.stream()
+                        .map(symbolPair -> symbolPair.getExchangeName() + ":" + symbolPair.getPair())
+                        .collect(Collectors.joining(", ")));
+            }
+        });
+    }
+
+    private void addRelevantSymbolPairs(List<SymbolPair> allSymbolPairs) {
         Set<SymbolPair> relevantSymbolPairs = findRelevantSymbolPairs(allSymbolPairs);
         if (CollectionUtils.isEmpty(relevantSymbolPairs)) {
-            throw new TestRunEndException("No relevant symbol pairs were found for Test Run! Exiting...");
+            throw new TestRunEndException("No relevant symbol pairs were found for Preload! Exiting...");
         }
-        symbolPairContainer.removeAll();
+        log.info("Filtered {} relevant symbol pairs for preload", relevantSymbolPairs.size());
         symbolPairContainer.addAll(relevantSymbolPairs);
-        log.info("Filtered {} relevant symbol pairs for Test Run", relevantSymbolPairs.size());
+    }
+
+    private Map<ExchangeName, List<SymbolPair>> awaitAll(
+            Map<ExchangeName, CompletableFuture<List<SymbolPair>>> fetches) {
+        Map<ExchangeName, List<SymbolPair>> result = new EnumMap<>(ExchangeName.class);
+        try {
+            fetches.forEach((exchangeName, fetch) -> result.put(exchangeName, fetch.join()));
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof TestRunEndException ? (TestRunEndException) cause : new TestRunEndException(cause);
+        }
+        return result;
+    }
+
+    private List<SymbolPair> flatten(Map<ExchangeName, List<SymbolPair>> symbolPairs) {
+        return symbolPairs.values().stream().flatMap(Collection::stream).collect(Collectors.toList());
     }
 
     private List<SymbolPair> loadSymbolPairs(ExchangeName exchangeName) {
@@ -198,23 +284,28 @@ public class ClientServiceImpl implements ClientService {
         }
     }
 
-    private Set<SymbolPair> findRelevantSymbolPairs(List<SymbolPair> symbolPairs) {
-        Set<SymbolPair> relevantSP = new HashSet<>();
-        for (int i = 0; i < symbolPairs.size() - 1; i++) {
-            for (int j = i + 1; j < symbolPairs.size(); j++) {
-                SymbolPair sP1 = symbolPairs.get(i);
-                SymbolPair sP2 = symbolPairs.get(j);
-                if (relevantSP.contains(sP2)) {
-                    continue;
-                }
-                if (!sP1.getExchangeName().equals(sP2.getExchangeName()) && sP1.getBase().equals(sP2.getBase()) && sP1
-                        .getTarget().equals(sP2.getTarget())) {
-                    relevantSP.add(sP1);
-                    relevantSP.add(sP2);
-                }
-            }
+    private Set<SymbolPair> findRelevantSymbolPairs(Collection<SymbolPair> symbolPairs) {
+        return PriceDataUtils.groupCrossExchange(symbolPairs).stream().flatMap(Collection::stream)
+                .collect(Collectors.toSet());
+    }
+
+    private void onFetchTickersError(ExchangeName exchangeName, Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+        if (cause instanceof UncheckedIOException) {
+            cause = cause.getCause();
+        }
+        if (exchangeService.isExchangeFaulty(exchangeName)) {
+            return;
+        }
+        if (cause instanceof UnexpectedEndpointResponseException
+                || cause instanceof UnexpectedResponseStatusCodeException) {
+            log.warn(cause.getMessage());
+        } else if (cause instanceof IOException) {
+            log.error("Unable to fetch tickers on {} exchange! Details: {}", exchangeName, cause.toString());
+        } else {
+            log.error("Unexpected error when fetching tickers on {} exchange!", exchangeName, cause);
         }
-        return relevantSP;
+        exchangeService.updateExchangeFault(exchangeName, true);
     }
 
     private ExchangeClientService getExchangeClientService(ExchangeName exchangeName) {
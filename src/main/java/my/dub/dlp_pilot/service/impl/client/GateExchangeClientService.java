@@ -2,10 +2,11 @@ package my.dub.dlp_pilot.service.impl.client;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static my.dub.dlp_pilot.Constants.GATE_CLIENT_SERVICE_BEAN_NAME;
-import static my.dub.dlp_pilot.Constants.NO_BARS_FOUND_IN_RESPONSE_MSG;
 import static my.dub.dlp_pilot.Constants.NO_SYMBOL_DATA_FOUND_IN_RESPONSE_MSG;
 import static my.dub.dlp_pilot.Constants.NO_TICKERS_FOUND_IN_RESPONSE_MSG;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import java.io.IOException;
 import java.time.Instant;
@@ -15,8 +16,8 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import my.dub.dlp_pilot.Constants;
 import my.dub.dlp_pilot.exception.client.UnexpectedEndpointResponseException;
 import my.dub.dlp_pilot.model.Bar;
@@ -36,6 +37,9 @@ import org.springframework.stereotype.Service;
 public class GateExchangeClientService extends AbstractExchangeClientService implements ExchangeClientService {
 
     public static final String SYMBOL_PAIR_ACCEPTABLE_STATUS = "tradable";
+    private static final List<BarField> GATE_BAR_FIELDS =
+            List.of(BarField.OPEN_TIME_SECONDS, BarField.VOLUME, BarField.CLOSE, BarField.HIGH, BarField.LOW,
+                    BarField.OPEN);
 
     @Autowired
     public GateExchangeClientService(ExchangeService exchangeService, ApiClient apiClient) {
@@ -49,7 +53,7 @@ public class GateExchangeClientService extends AbstractExchangeClientService imp
     @Override
     public List<SymbolPair> fetchSymbolPairs() throws IOException {
         JsonNode parentNode = apiClient
-                .executeRequestParseResponse(exchange.getBaseEndpoint(), "spot/currency_pairs", exchangeFullName);
+                .executeRequestParseResponse(exchange.getBaseEndpoint(), "spot/currency_pairs", exchangeName);
         checkResponseStatus(parentNode, NO_SYMBOL_DATA_FOUND_IN_RESPONSE_MSG);
         List<SymbolPair> symbolPairsResult = new ArrayList<>();
         for (JsonNode innerNode : parentNode) {
@@ -69,28 +73,55 @@ public class GateExchangeClientService extends AbstractExchangeClientService imp
      * ticker information</a>
      */
     @Override
-    public Set<Ticker> fetchAllTickers(@NonNull List<SymbolPair> symbolPairs) throws IOException {
+    public CompletableFuture<Set<Ticker>> fetchAllTickersAsync(@NonNull Map<String, SymbolPair> symbolPairs) {
         checkNotNull(symbolPairs, Constants.NULL_ARGUMENT_MESSAGE, "symbolPairs");
 
-        JsonNode parentNode =
-                apiClient.executeRequestParseResponse(exchange.getBaseEndpoint(), "spot/tickers", exchangeFullName);
-        checkResponseStatus(parentNode, NO_TICKERS_FOUND_IN_RESPONSE_MSG);
+        return apiClient.executeRequestParseResponseAsync(exchange.getBaseEndpoint(), "spot/tickers",
+                                                          exchangeName,
+                                                          parser -> parseTickers(parser, symbolPairs));
+    }
+
+    private Set<Ticker> parseTickers(JsonParser parser, Map<String, SymbolPair> symbolPairs) throws IOException {
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            return readErrorResponse(parser, NO_TICKERS_FOUND_IN_RESPONSE_MSG);
+        }
         Set<Ticker> tickers = new HashSet<>();
-        for (JsonNode innerNode : parentNode) {
+        int tickersCount = 0;
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            tickersCount++;
             Ticker ticker = new Ticker(exchangeName);
-            try {
-                SymbolPair symbolPair =
-                        symbolPairs.stream().filter(sP -> sP.getName().equals(innerNode.get("currency_pair").asText()))
-                                .findFirst().orElseThrow();
-                ticker.setBase(symbolPair.getBase());
-                ticker.setTarget(symbolPair.getTarget());
-                ticker.setPriceAsk(parsePrice(innerNode.get("lowest_ask")).orElseThrow());
-                ticker.setPriceBid(parsePrice(innerNode.get("highest_bid")).orElseThrow());
-                ticker.setClosePrice(parsePrice(innerNode.get("last")).orElseThrow());
-            } catch (NoSuchElementException ignored) {
-                continue;
+            boolean valid = true;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                parser.nextToken();
+                if (!valid) {
+                    parser.skipChildren();
+                    continue;
+                }
+                switch (fieldName) {
+                    case "currency_pair":
+                        valid = readSymbolPair(parser, symbolPairs, ticker);
+                        break;
+                    case "lowest_ask":
+                        valid = readPrice(parser, ticker::setPriceAsk);
+                        break;
+                    case "highest_bid":
+                        valid = readPrice(parser, ticker::setPriceBid);
+                        break;
+                    case "last":
+                        valid = readPrice(parser, ticker::setClosePrice);
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
             }
-            tickers.add(ticker);
+            if (valid && ticker.getBase() != null && ticker.getPriceAsk() != null && ticker.getPriceBid() != null
+                    && ticker.getClosePrice() != null) {
+                tickers.add(ticker);
+            }
+        }
+        if (tickersCount == 0) {
+            throw new UnexpectedEndpointResponseException(exchangeFullName, NO_TICKERS_FOUND_IN_RESPONSE_MSG);
         }
         return tickers;
     }
@@ -148,40 +179,9 @@ public class GateExchangeClientService extends AbstractExchangeClientService imp
         }
         queryParams.put("interval", timeFrame.getExchangeValue(exchangeName));
         queryParams.put("currency_pair", symbolPair.getName());
-        JsonNode parentNode = apiClient
-                .executeRequestParseResponse(exchange.getBaseEndpoint(), "spot/candlesticks", queryParams,
-                                             exchangeFullName);
-        checkResponseStatus(parentNode, NO_BARS_FOUND_IN_RESPONSE_MSG);
-        List<Bar> bars = new ArrayList<>();
-        for (JsonNode innerNode : parentNode) {
-            Bar bar;
-            try {
-                Instant openTime = parseDateTimeFromSeconds(innerNode.get(0)).orElseThrow();
-                Instant closeTime = openTime.plus(timeFrame.getDuration());
-                if (endTime != null && openTime.isAfter(endTime)) {
-                    break;
-                }
-                if (closeTime.isAfter(Instant.now())) {
-                    continue;
-                }
-                bar = createBar(innerNode, symbolPair.getBase(), symbolPair.getTarget());
-                bar.setOpenTime(openTime);
-                bar.setCloseTime(closeTime);
-            } catch (NoSuchElementException ignored) {
-                continue;
-            }
-            bars.add(bar);
-        }
-        return bars;
-    }
-
-    private Bar createBar(JsonNode innerNode, String base, String target) {
-        Bar bar = new Bar(exchangeName, base, target);
-        bar.setVolume(parseVolume(innerNode.get(1)).orElseThrow());
-        bar.setClose(parsePrice(innerNode.get(2)).orElseThrow());
-        bar.setHigh(parsePrice(innerNode.get(3)).orElseThrow());
-        bar.setLow(parsePrice(innerNode.get(4)).orElseThrow());
-        bar.setOpen(parsePrice(innerNode.get(5)).orElseThrow());
-        return bar;
+        return apiClient.executeRequestParseResponse(exchange.getBaseEndpoint(), "spot/candlesticks", queryParams,
+                                                     exchangeName,
+                                                     parser -> readArrayBars(parser, symbolPair, timeFrame, endTime,
+                                                                             GATE_BAR_FIELDS));
     }
 }
@@ -0,0 +1,68 @@
+package my.dub.dlp_pilot.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import my.dub.dlp_pilot.model.dto.PriceData;
+import org.springframework.lang.NonNull;
+
+/**
+ * Utility class for matching {@link PriceData} objects across exchanges.
+ */
+public final class PriceDataUtils {
+    private PriceDataUtils() {
+    }
+
+    /**
+     * Group price data by base and target in a single pass, keeping only the groups present on at least two different
+     * exchanges. Groups and their elements keep the encounter order of the passed collection.
+     *
+     * @param priceData
+     *         a non-null collection of price data with non-null exchange name, base and target
+     * @param <T>
+     *         type of the price data
+     *
+     * @return a non-null list of groups of price data with equal base and target
+     */
+    public static <T extends PriceData> List<List<T>> groupCrossExchange(@NonNull Collection<T> priceData) {
+        Map<String, List<T>> groups = new LinkedHashMap<>();
+        for (T data : priceData) {
+            groups.computeIfAbsent(data.getPair(), pair -> new ArrayList<>(2)).add(data);
+        }
+        return groups.values().stream().filter(PriceDataUtils::isCrossExchange).collect(Collectors.toList());
+    }
+
+    /**
+     * Pass every combination of two price data objects with equal base and target, but different exchange names, to
+     * the consumer. In each combination, the first object precedes the second one in the passed collection.
+     *
+     * @param priceData
+     *         a non-null collection of price data with non-null exchange name, base and target
+     * @param consumer
+     *         a non-null consumer of the combinations
+     * @param <T>
+     *         type of the price data
+     */
+    public static <T extends PriceData> void forEachCrossExchangeCombination(@NonNull Collection<T> priceData,
+            @NonNull BiConsumer<T, T> consumer) {
+        for (List<T> group : groupCrossExchange(priceData)) {
+            for (int i = 0; i < group.size() - 1; i++) {
+                for (int j = i + 1; j < group.size(); j++) {
+                    T data1 = group.get(i);
+                    T data2 = group.get(j);
+                    if (!data1.getExchangeName().equals(data2.getExchangeName())) {
+                        consumer.accept(data1, data2);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean isCrossExchange(List<? extends PriceData> group) {
+        return group.stream().map(PriceData::getExchangeName).distinct().limit(2).count() > 1;
+    }
+}
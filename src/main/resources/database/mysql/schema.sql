@@ -79,6 +79,7 @@ create table if not exists trade
     income_usd            decimal(31, 12)                      not null,
     test_run_id           int                                  null,
     written_to_file       tinyint(1) default 0                 not null,
+    local_id              bigint                               null,
     primary key (id),
     constraint trade_position_long_fk
         foreign key (position_long_id) references position (id)
@@ -93,6 +94,28 @@ create table if not exists trade
 create unique index trade_id_uindex
     on trade (id);
 
+-- migration of trade tables created before local_id was persisted, safe to run repeatedly
+set @add_local_id = (select if(count(*) = 0, 'alter table trade add column local_id bigint null', 'do 0')
+                     from information_schema.columns
+                     where table_schema = database()
+                       and table_name = 'trade'
+                       and column_name = 'local_id');
+prepare add_local_id from @add_local_id;
+execute add_local_id;
+deallocate prepare add_local_id;
+
+set @add_local_id_index = (select if(count(*) = 0,
+                                     concat('create unique index trade_test_run_local_id_uindex ',
+                                            'on trade (test_run_id, local_id)'),
+                                     'do 0')
+                           from information_schema.statistics
+                           where table_schema = database()
+                             and table_name = 'trade'
+                             and index_name = 'trade_test_run_local_id_uindex');
+prepare add_local_id_index from @add_local_id_index;
+execute add_local_id_index;
+deallocate prepare add_local_id_index;
+
 create table if not exists bar
 (
     id            int auto_increment,
@@ -115,4 +138,31 @@ create table if not exists bar
     comment 'preload bars';
 
 create unique index bar_id_uindex
-    on bar (id);
\ No newline at end of file
+    on bar (id);
+
+-- migration of bar tables created before bars were unique per pair and open time, safe to run repeatedly. Duplicate
+-- bars written before the index existed are deleted first, keeping the earliest inserted one
+set @add_bar_time_index = (select count(*) = 0
+                           from information_schema.statistics
+                           where table_schema = database()
+                             and table_name = 'bar'
+                             and index_name = 'bar_test_run_pair_time_uindex');
+
+set @delete_duplicate_bars = if(@add_bar_time_index,
+                                concat('delete newer from bar newer join bar older ',
+                                       'on newer.test_run_id = older.test_run_id ',
+                                       'and newer.exchange_name = older.exchange_name ',
+                                       'and newer.base = older.base and newer.target = older.target ',
+                                       'and newer.time_open = older.time_open and newer.id > older.id'),
+                                'do 0');
+prepare delete_duplicate_bars from @delete_duplicate_bars;
+execute delete_duplicate_bars;
+deallocate prepare delete_duplicate_bars;
+
+set @create_bar_time_index = if(@add_bar_time_index,
+                                concat('create unique index bar_test_run_pair_time_uindex ',
+                                       'on bar (test_run_id, exchange_name, base, target, time_open)'),
+                                'do 0');
+prepare create_bar_time_index from @create_bar_time_index;
+execute create_bar_time_index;
+deallocate prepare create_bar_time_index;
\ No newline at end of file
@@ -0,0 +1,149 @@
+package my.dub.dlp_pilot.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import my.dub.dlp_pilot.configuration.ParametersHolder;
+import my.dub.dlp_pilot.model.Bar;
+import my.dub.dlp_pilot.model.ExchangeName;
+import my.dub.dlp_pilot.model.TimeFrame;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BarFileCacheTest {
+    private static final ExchangeName DEFAULT_EXCHANGE = ExchangeName.BINANCE;
+    private static final TimeFrame TIME_FRAME = TimeFrame.M1;
+    private static final Instant START_TIME = Instant.parse("2021-01-01T00:00:00Z");
+
+    @TempDir
+    Path cacheDir;
+
+    private BarFileCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = createCache();
+    }
+
+    @Test
+    void read() {
+        cache.append(TIME_FRAME, createBars(5, 10));
+        // overlapping bars are skipped, bars before the cached ones are appended
+        cache.append(TIME_FRAME, createBars(0, 7));
+
+        List<Bar> result = createCache().read(DEFAULT_EXCHANGE, "B", "T", TIME_FRAME, minute(2), minute(8));
+        assertThat(result).extracting(Bar::getOpenTime)
+                .containsExactly(minute(2), minute(3), minute(4), minute(5), minute(6), minute(7));
+        Bar bar = result.get(4);
+        assertThat(bar.getOpen()).isEqualByComparingTo("6000.123456789012");
+        assertThat(bar.getHigh()).isEqualByComparingTo("6001");
+        assertThat(bar.getLow()).isEqualByComparingTo("0.000000000006");
+        assertThat(bar.getClose()).isEqualByComparingTo("6");
+        assertThat(bar.getVolume()).isEqualByComparingTo("123456789012.5");
+        assertThat(bar.getCloseTime()).isEqualTo(minute(7));
+        assertThat(bar.getExchangeName()).isEqualTo(DEFAULT_EXCHANGE);
+        assertThat(cache.read(DEFAULT_EXCHANGE, "C", "T", TIME_FRAME, minute(0), minute(8))).isEmpty();
+        assertThat(cache.read(DEFAULT_EXCHANGE, "B", "T", TimeFrame.M5, minute(0), minute(8))).isEmpty();
+    }
+
+    @Test
+    void read_truncatedBlock() throws IOException {
+        cache.append(TIME_FRAME, createBars(0, 3));
+        cache.append(TIME_FRAME, createBars(3, 6));
+        Path file;
+        try (Stream<Path> files = Files.walk(cacheDir)) {
+            file = files.filter(Files::isRegularFile).findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+
+        BarFileCache restartedCache = createCache();
+        assertThat(restartedCache.read(DEFAULT_EXCHANGE, "B", "T", TIME_FRAME, minute(0), minute(10)))
+                .extracting(Bar::getOpenTime).containsExactly(minute(0), minute(1), minute(2));
+        restartedCache.append(TIME_FRAME, createBars(3, 4));
+        assertThat(restartedCache.read(DEFAULT_EXCHANGE, "B", "T", TIME_FRAME, minute(0), minute(10))).hasSize(4);
+    }
+
+    @Test
+    void append_fillGap() {
+        cache.append(TIME_FRAME, createBars(0, 3));
+        cache.append(TIME_FRAME, createBars(6, 9));
+        // bars within cached blocks are skipped, bars within the gap between them are appended
+        cache.append(TIME_FRAME, createBars(1, 8));
+
+        assertThat(createCache().read(DEFAULT_EXCHANGE, "B", "T", TIME_FRAME, minute(0), minute(10)))
+                .extracting(Bar::getOpenTime).containsExactly(minute(0), minute(1), minute(2), minute(3), minute(4),
+                                                              minute(5), minute(6), minute(7), minute(8));
+    }
+
+    @Test
+    void append_valueOverflow() {
+        Bar bar = createBar(1);
+        bar.setVolume(new BigDecimal("1234567890123456789012"));
+        cache.append(TIME_FRAME, List.of(bar));
+        cache.append(TIME_FRAME, createBars(2, 3));
+
+        assertThat(cache.read(DEFAULT_EXCHANGE, "B", "T", TIME_FRAME, minute(0), minute(10)))
+                .extracting(Bar::getOpenTime).containsExactly(minute(2));
+    }
+
+    @Test
+    void append_notClosed() {
+        Bar bar = createBar(0);
+        bar.setCloseTime(Instant.now().plusSeconds(60));
+        cache.append(TIME_FRAME, List.of(bar));
+
+        assertThat(cache.read(DEFAULT_EXCHANGE, "B", "T", TIME_FRAME, minute(0), minute(10))).isEmpty();
+    }
+
+    @Test
+    void disabled() {
+        ParametersHolder parameters = mock(ParametersHolder.class);
+        when(parameters.getBarCacheDirPath()).thenReturn("");
+        BarFileCache disabledCache = new BarFileCache(parameters);
+        disabledCache.append(TIME_FRAME, createBars(0, 3));
+
+        assertThat(disabledCache.isEnabled()).isFalse();
+        assertThat(disabledCache.read(DEFAULT_EXCHANGE, "B", "T", TIME_FRAME, minute(0), minute(10))).isEmpty();
+    }
+
+    private BarFileCache createCache() {
+        ParametersHolder parameters = mock(ParametersHolder.class);
+        when(parameters.getBarCacheDirPath()).thenReturn(cacheDir.toString());
+        return new BarFileCache(parameters);
+    }
+
+    private Instant minute(int minute) {
+        return START_TIME.plusSeconds(minute * 60L);
+    }
+
+    private List<Bar> createBars(int fromMinute, int toMinute) {
+        return IntStream.range(fromMinute, toMinute).mapToObj(this::createBar).collect(Collectors.toList());
+    }
+
+    private Bar createBar(int minute) {
+        Bar bar = new Bar(DEFAULT_EXCHANGE, "B", "T");
+        bar.setOpen(new BigDecimal(minute * 1000 + ".123456789012"));
+        bar.setHigh(BigDecimal.valueOf(minute * 1000L + 1));
+        bar.setLow(new BigDecimal("0.00000000000" + minute));
+        bar.setClose(BigDecimal.valueOf(minute));
+        bar.setVolume(new BigDecimal("123456789012.5"));
+        bar.setOpenTime(minute(minute));
+        bar.setCloseTime(minute(minute + 1));
+        return bar;
+    }
+}
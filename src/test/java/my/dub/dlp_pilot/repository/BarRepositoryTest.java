@@ -10,8 +10,6 @@ import java.util.List;
 import my.dub.dlp_pilot.model.Bar;
 import my.dub.dlp_pilot.model.ExchangeName;
 import my.dub.dlp_pilot.model.TestRun;
-import my.dub.dlp_pilot.model.dto.BarAverage;
-import my.dub.dlp_pilot.model.dto.LastBar;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -39,73 +37,35 @@ class BarRepositoryTest {
     }
 
     @Test
-    void deleteAllByTestRunIdEquals() {
+    void deleteChunkByTestRunId() {
         persistBar(DEFAULT_EXCHANGE, "B", "T", BigDecimal.ONE, Instant.now().minusSeconds(30), testRun);
         persistBar(DEFAULT_EXCHANGE, "B", "T", BigDecimal.TEN, Instant.now(), testRun);
+        persistBar(DEFAULT_EXCHANGE, "C", "T", BigDecimal.TEN, Instant.now(), testRun);
         TestRun testRun2 = new TestRun();
         testRun2.setConfigParams("params2");
         testRun2.setStartTime(LocalDateTime.now());
         testRun2.setPreloadStartTime(LocalDateTime.now());
         TestRun persistedTestRun2 = entityManager.persist(testRun2);
         persistBar(ExchangeName.GATE, "C", "T2", BigDecimal.ONE, Instant.now(), persistedTestRun2);
+        entityManager.flush();
 
-        then(repository.deleteAllByTestRunIdEquals(testRun.getId())).isEqualTo(2L);
+        then(repository.deleteChunkByTestRunId(testRun.getId(), 2)).isEqualTo(2);
+        then(repository.deleteChunkByTestRunId(testRun.getId(), 2)).isEqualTo(1);
+        then(repository.deleteChunkByTestRunId(testRun.getId(), 2)).isZero();
         assertThat(repository.count()).isEqualTo(1L);
     }
 
     @Test
-    void getAllBarAverages() {
-        persistBar(DEFAULT_EXCHANGE, "B", "T", BigDecimal.ONE, Instant.now().minusSeconds(30), testRun);
-        Instant closeTime1 = Instant.now();
-        persistBar(DEFAULT_EXCHANGE, "B", "T", BigDecimal.TEN, closeTime1, testRun);
-        persistBar(DEFAULT_EXCHANGE, "C", "T2", BigDecimal.valueOf(2), Instant.now().minusSeconds(30), testRun);
-        Instant closeTime2 = Instant.now().minusSeconds(10);
-        persistBar(DEFAULT_EXCHANGE, "C", "T2", BigDecimal.valueOf(3), closeTime2, testRun);
-        TestRun testRun2 = new TestRun();
-        testRun2.setConfigParams("params2");
-        testRun2.setStartTime(LocalDateTime.now());
-        testRun2.setPreloadStartTime(LocalDateTime.now());
-        TestRun persistedTestRun2 = entityManager.persist(testRun2);
-        persistBar(DEFAULT_EXCHANGE, "C", "T2", BigDecimal.ONE, Instant.now(), persistedTestRun2);
-
-        List<BarAverage> result = repository.getAllBarAverages(testRun.getId());
-        List<Long> resultEpochMillis = List.of(closeTime1.toEpochMilli(), closeTime2.toEpochMilli());
-        assertThat(result).hasSize(2).matches(barAverages -> barAverages.stream()
-                .allMatch(bA -> resultEpochMillis.contains(bA.getLastCloseTime().toEpochMilli())));
-    }
-
-    @Test
-    void getBarAverages() {
-        persistBar(DEFAULT_EXCHANGE, "B", "T", BigDecimal.ONE, Instant.now().minusSeconds(30), testRun);
-        Instant closeTime = Instant.now();
-        persistBar(DEFAULT_EXCHANGE, "B", "T", BigDecimal.TEN, closeTime, testRun);
-        persistBar(ExchangeName.GATE, "B", "T", BigDecimal.valueOf(5), Instant.now().minusSeconds(20), testRun);
-        persistBar(ExchangeName.GATE, "B", "T", BigDecimal.valueOf(5), Instant.now(), testRun);
-        TestRun testRun2 = new TestRun();
-        testRun2.setConfigParams("params2");
-        testRun2.setStartTime(LocalDateTime.now());
-        testRun2.setPreloadStartTime(LocalDateTime.now());
-        TestRun persistedTestRun2 = entityManager.persist(testRun2);
-        persistBar(DEFAULT_EXCHANGE, "C", "T2", BigDecimal.ONE, Instant.now(), persistedTestRun2);
-
-        List<BarAverage> result = repository.getBarAverages(DEFAULT_EXCHANGE, testRun.getId());
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getLastCloseTime().toEpochMilli()).isEqualTo(closeTime.toEpochMilli());
-    }
-
-    @Test
-    void getLastBars() {
-        persistBar(DEFAULT_EXCHANGE, "B", "T", BigDecimal.ONE, Instant.now().minusSeconds(30), testRun);
-        Instant closeTime1 = Instant.now();
-        persistBar(DEFAULT_EXCHANGE, "B", "T", BigDecimal.TEN, closeTime1, testRun);
-        persistBar(DEFAULT_EXCHANGE, "C", "T2", BigDecimal.valueOf(2), Instant.now().minusSeconds(30), testRun);
-        Instant closeTime2 = Instant.now().minusSeconds(10);
-        persistBar(DEFAULT_EXCHANGE, "C", "T2", BigDecimal.valueOf(3), closeTime2, testRun);
-
-        List<LastBar> result = repository.getLastBars(DEFAULT_EXCHANGE, testRun.getId());
-        List<Long> resultEpochMillis = List.of(closeTime1.toEpochMilli(), closeTime2.toEpochMilli());
-        assertThat(result).hasSize(2).matches(barAverages -> barAverages.stream()
-                .allMatch(lastBar -> resultEpochMillis.contains(lastBar.getCloseTime().toEpochMilli())));
+    void insertAll() {
+        entityManager.flush();
+        Instant openTime = Instant.now().minusSeconds(60);
+        Bar bar1 = createBar(DEFAULT_EXCHANGE, "B", "T", BigDecimal.ONE, openTime, testRun);
+        Bar bar2 = createBar(ExchangeName.GATE, "B", "T", BigDecimal.TEN, openTime, testRun);
+        Bar duplicateBar = createBar(DEFAULT_EXCHANGE, "B", "T", BigDecimal.TEN, openTime, testRun);
+
+        then(repository.insertAll(List.of(bar1, bar2))).isEqualTo(2);
+        then(repository.insertAll(List.of(duplicateBar))).isZero();
+        assertThat(repository.count()).isEqualTo(2L);
     }
 
     private TestRun persistTestRun() {
@@ -128,4 +88,18 @@ class BarRepositoryTest {
         bar.setTestRun(testRun);
         return entityManager.persist(bar);
     }
+
+    private Bar createBar(ExchangeName exchangeName, String base, String target, BigDecimal ohlcv, Instant openTime,
+            TestRun testRun) {
+        Bar bar = new Bar(exchangeName, base, target);
+        bar.setOpen(ohlcv);
+        bar.setClose(ohlcv);
+        bar.setHigh(ohlcv);
+        bar.setLow(ohlcv);
+        bar.setVolume(ohlcv);
+        bar.setOpenTime(openTime);
+        bar.setCloseTime(openTime.plusSeconds(60));
+        bar.setTestRun(testRun);
+        return bar;
+    }
 }
\ No newline at end of file
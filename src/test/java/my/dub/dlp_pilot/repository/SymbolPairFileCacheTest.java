@@ -0,0 +1,90 @@
+package my.dub.dlp_pilot.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import my.dub.dlp_pilot.configuration.ParametersHolder;
+import my.dub.dlp_pilot.model.ExchangeName;
+import my.dub.dlp_pilot.model.dto.SymbolPair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SymbolPairFileCacheTest {
+
+    @TempDir
+    Path cacheDir;
+
+    private Path cachePath;
+
+    @BeforeEach
+    void setUp() {
+        cachePath = cacheDir.resolve("symbol-pairs.tsv");
+    }
+
+    @Test
+    void read() {
+        SymbolPair binancePair = createSymbolPair(ExchangeName.BINANCE, "BTC", "USDT", "BTCUSDT");
+        SymbolPair huobiPair = createSymbolPair(ExchangeName.HUOBI, "ETH", "BTC", "ethbtc");
+        createCache(Duration.ofDays(1)).write(Map.of(ExchangeName.BINANCE, List.of(binancePair)));
+        createCache(Duration.ofDays(1)).write(Map.of(ExchangeName.HUOBI, List.of(huobiPair)));
+
+        Map<ExchangeName, List<SymbolPair>> result =
+                createCache(Duration.ofDays(1)).read(Set.of(ExchangeName.BINANCE, ExchangeName.HUOBI));
+        assertThat(result).containsOnlyKeys(ExchangeName.BINANCE, ExchangeName.HUOBI);
+        assertThat(result.get(ExchangeName.BINANCE)).containsExactly(binancePair);
+        assertThat(result.get(ExchangeName.HUOBI)).containsExactly(huobiPair);
+        assertThat(createCache(Duration.ofDays(1)).read(Set.of(ExchangeName.GATE))).isEmpty();
+    }
+
+    @Test
+    void read_expired() throws InterruptedException {
+        SymbolPairFileCache cache = createCache(Duration.ofMillis(1));
+        cache.write(Map.of(ExchangeName.BINANCE, List.of(createSymbolPair(ExchangeName.BINANCE, "B", "T", "BT"))));
+        Thread.sleep(5);
+
+        assertThat(cache.read(Set.of(ExchangeName.BINANCE))).isEmpty();
+    }
+
+    @Test
+    void read_corrupted() throws IOException {
+        // the section declares more symbol pairs than the file holds
+        Files.writeString(cachePath, "BINANCE\t" + System.currentTimeMillis() + "\t2\nB\tT\tBT\n");
+
+        assertThat(createCache(Duration.ofDays(1)).read(Set.of(ExchangeName.BINANCE))).isEmpty();
+    }
+
+    @Test
+    void disabled() {
+        ParametersHolder parameters = mock(ParametersHolder.class);
+        when(parameters.getSymbolPairsCacheFilePath()).thenReturn("");
+        SymbolPairFileCache disabledCache = new SymbolPairFileCache(parameters);
+        disabledCache.write(Map.of(ExchangeName.BINANCE, List.of(createSymbolPair(ExchangeName.BINANCE, "B", "T",
+                                                                                  "BT"))));
+
+        assertThat(disabledCache.isEnabled()).isFalse();
+        assertThat(disabledCache.read(Set.of(ExchangeName.BINANCE))).isEmpty();
+    }
+
+    private SymbolPairFileCache createCache(Duration ttl) {
+        ParametersHolder parameters = mock(ParametersHolder.class);
+        when(parameters.getSymbolPairsCacheFilePath()).thenReturn(cachePath.toString());
+        when(parameters.getSymbolPairsCacheTtlDuration()).thenReturn(ttl);
+        return new SymbolPairFileCache(parameters);
+    }
+
+    private SymbolPair createSymbolPair(ExchangeName exchangeName, String base, String target, String name) {
+        SymbolPair symbolPair = new SymbolPair(exchangeName, name);
+        symbolPair.setBase(base);
+        symbolPair.setTarget(target);
+        return symbolPair;
+    }
+}
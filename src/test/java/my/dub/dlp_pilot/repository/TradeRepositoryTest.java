@@ -1,11 +1,13 @@
 package my.dub.dlp_pilot.repository;
 
-import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.List;
+import javax.persistence.PersistenceException;
 import my.dub.dlp_pilot.model.Exchange;
 import my.dub.dlp_pilot.model.ExchangeName;
 import my.dub.dlp_pilot.model.Position;
@@ -64,15 +66,29 @@ class TradeRepositoryTest {
     }
 
     @Test
-    void checkSimilarExists() {
-        Trade trade1 =
-                entityManager.persist(createTrade("B", "T", TradeResultType.SUCCESSFUL, exchangeShort, exchangeLong));
-        entityManager.persist(createTrade("D", "TT", TradeResultType.DETRIMENTAL, exchangeShort, exchangeLong));
+    void save_duplicateLocalId() {
+        Trade trade1 = createTrade("B", "T", TradeResultType.SUCCESSFUL, exchangeShort, exchangeLong);
+        trade1.setLocalId(1L);
+        entityManager.persistAndFlush(trade1);
+        Trade trade2 = createTrade("B", "T", TradeResultType.SUCCESSFUL, exchangeShort, exchangeLong);
+        trade2.setLocalId(1L);
+
+        thenThrownBy(() -> entityManager.persistAndFlush(trade2)).isInstanceOf(PersistenceException.class);
+    }
 
-        assertThat(repository.checkSimilarExists(trade1.getBase(), trade1.getTarget(), DEFAULT_EXCHANGE_NAME_SHORT,
-                                                 DEFAULT_EXCHANGE_NAME_LONG, trade1.getPositionShort().getOpenPrice(),
-                                                 trade1.getPositionLong().getOpenPrice(), trade1.getResultType()))
-                .isTrue();
+    @Test
+    void findMaxLocalIdByTestRunId_findLocalIdsByTestRunIdAndLocalIdIn() {
+        then(repository.findMaxLocalIdByTestRunId(testRun.getId())).isEmpty();
+        Trade trade1 = createTrade("B", "T", TradeResultType.SUCCESSFUL, exchangeShort, exchangeLong);
+        trade1.setLocalId(3L);
+        entityManager.persist(trade1);
+        Trade trade2 = createTrade("C", "T", TradeResultType.SUCCESSFUL, exchangeShort, exchangeLong);
+        trade2.setLocalId(8L);
+        entityManager.persistAndFlush(trade2);
+
+        then(repository.findMaxLocalIdByTestRunId(testRun.getId())).contains(8L);
+        then(repository.findLocalIdsByTestRunIdAndLocalIdIn(testRun.getId(), List.of(1L, 3L, 5L)))
+                .containsExactly(3L);
     }
 
     private Trade createTrade(String base, String target, TradeResultType resultType, Exchange exchangeShort,
@@ -0,0 +1,123 @@
+package my.dub.dlp_pilot.repository.container;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import my.dub.dlp_pilot.configuration.ParametersHolder;
+import my.dub.dlp_pilot.model.Bar;
+import my.dub.dlp_pilot.model.ExchangeName;
+import my.dub.dlp_pilot.model.TimeFrame;
+import my.dub.dlp_pilot.model.dto.BarAverage;
+import my.dub.dlp_pilot.model.dto.LastBar;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BarAggregateContainerTest {
+    private static final ExchangeName DEFAULT_EXCHANGE = ExchangeName.BINANCE;
+    private static final Instant START_TIME = Instant.parse("2021-01-01T00:00:00Z");
+
+    private BarAggregateContainer container;
+
+    @BeforeEach
+    void setUp() {
+        ParametersHolder parameters = mock(ParametersHolder.class);
+        when(parameters.getDataCaptureTimeFrame()).thenReturn(TimeFrame.M1);
+        when(parameters.getDataBaseTimeFrame()).thenReturn(TimeFrame.M1);
+        when(parameters.getDataCapturePeriodDuration()).thenReturn(Duration.ofMinutes(5));
+        container = new BarAggregateContainer(parameters);
+    }
+
+    @Test
+    void getBarAverages() {
+        Instant closeTime = START_TIME.plusSeconds(120);
+        container.addBars(List.of(createBar(DEFAULT_EXCHANGE, "B", "T", "1", closeTime.minusSeconds(60)),
+                                  createBar(DEFAULT_EXCHANGE, "B", "T", "2", closeTime),
+                                  createBar(ExchangeName.GATE, "B", "T", "5", closeTime)));
+        container.addBars(List.of(createBar(DEFAULT_EXCHANGE, "B", "T", "6", closeTime)));
+
+        List<BarAverage> result = container.getBarAverages(DEFAULT_EXCHANGE);
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getAveragePrice()).isEqualByComparingTo("1.5");
+        assertThat(result.get(0).getLastCloseTime()).isEqualTo(closeTime);
+        assertThat(container.getBarAverages()).hasSize(2);
+    }
+
+    @Test
+    void getAveragePrice_slidingWindow() {
+        for (int minute = 1; minute <= 5; minute++) {
+            Bar bar = createBar(DEFAULT_EXCHANGE, "B", "T", String.valueOf(minute), minuteClose(minute));
+            container.addBars(List.of(bar));
+        }
+        assertThat(container.getAveragePrice(DEFAULT_EXCHANGE, "B", "T")).hasValueSatisfying(
+                price -> assertThat(price).isEqualByComparingTo("3"));
+
+        // the first bar is evicted, a bar older than the window is skipped
+        container.addBars(List.of(createBar(DEFAULT_EXCHANGE, "B", "T", "12", minuteClose(6)),
+                                  createBar(DEFAULT_EXCHANGE, "B", "T", "100", minuteClose(1))));
+        assertThat(container.getAveragePrice(DEFAULT_EXCHANGE, "B", "T")).hasValueSatisfying(
+                price -> assertThat(price).isEqualByComparingTo("5.2"));
+
+        // all bars are evicted
+        container.addBars(List.of(createBar(DEFAULT_EXCHANGE, "B", "T", "7", minuteClose(20))));
+        assertThat(container.getAveragePrice(DEFAULT_EXCHANGE, "B", "T")).hasValueSatisfying(
+                price -> assertThat(price).isEqualByComparingTo("7"));
+        assertThat(container.getAveragePrice(ExchangeName.GATE, "B", "T")).isEmpty();
+    }
+
+    @Test
+    void getAveragePrice_rollup() {
+        ParametersHolder parameters = mock(ParametersHolder.class);
+        when(parameters.getDataCaptureTimeFrame()).thenReturn(TimeFrame.M5);
+        when(parameters.getDataBaseTimeFrame()).thenReturn(TimeFrame.M1);
+        when(parameters.getDataCapturePeriodDuration()).thenReturn(Duration.ofMinutes(10));
+        container = new BarAggregateContainer(parameters);
+        String[] prices = {"1", "2", "3", "4", "5", "8", "2"};
+        for (int minute = 1; minute <= prices.length; minute++) {
+            container.addBars(List.of(createBar(DEFAULT_EXCHANGE, "B", "T", prices[minute - 1], minuteClose(minute))));
+        }
+        // (5+1+5)/3 and (8+2+2)/3 of the M5 bars
+        assertThat(container.getAveragePrice(DEFAULT_EXCHANGE, "B", "T")).hasValueSatisfying(
+                price -> assertThat(price).isCloseTo(new BigDecimal("3.8333"), within(new BigDecimal("0.0001"))));
+
+        // the first M5 bar is out of the window
+        container.addBars(List.of(createBar(DEFAULT_EXCHANGE, "B", "T", "7", minuteClose(11))));
+        assertThat(container.getAveragePrice(DEFAULT_EXCHANGE, "B", "T")).hasValueSatisfying(
+                price -> assertThat(price).isEqualByComparingTo("5.5"));
+    }
+
+    @Test
+    void getLastBars() {
+        Instant closeTime1 = START_TIME.plusSeconds(120);
+        Instant closeTime2 = closeTime1.minusSeconds(10);
+        container.addBars(List.of(createBar(DEFAULT_EXCHANGE, "B", "T", "1", closeTime1),
+                                  createBar(DEFAULT_EXCHANGE, "B", "T", "1", closeTime1.minusSeconds(60)),
+                                  createBar(DEFAULT_EXCHANGE, "C", "T2", "1", closeTime2)));
+
+        List<LastBar> result = container.getLastBars(DEFAULT_EXCHANGE);
+        assertThat(result).extracting(LastBar::getCloseTime).containsExactlyInAnyOrder(closeTime1, closeTime2);
+        assertThat(container.getLastBars(ExchangeName.GATE)).isEmpty();
+    }
+
+    private Instant minuteClose(int minute) {
+        return START_TIME.plusSeconds(minute * 60L);
+    }
+
+    private Bar createBar(ExchangeName exchangeName, String base, String target, String price, Instant closeTime) {
+        Bar bar = new Bar(exchangeName, base, target);
+        BigDecimal value = new BigDecimal(price);
+        bar.setOpen(value);
+        bar.setHigh(value);
+        bar.setLow(value);
+        bar.setClose(value);
+        bar.setVolume(value);
+        bar.setOpenTime(closeTime.minusSeconds(60));
+        bar.setCloseTime(closeTime);
+        return bar;
+    }
+}
@@ -1,6 +1,7 @@
 package my.dub.dlp_pilot.repository.container;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.util.List;
@@ -31,11 +32,11 @@ class SymbolPairContainerTest {
     }
 
     @Test
-    void remove_exchangeNotExists() {
+    void remove_notExists() {
         container.addAll(DATA);
 
         int prevSize = container.getAll().size();
-        container.remove(ExchangeName.GATE, 1);
+        container.remove(new SymbolPair(ExchangeName.GATE, "AAA/BBB"));
 
         assertEquals(prevSize, container.getAll().size());
     }
@@ -45,8 +46,69 @@ class SymbolPairContainerTest {
         container.addAll(DATA);
 
         int prevSize = container.getAll().size();
-        container.remove(ExchangeName.BINANCE, 0);
+        container.remove(DATA.get(0));
 
         assertEquals(prevSize - 1, container.getAll().size());
+        assertThat(container.getAll(ExchangeName.HUOBI)).containsExactly(DATA.get(2));
     }
-}
\ No newline at end of file
+
+    @Test
+    void remove_keepsReadSnapshot() {
+        container.addAll(DATA);
+
+        List<SymbolPair> snapshot = container.getAll(ExchangeName.BINANCE);
+        container.remove(DATA.get(0));
+
+        assertThat(snapshot).containsExactly(DATA.get(0), DATA.get(1));
+        assertThat(container.getAll(ExchangeName.BINANCE)).containsExactly(DATA.get(1));
+    }
+
+    @Test
+    void contains() {
+        container.addAll(DATA);
+
+        assertThat(container.contains(new SymbolPair(ExchangeName.BINANCE, "AAA/CCC"))).isTrue();
+        assertThat(container.contains(new SymbolPair(ExchangeName.GATE, "AAA/CCC"))).isFalse();
+
+        container.remove(DATA.get(1));
+
+        assertThat(container.contains(DATA.get(1))).isFalse();
+    }
+
+    @Test
+    void replaceAll() {
+        container.addAll(DATA);
+
+        container.replaceAll(symbolPairs -> {
+            symbolPairs.removeIf(symbolPair -> ExchangeName.BINANCE.equals(symbolPair.getExchangeName()));
+            return symbolPairs;
+        });
+
+        assertThat(container.getAll()).containsExactlyInAnyOrder(DATA.get(2), DATA.get(3));
+        assertThat(container.getAll(ExchangeName.BINANCE)).isEmpty();
+        assertThat(container.getAllByName(ExchangeName.BINANCE)).isEmpty();
+    }
+
+    @Test
+    void replaceAll_failed() {
+        container.addAll(DATA);
+
+        assertThatThrownBy(() -> container.replaceAll(symbolPairs -> {
+            throw new IllegalStateException();
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(container.getAll()).containsExactlyInAnyOrderElementsOf(DATA);
+    }
+
+    @Test
+    void getAllByName() {
+        container.addAll(DATA);
+
+        assertThat(container.getAllByName(ExchangeName.BINANCE)).hasSize(2).containsKeys("AAA/BBB", "AAA/CCC");
+        assertThat(container.getAllByName(ExchangeName.GATE)).isEmpty();
+
+        container.remove(DATA.get(0));
+
+        assertThat(container.getAllByName(ExchangeName.BINANCE)).hasSize(1).containsOnlyKeys("AAA/CCC");
+    }
+}
@@ -0,0 +1,79 @@
+package my.dub.dlp_pilot.repository.container;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import my.dub.dlp_pilot.configuration.ParametersHolder;
+import my.dub.dlp_pilot.model.Bar;
+import my.dub.dlp_pilot.model.ExchangeName;
+import my.dub.dlp_pilot.model.TimeFrame;
+import my.dub.dlp_pilot.model.dto.Ticker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TickerBarContainerTest {
+    private static final ExchangeName DEFAULT_EXCHANGE = ExchangeName.BINANCE;
+    private static final Instant START_TIME = Instant.parse("2021-01-01T00:00:00Z");
+
+    private TickerBarContainer container;
+
+    @BeforeEach
+    void setUp() {
+        ParametersHolder parameters = mock(ParametersHolder.class);
+        when(parameters.getDataBaseTimeFrame()).thenReturn(TimeFrame.M1);
+        container = new TickerBarContainer(parameters);
+    }
+
+    @Test
+    void update() {
+        // the first bar of the pair is partial
+        assertThat(update(createTicker("1", 10))).isEmpty();
+        assertThat(update(createTicker("2", 65))).isEmpty();
+        assertThat(update(createTicker("5", 90), createTicker(null, 100))).isEmpty();
+
+        List<Bar> result = update(createTicker("4", 130));
+        assertThat(result).hasSize(1);
+        Bar bar = result.get(0);
+        assertThat(bar.getOpen()).isEqualByComparingTo("2");
+        assertThat(bar.getHigh()).isEqualByComparingTo("5");
+        assertThat(bar.getLow()).isEqualByComparingTo("2");
+        // bid price is used without the close price
+        assertThat(bar.getClose()).isEqualByComparingTo("3");
+        assertThat(bar.getVolume()).isEqualByComparingTo("0");
+        assertThat(bar.getOpenTime()).isEqualTo(START_TIME.plusSeconds(60));
+        assertThat(bar.getCloseTime()).isEqualTo(START_TIME.plusSeconds(120));
+    }
+
+    @Test
+    void update_closeOnTimeFrameEnd() {
+        update(createTicker("1", 10));
+        update(createTicker("2", 70));
+        Ticker invalidTicker = createTicker("3", 170);
+        invalidTicker.setPriceAsk(BigDecimal.ZERO);
+
+        List<Bar> result = container.update(DEFAULT_EXCHANGE, List.of(invalidTicker), START_TIME.plusSeconds(120));
+        assertThat(result).extracting(Bar::getClose).containsExactly(BigDecimal.valueOf(2));
+        assertThat(container.update(DEFAULT_EXCHANGE, List.of(), START_TIME.plusSeconds(180))).isEmpty();
+        assertThat(container.update(ExchangeName.GATE, List.of(), START_TIME.plusSeconds(180))).isEmpty();
+    }
+
+    private List<Bar> update(Ticker... tickers) {
+        Instant now = tickers[tickers.length - 1].getDateTime();
+        return container.update(DEFAULT_EXCHANGE, List.of(tickers), now);
+    }
+
+    private Ticker createTicker(String closePrice, long seconds) {
+        Ticker ticker = new Ticker(DEFAULT_EXCHANGE);
+        ticker.setBase("B");
+        ticker.setTarget("T");
+        ticker.setClosePrice(closePrice == null ? null : new BigDecimal(closePrice));
+        ticker.setPriceBid(BigDecimal.valueOf(3));
+        ticker.setPriceAsk(BigDecimal.valueOf(4));
+        ticker.setDateTime(START_TIME.plusSeconds(seconds));
+        return ticker;
+    }
+}
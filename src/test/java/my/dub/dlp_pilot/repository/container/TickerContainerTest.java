@@ -15,7 +15,6 @@ import my.dub.dlp_pilot.model.ExchangeName;
 import my.dub.dlp_pilot.model.dto.Ticker;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.test.util.ReflectionTestUtils;
 
 class TickerContainerTest {
 
@@ -25,15 +24,14 @@ class TickerContainerTest {
 
     @BeforeEach
     void setUp() {
-        tickerContainer = new TickerContainer();
-        Set<Ticker> tickers = (Set<Ticker>) ReflectionTestUtils.getField(tickerContainer, "bigONETickers");
+        tickerContainer = new TickerContainer(new TickerPriceMatrix());
         Ticker ticker = new Ticker(defaultExchangeName);
         ticker.setBase("B");
         ticker.setTarget("T");
         ticker.setClosePrice(BigDecimal.ONE);
         ticker.setPriceBid(BigDecimal.ONE);
         ticker.setPriceAsk(BigDecimal.ONE);
-        tickers.add(ticker);
+        tickerContainer.addTickers(defaultExchangeName, List.of(ticker));
     }
 
     @Test
@@ -47,10 +45,12 @@ class TickerContainerTest {
         Ticker t3 = new Ticker(ExchangeName.BINANCE);
         t3.setBase("B");
         t3.setTarget("T");
-        Set<Ticker> tickers = (Set<Ticker>) ReflectionTestUtils.getField(tickerContainer, "bigONETickers");
-        tickers.addAll(List.of(t1, t2, t3));
+        tickerContainer.addTickers(defaultExchangeName, List.of(t1, t2));
+        tickerContainer.addTickers(ExchangeName.BINANCE, List.of(t3));
 
         then(tickerContainer.getTicker(defaultExchangeName, "C", "T")).isEqualTo(Optional.of(t1));
+        then(tickerContainer.getTicker(ExchangeName.BINANCE, "B", "T")).isEqualTo(Optional.of(t3));
+        then(tickerContainer.getTicker(ExchangeName.BINANCE, "C", "T")).isEmpty();
     }
 
     @Test
@@ -91,4 +91,20 @@ class TickerContainerTest {
         assertNotNull(addedTicker.getPreviousPriceBid());
         assertEquals(closePrice, addedTicker.getClosePrice());
     }
+
+    @Test
+    void addTickers_stalePrice() {
+        Ticker staleTicker = new Ticker(defaultExchangeName);
+        staleTicker.setBase("B");
+        staleTicker.setTarget("T");
+        staleTicker.setPriceAsk(BigDecimal.ONE);
+        staleTicker.setPriceBid(BigDecimal.ONE);
+        staleTicker.setClosePrice(BigDecimal.TEN);
+
+        tickerContainer.addTickers(defaultExchangeName, List.of(staleTicker));
+
+        Ticker storedTicker = tickerContainer.getTicker(defaultExchangeName, "B", "T").orElse(null);
+        assertNotNull(storedTicker);
+        assertEquals(BigDecimal.ONE, storedTicker.getClosePrice());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,122 @@
+package my.dub.dlp_pilot.repository.container;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+
+import java.math.BigDecimal;
+import my.dub.dlp_pilot.model.ExchangeName;
+import my.dub.dlp_pilot.model.dto.Ticker;
+import my.dub.dlp_pilot.repository.container.TickerPriceMatrix.RowSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TickerPriceMatrixTest {
+
+    private TickerPriceMatrix priceMatrix;
+
+    @BeforeEach
+    void setUp() {
+        priceMatrix = new TickerPriceMatrix();
+    }
+
+    @Test
+    void toFixedPoint() {
+        assertThat(TickerPriceMatrix.toFixedPoint(new BigDecimal("1.5"))).isEqualTo(1_500_000_000_000L);
+        assertThat(TickerPriceMatrix.toFixedPoint(new BigDecimal("0.00000000004"))).isEqualTo(40L);
+        assertThat(TickerPriceMatrix.toFixedPoint(new BigDecimal("0.0000000000004"))).isZero();
+        assertThat(TickerPriceMatrix.toFixedPoint(BigDecimal.ONE.negate())).isZero();
+        assertThat(TickerPriceMatrix.toFixedPoint(null)).isZero();
+        assertThat(TickerPriceMatrix.toFixedPoint(new BigDecimal("1E+20")))
+                .isEqualTo(TickerPriceMatrix.SATURATED_PRICE);
+    }
+
+    @Test
+    void update() {
+        Ticker ticker1 = createTicker("B", "T", ExchangeName.BINANCE, "2", "3");
+        Ticker ticker2 = createTicker("B", "T", ExchangeName.GATE, "4", "5");
+        Ticker ticker3 = createTicker("B2", "T", ExchangeName.GATE, "6", "7");
+
+        priceMatrix.update(ticker1);
+        priceMatrix.update(ticker2);
+        priceMatrix.update(ticker3);
+
+        assertThat(priceMatrix.size()).isEqualTo(2);
+        RowSnapshot row = priceMatrix.newSnapshot();
+        priceMatrix.read(0, row);
+        assertThat(row.getBase()).isEqualTo("B");
+        assertThat(row.getTarget()).isEqualTo("T");
+        assertThat(row.getBid(ExchangeName.BINANCE)).isEqualTo(TickerPriceMatrix.toFixedPoint(BigDecimal.valueOf(2)));
+        assertThat(row.getAsk(ExchangeName.GATE)).isEqualTo(TickerPriceMatrix.toFixedPoint(BigDecimal.valueOf(5)));
+        assertThat(row.getTimestamp(ExchangeName.GATE)).isEqualTo(ticker2.getDateTime().toEpochMilli());
+        assertThat(row.isPresent(ExchangeName.BITFINEX)).isFalse();
+        assertThat(row.isExact(ExchangeName.BINANCE)).isTrue();
+    }
+
+    @Test
+    void update_saturatedPrice() {
+        priceMatrix.update(createTicker("B", "T", ExchangeName.BINANCE, "20000000", "20000001"));
+
+        RowSnapshot row = priceMatrix.newSnapshot();
+        priceMatrix.read(0, row);
+        assertThat(row.isPresent(ExchangeName.BINANCE)).isTrue();
+        assertThat(row.isExact(ExchangeName.BINANCE)).isFalse();
+    }
+
+    @Test
+    void update_invalidPrice() {
+        Ticker ticker = createTicker("B", "T", ExchangeName.BINANCE, "2", "3");
+        priceMatrix.update(ticker);
+        ticker.setPriceAsk(null);
+
+        priceMatrix.update(ticker);
+
+        RowSnapshot row = priceMatrix.newSnapshot();
+        priceMatrix.read(0, row);
+        assertThat(row.isPresent(ExchangeName.BINANCE)).isFalse();
+    }
+
+    @Test
+    void pollDirty() {
+        Ticker ticker1 = createTicker("B", "T", ExchangeName.BINANCE, "2", "3");
+        Ticker ticker2 = createTicker("B2", "T", ExchangeName.BINANCE, "4", "5");
+        Ticker ticker3 = createTicker("B", "T", ExchangeName.GATE, "6", "7");
+        priceMatrix.update(ticker1);
+        priceMatrix.update(ticker2);
+        priceMatrix.update(ticker1);
+        priceMatrix.update(ticker3);
+
+        assertThat(priceMatrix.pollDirty(ExchangeName.BINANCE)).isEqualTo(0);
+        assertThat(priceMatrix.pollDirty(ExchangeName.BINANCE)).isEqualTo(1);
+        assertThat(priceMatrix.pollDirty(ExchangeName.BINANCE)).isEqualTo(-1);
+
+        priceMatrix.update(ticker1);
+        assertThat(priceMatrix.pollDirty(ExchangeName.BINANCE)).isEqualTo(0);
+        assertThat(priceMatrix.pollDirty(ExchangeName.GATE)).isEqualTo(0);
+        assertThat(priceMatrix.pollDirty(ExchangeName.GATE)).isEqualTo(-1);
+    }
+
+    @Test
+    void clearDirty() {
+        priceMatrix.update(createTicker("B", "T", ExchangeName.BINANCE, "2", "3"));
+        priceMatrix.update(createTicker("B2", "T", ExchangeName.BINANCE, "4", "5"));
+
+        priceMatrix.clearDirty(ExchangeName.BINANCE);
+
+        assertThat(priceMatrix.pollDirty(ExchangeName.BINANCE)).isEqualTo(-1);
+    }
+
+    @Test
+    void read_pairIdOutOfBounds() {
+        thenThrownBy(() -> priceMatrix.read(0, priceMatrix.newSnapshot()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Ticker createTicker(String base, String target, ExchangeName exchangeName, String bid, String ask) {
+        Ticker ticker = new Ticker(exchangeName);
+        ticker.setBase(base);
+        ticker.setTarget(target);
+        ticker.setPriceBid(new BigDecimal(bid));
+        ticker.setPriceAsk(new BigDecimal(ask));
+        return ticker;
+    }
+}
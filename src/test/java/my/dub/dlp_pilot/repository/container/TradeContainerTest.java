@@ -8,7 +8,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.Map;
+import java.util.List;
 import java.util.Set;
 import my.dub.dlp_pilot.model.Exchange;
 import my.dub.dlp_pilot.model.ExchangeName;
@@ -33,9 +33,8 @@ class TradeContainerTest {
 
     @Test
     void addTrade_similar() {
-        Map<Long, Trade> trades = (Map<Long, Trade>) ReflectionTestUtils.getField(tradeContainer, "trades");
         Trade existing = createTrade();
-        trades.put(0L, existing);
+        tradeContainer.addTrade(existing);
         Trade newTrade = SerializationUtils.clone(existing);
 
         then(tradeContainer.addTrade(newTrade)).isFalse();
@@ -49,6 +48,25 @@ class TradeContainerTest {
         assertThat(tradeContainer.getTrades(DEFAULT_EXCHANGE_NAME)).hasSize(1);
     }
 
+    @Test
+    void addTrade_parallelTradesLimit() {
+        Trade trade1 = createTrade();
+        Trade trade2 = createTrade();
+        trade2.setBase("C");
+        Exchange exchange = new Exchange();
+        exchange.setName(ExchangeName.BIGONE);
+        Trade trade3 = createTrade();
+        trade3.setBase("D");
+        trade3.getPositionLong().setExchange(exchange);
+
+        then(tradeContainer.addTrade(trade1, 2)).isTrue();
+        then(tradeContainer.addTrade(trade2, 2)).isTrue();
+        then(tradeContainer.addTrade(trade3, 2)).isFalse();
+
+        assertEquals(Pair.of(2L, 0L), tradeContainer.tradesCount(DEFAULT_EXCHANGE_NAME, ExchangeName.BIGONE));
+        assertFalse(tradeContainer.isSimilarPresent(trade3));
+    }
+
     @Test
     void tradesCount() {
         Trade trade1, trade2, trade3, trade4;
@@ -76,21 +94,88 @@ class TradeContainerTest {
 
     @Test
     void isSimilarPresent() {
-        Map<Long, Trade> trades = (Map<Long, Trade>) ReflectionTestUtils.getField(tradeContainer, "trades");
         Trade existing = createTrade();
-        trades.put(0L, existing);
+        tradeContainer.addTrade(existing);
         Trade existing2 = createTrade();
         existing2.setBase("C");
         Exchange exchange = new Exchange();
         exchange.setName(ExchangeName.BIGONE);
         existing2.getPositionShort().setExchange(exchange);
-        trades.put(1L, existing2);
+        tradeContainer.addTrade(existing2);
 
         assertTrue(tradeContainer.isSimilarPresent(existing.getBase(), existing.getTarget(),
                                                    existing.getPositionLong().getExchange().getName(),
                                                    existing.getPositionShort().getExchange().getName()));
     }
 
+    @Test
+    void isSimilarPresent_reversedExchanges() {
+        Trade existing = createTrade();
+        Exchange exchange = new Exchange();
+        exchange.setName(ExchangeName.BIGONE);
+        existing.getPositionShort().setExchange(exchange);
+        tradeContainer.addTrade(existing);
+
+        assertTrue(tradeContainer.isSimilarPresent("B", "T", DEFAULT_EXCHANGE_NAME, ExchangeName.BIGONE));
+        assertFalse(tradeContainer.isSimilarPresent("C", "T", DEFAULT_EXCHANGE_NAME, ExchangeName.BIGONE));
+        assertFalse(tradeContainer.isSimilarPresent("B", "T", DEFAULT_EXCHANGE_NAME, ExchangeName.HUOBI));
+    }
+
+    @Test
+    void remove() {
+        Trade trade = createTrade();
+        Exchange exchange = new Exchange();
+        exchange.setName(ExchangeName.BIGONE);
+        trade.getPositionShort().setExchange(exchange);
+        tradeContainer.addTrade(trade);
+
+        assertTrue(tradeContainer.remove(trade.getLocalId()));
+
+        assertFalse(tradeContainer.remove(trade.getLocalId()));
+        assertTrue(tradeContainer.isEmpty());
+        assertThat(tradeContainer.getTrades(ExchangeName.BIGONE)).isEmpty();
+        assertEquals(Pair.of(0L, 0L), tradeContainer.tradesCount(DEFAULT_EXCHANGE_NAME, ExchangeName.BIGONE));
+        assertFalse(tradeContainer.isSimilarPresent(trade));
+    }
+
+    @Test
+    void restore() {
+        Trade restored = createTrade();
+        long nextLocalId = tradeContainer.getNextLocalId() + 10;
+        restored.setLocalId(nextLocalId - 1);
+        DetrimentalRecord record = new DetrimentalRecord(ExchangeName.BINANCE, ExchangeName.HUOBI, "C", "T",
+                                                         Instant.now().plus(5, ChronoUnit.MINUTES));
+
+        tradeContainer.restore(List.of(restored), List.of(record), nextLocalId);
+        Trade added = createTrade();
+        added.setBase("C");
+        tradeContainer.addTrade(added);
+
+        assertThat(tradeContainer.getTradesNotClosed()).containsExactlyInAnyOrder(restored, added);
+        assertEquals(nextLocalId, added.getLocalId());
+        assertTrue(tradeContainer.isSimilarPresent(restored));
+        assertEquals(Pair.of(2L, 0L), tradeContainer.tradesCount(DEFAULT_EXCHANGE_NAME, ExchangeName.HUOBI));
+        assertThat(tradeContainer.getDetrimentalRecords()).containsExactly(record);
+    }
+
+    @Test
+    void restore_parallelTradesLimit() {
+        Trade restored1 = createTrade();
+        restored1.setLocalId(0L);
+        Trade restored2 = createTrade();
+        restored2.setBase("C");
+        restored2.setLocalId(1L);
+
+        tradeContainer.restore(List.of(restored1, restored2), List.of(), 2);
+        Trade added = createTrade();
+        added.setBase("D");
+
+        assertThat(tradeContainer.getTradesNotClosed()).containsExactlyInAnyOrder(restored1, restored2);
+        // the limit was lowered for the resumed test run
+        assertFalse(tradeContainer.addTrade(added, 1));
+        assertEquals(Pair.of(2L, 2L), tradeContainer.tradesCount(DEFAULT_EXCHANGE_NAME, ExchangeName.HUOBI));
+    }
+
     @Test
     void checkDetrimentalRecord_invalidate() {
         Set<DetrimentalRecord> detrimentalRecords =
@@ -0,0 +1,87 @@
+package my.dub.dlp_pilot.service.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.http.HttpHeaders;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import my.dub.dlp_pilot.model.Exchange;
+import my.dub.dlp_pilot.model.ExchangeName;
+import my.dub.dlp_pilot.service.ExchangeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ApiRateLimiterTest {
+    private static final ExchangeName EXCHANGE_NAME = ExchangeName.BINANCE;
+    private static final HttpHeaders NO_HEADERS = HttpHeaders.of(Map.of(), (name, value) -> true);
+
+    private ApiRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        ExchangeService exchangeService = mock(ExchangeService.class);
+        Exchange exchange = new Exchange();
+        exchange.setName(EXCHANGE_NAME);
+        // 10 permits of burst
+        exchange.setApiRequestsPerMinPreload(60);
+        when(exchangeService.findByName(EXCHANGE_NAME)).thenReturn(exchange);
+        rateLimiter = new ApiRateLimiter(exchangeService);
+    }
+
+    @Test
+    void tryAcquire_burst() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(rateLimiter.tryAcquire(EXCHANGE_NAME)).isTrue();
+        }
+        assertThat(rateLimiter.tryAcquire(EXCHANGE_NAME)).isFalse();
+        assertThat(rateLimiter.reserve(EXCHANGE_NAME)).isBetween(Duration.ofMillis(500), Duration.ofSeconds(1));
+        assertThat(rateLimiter.reserve(EXCHANGE_NAME)).isBetween(Duration.ofMillis(1500), Duration.ofSeconds(2));
+    }
+
+    @Test
+    void tryAcquire_priority() {
+        for (int i = 0; i < 6; i++) {
+            assertThat(rateLimiter.tryAcquire(EXCHANGE_NAME, RequestPriority.LOW)).isTrue();
+        }
+        assertThat(rateLimiter.tryAcquire(EXCHANGE_NAME, RequestPriority.LOW)).isFalse();
+        assertThat(rateLimiter.tryAcquire(EXCHANGE_NAME, RequestPriority.MEDIUM)).isTrue();
+        assertThat(rateLimiter.tryAcquire(EXCHANGE_NAME, RequestPriority.MEDIUM)).isTrue();
+        assertThat(rateLimiter.tryAcquire(EXCHANGE_NAME, RequestPriority.MEDIUM)).isFalse();
+        assertThat(rateLimiter.tryAcquire(EXCHANGE_NAME)).isTrue();
+        assertThat(rateLimiter.tryAcquire(EXCHANGE_NAME)).isTrue();
+        assertThat(rateLimiter.tryAcquire(EXCHANGE_NAME)).isFalse();
+    }
+
+    @Test
+    void onResponse_throttled() {
+        rateLimiter.onResponse(EXCHANGE_NAME, 429, headers("Retry-After", "5"));
+
+        assertThat(rateLimiter.tryAcquire(EXCHANGE_NAME)).isFalse();
+        assertThat(rateLimiter.getRequestsPerMin(EXCHANGE_NAME)).isCloseTo(30, within(0.01));
+        // the pause and a single permit at the lowered rate
+        assertThat(rateLimiter.reserve(EXCHANGE_NAME)).isBetween(Duration.ofMillis(6500), Duration.ofSeconds(7));
+
+        for (int i = 0; i < 25; i++) {
+            rateLimiter.onResponse(EXCHANGE_NAME, 200, NO_HEADERS);
+        }
+        assertThat(rateLimiter.getRequestsPerMin(EXCHANGE_NAME)).isCloseTo(60, within(0.01));
+    }
+
+    @Test
+    void onResponse_usedWeightLimit() {
+        rateLimiter.onResponse(EXCHANGE_NAME, 200, headers("x-mbx-used-weight-1m", "100"));
+        assertThat(rateLimiter.tryAcquire(EXCHANGE_NAME)).isTrue();
+
+        rateLimiter.onResponse(EXCHANGE_NAME, 200, headers("x-mbx-used-weight-1m", "1100"));
+        assertThat(rateLimiter.tryAcquire(EXCHANGE_NAME)).isFalse();
+        assertThat(rateLimiter.getRequestsPerMin(EXCHANGE_NAME)).isCloseTo(60, within(0.01));
+    }
+
+    private HttpHeaders headers(String name, String value) {
+        return HttpHeaders.of(Map.of(name, List.of(value)), (headerName, headerValue) -> true);
+    }
+}
@@ -0,0 +1,84 @@
+package my.dub.dlp_pilot.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import my.dub.dlp_pilot.model.Bar;
+import my.dub.dlp_pilot.model.ExchangeName;
+import my.dub.dlp_pilot.repository.BarRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+class BarPersistenceServiceImplTest {
+
+    private final BarRepository repository = mock(BarRepository.class);
+
+    private BarPersistenceServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BarPersistenceServiceImpl(repository);
+        service.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.destroy();
+    }
+
+    @Test
+    void enqueue() {
+        Bar bar1 = new Bar(ExchangeName.BINANCE, "B", "T");
+        Bar bar2 = new Bar(ExchangeName.HUOBI, "B", "T");
+        when(repository.insertAll(anyList())).thenReturn(2);
+
+        service.enqueue(List.of(bar1, bar2));
+
+        assertThat(service.flush(Duration.ofSeconds(5))).isTrue();
+        assertThat(service.hasPending()).isFalse();
+        verify(repository).insertAll(List.of(bar1, bar2));
+    }
+
+    @Test
+    void enqueue_batchNotInserted() {
+        Bar bar = new Bar(ExchangeName.BINANCE, "B", "T");
+        IllegalStateException exception = new IllegalStateException("DB is unavailable");
+        when(repository.insertAll(anyList())).thenThrow(exception, exception, exception).thenReturn(1);
+
+        service.enqueue(List.of(bar));
+
+        assertThat(service.flush(Duration.ofSeconds(10))).isTrue();
+        verify(repository, times(4)).insertAll(List.of(bar));
+    }
+
+    @Test
+    void enqueue_barRetried() {
+        Bar bar = new Bar(ExchangeName.BINANCE, "B", "T");
+        IllegalStateException exception = new IllegalStateException("DB is unavailable");
+        when(repository.insertAll(anyList())).thenThrow(exception, exception, exception, exception).thenReturn(1);
+
+        service.enqueue(List.of(bar));
+
+        assertThat(service.flush(Duration.ofSeconds(1))).isFalse();
+        assertThat(service.flush(Duration.ofSeconds(10))).isTrue();
+        verify(repository, times(5)).insertAll(List.of(bar));
+    }
+
+    @Test
+    void enqueue_barRejected() {
+        when(repository.insertAll(anyList())).thenThrow(new DataIntegrityViolationException("Column cannot be null"));
+
+        service.enqueue(List.of(new Bar(ExchangeName.BINANCE, "B", "T")));
+
+        assertThat(service.flush(Duration.ofSeconds(10))).isTrue();
+        verify(repository, times(4)).insertAll(anyList());
+    }
+}
@@ -0,0 +1,171 @@
+package my.dub.dlp_pilot.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+import my.dub.dlp_pilot.configuration.ParametersHolder;
+import my.dub.dlp_pilot.model.Exchange;
+import my.dub.dlp_pilot.model.ExchangeName;
+import my.dub.dlp_pilot.model.Position;
+import my.dub.dlp_pilot.model.TestRun;
+import my.dub.dlp_pilot.model.Trade;
+import my.dub.dlp_pilot.model.TradeResultType;
+import my.dub.dlp_pilot.model.TradeState;
+import my.dub.dlp_pilot.model.dto.TestRunCheckpoint;
+import my.dub.dlp_pilot.model.dto.TradeSnapshot;
+import my.dub.dlp_pilot.repository.TradeRepository;
+import my.dub.dlp_pilot.repository.container.TradeContainer;
+import my.dub.dlp_pilot.service.ExchangeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CheckpointServiceImplTest {
+
+    @TempDir
+    Path checkpointDir;
+
+    private Path checkpointPath;
+    private TradeContainer tradeContainer;
+    private final TradeRepository tradeRepository = mock(TradeRepository.class);
+    private final ExchangeService exchangeService = mock(ExchangeService.class);
+    private CheckpointServiceImpl checkpointService;
+    private TestRun testRun;
+
+    @BeforeEach
+    void setUp() {
+        checkpointPath = checkpointDir.resolve("test-run.checkpoint");
+        tradeContainer = new TradeContainer();
+        checkpointService = createService(tradeContainer);
+        testRun = new TestRun();
+        testRun.setId(7L);
+    }
+
+    @Test
+    void save_load() {
+        Trade trade = createTrade();
+        tradeContainer.addTrade(trade);
+        tradeContainer.checkDetrimentalRecord(ExchangeName.BINANCE, ExchangeName.HUOBI, "B", "T");
+        tradeContainer.addDetrimentalRecord(ExchangeName.BINANCE, ExchangeName.HUOBI, "B", "T",
+                                            Instant.now().plusSeconds(60));
+        Trade closedTrade = createTrade();
+        closedTrade.setBase("C");
+        tradeContainer.addTrade(closedTrade);
+        assertTrue(trade.startClosing());
+        assertTrue(closedTrade.startClosing());
+        closedTrade.markClosed();
+
+        checkpointService.save(testRun);
+        Optional<TestRunCheckpoint> result = checkpointService.load();
+
+        assertTrue(result.isPresent());
+        TestRunCheckpoint checkpoint = result.get();
+        assertEquals(7L, checkpoint.getTestRunId());
+        // the trade being closed is included
+        assertThat(checkpoint.getTrades()).extracting(TradeSnapshot::getBase).containsExactly("B");
+        assertEquals(ExchangeName.HUOBI, checkpoint.getTrades().get(0).getPositionLong().getExchangeName());
+        assertThat(checkpoint.getDetrimentalRecords()).hasSize(1);
+        assertEquals(tradeContainer.getNextLocalId(), checkpoint.getNextTradeLocalId());
+        assertThat(checkpointDir).isDirectoryNotContaining("glob:**.tmp");
+    }
+
+    @Test
+    void restore() {
+        Trade trade = createTrade();
+        tradeContainer.addTrade(trade);
+        assertTrue(trade.startClosing());
+        checkpointService.save(testRun);
+        TestRunCheckpoint checkpoint = checkpointService.load().orElseThrow();
+        Exchange exchangeShort = trade.getPositionShort().getExchange();
+        Exchange exchangeLong = trade.getPositionLong().getExchange();
+        when(exchangeService.findByName(ExchangeName.BINANCE)).thenReturn(exchangeShort);
+        when(exchangeService.findByName(ExchangeName.HUOBI)).thenReturn(exchangeLong);
+
+        TradeContainer restoredContainer = new TradeContainer();
+        createService(restoredContainer).restore(checkpoint, testRun);
+
+        assertThat(restoredContainer.getTradesNotClosed()).extracting(Trade::getBase).containsExactly("B");
+        Trade restoredTrade = restoredContainer.getTradesNotClosed().get(0);
+        assertEquals(trade.getLocalId(), restoredTrade.getLocalId());
+        assertEquals(TradeState.IN_PROGRESS, restoredTrade.getState());
+        assertEquals(testRun, restoredTrade.getTestRun());
+        assertEquals(exchangeLong, restoredTrade.getPositionLong().getExchange());
+    }
+
+    @Test
+    void restore_savedTrades() {
+        Trade savedTrade = createTrade();
+        Trade trade = createTrade();
+        trade.setBase("C");
+        tradeContainer.addTrade(savedTrade);
+        tradeContainer.addTrade(trade);
+        // the trade was being closed at checkpoint time
+        trade.setResultType(TradeResultType.SUCCESSFUL);
+        trade.setEndTime(Instant.now());
+        checkpointService.save(testRun);
+        TestRunCheckpoint checkpoint = checkpointService.load().orElseThrow();
+        long maxSavedLocalId = checkpoint.getNextTradeLocalId() + 5;
+        when(tradeRepository.findLocalIdsByTestRunIdAndLocalIdIn(eq(7L), any()))
+                .thenReturn(Set.of(savedTrade.getLocalId()));
+        when(tradeRepository.findMaxLocalIdByTestRunId(7L)).thenReturn(Optional.of(maxSavedLocalId));
+
+        TradeContainer restoredContainer = new TradeContainer();
+        createService(restoredContainer).restore(checkpoint, testRun);
+
+        assertThat(restoredContainer.getTradesNotClosed()).extracting(Trade::getBase).containsExactly("C");
+        assertThat(restoredContainer.getTradesNotClosed()).extracting(Trade::getResultType)
+                .containsExactly(TradeResultType.IN_PROGRESS);
+        assertEquals(maxSavedLocalId + 1, restoredContainer.getNextLocalId());
+    }
+
+    @Test
+    void load_corrupted() throws IOException {
+        Files.write(checkpointPath, new byte[] {1, 2, 3});
+
+        assertThat(checkpointService.load()).isEmpty();
+    }
+
+    @Test
+    void load_delete() {
+        assertThat(checkpointService.load()).isEmpty();
+
+        checkpointService.save(testRun);
+        assertTrue(Files.exists(checkpointPath));
+        checkpointService.delete();
+
+        assertThat(checkpointService.load()).isEmpty();
+    }
+
+    private CheckpointServiceImpl createService(TradeContainer container) {
+        ParametersHolder parameters = mock(ParametersHolder.class);
+        when(parameters.getCheckpointFilePath()).thenReturn(checkpointPath.toString());
+        return new CheckpointServiceImpl(container, tradeRepository, exchangeService, parameters);
+    }
+
+    private Trade createTrade() {
+        Trade trade = new Trade();
+        trade.setBase("B");
+        trade.setTarget("T");
+        Exchange exchangeShort = new Exchange();
+        exchangeShort.setName(ExchangeName.BINANCE);
+        Exchange exchangeLong = new Exchange();
+        exchangeLong.setName(ExchangeName.HUOBI);
+        Position positionShort = new Position();
+        positionShort.setExchange(exchangeShort);
+        Position positionLong = new Position();
+        positionLong.setExchange(exchangeLong);
+        trade.setPositions(positionShort, positionLong);
+        return trade;
+    }
+}
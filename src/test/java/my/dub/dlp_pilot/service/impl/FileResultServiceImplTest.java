@@ -2,6 +2,8 @@ package my.dub.dlp_pilot.service.impl;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -10,6 +12,7 @@ import java.io.IOException;
 import java.math.BigDecimal;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -75,12 +78,24 @@ class FileResultServiceImplTest {
         assertThat(filePath).contains(String.valueOf(testRun.getId()));
     }
 
+    @Test
+    void init_resumed() throws IOException {
+        Path existingFile = Files.createFile(resultDir.toPath().resolve("test-run#100.csv"));
+        testRun.setPathToResultFile(existingFile.toString());
+
+        service.init();
+        verify(testRunService, never()).updateResultFile(any());
+        assertThat(resultDir.listFiles()).hasSize(1);
+    }
+
     @Test
     void write_testRunEndException() {
         when(tradeService.isAllTradesClosed()).thenReturn(true);
+        when(tradeService.flushClosedTrades(any(Duration.class))).thenReturn(true);
         when(testRunService.checkTestRunEnd()).thenReturn(true);
 
         assertThrows(TestRunEndException.class, () -> service.write());
+        verify(tradeService).flushClosedTrades(any(Duration.class));
     }
 
     @Test
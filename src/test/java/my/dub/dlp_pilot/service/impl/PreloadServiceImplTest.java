@@ -0,0 +1,191 @@
+package my.dub.dlp_pilot.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import my.dub.dlp_pilot.configuration.ParametersHolder;
+import my.dub.dlp_pilot.exception.TestRunEndException;
+import my.dub.dlp_pilot.model.Bar;
+import my.dub.dlp_pilot.model.Exchange;
+import my.dub.dlp_pilot.model.ExchangeName;
+import my.dub.dlp_pilot.model.TestRun;
+import my.dub.dlp_pilot.model.TimeFrame;
+import my.dub.dlp_pilot.model.dto.SymbolPair;
+import my.dub.dlp_pilot.repository.BarFileCache;
+import my.dub.dlp_pilot.repository.container.SymbolPairContainer;
+import my.dub.dlp_pilot.service.BarService;
+import my.dub.dlp_pilot.service.client.ApiRateLimiter;
+import my.dub.dlp_pilot.service.client.ClientService;
+import my.dub.dlp_pilot.util.DateUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class PreloadServiceImplTest {
+    private static final ExchangeName EXCHANGE_NAME = ExchangeName.BINANCE;
+    private static final TimeFrame TIME_FRAME = TimeFrame.M5;
+
+    private final ClientService clientService = mock(ClientService.class);
+    private final BarService barService = mock(BarService.class);
+    private final ParametersHolder parameters = mock(ParametersHolder.class);
+    private final ApiRateLimiter rateLimiter = mock(ApiRateLimiter.class);
+    private final SymbolPairContainer symbolPairContainer = new SymbolPairContainer();
+    private final BarFileCache barCache = mock(BarFileCache.class);
+
+    private PreloadServiceImpl service;
+    private Exchange exchange;
+    private TestRun testRun;
+
+    @BeforeEach
+    void setUp() {
+        when(parameters.getDataBaseTimeFrame()).thenReturn(TIME_FRAME);
+        when(parameters.getPreloadRequestsInFlight()).thenReturn(2);
+        when(rateLimiter.tryAcquire(EXCHANGE_NAME)).thenReturn(true);
+        exchange = new Exchange();
+        exchange.setName(EXCHANGE_NAME);
+        exchange.setAscendingPreload(true);
+        // 50 minutes per slice
+        exchange.setMaxBarsPerRequest(11);
+        testRun = new TestRun();
+        LocalDateTime startTime = LocalDateTime.of(2021, 1, 1, 2, 0);
+        testRun.setStartTime(startTime);
+        testRun.setPreloadStartTime(startTime.minusHours(2));
+        service = new PreloadServiceImpl(clientService, barService, parameters, rateLimiter, symbolPairContainer,
+                                         barCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+    }
+
+    @Test
+    void runPreload() throws InterruptedException {
+        SymbolPair symbolPair = createSymbolPair("B");
+        SymbolPair emptySymbolPair = createSymbolPair("E");
+        symbolPairContainer.addAll(List.of(symbolPair, emptySymbolPair));
+        when(clientService.fetchBarsPreload(eq(symbolPair), eq(TIME_FRAME), any(Instant.class), any(Instant.class)))
+                .thenAnswer(invocation -> List.of(createBar(invocation.getArgument(2))));
+        when(clientService.fetchBarsPreload(eq(emptySymbolPair), eq(TIME_FRAME), any(Instant.class),
+                                            any(Instant.class))).thenReturn(new ArrayList<>());
+
+        assertThat(runUntilComplete()).isTrue();
+        verify(clientService, times(6))
+                .fetchBarsPreload(any(SymbolPair.class), eq(TIME_FRAME), any(Instant.class), any(Instant.class));
+        ArgumentCaptor<Collection<Bar>> barsCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(barService, times(3)).save(barsCaptor.capture(), eq(testRun));
+        List<Instant> savedOpenTimes = barsCaptor.getAllValues().stream().flatMap(Collection::stream)
+                .map(Bar::getOpenTime).collect(Collectors.toList());
+        assertThat(savedOpenTimes).isSorted();
+        verify(clientService).removeSymbolPair(emptySymbolPair);
+        verify(clientService, never()).removeSymbolPair(symbolPair);
+    }
+
+    @Test
+    void runPreload_cachedBars() throws InterruptedException {
+        SymbolPair symbolPair = createSymbolPair("B");
+        symbolPairContainer.addAll(List.of(symbolPair));
+        when(barCache.isEnabled()).thenReturn(true);
+        Instant preloadStartTime = DateUtils.toInstant(testRun.getPreloadStartTime());
+        // the first hour of the period is cached
+        List<Bar> cachedBars = IntStream.range(0, 12)
+                .mapToObj(i -> createBar(preloadStartTime.plus(TIME_FRAME.getDuration().multipliedBy(i))))
+                .collect(Collectors.toList());
+        when(barCache.read(eq(EXCHANGE_NAME), eq("B"), eq("T"), eq(TIME_FRAME), any(Instant.class),
+                           any(Instant.class))).thenReturn(cachedBars);
+        when(clientService.fetchBarsPreload(eq(symbolPair), eq(TIME_FRAME), any(Instant.class), any(Instant.class)))
+                .thenAnswer(invocation -> List.of(createBar(invocation.getArgument(2))));
+
+        assertThat(runUntilComplete()).isTrue();
+        verify(barService).save(cachedBars, testRun);
+        ArgumentCaptor<Instant> startTimeCaptor = ArgumentCaptor.forClass(Instant.class);
+        verify(clientService, times(2))
+                .fetchBarsPreload(eq(symbolPair), eq(TIME_FRAME), startTimeCaptor.capture(), any(Instant.class));
+        assertThat(startTimeCaptor.getAllValues()).allMatch(time -> !time.isBefore(preloadStartTime.plusSeconds(3300)));
+        verify(barCache, times(2)).append(eq(TIME_FRAME), any());
+        verify(clientService, never()).removeSymbolPair(symbolPair);
+    }
+
+    @Test
+    void runPreload_cachedBarsGap() throws InterruptedException {
+        SymbolPair symbolPair = createSymbolPair("B");
+        symbolPairContainer.addAll(List.of(symbolPair));
+        when(barCache.isEnabled()).thenReturn(true);
+        Instant preloadStartTime = DateUtils.toInstant(testRun.getPreloadStartTime());
+        // the first 30 minutes and the 20 minutes after 100 minutes of the period are cached
+        List<Bar> cachedBars = IntStream.concat(IntStream.range(0, 6), IntStream.range(20, 24))
+                .mapToObj(i -> createBar(preloadStartTime.plus(TIME_FRAME.getDuration().multipliedBy(i))))
+                .collect(Collectors.toList());
+        when(barCache.read(eq(EXCHANGE_NAME), eq("B"), eq("T"), eq(TIME_FRAME), any(Instant.class),
+                           any(Instant.class))).thenReturn(cachedBars);
+        when(clientService.fetchBarsPreload(eq(symbolPair), eq(TIME_FRAME), any(Instant.class), any(Instant.class)))
+                .thenAnswer(invocation -> List.of(createBar(invocation.getArgument(2))));
+
+        assertThat(runUntilComplete()).isTrue();
+        verify(barService).save(cachedBars.subList(0, 6), testRun);
+        ArgumentCaptor<Instant> startTimeCaptor = ArgumentCaptor.forClass(Instant.class);
+        verify(clientService, times(2))
+                .fetchBarsPreload(eq(symbolPair), eq(TIME_FRAME), startTimeCaptor.capture(), any(Instant.class));
+        assertThat(startTimeCaptor.getAllValues()).contains(preloadStartTime.plusSeconds(1500));
+    }
+
+    @Test
+    void runPreload_sliceNotFetched() {
+        SymbolPair symbolPair = createSymbolPair("B");
+        symbolPairContainer.addAll(List.of(symbolPair));
+        when(clientService.fetchBarsPreload(eq(symbolPair), eq(TIME_FRAME), any(Instant.class), any(Instant.class)))
+                .thenThrow(new TestRunEndException("Timeout"));
+
+        assertThatThrownBy(this::runUntilComplete).isInstanceOf(TestRunEndException.class);
+        verify(barService, never()).save(any(), any());
+    }
+
+    @Test
+    void runPreload_noPermit() {
+        symbolPairContainer.addAll(List.of(createSymbolPair("B")));
+        when(rateLimiter.tryAcquire(EXCHANGE_NAME)).thenReturn(false);
+
+        assertThat(service.runPreload(exchange, testRun)).isFalse();
+        verify(clientService, never()).fetchBarsPreload(any(), any(), any(Instant.class), any(Instant.class));
+    }
+
+    private boolean runUntilComplete() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            if (service.runPreload(exchange, testRun)) {
+                return true;
+            }
+            Thread.sleep(1);
+        }
+        return false;
+    }
+
+    private SymbolPair createSymbolPair(String base) {
+        SymbolPair symbolPair = new SymbolPair(EXCHANGE_NAME, base + "T");
+        symbolPair.setBase(base);
+        symbolPair.setTarget("T");
+        return symbolPair;
+    }
+
+    private Bar createBar(Instant openTime) {
+        Bar bar = new Bar(EXCHANGE_NAME, "B", "T");
+        bar.setOpenTime(openTime);
+        bar.setCloseTime(openTime.plus(TIME_FRAME.getDuration()));
+        return bar;
+    }
+}
@@ -2,22 +2,27 @@ package my.dub.dlp_pilot.service.impl;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
-import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
+import my.dub.dlp_pilot.configuration.ParametersHolder;
 import my.dub.dlp_pilot.model.ExchangeName;
 import my.dub.dlp_pilot.model.TestRun;
 import my.dub.dlp_pilot.model.dto.BarAverage;
 import my.dub.dlp_pilot.model.dto.PriceDifference;
 import my.dub.dlp_pilot.model.dto.Ticker;
+import my.dub.dlp_pilot.repository.container.ActivePairContainer;
+import my.dub.dlp_pilot.repository.container.BarAggregateContainer;
+import my.dub.dlp_pilot.repository.container.TickerPriceMatrix;
 import my.dub.dlp_pilot.service.TickerService;
 import my.dub.dlp_pilot.service.TradeService;
 import org.junit.jupiter.api.BeforeEach;
@@ -25,6 +30,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
@@ -35,12 +41,21 @@ class PriceDifferenceServiceImplTest {
     private TickerService tickerService;
     @Mock
     private TradeService tradeService;
+    @Spy
+    private TickerPriceMatrix priceMatrix = new TickerPriceMatrix();
+    @Mock
+    private BarAggregateContainer barAggregates;
+    @Spy
+    private ActivePairContainer activePairs = new ActivePairContainer();
+    @Mock
+    private ParametersHolder parametersHolder;
 
     @InjectMocks
     private PriceDifferenceServiceImpl service;
 
     @BeforeEach
     void setUp() {
+        when(parametersHolder.getFullScanIntervalDuration()).thenReturn(Duration.ofMinutes(1));
     }
 
     @Test
@@ -57,30 +72,11 @@ class PriceDifferenceServiceImplTest {
         BarAverage bA10 = new BarAverage(ExchangeName.HUOBI, "B3", "T2", Instant.now(), 15d);
 
         service.createPriceDifferences(List.of(bA1, bA2, bA3, bA4, bA5, bA6, bA7, bA8, bA9, bA10));
-        Set<PriceDifference> resultSet =
-                (Set<PriceDifference>) ReflectionTestUtils.getField(service, "priceDifferences");
-        assertThat(resultSet).hasSize(4);
-        assertThat(resultSet.stream().filter(priceDifference -> priceDifference.isSimilar(bA5)).count()).isEqualTo(1);
-    }
-
-    @Test
-    void updatePriceDifferences() {
-        PriceDifference priceDifference =
-                new PriceDifference("B1", "T1", ExchangeName.BINANCE, BigDecimal.ONE, ExchangeName.EXMO,
-                                    BigDecimal.ZERO);
-        PriceDifference priceDifference2 =
-                new PriceDifference("B2", "T2", ExchangeName.BINANCE, BigDecimal.ONE, ExchangeName.EXMO,
-                                    BigDecimal.ZERO);
-        Set<PriceDifference> resultSet =
-                (Set<PriceDifference>) ReflectionTestUtils.getField(service, "priceDifferences");
-        resultSet.addAll(List.of(priceDifference, priceDifference2));
-        BarAverage bA1 = new BarAverage(ExchangeName.BINANCE, "B1", "T1", Instant.now().minusSeconds(20), 100d);
-        BarAverage bA2 = new BarAverage(ExchangeName.EXMO, "B1", "T1", Instant.now().minusSeconds(15), 150d);
-
-        service.updatePriceDifferences(List.of(bA1, bA2));
-        PriceDifference updatedPD = resultSet.stream().filter(priceDifference::equals).findFirst().orElseThrow();
-        assertThat(updatedPD).matches(pD -> pD.getExchange1Average().equals(bA1.getAveragePrice()))
-                .matches(pD -> pD.getExchange2Average().equals(bA2.getAveragePrice()));
+        Map<String, PriceDifference> resultMap =
+                (Map<String, PriceDifference>) ReflectionTestUtils.getField(service, "priceDifferences");
+        assertThat(resultMap).hasSize(4);
+        assertThat(resultMap.values().stream().filter(priceDifference -> priceDifference.isSimilar(bA5)).count())
+                .isEqualTo(1);
     }
 
     @Test
@@ -91,22 +87,100 @@ class PriceDifferenceServiceImplTest {
         ticker2.setPriceAsk(BigDecimal.valueOf(3.5d));
         ticker2.setPriceBid(BigDecimal.valueOf(2.5d));
         Ticker ticker3 = createTicker("B2", "T", ExchangeName.GATE);
-        when(tickerService.getAllTickers()).thenReturn(new HashSet<>(Set.of(ticker1, ticker2, ticker3)));
-        when(tickerService.getTickers(ExchangeName.BINANCE)).thenReturn(new HashSet<>(Set.of(ticker1)));
-        when(tickerService.findValidEquivalentTickerFromSet(eq(ticker2),
-                                                            argThat((Set<Ticker> tSet) -> tSet.contains(ticker1))))
-                .thenReturn(Optional.of(ticker1));
-        Set<PriceDifference> resultSet =
-                (Set<PriceDifference>) ReflectionTestUtils.getField(service, "priceDifferences");
+        List.of(ticker1, ticker2, ticker3).forEach(priceMatrix::update);
+        when(tickerService.getTicker(ExchangeName.BINANCE, "B", "T")).thenReturn(Optional.of(ticker1));
+        when(tickerService.getTicker(ExchangeName.BITMAX, "B", "T")).thenReturn(Optional.of(ticker2));
         BigDecimal binanceAvg = BigDecimal.valueOf(0.8);
         BigDecimal bitmaxAvg = BigDecimal.valueOf(0.1);
-        resultSet.add(new PriceDifference("B", "T", ExchangeName.BINANCE, binanceAvg, ExchangeName.BITMAX, bitmaxAvg));
-        resultSet.add(new PriceDifference("B2", "T2", ExchangeName.BINANCE, BigDecimal.ONE, ExchangeName.EXMO,
-                                          BigDecimal.ZERO));
+        when(barAggregates.getAveragePrice(ExchangeName.BINANCE, "B", "T")).thenReturn(Optional.of(binanceAvg));
+        when(barAggregates.getAveragePrice(ExchangeName.BITMAX, "B", "T")).thenReturn(Optional.of(bitmaxAvg));
+        createPriceDifference("B", "T", ExchangeName.BINANCE, ExchangeName.BITMAX);
+        createPriceDifference("B2", "T2", ExchangeName.BINANCE, ExchangeName.EXMO);
 
         service.handlePriceDifference(ExchangeName.BINANCE, new TestRun());
         verify(tradeService)
                 .checkTradeOpen(eq(ticker1), eq(ticker2), eq(binanceAvg.subtract(bitmaxAvg)), any(TestRun.class));
+        assertThat(activePairs.getActivePairs(ExchangeName.BITMAX, Instant.now().minusSeconds(1)))
+                .containsExactly("B/T");
+    }
+
+    @Test
+    void handlePriceDifference_noAveragePrice() {
+        Ticker ticker1 = createTicker("B", "T", ExchangeName.BINANCE);
+        Ticker ticker2 = createTicker("B", "T", ExchangeName.BITMAX);
+        ticker2.setPriceAsk(BigDecimal.valueOf(3.5d));
+        ticker2.setPriceBid(BigDecimal.valueOf(2.5d));
+        List.of(ticker1, ticker2).forEach(priceMatrix::update);
+        when(tickerService.getTicker(ExchangeName.BINANCE, "B", "T")).thenReturn(Optional.of(ticker1));
+        when(tickerService.getTicker(ExchangeName.BITMAX, "B", "T")).thenReturn(Optional.of(ticker2));
+        when(barAggregates.getAveragePrice(ExchangeName.BINANCE, "B", "T"))
+                .thenReturn(Optional.of(BigDecimal.ONE));
+        when(barAggregates.getAveragePrice(ExchangeName.BITMAX, "B", "T")).thenReturn(Optional.empty());
+        createPriceDifference("B", "T", ExchangeName.BINANCE, ExchangeName.BITMAX);
+
+        service.handlePriceDifference(ExchangeName.BINANCE, new TestRun());
+        verifyNoInteractions(tradeService);
+    }
+
+    @Test
+    void handlePriceDifference_noPositiveDifference() {
+        Ticker ticker1 = createTicker("B", "T", ExchangeName.BINANCE);
+        Ticker ticker2 = createTicker("B", "T", ExchangeName.BITMAX);
+        List.of(ticker1, ticker2).forEach(priceMatrix::update);
+        createPriceDifference("B", "T", ExchangeName.BINANCE, ExchangeName.BITMAX);
+
+        service.handlePriceDifference(ExchangeName.BINANCE, new TestRun());
+        verifyNoInteractions(tickerService, tradeService);
+    }
+
+    @Test
+    void handlePriceDifference_tickerChanged() {
+        Ticker ticker1 = createTicker("B", "T", ExchangeName.BINANCE);
+        Ticker ticker2 = createTicker("B", "T", ExchangeName.BITMAX);
+        ticker2.setPriceAsk(BigDecimal.valueOf(3.5d));
+        ticker2.setPriceBid(BigDecimal.valueOf(2.5d));
+        List.of(ticker1, ticker2).forEach(priceMatrix::update);
+        // the difference is gone by the time the trade is checked
+        Ticker changedTicker2 = createTicker("B", "T", ExchangeName.BITMAX);
+        when(tickerService.getTicker(ExchangeName.BINANCE, "B", "T")).thenReturn(Optional.of(ticker1));
+        when(tickerService.getTicker(ExchangeName.BITMAX, "B", "T")).thenReturn(Optional.of(changedTicker2));
+        when(barAggregates.getAveragePrice(ExchangeName.BINANCE, "B", "T"))
+                .thenReturn(Optional.of(BigDecimal.ONE));
+        when(barAggregates.getAveragePrice(ExchangeName.BITMAX, "B", "T")).thenReturn(Optional.of(BigDecimal.ONE));
+        createPriceDifference("B", "T", ExchangeName.BINANCE, ExchangeName.BITMAX);
+
+        service.handlePriceDifference(ExchangeName.BINANCE, new TestRun());
+        verifyNoInteractions(tradeService);
+    }
+
+    @Test
+    void handlePriceDifference_onlyChangedPairs() {
+        Ticker ticker1 = createTicker("B", "T", ExchangeName.BINANCE);
+        Ticker ticker2 = createTicker("B", "T", ExchangeName.BITMAX);
+        ticker2.setPriceAsk(BigDecimal.valueOf(3.5d));
+        ticker2.setPriceBid(BigDecimal.valueOf(2.5d));
+        List.of(ticker1, ticker2).forEach(priceMatrix::update);
+        when(tickerService.getTicker(ExchangeName.BINANCE, "B", "T")).thenReturn(Optional.of(ticker1));
+        when(tickerService.getTicker(ExchangeName.BITMAX, "B", "T")).thenReturn(Optional.of(ticker2));
+        when(barAggregates.getAveragePrice(ExchangeName.BINANCE, "B", "T"))
+                .thenReturn(Optional.of(BigDecimal.ONE));
+        when(barAggregates.getAveragePrice(ExchangeName.BITMAX, "B", "T")).thenReturn(Optional.of(BigDecimal.ONE));
+        createPriceDifference("B", "T", ExchangeName.BINANCE, ExchangeName.BITMAX);
+
+        // full scan, then no changes since
+        service.handlePriceDifference(ExchangeName.BINANCE, new TestRun());
+        service.handlePriceDifference(ExchangeName.BINANCE, new TestRun());
+        verify(tickerService, times(1)).getTicker(ExchangeName.BINANCE, "B", "T");
+
+        priceMatrix.update(ticker1);
+        service.handlePriceDifference(ExchangeName.BINANCE, new TestRun());
+        verify(tickerService, times(2)).getTicker(ExchangeName.BINANCE, "B", "T");
+    }
+
+    private void createPriceDifference(String base, String target, ExchangeName exchangeName1,
+            ExchangeName exchangeName2) {
+        service.createPriceDifferences(List.of(new BarAverage(exchangeName1, base, target, Instant.now(), 1d),
+                                               new BarAverage(exchangeName2, base, target, Instant.now(), 0d)));
     }
 
     private Ticker createTicker(String base, String target, ExchangeName exchangeName) {
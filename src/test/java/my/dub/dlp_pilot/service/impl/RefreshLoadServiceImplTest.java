@@ -0,0 +1,141 @@
+package my.dub.dlp_pilot.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import my.dub.dlp_pilot.configuration.ParametersHolder;
+import my.dub.dlp_pilot.model.ExchangeName;
+import my.dub.dlp_pilot.model.TestRun;
+import my.dub.dlp_pilot.model.TimeFrame;
+import my.dub.dlp_pilot.model.Trade;
+import my.dub.dlp_pilot.model.dto.LastBar;
+import my.dub.dlp_pilot.model.dto.SymbolPair;
+import my.dub.dlp_pilot.repository.container.ActivePairContainer;
+import my.dub.dlp_pilot.repository.container.SymbolPairContainer;
+import my.dub.dlp_pilot.repository.container.TradeContainer;
+import my.dub.dlp_pilot.service.BarService;
+import my.dub.dlp_pilot.service.client.ApiRateLimiter;
+import my.dub.dlp_pilot.service.client.ClientService;
+import my.dub.dlp_pilot.service.client.RequestPriority;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+class RefreshLoadServiceImplTest {
+    private static final ExchangeName EXCHANGE_NAME = ExchangeName.BINANCE;
+    private static final TimeFrame TIME_FRAME = TimeFrame.M5;
+
+    private final ClientService clientService = mock(ClientService.class);
+    private final BarService barService = mock(BarService.class);
+    private final SymbolPairContainer symbolPairContainer = new SymbolPairContainer();
+    private final TradeContainer tradeContainer = mock(TradeContainer.class);
+    private final ActivePairContainer activePairs = new ActivePairContainer();
+    private final ApiRateLimiter rateLimiter = mock(ApiRateLimiter.class);
+    private final ParametersHolder parameters = mock(ParametersHolder.class);
+
+    private RefreshLoadServiceImpl service;
+    private TestRun testRun;
+
+    @BeforeEach
+    void setUp() {
+        when(parameters.getDataBaseTimeFrame()).thenReturn(TIME_FRAME);
+        when(rateLimiter.tryAcquire(eq(EXCHANGE_NAME), any(RequestPriority.class))).thenReturn(true);
+        symbolPairContainer.addAll(IntStream.range(0, 4).mapToObj(this::createSymbolPair).collect(Collectors.toList()));
+        Instant lastCloseTime = Instant.now().minus(TIME_FRAME.getDuration().multipliedBy(2));
+        when(barService.loadLastBars(EXCHANGE_NAME)).thenReturn(
+                IntStream.range(0, 4).mapToObj(i -> new LastBar(EXCHANGE_NAME, "B" + i, "T", lastCloseTime))
+                        .collect(Collectors.toList()));
+        testRun = new TestRun();
+        service = new RefreshLoadServiceImpl(clientService, barService, symbolPairContainer, tradeContainer,
+                                             activePairs, rateLimiter, parameters);
+    }
+
+    @Test
+    void runRefreshLoad_activePairsFirst() {
+        Trade trade = new Trade();
+        trade.setBase("B3");
+        trade.setTarget("T");
+        when(tradeContainer.getTrades(EXCHANGE_NAME)).thenReturn(Set.of(trade));
+        activePairs.markActive("B1", "T", EXCHANGE_NAME, ExchangeName.GATE);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(service.runRefreshLoad(EXCHANGE_NAME, testRun)).isFalse();
+        }
+        InOrder inOrder = inOrder(clientService, rateLimiter);
+        inOrder.verify(rateLimiter).tryAcquire(EXCHANGE_NAME, RequestPriority.MEDIUM);
+        inOrder.verify(clientService).fetchBars(eq(createSymbolPair(1)), eq(TIME_FRAME), any());
+        inOrder.verify(rateLimiter).tryAcquire(EXCHANGE_NAME, RequestPriority.MEDIUM);
+        inOrder.verify(clientService).fetchBars(eq(createSymbolPair(3)), eq(TIME_FRAME), any());
+        inOrder.verify(rateLimiter).tryAcquire(EXCHANGE_NAME, RequestPriority.LOW);
+        inOrder.verify(clientService).fetchBars(eq(createSymbolPair(0)), eq(TIME_FRAME), any());
+        // the next remaining pair is due only in 2 minutes
+        verify(clientService, never()).fetchBars(eq(createSymbolPair(2)), eq(TIME_FRAME), any());
+    }
+
+    @Test
+    void runRefreshLoad_onlyMissingBars() {
+        Instant oldCloseTime = Instant.now().minus(TIME_FRAME.getDuration().multipliedBy(2));
+        when(barService.loadLastBars(EXCHANGE_NAME)).thenReturn(
+                List.of(new LastBar(EXCHANGE_NAME, "B0", "T", Instant.now()),
+                        new LastBar(EXCHANGE_NAME, "B2", "T", oldCloseTime)));
+
+        assertThat(service.runRefreshLoad(EXCHANGE_NAME, testRun)).isTrue();
+        verify(clientService).fetchBars(eq(createSymbolPair(2)), eq(TIME_FRAME), any());
+        verify(clientService, never()).fetchBars(eq(createSymbolPair(0)), eq(TIME_FRAME), any());
+        verify(clientService, never()).fetchBars(eq(createSymbolPair(1)), eq(TIME_FRAME), any());
+    }
+
+    @Test
+    void runRefreshLoad_noPermit() {
+        when(rateLimiter.tryAcquire(EXCHANGE_NAME, RequestPriority.LOW)).thenReturn(false);
+
+        assertThat(service.runRefreshLoad(EXCHANGE_NAME, testRun)).isFalse();
+        verify(clientService, never()).fetchBars(any(), any(), any());
+    }
+
+    @Test
+    void runRefreshLoad_allPairsActive() {
+        IntStream.range(0, 4).forEach(i -> activePairs.markActive("B" + i, "T", EXCHANGE_NAME, ExchangeName.GATE));
+        when(clientService.fetchBars(any(SymbolPair.class), eq(TIME_FRAME), any())).thenReturn(List.of());
+
+        assertThat(service.runRefreshLoad(EXCHANGE_NAME, testRun)).isFalse();
+        assertThat(service.runRefreshLoad(EXCHANGE_NAME, testRun)).isFalse();
+        assertThat(service.runRefreshLoad(EXCHANGE_NAME, testRun)).isFalse();
+        assertThat(service.runRefreshLoad(EXCHANGE_NAME, testRun)).isTrue();
+        verify(barService, never()).save(any(), any());
+    }
+
+    @Test
+    void runRefreshLoad_removedPair() {
+        IntStream.range(0, 4).forEach(i -> activePairs.markActive("B" + i, "T", EXCHANGE_NAME, ExchangeName.GATE));
+
+        assertThat(service.runRefreshLoad(EXCHANGE_NAME, testRun)).isFalse();
+        // removed after the cycle was planned
+        symbolPairContainer.remove(createSymbolPair(1));
+        assertThat(service.runRefreshLoad(EXCHANGE_NAME, testRun)).isFalse();
+        assertThat(service.runRefreshLoad(EXCHANGE_NAME, testRun)).isFalse();
+        assertThat(service.runRefreshLoad(EXCHANGE_NAME, testRun)).isTrue();
+        verify(clientService).fetchBars(eq(createSymbolPair(0)), eq(TIME_FRAME), any());
+        verify(clientService, never()).fetchBars(eq(createSymbolPair(1)), eq(TIME_FRAME), any());
+        verify(clientService).fetchBars(eq(createSymbolPair(2)), eq(TIME_FRAME), any());
+        verify(clientService).fetchBars(eq(createSymbolPair(3)), eq(TIME_FRAME), any());
+    }
+
+    private SymbolPair createSymbolPair(int index) {
+        SymbolPair symbolPair = new SymbolPair(EXCHANGE_NAME, "B" + index + "T");
+        symbolPair.setBase("B" + index);
+        symbolPair.setTarget("T");
+        return symbolPair;
+    }
+}
@@ -4,31 +4,37 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import my.dub.dlp_pilot.configuration.ParametersHolder;
-import my.dub.dlp_pilot.model.Bar;
 import my.dub.dlp_pilot.model.Exchange;
 import my.dub.dlp_pilot.model.ExchangeName;
 import my.dub.dlp_pilot.model.TestRun;
 import my.dub.dlp_pilot.model.TimeFrame;
-import my.dub.dlp_pilot.model.dto.BarAverage;
-import my.dub.dlp_pilot.model.dto.LastBar;
+import my.dub.dlp_pilot.model.dto.TestRunCheckpoint;
 import my.dub.dlp_pilot.repository.TestRunRepository;
 import my.dub.dlp_pilot.service.BarService;
+import my.dub.dlp_pilot.service.CheckpointService;
 import my.dub.dlp_pilot.service.ExchangeService;
+import my.dub.dlp_pilot.service.PreloadService;
 import my.dub.dlp_pilot.service.PriceDifferenceService;
+import my.dub.dlp_pilot.service.RefreshLoadService;
 import my.dub.dlp_pilot.service.TickerService;
 import my.dub.dlp_pilot.service.TradeService;
 import my.dub.dlp_pilot.service.client.ClientService;
@@ -38,7 +44,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
-import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(SpringExtension.class)
 class TestRunServiceImplTest {
@@ -57,9 +62,15 @@ class TestRunServiceImplTest {
     @Mock
     private BarService barService;
     @Mock
+    private PreloadService preloadService;
+    @Mock
+    private RefreshLoadService refreshLoadService;
+    @Mock
     private PriceDifferenceService priceDifferenceService;
     @Mock
     private TradeService tradeService;
+    @Mock
+    private CheckpointService checkpointService;
 
     @InjectMocks
     private TestRunServiceImpl service;
@@ -82,52 +93,108 @@ class TestRunServiceImplTest {
     }
 
     @Test
-    void runPreload_excludeSymbolPair() {
-        when(clientService.fetchBarsPreload(eq(exchange.getName()), eq(timeFrame), any(Instant.class), eq(0),
-                                            any(Instant.class))).thenReturn(new ArrayList<>());
-        when(clientService.getSymbolPairsCount(eq(EXCHANGE_NAME))).thenReturn(5);
+    void runPreload() {
+        when(preloadService.runPreload(eq(exchange), any(TestRun.class))).thenReturn(false, true);
 
         assertThat(service.runPreload(exchange)).isFalse();
-        verify(clientService).removeSymbolPair(eq(EXCHANGE_NAME), eq(0));
+        assertThat(service.runPreload(exchange)).isTrue();
     }
 
     @Test
-    void runPreload_proceedLoading() {
-        long timeFrameDurationMinutes = timeFrame.getDuration().toMinutes();
-        Bar bar1 = new Bar(EXCHANGE_NAME, "B", "T");
-        bar1.setOpenTime(Instant.now().minus(timeFrameDurationMinutes, ChronoUnit.MINUTES));
-        bar1.setCloseTime(Instant.now());
-        Bar bar2 = new Bar(EXCHANGE_NAME, "B", "T");
-        bar2.setOpenTime(Instant.now().minus(timeFrameDurationMinutes * 2, ChronoUnit.MINUTES));
-        bar2.setCloseTime(Instant.now().minus(timeFrameDurationMinutes, ChronoUnit.MINUTES));
-        when(clientService.fetchBarsPreload(eq(exchange.getName()), eq(timeFrame), any(Instant.class), eq(0),
-                                            any(Instant.class))).thenReturn(new ArrayList<>(List.of(bar1, bar2)));
-        Map<ExchangeName, Instant> preloadPairsDateTimeMap =
-                (Map<ExchangeName, Instant>) ReflectionTestUtils.getField(service, "preloadPairsDateTimeMap");
-        preloadPairsDateTimeMap.put(EXCHANGE_NAME, Instant.now());
-        when(clientService.getSymbolPairsCount(eq(EXCHANGE_NAME))).thenReturn(0);
+    void runRefreshLoad() {
+        when(refreshLoadService.runRefreshLoad(eq(EXCHANGE_NAME), any(TestRun.class))).thenReturn(false, true);
 
-        assertThat(service.runPreload(exchange)).isTrue();
-        assertThat(preloadPairsDateTimeMap).containsEntry(EXCHANGE_NAME, bar2.getOpenTime());
-        verify(barService).save(argThat((Collection<Bar> bars) -> bars.contains(bar1)), any(TestRun.class));
+        assertThat(service.runRefreshLoad(EXCHANGE_NAME)).isFalse();
+        assertThat(service.runRefreshLoad(EXCHANGE_NAME)).isTrue();
+    }
+
+    @Test
+    void runTest() throws InterruptedException {
+        when(parameters.getStaleIntervalDuration()).thenReturn(Duration.ofSeconds(-5));
+        when(parameters.getTestRunDuration()).thenReturn(Duration.ofMinutes(10));
+        when(parameters.getExitDelayDuration()).thenReturn(Duration.ofMinutes(1));
+        service.prepareRunTest();
+        when(tickerService.fetchAndSaveAsync(eq(EXCHANGE_NAME), any(Executor.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        CountDownLatch processingStarted = new CountDownLatch(1);
+        CountDownLatch processingReleased = new CountDownLatch(1);
+        doAnswer(i -> {
+            processingStarted.countDown();
+            processingReleased.await();
+            return null;
+        }).when(barService).saveTickerBars(eq(EXCHANGE_NAME), any(), any(TestRun.class));
+
+        // the fetch is complete while its tickers are still being processed
+        assertThat(service.runTest(EXCHANGE_NAME)).isDone();
+        processingStarted.await();
+        verify(tradeService, never()).handleTrades(EXCHANGE_NAME);
+        // the fetches completed meanwhile are coalesced into a single processing pass
+        assertThat(service.runTest(EXCHANGE_NAME)).isDone();
+        assertThat(service.runTest(EXCHANGE_NAME)).isDone();
+        processingReleased.countDown();
+
+        verify(priceDifferenceService, timeout(1000).times(2)).handlePriceDifference(eq(EXCHANGE_NAME),
+                                                                                     any(TestRun.class));
+        verify(tradeService, timeout(1000).times(2)).handleTrades(EXCHANGE_NAME);
+        verify(barService, times(2)).saveTickerBars(eq(EXCHANGE_NAME), any(), any(TestRun.class));
+        service.destroy();
+    }
+
+    @Test
+    void purgeExpiredBars() {
+        when(parameters.getBarsRetentionDuration()).thenReturn(Duration.ofDays(7));
+        TestRun expiredTestRun = new TestRun();
+        expiredTestRun.setId(1L);
+        when(repository.findAllByEndTimeBeforeAndIdNot(any(LocalDateTime.class), any()))
+                .thenReturn(List.of(expiredTestRun));
+
+        service.purgeExpiredBars();
+        verify(repository).findAllByEndTimeBeforeAndIdNot(
+                argThat((LocalDateTime endTime) -> endTime.isBefore(LocalDateTime.now().minusDays(6))), any());
+        verify(barService).deleteAll(expiredTestRun);
     }
 
     @Test
-    void onRefreshLoadComplete_preloadComplete() {
-        BarAverage bA1 = new BarAverage(EXCHANGE_NAME, "B1", "T1", Instant.now().minusSeconds(20), 10d);
-        BarAverage bA2 = new BarAverage(EXCHANGE_NAME, "B2", "T2", Instant.now().minusSeconds(15), 9d);
-        BarAverage bA3 = new BarAverage(EXCHANGE_NAME, "B3", "T3", Instant.now().minusSeconds(10), 8d);
-        when(barService.loadBarAverages(any(TestRun.class), eq(EXCHANGE_NAME)))
-                .thenReturn(new ArrayList<>(List.of(bA1, bA2, bA3)));
-        Map<ExchangeName, AtomicInteger> loadPairsIndexMap =
-                (Map<ExchangeName, AtomicInteger>) ReflectionTestUtils.getField(service, "loadPairsIndexMap");
-        loadPairsIndexMap.put(EXCHANGE_NAME, new AtomicInteger(1));
-
-        service.onRefreshLoadComplete(EXCHANGE_NAME, true);
-        Map<ExchangeName, List<LastBar>> refreshLoadLastBars =
-                (Map<ExchangeName, List<LastBar>>) ReflectionTestUtils.getField(service, "refreshLoadLastBars");
-        assertThat(refreshLoadLastBars.get(EXCHANGE_NAME)).hasSize(3).matches(lastBars -> lastBars.stream()
-                .allMatch(bar -> EXCHANGE_NAME.equals(bar.getExchangeName()) && bar.getBase().startsWith("B")));
-        assertThat(loadPairsIndexMap.get(EXCHANGE_NAME)).hasValue(0);
+    void resume() {
+        TestRun testRun = createResumedTestRun(LocalDateTime.now().plusMinutes(10));
+        TestRunCheckpoint checkpoint = createCheckpoint(testRun);
+
+        assertThat(service.resume()).isTrue();
+        verify(barService).restoreBars(testRun, EXCHANGE_NAME);
+        verify(checkpointService).restore(checkpoint, testRun);
+    }
+
+    @Test
+    void resume_testRunEnded() {
+        TestRun testRun = createResumedTestRun(LocalDateTime.now().minusMinutes(10));
+        createCheckpoint(testRun);
+
+        assertThat(service.resume()).isFalse();
+        verify(checkpointService, never()).restore(any(), any());
+    }
+
+    @Test
+    void resume_noCheckpoint() {
+        when(checkpointService.load()).thenReturn(Optional.empty());
+
+        assertThat(service.resume()).isFalse();
+        verify(barService, never()).restoreBars(any(), any());
+    }
+
+    private TestRun createResumedTestRun(LocalDateTime endTime) {
+        TestRun testRun = new TestRun();
+        testRun.setId(5L);
+        testRun.setStartTime(LocalDateTime.now().minusMinutes(40));
+        testRun.setTradesStartTime(LocalDateTime.now().minusMinutes(20));
+        testRun.setEndTime(endTime);
+        when(repository.findById(5L)).thenReturn(Optional.of(testRun));
+        return testRun;
+    }
+
+    private TestRunCheckpoint createCheckpoint(TestRun testRun) {
+        TestRunCheckpoint checkpoint =
+                new TestRunCheckpoint(testRun.getId(), Instant.now(), List.of(), Collections.emptySet(), 3L);
+        when(checkpointService.load()).thenReturn(Optional.of(checkpoint));
+        return checkpoint;
     }
-}
\ No newline at end of file
+}
@@ -5,8 +5,6 @@ import static org.assertj.core.api.Assertions.assertThat;
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Optional;
-import java.util.Set;
 import my.dub.dlp_pilot.model.ExchangeName;
 import my.dub.dlp_pilot.model.dto.Ticker;
 import my.dub.dlp_pilot.repository.container.TickerContainer;
@@ -29,17 +27,6 @@ class TickerServiceImplTest {
     @InjectMocks
     private TickerServiceImpl service;
 
-    @Test
-    void findValidEquivalentTickerFromSet() {
-        Ticker originalTicker = createTicker(EXCHANGE_NAME, "B1", "T1");
-        Ticker ticker1 = createTicker(ExchangeName.BITMAX, "B1", "T2");
-        Ticker ticker2 = createTicker(ExchangeName.BITMAX, "B2", "T1");
-        Ticker ticker3 = createTicker(ExchangeName.BITMAX, "B1", "T1");
-
-        assertThat(service.findValidEquivalentTickerFromSet(originalTicker, Set.of(ticker1, ticker2, ticker3)))
-                .isEqualTo(Optional.of(ticker3));
-    }
-
     @Test
     void checkStale() {
         Ticker ticker1 = createTicker(EXCHANGE_NAME, "B1", "T1");
@@ -0,0 +1,104 @@
+package my.dub.dlp_pilot.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import my.dub.dlp_pilot.configuration.ParametersHolder;
+import my.dub.dlp_pilot.model.Trade;
+import my.dub.dlp_pilot.repository.TradeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+class TradePersistenceServiceImplTest {
+
+    private final TradeRepository repository = mock(TradeRepository.class);
+    private final ParametersHolder parameters = mock(ParametersHolder.class);
+
+    private TradePersistenceServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        when(parameters.getTradePersistenceBatchSize()).thenReturn(2);
+        when(parameters.getTradePersistenceIntervalDuration()).thenReturn(Duration.ofMillis(50));
+        service = new TradePersistenceServiceImpl(repository, parameters);
+        service.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.destroy();
+    }
+
+    @Test
+    void enqueue() {
+        Trade trade1 = createTrade(1L);
+        Trade trade2 = createTrade(2L);
+        Trade trade3 = createTrade(3L);
+
+        service.enqueue(trade1);
+        service.enqueue(trade2);
+        service.enqueue(trade3);
+
+        assertThat(service.flush(Duration.ofSeconds(5))).isTrue();
+        assertThat(service.hasPending()).isFalse();
+        verify(repository).saveAll(List.of(trade1, trade2));
+        verify(repository).saveAll(List.of(trade3));
+    }
+
+    @Test
+    void enqueue_batchNotSaved() {
+        when(repository.saveAll(anyList())).thenThrow(new IllegalStateException("DB is unavailable"));
+        Trade trade = createTrade(1L);
+        trade.setId(10L);
+
+        service.enqueue(trade);
+
+        assertThat(service.flush(Duration.ofSeconds(10))).isTrue();
+        verify(repository, times(3)).saveAll(anyList());
+        verify(repository).save(trade);
+        assertThat(trade.getId()).isNull();
+    }
+
+    @Test
+    void enqueue_tradeRetried() {
+        when(repository.saveAll(anyList())).thenThrow(new IllegalStateException("DB is unavailable"));
+        when(repository.save(any(Trade.class))).thenThrow(new IllegalStateException("DB is unavailable"))
+                .thenAnswer(i -> i.getArguments()[0]);
+        Trade trade = createTrade(1L);
+
+        service.enqueue(trade);
+
+        assertThat(service.flush(Duration.ofSeconds(1))).isFalse();
+        assertThat(service.flush(Duration.ofSeconds(10))).isTrue();
+        verify(repository, times(2)).save(trade);
+    }
+
+    @Test
+    void enqueue_tradeRejected() {
+        when(repository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("Duplicate entry"));
+        when(repository.save(any(Trade.class))).thenThrow(new DataIntegrityViolationException("Duplicate entry"));
+        Trade trade = createTrade(1L);
+
+        service.enqueue(trade);
+
+        assertThat(service.flush(Duration.ofSeconds(10))).isTrue();
+        verify(repository).save(trade);
+    }
+
+    private Trade createTrade(Long localId) {
+        Trade trade = new Trade();
+        trade.setLocalId(localId);
+        trade.setBase("B");
+        trade.setTarget("T");
+        return trade;
+    }
+}
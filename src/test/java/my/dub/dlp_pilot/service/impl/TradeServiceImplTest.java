@@ -2,6 +2,7 @@ package my.dub.dlp_pilot.service.impl;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
@@ -25,11 +26,13 @@ import my.dub.dlp_pilot.model.PositionSide;
 import my.dub.dlp_pilot.model.TestRun;
 import my.dub.dlp_pilot.model.Trade;
 import my.dub.dlp_pilot.model.TradeResultType;
+import my.dub.dlp_pilot.model.TradeState;
 import my.dub.dlp_pilot.model.dto.Ticker;
 import my.dub.dlp_pilot.repository.TradeRepository;
 import my.dub.dlp_pilot.repository.container.TradeContainer;
 import my.dub.dlp_pilot.service.ExchangeService;
 import my.dub.dlp_pilot.service.TickerService;
+import my.dub.dlp_pilot.service.TradePersistenceService;
 import org.apache.commons.lang3.RandomUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -48,6 +51,8 @@ class TradeServiceImplTest {
     @Mock
     private TradeContainer tradeContainer;
     @Mock
+    private TradePersistenceService persistenceService;
+    @Mock
     private TickerService tickerService;
     @Mock
     private ExchangeService exchangeService;
@@ -89,7 +94,7 @@ class TradeServiceImplTest {
         when(parameters.getEntryMaxPercentageDiff()).thenReturn(BigDecimal.ONE);
 
         service.checkTradeOpen(tickerShort, tickerLong, BigDecimal.ONE, new TestRun());
-        verify(tradeContainer, never()).addTrade(any(Trade.class));
+        verify(tradeContainer, never()).addTrade(any(Trade.class), anyInt());
     }
 
     @Test
@@ -112,7 +117,7 @@ class TradeServiceImplTest {
         when(parameters.getEntryProfitPercentage()).thenReturn(BigDecimal.valueOf(10));
 
         service.checkTradeOpen(tickerShort, tickerLong, BigDecimal.ONE, new TestRun());
-        verify(tradeContainer, never()).addTrade(any(Trade.class));
+        verify(tradeContainer, never()).addTrade(any(Trade.class), anyInt());
     }
 
     @Test
@@ -133,15 +138,11 @@ class TradeServiceImplTest {
         when(parameters.getProfitPercentageOnExitSum(anyLong())).thenReturn(BigDecimal.valueOf(10));
         when(parameters.getDetrimentAmountPercentage()).thenReturn(BigDecimal.valueOf(10));
         when(parameters.getDetrimentalCloseOnMaxPnlDiffPercentage()).thenReturn(BigDecimal.valueOf(300));
-        when(tradeContainer.isSimilarPresent(any(Trade.class))).thenReturn(true);
-        when(repository.checkSimilarExists(eq(base), eq(target), eq(exchangeShort), eq(exchangeLong),
-                                           any(BigDecimal.class), any(BigDecimal.class), any(TradeResultType.class)))
-                .thenReturn(false);
         when(tradeContainer.remove(anyLong())).thenReturn(true);
 
         service.handleTrades(exchangeShort);
         ArgumentCaptor<Trade> tradeCaptor = ArgumentCaptor.forClass(Trade.class);
-        verify(repository, times(3)).save(tradeCaptor.capture());
+        verify(persistenceService, times(3)).enqueue(tradeCaptor.capture());
         verify(tradeContainer, times(3)).remove(anyLong());
         verify(tradeContainer).addDetrimentalRecord(eq(exchangeShort), eq(exchangeLong), eq(base), eq(target),
                                                     argThat((Instant argument) -> argument.isAfter(Instant.now())));
@@ -153,6 +154,25 @@ class TradeServiceImplTest {
                 .matches(trades -> trades.stream().map(Trade::getResultType).distinct().count() == 3);
     }
 
+    @Test
+    void closeTrades_alreadyClosing() {
+        Trade trade1 = createTrade(BigDecimal.valueOf(3), BigDecimal.valueOf(8));
+        Trade trade2 = createTrade(BigDecimal.valueOf(8), BigDecimal.valueOf(3));
+        trade2.startClosing();
+        when(tradeContainer.getTrades(exchangeShort)).thenReturn(new HashSet<>(Set.of(trade1, trade2)));
+        when(tickerService.getTickerWithRetry(eq(exchangeShort), eq(base), eq(target))).thenReturn(tickerShort);
+        when(tickerService.getTickerWithRetry(eq(exchangeLong), eq(base), eq(target))).thenReturn(tickerLong);
+        BigDecimal entryAmount = BigDecimal.valueOf(100);
+        when(parameters.getEntryAmount()).thenReturn(entryAmount);
+        when(tradeContainer.remove(anyLong())).thenReturn(true);
+
+        service.closeTrades(exchangeShort, TradeResultType.TEST_RUN_END);
+        verify(persistenceService).enqueue(trade1);
+        verify(persistenceService, never()).enqueue(trade2);
+        assertThat(trade1.getState()).isEqualTo(TradeState.CLOSED);
+        assertThat(trade2.getState()).isEqualTo(TradeState.CLOSING);
+    }
+
     private Ticker createTicker(ExchangeName exchangeName, String base, String target, double priceAsk,
             double priceBid) {
         Ticker ticker = new Ticker(exchangeName);
@@ -0,0 +1,90 @@
+package my.dub.dlp_pilot.service.impl.client;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import my.dub.dlp_pilot.model.Exchange;
+import my.dub.dlp_pilot.model.ExchangeName;
+import my.dub.dlp_pilot.model.dto.SymbolPair;
+import my.dub.dlp_pilot.model.dto.Ticker;
+import my.dub.dlp_pilot.service.ExchangeClientService;
+import my.dub.dlp_pilot.service.ExchangeService;
+import my.dub.dlp_pilot.service.client.ApiClient;
+import my.dub.dlp_pilot.service.client.ResponseParser;
+
+/**
+ * Base class of exchange client service tests, feeding response bodies to the streaming parsers of the tested service
+ * through a mocked {@link ApiClient}.
+ */
+abstract class AbstractExchangeClientServiceTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    protected final ExchangeService exchangeService = mock(ExchangeService.class);
+    protected final ApiClient apiClient = mock(ApiClient.class);
+
+    protected void mockExchange(ExchangeName exchangeName) {
+        Exchange exchange = new Exchange();
+        exchange.setName(exchangeName);
+        exchange.setBaseEndpoint("https://" + exchangeName.name().toLowerCase() + "/");
+        exchange.setMaxBarsPerRequest(1000);
+        when(exchangeService.findByName(exchangeName)).thenReturn(exchange);
+    }
+
+    protected SymbolPair createSymbolPair(ExchangeName exchangeName, String name, String base, String target) {
+        SymbolPair symbolPair = new SymbolPair(exchangeName, name);
+        symbolPair.setBase(base);
+        symbolPair.setTarget(target);
+        return symbolPair;
+    }
+
+    protected Set<Ticker> fetchAllTickers(ExchangeClientService service, SymbolPair symbolPair) throws IOException {
+        return ApiClient.await(service.fetchAllTickersAsync(Map.of(symbolPair.getName(), symbolPair)));
+    }
+
+    protected void mockAsyncResponse(String body) {
+        when(apiClient.executeRequestParseResponseAsync(anyString(), anyString(), any(ExchangeName.class),
+                                                        any(ResponseParser.class)))
+                .thenAnswer(i -> parseAsync(i.getArgument(3), body));
+        when(apiClient.executeRequestParseResponseAsync(anyString(), anyString(), anyString(), anyString(),
+                                                        any(ExchangeName.class), any(ResponseParser.class)))
+                .thenAnswer(i -> parseAsync(i.getArgument(5), body));
+    }
+
+    protected void mockResponse(String body) {
+        try {
+            when(apiClient.executeRequestParseResponse(anyString(), anyString(), anyMap(),
+                                                       any(ExchangeName.class), any(ResponseParser.class)))
+                    .thenAnswer(i -> parse(i.getArgument(4), body));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> CompletableFuture<T> parseAsync(ResponseParser<T> responseParser, String body) {
+        // parsing errors complete the future exceptionally, as with the HTTP client
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return parse(responseParser, body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, Runnable::run);
+    }
+
+    private <T> T parse(ResponseParser<T> responseParser, String body) throws IOException {
+        try (JsonParser parser = MAPPER.getFactory().createParser(body)) {
+            return responseParser.parse(parser);
+        }
+    }
+}
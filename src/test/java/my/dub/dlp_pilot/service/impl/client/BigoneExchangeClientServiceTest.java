@@ -0,0 +1,112 @@
+package my.dub.dlp_pilot.service.impl.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import my.dub.dlp_pilot.exception.client.UnexpectedEndpointResponseException;
+import my.dub.dlp_pilot.model.Bar;
+import my.dub.dlp_pilot.model.ExchangeName;
+import my.dub.dlp_pilot.model.TimeFrame;
+import my.dub.dlp_pilot.model.dto.SymbolPair;
+import my.dub.dlp_pilot.model.dto.Ticker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BigoneExchangeClientServiceTest extends AbstractExchangeClientServiceTest {
+
+    private BigoneExchangeClientService service;
+    private SymbolPair symbolPair;
+
+    @BeforeEach
+    void setUp() {
+        mockExchange(ExchangeName.BIGONE);
+        service = new BigoneExchangeClientService(exchangeService, apiClient);
+        service.afterPropertiesSet();
+        symbolPair = createSymbolPair(ExchangeName.BIGONE, "BTC-USDT", "BTC", "USDT");
+    }
+
+    @Test
+    void fetchAllTickers() throws IOException {
+        mockAsyncResponse("{\"code\":0,\"data\":["
+                                  + "{\"asset_pair_name\":\"BTC-USDT\",\"bid\":{\"price\":\"19100.1\","
+                                  + "\"order_count\":3,\"quantity\":\"0.5\"},\"ask\":{\"price\":\"19101.2\","
+                                  + "\"order_count\":1,\"quantity\":\"0.25\"},\"open\":\"18900\",\"high\":\"19400\","
+                                  + "\"low\":\"18800\",\"close\":\"19100.5\",\"volume\":\"123.45\","
+                                  + "\"daily_change\":\"200.5\"},"
+                                  + "{\"asset_pair_name\":\"ETH-USDT\",\"bid\":{\"price\":\"590.1\","
+                                  + "\"quantity\":\"1\"},\"ask\":{\"price\":\"590.2\",\"quantity\":\"1\"},"
+                                  + "\"close\":\"590.1\"},"
+                                  + "{\"asset_pair_name\":\"BTC-USDT\",\"bid\":null,\"ask\":{\"price\":\"1\","
+                                  + "\"quantity\":\"1\"},\"close\":\"1\"}]}");
+
+        Set<Ticker> tickers = fetchAllTickers(service, symbolPair);
+        assertThat(tickers).hasSize(1);
+        Ticker ticker = tickers.iterator().next();
+        assertThat(ticker.getExchangeName()).isEqualTo(ExchangeName.BIGONE);
+        assertThat(ticker.getBase()).isEqualTo("BTC");
+        assertThat(ticker.getTarget()).isEqualTo("USDT");
+        assertThat(ticker.getClosePrice()).isEqualByComparingTo(new BigDecimal("19100.5"));
+        assertThat(ticker.getPriceBid()).isEqualByComparingTo(new BigDecimal("19100.1"));
+        assertThat(ticker.getBidQuantity()).isEqualByComparingTo(new BigDecimal("0.5"));
+        assertThat(ticker.getPriceAsk()).isEqualByComparingTo(new BigDecimal("19101.2"));
+        assertThat(ticker.getAskQuantity()).isEqualByComparingTo(new BigDecimal("0.25"));
+    }
+
+    @Test
+    void fetchAllTickers_errorResponse() {
+        mockAsyncResponse("{\"code\":10014,\"message\":\"Too many requests\"}");
+
+        thenThrownBy(() -> fetchAllTickers(service, symbolPair))
+                .isInstanceOf(UnexpectedEndpointResponseException.class)
+                .hasMessageContaining("10014")
+                .hasMessageContaining("Too many requests");
+    }
+
+    @Test
+    void fetchAllTickers_unexpectedResponse() {
+        mockAsyncResponse("[]");
+
+        thenThrownBy(() -> fetchAllTickers(service, symbolPair))
+                .isInstanceOf(UnexpectedEndpointResponseException.class);
+    }
+
+    @Test
+    void fetchBars() throws IOException {
+        Instant closedOpenTime = Instant.now().truncatedTo(ChronoUnit.MINUTES).minus(10, ChronoUnit.MINUTES);
+        Instant openOpenTime = Instant.now().truncatedTo(ChronoUnit.MINUTES);
+        mockResponse("{\"code\":0,\"data\":["
+                             + "{\"close\":\"1\",\"high\":\"1\",\"low\":\"1\",\"open\":\"1\",\"time\":\""
+                             + openOpenTime + "\",\"volume\":\"1\"},"
+                             + "{\"close\":\"19100.5\",\"high\":\"19150\",\"low\":\"19080\",\"open\":\"19090\","
+                             + "\"time\":\"" + closedOpenTime + "\",\"volume\":\"12.5\"},"
+                             + "{\"close\":\"1\",\"high\":[\"1\"],\"low\":\"1\",\"open\":\"1\",\"time\":\""
+                             + closedOpenTime.minusSeconds(300) + "\",\"volume\":\"1\"}]}");
+
+        List<Bar> bars = service.fetchBars(symbolPair, TimeFrame.M5, 3);
+        assertThat(bars).hasSize(1);
+        Bar bar = bars.get(0);
+        assertThat(bar.getOpenTime()).isEqualTo(closedOpenTime);
+        assertThat(bar.getCloseTime()).isEqualTo(closedOpenTime.plus(TimeFrame.M5.getDuration()));
+        assertThat(bar.getOpen()).isEqualByComparingTo(new BigDecimal("19090"));
+        assertThat(bar.getHigh()).isEqualByComparingTo(new BigDecimal("19150"));
+        assertThat(bar.getLow()).isEqualByComparingTo(new BigDecimal("19080"));
+        assertThat(bar.getClose()).isEqualByComparingTo(new BigDecimal("19100.5"));
+        assertThat(bar.getVolume()).isEqualByComparingTo(new BigDecimal("12.5"));
+    }
+
+    @Test
+    void fetchBars_errorResponse() {
+        mockResponse("{\"code\":10013,\"message\":\"Asset pair not found\"}");
+
+        thenThrownBy(() -> service.fetchBars(symbolPair, TimeFrame.M5, 3))
+                .isInstanceOf(UnexpectedEndpointResponseException.class)
+                .hasMessageContaining("10013")
+                .hasMessageContaining("Asset pair not found");
+    }
+}
@@ -0,0 +1,114 @@
+package my.dub.dlp_pilot.service.impl.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import my.dub.dlp_pilot.exception.client.UnexpectedEndpointResponseException;
+import my.dub.dlp_pilot.model.Bar;
+import my.dub.dlp_pilot.model.ExchangeName;
+import my.dub.dlp_pilot.model.TimeFrame;
+import my.dub.dlp_pilot.model.dto.SymbolPair;
+import my.dub.dlp_pilot.model.dto.Ticker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BinanceExchangeClientServiceTest extends AbstractExchangeClientServiceTest {
+
+    private BinanceExchangeClientService service;
+    private SymbolPair symbolPair;
+
+    @BeforeEach
+    void setUp() {
+        mockExchange(ExchangeName.BINANCE);
+        service = new BinanceExchangeClientService(exchangeService, apiClient);
+        service.afterPropertiesSet();
+        symbolPair = createSymbolPair(ExchangeName.BINANCE, "BTCUSDT", "BTC", "USDT");
+    }
+
+    @Test
+    void fetchAllTickers() throws IOException {
+        mockAsyncResponse("[{\"symbol\":\"BTCUSDT\",\"bidPrice\":\"4.5\",\"bidQty\":\"1.5\",\"askPrice\":\"5.5\","
+                                    + "\"askQty\":\"2\",\"extra\":{\"nested\":[1,2]}},"
+                                    + "{\"symbol\":\"XRPUSDT\",\"bidPrice\":\"1\",\"bidQty\":\"1\",\"askPrice\":\"1\","
+                                    + "\"askQty\":\"1\"},"
+                                    + "{\"bidPrice\":\"1\",\"symbol\":\"BTCUSDT\",\"bidQty\":\"1\",\"askPrice\":\"x\","
+                                    + "\"askQty\":\"1\"}]");
+
+        Set<Ticker> tickers = fetchAllTickers(service, symbolPair);
+        assertThat(tickers).hasSize(1);
+        Ticker ticker = tickers.iterator().next();
+        assertThat(ticker.getExchangeName()).isEqualTo(ExchangeName.BINANCE);
+        assertThat(ticker.getBase()).isEqualTo("BTC");
+        assertThat(ticker.getTarget()).isEqualTo("USDT");
+        assertThat(ticker.getPriceBid()).isEqualByComparingTo(new BigDecimal("4.5"));
+        assertThat(ticker.getPriceAsk()).isEqualByComparingTo(new BigDecimal("5.5"));
+        assertThat(ticker.getBidQuantity()).isEqualByComparingTo(new BigDecimal("1.5"));
+        assertThat(ticker.getAskQuantity()).isEqualByComparingTo(new BigDecimal("2"));
+    }
+
+    @Test
+    void fetchAllTickers_noTickers() {
+        mockAsyncResponse("[]");
+
+        thenThrownBy(() -> fetchAllTickers(service, symbolPair))
+                .isInstanceOf(UnexpectedEndpointResponseException.class);
+    }
+
+    @Test
+    void fetchAllTickers_errorResponse() {
+        mockAsyncResponse("{\"code\":-1121,\"msg\":\"Invalid symbol.\"}");
+
+        thenThrownBy(() -> fetchAllTickers(service, symbolPair))
+                .isInstanceOf(UnexpectedEndpointResponseException.class)
+                .hasMessageContaining("Invalid symbol.");
+    }
+
+    @Test
+    void fetchBars() throws IOException {
+        Instant closedOpenTime = Instant.now().truncatedTo(ChronoUnit.MINUTES).minus(10, ChronoUnit.MINUTES);
+        Instant openOpenTime = Instant.now().truncatedTo(ChronoUnit.MINUTES);
+        mockResponse("[[" + closedOpenTime.toEpochMilli() + ",\"1\",\"2\",\"0.5\",\"1.5\",\"100\",0,\"0\",5],"
+                                 + "[" + closedOpenTime.plusSeconds(300).toEpochMilli() + ",\"1\",\"x\",\"1\",\"1\","
+                                 + "\"1\"],"
+                                 + "[" + openOpenTime.toEpochMilli() + ",\"1\",\"1\",\"1\",\"1\",\"1\"]]");
+
+        List<Bar> bars = service.fetchBars(symbolPair, TimeFrame.M5, 3);
+        assertThat(bars).hasSize(1);
+        Bar bar = bars.get(0);
+        assertThat(bar.getBase()).isEqualTo("BTC");
+        assertThat(bar.getTarget()).isEqualTo("USDT");
+        assertThat(bar.getOpenTime()).isEqualTo(closedOpenTime);
+        assertThat(bar.getCloseTime()).isEqualTo(closedOpenTime.plus(TimeFrame.M5.getDuration()));
+        assertThat(bar.getOpen()).isEqualByComparingTo(BigDecimal.ONE);
+        assertThat(bar.getHigh()).isEqualByComparingTo(new BigDecimal("2"));
+        assertThat(bar.getLow()).isEqualByComparingTo(new BigDecimal("0.5"));
+        assertThat(bar.getClose()).isEqualByComparingTo(new BigDecimal("1.5"));
+        assertThat(bar.getVolume()).isEqualByComparingTo(new BigDecimal("100"));
+    }
+
+    @Test
+    void fetchBars_nestedValues() throws IOException {
+        Instant openTime = Instant.now().truncatedTo(ChronoUnit.MINUTES).minus(20, ChronoUnit.MINUTES);
+        mockResponse("[[" + openTime.toEpochMilli() + ",\"1\",{\"high\":[\"2\"]},\"0.5\",\"1.5\",\"100\"],"
+                             + "{\"unexpected\":[1,2]},"
+                             + "[" + openTime.plusSeconds(300).toEpochMilli() + ",\"1\",\"2\",\"0.5\",\"1.5\","
+                             + "\"100\",[0,{\"a\":1}]]]");
+
+        List<Bar> bars = service.fetchBars(symbolPair, TimeFrame.M5, 3);
+        assertThat(bars).extracting(Bar::getOpenTime).containsExactly(openTime.plusSeconds(300));
+    }
+
+    @Test
+    void fetchBars_noBars() {
+        mockResponse("[]");
+
+        thenThrownBy(() -> service.fetchBars(symbolPair, TimeFrame.M5, 3))
+                .isInstanceOf(UnexpectedEndpointResponseException.class);
+    }
+}
@@ -0,0 +1,101 @@
+package my.dub.dlp_pilot.service.impl.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import my.dub.dlp_pilot.exception.client.UnexpectedEndpointResponseException;
+import my.dub.dlp_pilot.model.Bar;
+import my.dub.dlp_pilot.model.ExchangeName;
+import my.dub.dlp_pilot.model.TimeFrame;
+import my.dub.dlp_pilot.model.dto.SymbolPair;
+import my.dub.dlp_pilot.model.dto.Ticker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BitfinexExchangeClientServiceTest extends AbstractExchangeClientServiceTest {
+
+    private BitfinexExchangeClientService service;
+    private SymbolPair symbolPair;
+
+    @BeforeEach
+    void setUp() {
+        mockExchange(ExchangeName.BITFINEX);
+        service = new BitfinexExchangeClientService(exchangeService, apiClient);
+        service.afterPropertiesSet();
+        symbolPair = createSymbolPair(ExchangeName.BITFINEX, "tBTCUSD", "BTC", "USD");
+    }
+
+    @Test
+    void fetchAllTickers() throws IOException {
+        mockAsyncResponse("[[\"tBTCUSD\",18996,35.17,18997,28.87,-145,-0.0076,18999,4562.3,19334,18644],"
+                                  + "[\"tETHUSD\",590.1,100.5,590.2,80.1,-5,-0.0084,590.15,45602.3,600,580],"
+                                  + "[\"fUSD\",0.0003,0.00025,30,1500.5,0.00031,2,2000.5,0.00001,0.05,0.0003,"
+                                  + "150000000.5,0.0004,0.0002,null,null,0],"
+                                  + "[\"tBTCUSD\",[1],35.17,18997,28.87,-145,-0.0076,18999,4562.3,19334,18644],"
+                                  + "[\"tBTCUSD\",1,2]]");
+
+        Set<Ticker> tickers = fetchAllTickers(service, symbolPair);
+        assertThat(tickers).hasSize(1);
+        Ticker ticker = tickers.iterator().next();
+        assertThat(ticker.getExchangeName()).isEqualTo(ExchangeName.BITFINEX);
+        assertThat(ticker.getBase()).isEqualTo("BTC");
+        assertThat(ticker.getTarget()).isEqualTo("USD");
+        assertThat(ticker.getPriceBid()).isEqualByComparingTo(new BigDecimal("18996"));
+        assertThat(ticker.getPriceAsk()).isEqualByComparingTo(new BigDecimal("18997"));
+        assertThat(ticker.getClosePrice()).isEqualByComparingTo(new BigDecimal("18999"));
+    }
+
+    @Test
+    void fetchAllTickers_noTickers() {
+        mockAsyncResponse("[]");
+
+        thenThrownBy(() -> fetchAllTickers(service, symbolPair))
+                .isInstanceOf(UnexpectedEndpointResponseException.class);
+    }
+
+    @Test
+    void fetchAllTickers_errorResponse() {
+        mockAsyncResponse("[\"error\",11010,\"ratelimit: error\"]");
+
+        thenThrownBy(() -> fetchAllTickers(service, symbolPair))
+                .isInstanceOf(UnexpectedEndpointResponseException.class)
+                .hasMessageContaining("11010")
+                .hasMessageContaining("ratelimit: error");
+    }
+
+    @Test
+    void fetchBars() throws IOException {
+        Instant closedOpenTime = Instant.now().truncatedTo(ChronoUnit.MINUTES).minus(10, ChronoUnit.MINUTES);
+        Instant openOpenTime = Instant.now().truncatedTo(ChronoUnit.MINUTES);
+        mockResponse("[[" + closedOpenTime.toEpochMilli() + ",18950,18960,18970,18940,12.5],"
+                             + "[" + closedOpenTime.plusSeconds(300).toEpochMilli() + ",18950,null,18970,18940,1],"
+                             + "[" + openOpenTime.toEpochMilli() + ",1,1,1,1,1]]");
+
+        List<Bar> bars = service.fetchBars(symbolPair, TimeFrame.M5, 3);
+        assertThat(bars).hasSize(1);
+        Bar bar = bars.get(0);
+        assertThat(bar.getOpenTime()).isEqualTo(closedOpenTime);
+        assertThat(bar.getCloseTime()).isEqualTo(closedOpenTime.plus(TimeFrame.M5.getDuration()));
+        assertThat(bar.getOpen()).isEqualByComparingTo(new BigDecimal("18950"));
+        assertThat(bar.getClose()).isEqualByComparingTo(new BigDecimal("18960"));
+        assertThat(bar.getHigh()).isEqualByComparingTo(new BigDecimal("18970"));
+        assertThat(bar.getLow()).isEqualByComparingTo(new BigDecimal("18940"));
+        assertThat(bar.getVolume()).isEqualByComparingTo(new BigDecimal("12.5"));
+    }
+
+    @Test
+    void fetchBars_errorResponse() {
+        mockResponse("[\"error\",10020,\"time_interval: invalid\"]");
+
+        thenThrownBy(() -> service.fetchBars(symbolPair, TimeFrame.M5, 3))
+                .isInstanceOf(UnexpectedEndpointResponseException.class)
+                .hasMessageContaining("10020")
+                .hasMessageContaining("time_interval: invalid");
+    }
+}
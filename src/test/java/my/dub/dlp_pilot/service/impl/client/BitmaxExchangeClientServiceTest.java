@@ -0,0 +1,104 @@
+package my.dub.dlp_pilot.service.impl.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import my.dub.dlp_pilot.exception.client.UnexpectedEndpointResponseException;
+import my.dub.dlp_pilot.model.Bar;
+import my.dub.dlp_pilot.model.ExchangeName;
+import my.dub.dlp_pilot.model.TimeFrame;
+import my.dub.dlp_pilot.model.dto.SymbolPair;
+import my.dub.dlp_pilot.model.dto.Ticker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BitmaxExchangeClientServiceTest extends AbstractExchangeClientServiceTest {
+
+    private BitmaxExchangeClientService service;
+    private SymbolPair symbolPair;
+
+    @BeforeEach
+    void setUp() {
+        mockExchange(ExchangeName.BITMAX);
+        service = new BitmaxExchangeClientService(exchangeService, apiClient);
+        service.afterPropertiesSet();
+        symbolPair = createSymbolPair(ExchangeName.BITMAX, "BTC/USDT", "BTC", "USDT");
+    }
+
+    @Test
+    void fetchAllTickers() throws IOException {
+        mockAsyncResponse("{\"code\":0,\"data\":["
+                                  + "{\"symbol\":\"BTC/USDT\",\"open\":\"18900\",\"close\":\"19100.5\","
+                                  + "\"high\":\"19400\",\"low\":\"18800\",\"volume\":\"100.5\","
+                                  + "\"ask\":[\"19101.2\",\"0.25\"],\"bid\":[\"19100.1\",\"0.5\"],\"type\":\"spot\"},"
+                                  + "{\"symbol\":\"ETH/USDT\",\"close\":\"590.1\",\"ask\":[\"590.2\",\"1\"],"
+                                  + "\"bid\":[\"590.1\",\"1\"]},"
+                                  + "{\"symbol\":\"BTC/USDT\",\"close\":\"1\",\"ask\":[\"1\"],\"bid\":[\"1\",\"1\"]}"
+                                  + "]}");
+
+        Set<Ticker> tickers = fetchAllTickers(service, symbolPair);
+        assertThat(tickers).hasSize(1);
+        Ticker ticker = tickers.iterator().next();
+        assertThat(ticker.getExchangeName()).isEqualTo(ExchangeName.BITMAX);
+        assertThat(ticker.getBase()).isEqualTo("BTC");
+        assertThat(ticker.getTarget()).isEqualTo("USDT");
+        assertThat(ticker.getClosePrice()).isEqualByComparingTo(new BigDecimal("19100.5"));
+        assertThat(ticker.getPriceAsk()).isEqualByComparingTo(new BigDecimal("19101.2"));
+        assertThat(ticker.getAskQuantity()).isEqualByComparingTo(new BigDecimal("0.25"));
+        assertThat(ticker.getPriceBid()).isEqualByComparingTo(new BigDecimal("19100.1"));
+        assertThat(ticker.getBidQuantity()).isEqualByComparingTo(new BigDecimal("0.5"));
+    }
+
+    @Test
+    void fetchAllTickers_errorResponse() {
+        mockAsyncResponse("{\"code\":100013,\"reason\":\"RATE_LIMIT_EXCEEDED\",\"message\":\"Too many requests\"}");
+
+        thenThrownBy(() -> fetchAllTickers(service, symbolPair))
+                .isInstanceOf(UnexpectedEndpointResponseException.class)
+                .hasMessageContaining("100013")
+                .hasMessageContaining("Too many requests");
+    }
+
+    @Test
+    void fetchBars() throws IOException {
+        Instant closedOpenTime = Instant.now().truncatedTo(ChronoUnit.MINUTES).minus(10, ChronoUnit.MINUTES);
+        Instant openOpenTime = Instant.now().truncatedTo(ChronoUnit.MINUTES);
+        mockResponse("{\"code\":0,\"data\":["
+                             + "{\"m\":\"bar\",\"s\":\"BTC/USDT\",\"data\":{\"i\":\"5\",\"ts\":"
+                             + closedOpenTime.toEpochMilli() + ",\"o\":\"19090\",\"c\":\"19100.5\",\"h\":\"19150\","
+                             + "\"l\":\"19080\",\"v\":\"12.5\"}},"
+                             + "{\"m\":\"bar\",\"s\":\"BTC/USDT\",\"data\":{\"i\":\"5\",\"ts\":"
+                             + closedOpenTime.plusSeconds(300).toEpochMilli() + ",\"o\":{\"v\":\"1\"},\"c\":\"1\","
+                             + "\"h\":\"1\",\"l\":\"1\",\"v\":\"1\"}},"
+                             + "{\"m\":\"bar\",\"s\":\"BTC/USDT\",\"data\":{\"i\":\"5\",\"ts\":"
+                             + openOpenTime.toEpochMilli() + ",\"o\":\"1\",\"c\":\"1\",\"h\":\"1\",\"l\":\"1\","
+                             + "\"v\":\"1\"}}]}");
+
+        List<Bar> bars = service.fetchBars(symbolPair, TimeFrame.M5, 3);
+        assertThat(bars).hasSize(1);
+        Bar bar = bars.get(0);
+        assertThat(bar.getOpenTime()).isEqualTo(closedOpenTime);
+        assertThat(bar.getCloseTime()).isEqualTo(closedOpenTime.plus(TimeFrame.M5.getDuration()));
+        assertThat(bar.getOpen()).isEqualByComparingTo(new BigDecimal("19090"));
+        assertThat(bar.getHigh()).isEqualByComparingTo(new BigDecimal("19150"));
+        assertThat(bar.getLow()).isEqualByComparingTo(new BigDecimal("19080"));
+        assertThat(bar.getClose()).isEqualByComparingTo(new BigDecimal("19100.5"));
+        assertThat(bar.getVolume()).isEqualByComparingTo(new BigDecimal("12.5"));
+    }
+
+    @Test
+    void fetchBars_errorResponse() {
+        mockResponse("{\"code\":100002,\"reason\":\"DATA_NOT_AVAILABLE\",\"message\":\"Data not available\"}");
+
+        thenThrownBy(() -> service.fetchBars(symbolPair, TimeFrame.M5, 3))
+                .isInstanceOf(UnexpectedEndpointResponseException.class)
+                .hasMessageContaining("100002")
+                .hasMessageContaining("Data not available");
+    }
+}
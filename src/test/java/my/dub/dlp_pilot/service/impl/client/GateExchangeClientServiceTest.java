@@ -0,0 +1,97 @@
+package my.dub.dlp_pilot.service.impl.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import my.dub.dlp_pilot.exception.client.UnexpectedEndpointResponseException;
+import my.dub.dlp_pilot.model.Bar;
+import my.dub.dlp_pilot.model.ExchangeName;
+import my.dub.dlp_pilot.model.TimeFrame;
+import my.dub.dlp_pilot.model.dto.SymbolPair;
+import my.dub.dlp_pilot.model.dto.Ticker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class GateExchangeClientServiceTest extends AbstractExchangeClientServiceTest {
+
+    private GateExchangeClientService service;
+    private SymbolPair symbolPair;
+
+    @BeforeEach
+    void setUp() {
+        mockExchange(ExchangeName.GATE);
+        service = new GateExchangeClientService(exchangeService, apiClient);
+        service.afterPropertiesSet();
+        symbolPair = createSymbolPair(ExchangeName.GATE, "BTC_USDT", "BTC", "USDT");
+    }
+
+    @Test
+    void fetchAllTickers() throws IOException {
+        mockAsyncResponse("[{\"currency_pair\":\"BTC_USDT\",\"last\":\"19106.7\",\"lowest_ask\":\"19108.12\","
+                                  + "\"highest_bid\":\"19106.7\",\"change_percentage\":\"-0.43\","
+                                  + "\"base_volume\":\"4123.34\",\"quote_volume\":\"78756321.37\","
+                                  + "\"high_24h\":\"19400\",\"low_24h\":\"18900\"},"
+                                  + "{\"currency_pair\":\"ETH_USDT\",\"last\":\"590.1\",\"lowest_ask\":\"590.2\","
+                                  + "\"highest_bid\":\"590.1\"},"
+                                  + "{\"currency_pair\":\"BTC_USDT\",\"last\":{\"price\":\"1\"},"
+                                  + "\"lowest_ask\":\"1\",\"highest_bid\":\"1\"}]");
+
+        Set<Ticker> tickers = fetchAllTickers(service, symbolPair);
+        assertThat(tickers).hasSize(1);
+        Ticker ticker = tickers.iterator().next();
+        assertThat(ticker.getExchangeName()).isEqualTo(ExchangeName.GATE);
+        assertThat(ticker.getBase()).isEqualTo("BTC");
+        assertThat(ticker.getTarget()).isEqualTo("USDT");
+        assertThat(ticker.getClosePrice()).isEqualByComparingTo(new BigDecimal("19106.7"));
+        assertThat(ticker.getPriceAsk()).isEqualByComparingTo(new BigDecimal("19108.12"));
+        assertThat(ticker.getPriceBid()).isEqualByComparingTo(new BigDecimal("19106.7"));
+    }
+
+    @Test
+    void fetchAllTickers_errorResponse() {
+        mockAsyncResponse("{\"label\":\"SERVER_ERROR\",\"message\":\"Internal server error\"}");
+
+        thenThrownBy(() -> fetchAllTickers(service, symbolPair))
+                .isInstanceOf(UnexpectedEndpointResponseException.class)
+                .hasMessageContaining("SERVER_ERROR")
+                .hasMessageContaining("Internal server error");
+    }
+
+    @Test
+    void fetchBars() throws IOException {
+        Instant closedOpenTime = Instant.now().truncatedTo(ChronoUnit.MINUTES).minus(10, ChronoUnit.MINUTES);
+        Instant openOpenTime = Instant.now().truncatedTo(ChronoUnit.MINUTES);
+        mockResponse("[[\"" + closedOpenTime.getEpochSecond() + "\",\"1500.25\",\"19100.5\",\"19150\",\"19080\","
+                             + "\"19090\"],"
+                             + "[\"" + closedOpenTime.plusSeconds(300).getEpochSecond() + "\",\"1\",\"\",\"1\",\"1\","
+                             + "\"1\"],"
+                             + "[\"" + openOpenTime.getEpochSecond() + "\",\"1\",\"1\",\"1\",\"1\",\"1\"]]");
+
+        List<Bar> bars = service.fetchBars(symbolPair, TimeFrame.M5, 3);
+        assertThat(bars).hasSize(1);
+        Bar bar = bars.get(0);
+        assertThat(bar.getOpenTime()).isEqualTo(closedOpenTime);
+        assertThat(bar.getCloseTime()).isEqualTo(closedOpenTime.plus(TimeFrame.M5.getDuration()));
+        assertThat(bar.getOpen()).isEqualByComparingTo(new BigDecimal("19090"));
+        assertThat(bar.getHigh()).isEqualByComparingTo(new BigDecimal("19150"));
+        assertThat(bar.getLow()).isEqualByComparingTo(new BigDecimal("19080"));
+        assertThat(bar.getClose()).isEqualByComparingTo(new BigDecimal("19100.5"));
+        assertThat(bar.getVolume()).isEqualByComparingTo(new BigDecimal("1500.25"));
+    }
+
+    @Test
+    void fetchBars_errorResponse() {
+        mockResponse("{\"label\":\"INVALID_CURRENCY_PAIR\",\"message\":\"Invalid currency pair BTC_XXX\"}");
+
+        thenThrownBy(() -> service.fetchBars(symbolPair, TimeFrame.M5, 3))
+                .isInstanceOf(UnexpectedEndpointResponseException.class)
+                .hasMessageContaining("INVALID_CURRENCY_PAIR")
+                .hasMessageContaining("Invalid currency pair BTC_XXX");
+    }
+}
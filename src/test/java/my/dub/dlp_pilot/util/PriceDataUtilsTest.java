@@ -0,0 +1,46 @@
+package my.dub.dlp_pilot.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import my.dub.dlp_pilot.model.ExchangeName;
+import my.dub.dlp_pilot.model.dto.SymbolPair;
+import org.junit.jupiter.api.Test;
+
+class PriceDataUtilsTest {
+
+    private final SymbolPair sP1 = createSymbolPair(ExchangeName.BINANCE, "B1", "T1");
+    private final SymbolPair sP2 = createSymbolPair(ExchangeName.GATE, "B1", "T1");
+    private final SymbolPair sP3 = createSymbolPair(ExchangeName.GATE, "B2", "T1");
+    private final SymbolPair sP4 = createSymbolPair(ExchangeName.BINANCE, "B2", "T2");
+    private final SymbolPair sP5 = createSymbolPair(ExchangeName.BITMAX, "B1", "T1");
+    private final SymbolPair sP6 = createSymbolPair(ExchangeName.BINANCE, "B3", "T1");
+    private final SymbolPair sP7 = createSymbolPair(ExchangeName.BINANCE, "B3", "T1");
+
+    @Test
+    void groupCrossExchange() {
+        List<List<SymbolPair>> groups = PriceDataUtils.groupCrossExchange(List.of(sP1, sP2, sP3, sP4, sP5, sP6, sP7));
+
+        assertThat(groups).containsExactly(List.of(sP1, sP2, sP5));
+    }
+
+    @Test
+    void forEachCrossExchangeCombination() {
+        SymbolPair sP8 = createSymbolPair(ExchangeName.BINANCE, "B1", "T1");
+        List<String> combinations = new ArrayList<>();
+
+        PriceDataUtils.forEachCrossExchangeCombination(List.of(sP1, sP2, sP3, sP8, sP6, sP7),
+                                                       (first, second) -> combinations
+                                                               .add(first.getName() + "-" + second.getName()));
+
+        assertThat(combinations).containsExactly("BINANCE:B1-GATE:B1", "GATE:B1-BINANCE:B1");
+    }
+
+    private SymbolPair createSymbolPair(ExchangeName exchangeName, String base, String target) {
+        SymbolPair symbolPair = new SymbolPair(exchangeName, exchangeName.name() + ":" + base);
+        symbolPair.setBase(base);
+        symbolPair.setTarget(target);
+        return symbolPair;
+    }
+}